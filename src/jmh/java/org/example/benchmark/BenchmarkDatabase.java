@@ -0,0 +1,266 @@
+/*
+ * Classname: BenchmarkDatabase
+ * Version information: 1.4
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.benchmark;
+
+import org.example.database.ConnectionPool;
+import org.example.database.EMFProvider;
+import org.example.database.ProductCatalogCache;
+import org.example.database.SalesRollupRepository;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.SplittableRandom;
+
+/**
+ * Przygotowanie wbudowanej bazy H2 (tryb MySQL) dla benchmarków.
+ * <p>
+ * Schemat tworzy Hibernate ({@code hbm2ddl.auto=update}) przy pierwszym
+ * użyciu {@link EMFProvider}; adres bazy i dialekt ustawiają argumenty
+ * JVM {@code ARG_*} podawane w {@code @Fork}. Dane są generowane
+ * deterministycznie (stałe ziarno), więc kolejne przebiegi mierzą
+ * ten sam zbiór.
+ * </p>
+ */
+public final class BenchmarkDatabase {
+
+    /**
+     * Argumenty JVM forków JMH ({@code @Fork(jvmArgsAppend = ...)}):
+     * baza H2 w trybie MySQL zamiast serwera MySQL, dialekt H2
+     * i ciche logowanie.
+     */
+    public static final String ARG_PREVIEW = "--enable-preview";
+    public static final String ARG_DB_URL =
+            "-Ddb.url=jdbc:h2:mem:stonka_bench;MODE=MySQL;"
+                    + "DB_CLOSE_DELAY=-1;CASE_INSENSITIVE_IDENTIFIERS=TRUE";
+    public static final String ARG_DB_USER = "-Ddb.user=sa";
+    public static final String ARG_DB_PASSWORD = "-Ddb.password=";
+    public static final String ARG_DB_DIALECT =
+            "-Ddb.dialect=org.hibernate.dialect.H2Dialect";
+    public static final String ARG_LOGGING =
+            "-Dlog4j2.configurationFile=log4j2-bench.xml";
+
+    /** Login pracownika tworzonego w danych testowych. */
+    public static final String LOGIN = "bench.kasjer";
+
+    /** Hasło pracownika tworzonego w danych testowych. */
+    public static final String PASSWORD = "bench-haslo";
+
+    /** Kategorie produktów (rozkład równomierny). */
+    static final String[] CATEGORIES = {
+            "Nabiał", "Pieczywo", "Napoje", "Warzywa", "Owoce",
+            "Mięso", "Słodycze", "Chemia", "Mrożonki", "Przyprawy"
+    };
+
+    /** Słowa, z których składane są nazwy produktów. */
+    static final String[] WORDS = {
+            "mleko", "ser", "chleb", "bułka", "sok", "woda", "jabłko",
+            "gruszka", "szynka", "kiełbasa", "czekolada", "baton",
+            "proszek", "płyn", "lody", "pieprz", "sól", "masło"
+    };
+
+    /** Liczba dni wstecz, na które rozkładane są transakcje. */
+    static final int HISTORY_DAYS = 365;
+
+    private static final int BATCH_SIZE = 1000;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Czyści tabele i wypełnia je danymi o zadanej wielkości.
+     * Produkty i transakcje otrzymują identyfikatory 1..n.
+     *
+     * @param products            liczba produktów
+     * @param transactions        liczba transakcji
+     * @param linesPerTransaction liczba pozycji na transakcję
+     * @throws SQLException gdy przygotowanie danych się nie powiedzie
+     */
+    public static void seed(int products, int transactions,
+                            int linesPerTransaction) throws SQLException {
+        EMFProvider.get();
+
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate today = LocalDate.now();
+        try (Connection conn = ConnectionPool.getDataSource().getConnection()) {
+            // Tabele agregatów tworzy migracja schematu, której
+            // benchmark na H2 nie uruchamia
+            try (Statement st = conn.createStatement()) {
+                st.execute(SalesRollupRepository.CREATE_TABLE);
+                st.execute(SalesRollupRepository.CREATE_DAY_TABLE);
+                st.execute(SalesRollupRepository.CREATE_DAY_CATEGORY_TABLE);
+            }
+            conn.setAutoCommit(false);
+            truncate(conn);
+
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO Pracownicy (Imie, Nazwisko, Wiek, Email, "
+                            + "Login, Haslo, Zarobki, Stanowisko, "
+                            + "onSickLeave, usuniety) "
+                            + "VALUES ('Jan', 'Testowy', 30, "
+                            + "'bench@stonka.pl', ?, ?, 5000, 'Kasjer', "
+                            + "FALSE, FALSE)")) {
+                ps.setString(1, LOGIN);
+                ps.setString(2, PASSWORD);
+                ps.executeUpdate();
+            }
+
+            try (PreparedStatement product = conn.prepareStatement(
+                    "INSERT INTO Produkty (Nazwa, Kategoria, Cena) "
+                            + "VALUES (?, ?, ?)");
+                 PreparedStatement stock = conn.prepareStatement(
+                         "INSERT INTO StanyMagazynowe (Id_produktu, Ilosc) "
+                                 + "VALUES (?, ?)")) {
+                for (int id = 1; id <= products; id++) {
+                    product.setString(1, productName(id));
+                    product.setString(2, CATEGORIES[id % CATEGORIES.length]);
+                    product.setBigDecimal(3, BigDecimal.valueOf(
+                            random.nextInt(100, 10_000), 2));
+                    product.addBatch();
+                    stock.setInt(1, id);
+                    stock.setInt(2, Integer.MAX_VALUE / 2);
+                    stock.addBatch();
+                    if (id % BATCH_SIZE == 0) {
+                        product.executeBatch();
+                        stock.executeBatch();
+                    }
+                }
+                product.executeBatch();
+                stock.executeBatch();
+            }
+
+            try (PreparedStatement tx = conn.prepareStatement(
+                    "INSERT INTO Transakcje (Id_pracownika, Data) "
+                            + "VALUES (1, ?)");
+                 PreparedStatement line = conn.prepareStatement(
+                         "INSERT INTO Transakcje_Produkty "
+                                 + "(Id_transakcji, Id_produktu, Ilosc) "
+                                 + "VALUES (?, ?, ?)")) {
+                int lines = Math.min(linesPerTransaction, products);
+                for (int id = 1; id <= transactions; id++) {
+                    tx.setDate(1, Date.valueOf(
+                            today.minusDays(random.nextInt(HISTORY_DAYS))));
+                    tx.addBatch();
+                    int first = random.nextInt(products);
+                    for (int l = 0; l < lines; l++) {
+                        line.setInt(1, id);
+                        line.setInt(2, (first + l) % products + 1);
+                        line.setInt(3, random.nextInt(1, 5));
+                        line.addBatch();
+                    }
+                    if (id % BATCH_SIZE == 0) {
+                        tx.executeBatch();
+                        line.executeBatch();
+                    }
+                }
+                tx.executeBatch();
+                line.executeBatch();
+            }
+            conn.commit();
+        }
+        ProductCatalogCache.getInstance().invalidateAll();
+        EMFProvider.get().getCache().evictAll();
+    }
+
+    /**
+     * Dodaje pracowników i zadania z przypisaniami rozłożone na
+     * {@link #HISTORY_DAYS} dni wstecz (dane raportów obciążenia).
+     * Wywoływane po {@link #seed(int, int, int)}; pracownicy otrzymują
+     * identyfikatory od 2, zadania od 1.
+     *
+     * @param employees liczba pracowników
+     * @param tasks     liczba zadań
+     * @throws SQLException gdy przygotowanie danych się nie powiedzie
+     */
+    public static void seedTasks(int employees, int tasks)
+            throws SQLException {
+        String[] positions = {"Kasjer", "Logistyk", "Pracownik"};
+        SplittableRandom random = new SplittableRandom(7);
+        LocalDate today = LocalDate.now();
+        try (Connection conn = ConnectionPool.getDataSource().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO Pracownicy (Imie, Nazwisko, Wiek, Email, "
+                            + "Login, Haslo, Zarobki, Stanowisko, "
+                            + "onSickLeave, usuniety) "
+                            + "VALUES ('Anna', ?, 30, ?, ?, 'haslo-bench', "
+                            + "4000, ?, FALSE, FALSE)")) {
+                for (int i = 1; i <= employees; i++) {
+                    ps.setString(1, "Testowa" + i);
+                    ps.setString(2, "bench" + i + "@stonka.pl");
+                    ps.setString(3, "bench.p" + i);
+                    ps.setString(4, positions[i % positions.length]);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+
+            try (PreparedStatement task = conn.prepareStatement(
+                    "INSERT INTO Zadania (Nazwa, Data, Status, Opis, "
+                            + "czas_trwania_zmiany, usuniety) "
+                            + "VALUES (?, ?, 'Zakończone', 'bench', ?, FALSE)");
+                 PreparedStatement assign = conn.prepareStatement(
+                         "INSERT INTO Zadania_Pracownicy "
+                                 + "(Id_pracownika, Id_zadania) VALUES (?, ?)")) {
+                for (int id = 1; id <= tasks; id++) {
+                    task.setString(1, "Zadanie " + id);
+                    task.setDate(2, Date.valueOf(
+                            today.minusDays(random.nextInt(HISTORY_DAYS))));
+                    task.setTime(3, Time.valueOf(LocalTime.of(
+                            random.nextInt(1, 9), random.nextInt(4) * 15)));
+                    task.addBatch();
+                    assign.setInt(1, 2 + random.nextInt(employees));
+                    assign.setInt(2, id);
+                    assign.addBatch();
+                    if (id % BATCH_SIZE == 0) {
+                        task.executeBatch();
+                        assign.executeBatch();
+                    }
+                }
+                task.executeBatch();
+                assign.executeBatch();
+            }
+            conn.commit();
+        }
+        EMFProvider.get().getCache().evictAll();
+    }
+
+    /**
+     * Zwraca nazwę produktu o danym identyfikatorze.
+     *
+     * @param id identyfikator produktu
+     * @return nazwa złożona z dwóch słów i numeru
+     */
+    static String productName(int id) {
+        return WORDS[id % WORDS.length] + " "
+                + WORDS[(id / WORDS.length) % WORDS.length] + " " + id;
+    }
+
+    /**
+     * Usuwa dane i zeruje liczniki identyfikatorów (składnia H2).
+     */
+    private static void truncate(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            for (String table : new String[] {
+                    "Sprzedaz_dzienna", "Sprzedaz_dzienna_transakcje",
+                    "Sprzedaz_dzienna_kategorie", "Transakcje_Produkty", "Transakcje",
+                    "StanyMagazynowe", "Produkty", "Zadania_Pracownicy",
+                    "Zadania", "Pracownicy"}) {
+                st.execute("TRUNCATE TABLE " + table + " RESTART IDENTITY");
+            }
+            st.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+    }
+}
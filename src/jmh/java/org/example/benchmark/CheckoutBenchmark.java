@@ -0,0 +1,106 @@
+/*
+ * Classname: CheckoutBenchmark
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.benchmark;
+
+import org.example.database.CheckoutService;
+import org.example.database.CheckoutService.CheckoutLine;
+import org.example.database.CheckoutService.CheckoutResult;
+import org.example.database.UserRepository;
+import org.example.sys.Employee;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark pełnej finalizacji sprzedaży ({@link CheckoutService}):
+ * blokada stanów, nagłówek transakcji, pozycje i dzienny agregat
+ * w jednej transakcji bazodanowej.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {
+        BenchmarkDatabase.ARG_PREVIEW,
+        BenchmarkDatabase.ARG_DB_URL,
+        BenchmarkDatabase.ARG_DB_USER,
+        BenchmarkDatabase.ARG_DB_PASSWORD,
+        BenchmarkDatabase.ARG_DB_DIALECT,
+        BenchmarkDatabase.ARG_LOGGING
+})
+public class CheckoutBenchmark {
+
+    @Param({"5000"})
+    public int products;
+
+    @Param({"20000"})
+    public int transactions;
+
+    /** Liczba pozycji w koszyku jednej sprzedaży. */
+    @Param({"5"})
+    public int basketSize;
+
+    private CheckoutService checkoutService;
+    private Employee cashier;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkDatabase.seed(products, transactions, 3);
+        checkoutService = new CheckoutService();
+        cashier = new UserRepository().findByLoginAndPassword(
+                BenchmarkDatabase.LOGIN, BenchmarkDatabase.PASSWORD);
+        if (cashier == null) {
+            throw new IllegalStateException("Brak pracownika testowego");
+        }
+    }
+
+    /**
+     * Pojedyncza kasa.
+     */
+    @Benchmark
+    public CheckoutResult checkout() throws Exception {
+        return checkoutService.checkout(cashier, basket());
+    }
+
+    /**
+     * Cztery kasy jednocześnie – koszyki losowe, więc blokady wierszy
+     * stanów magazynowych kolidują sporadycznie.
+     */
+    @Benchmark
+    @Threads(4)
+    public CheckoutResult checkoutConcurrent() throws Exception {
+        return checkoutService.checkout(cashier, basket());
+    }
+
+    private List<CheckoutLine> basket() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<CheckoutLine> lines = new ArrayList<>(basketSize);
+        for (int i = 0; i < basketSize; i++) {
+            lines.add(new CheckoutLine(random.nextInt(1, products + 1),
+                    random.nextInt(1, 4)));
+        }
+        return lines;
+    }
+}
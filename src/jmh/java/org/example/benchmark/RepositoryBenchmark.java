@@ -0,0 +1,137 @@
+/*
+ * Classname: RepositoryBenchmark
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.benchmark;
+
+import org.example.database.ProductCatalogCache;
+import org.example.database.ProductRepository;
+import org.example.database.TransactionRepository;
+import org.example.database.UserRepository;
+import org.example.sys.Employee;
+import org.example.sys.Product;
+import org.example.sys.Transaction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarki zapytań repozytoriów na bazie H2 wypełnionej przez
+ * {@link BenchmarkDatabase}. Wielkość danych ustawia się parametrami
+ * JMH, np. {@code -p products=50000 -p transactions=200000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {
+        BenchmarkDatabase.ARG_PREVIEW,
+        BenchmarkDatabase.ARG_DB_URL,
+        BenchmarkDatabase.ARG_DB_USER,
+        BenchmarkDatabase.ARG_DB_PASSWORD,
+        BenchmarkDatabase.ARG_DB_DIALECT,
+        BenchmarkDatabase.ARG_LOGGING
+})
+public class RepositoryBenchmark {
+
+    @Param({"5000"})
+    public int products;
+
+    @Param({"20000"})
+    public int transactions;
+
+    @Param({"3"})
+    public int linesPerTransaction;
+
+    private ProductRepository productRepository;
+    private TransactionRepository transactionRepository;
+    private UserRepository userRepository;
+
+    private Date monthStart;
+    private Date today;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkDatabase.seed(products, transactions, linesPerTransaction);
+        productRepository = new ProductRepository();
+        transactionRepository = new TransactionRepository();
+        userRepository = new UserRepository();
+
+        LocalDate now = LocalDate.now();
+        today = Date.from(now.atStartOfDay(ZoneId.systemDefault())
+                .toInstant());
+        monthStart = Date.from(now.minusDays(30)
+                .atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * Lista produktów z cache katalogu (ścieżka ekranu kasjera).
+     */
+    @Benchmark
+    public List<Product> getAllProductsCached() {
+        return productRepository.getAllProducts();
+    }
+
+    /**
+     * Lista produktów z bazy – cache unieważniany przed każdym wywołaniem.
+     */
+    @Benchmark
+    public List<Product> getAllProductsCold() {
+        ProductCatalogCache.getInstance().invalidateAll();
+        return productRepository.getAllProducts();
+    }
+
+    /**
+     * Wyszukiwanie po fragmencie nazwy zapytaniem LIKE do bazy.
+     */
+    @Benchmark
+    public List<Product> findByNameQuery() {
+        return productRepository.findByName("czekolada", false);
+    }
+
+    /**
+     * Wyszukiwanie po fragmencie nazwy w indeksie w pamięci.
+     */
+    @Benchmark
+    public List<Product> findByNameIndexed() {
+        return productRepository.findByName("czekolada", true);
+    }
+
+    /**
+     * Transakcje z ostatnich 30 dni wraz z pozycjami.
+     */
+    @Benchmark
+    public List<Transaction> getTransactionsBetweenDates() {
+        return transactionRepository.getTransactionsBetweenDates(
+                monthStart, today);
+    }
+
+    /**
+     * Zapytanie logowania pracownika.
+     */
+    @Benchmark
+    public Employee findByLoginAndPassword() {
+        return userRepository.findByLoginAndPassword(
+                BenchmarkDatabase.LOGIN, BenchmarkDatabase.PASSWORD);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Classname: WorkloadBenchmark
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.benchmark;
+
+import org.example.database.EmpTaskRepository;
+import org.example.database.WorkloadRepository;
+import org.example.sys.EmpTask;
+import org.example.sys.Employee;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pdf.WorkloadReportGenerator.EmployeeWorkload;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Porównanie dwóch ścieżek liczenia obciążenia pracowników za ostatni
+ * kwartał: dotychczasowej (wszystkie zadania z przypisaniami ładowane
+ * przez Hibernate, filtrowanie dat i sumowanie w Javie) oraz
+ * {@link WorkloadRepository} (sumowanie w bazie, bez cache i z cache
+ * zamkniętych miesięcy). Wielkość danych ustawia się parametrami JMH,
+ * np. {@code -p tasks=100000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {
+        BenchmarkDatabase.ARG_PREVIEW,
+        BenchmarkDatabase.ARG_DB_URL,
+        BenchmarkDatabase.ARG_DB_USER,
+        BenchmarkDatabase.ARG_DB_PASSWORD,
+        BenchmarkDatabase.ARG_DB_DIALECT,
+        BenchmarkDatabase.ARG_LOGGING
+})
+public class WorkloadBenchmark {
+
+    @Param({"50"})
+    public int employees;
+
+    @Param({"20000"})
+    public int tasks;
+
+    private EmpTaskRepository taskRepository;
+    private WorkloadRepository workloadRepository;
+
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkDatabase.seed(0, 0, 0);
+        BenchmarkDatabase.seedTasks(employees, tasks);
+        taskRepository = new EmpTaskRepository();
+        workloadRepository = new WorkloadRepository();
+        to = LocalDate.now();
+        from = to.minusMonths(3);
+    }
+
+    /**
+     * Dotychczasowa ścieżka raportu: cała historia zadań w pamięci.
+     */
+    @Benchmark
+    public List<EmployeeWorkload> javaAggregation() {
+        return taskRepository.getAllTasksWithEmployeesAndAssignees().stream()
+                .filter(t -> !t.getTaskEmployees().isEmpty()
+                        && t.getDurationOfTheShift() != null
+                        && inRange(t.getDate()))
+                .collect(Collectors.groupingBy(
+                        EmpTask::getSingleAssignee,
+                        Collectors.summingDouble(
+                                t -> hours(t.getDurationOfTheShift()))))
+                .entrySet().stream()
+                .map(e -> {
+                    Employee emp = e.getKey();
+                    return new EmployeeWorkload(emp.getLogin(),
+                            emp.getPosition(), e.getValue());
+                })
+                .toList();
+    }
+
+    /**
+     * Sumowanie w bazie, cache zamkniętych miesięcy czyszczony przed
+     * każdym wywołaniem.
+     */
+    @Benchmark
+    public List<EmployeeWorkload> sqlAggregationCold() {
+        WorkloadRepository.invalidateAll();
+        return workloadRepository.getWorkloadData(from, to);
+    }
+
+    /**
+     * Sumowanie w bazie z cache zamkniętych miesięcy – z bazy pobierany
+     * jest tylko bieżący miesiąc.
+     */
+    @Benchmark
+    public List<EmployeeWorkload> sqlAggregationCached() {
+        return workloadRepository.getWorkloadData(from, to);
+    }
+
+    private boolean inRange(Date d) {
+        if (d == null) {
+            return false;
+        }
+        LocalDate day = d instanceof java.sql.Date sqlDate
+                ? sqlDate.toLocalDate()
+                : d.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        return !day.isBefore(from) && !day.isAfter(to);
+    }
+
+    private static double hours(LocalTime t) {
+        return t.getHour() + t.getMinute() / 60d;
+    }
+}
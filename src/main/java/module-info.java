@@ -13,6 +13,9 @@ module org.example.gui {
     requires java.mail;
     requires jakarta.persistence;
     requires org.hibernate.orm.core;
+    // cache drugiego poziomu – dostawcy ładowani przez ServiceLoader
+    requires org.hibernate.orm.jcache;
+    requires org.ehcache;
     requires StonkaPdfLib;
     requires org.apache.logging.log4j.core;
     requires org.apache.logging.log4j;
@@ -21,7 +24,11 @@ module org.example.gui {
     requires java.desktop;
     requires kernel;
     requires layout;
+    requires io;
     requires mysql.connector.j;
+    requires com.zaxxer.hikari;
+    requires java.sql;
+    requires java.management;
     requires jbcrypt;
     requires org.slf4j;
 
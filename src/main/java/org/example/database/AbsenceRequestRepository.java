@@ -1,7 +1,7 @@
 /*
  * Classname: AbsenceRequestRepository
- * Version information: 1.0
- * Date: 2025-06-04
+ * Version information: 1.2
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -24,7 +24,8 @@ import java.util.List;
  * według różnych kryteriów. Wykorzystuje EntityManager do komunikacji
  * z bazą danych i obsługuje transakcje.
  */
-public class AbsenceRequestRepository {
+public class AbsenceRequestRepository implements
+        PagedRepository<AbsenceRequest> {
 
     private static final Logger logger
             = LogManager.getLogger(AbsenceRequestRepository.class);
@@ -120,6 +121,37 @@ public class AbsenceRequestRepository {
         }
     }
 
+    /**
+     * Pobiera stronę wniosków stronicowaną kluczem (identyfikatorem),
+     * razem z pracownikiem w jednym zapytaniu.
+     * W przypadku błędu, wyjątek jest logowany i propagowany, aby widok
+     * mógł odróżnić błąd od braku danych.
+     *
+     * @param cursor kursor z poprzedniej strony lub null dla pierwszej strony
+     * @param limit  maksymalna liczba wniosków na stronie
+     * @param sort   kierunek sortowania po identyfikatorze
+     * @return strona wniosków
+     * @throws RuntimeException gdy pobranie strony się nie powiedzie
+     */
+    @Override
+    public Page<AbsenceRequest> findPage(Long cursor, int limit, Page.Sort sort) {
+        logger.debug("findPage() – cursor={}, limit={}, sort={}",
+                cursor, limit, sort);
+        try {
+            Page<AbsenceRequest> page = KeysetPager.fetch(AbsenceRequest.class,
+                    "LEFT JOIN FETCH a.employee e " +
+                            "LEFT JOIN FETCH e.address",
+                    null, cursor, limit, sort, AbsenceRequest::getId);
+            logger.info("findPage() – pobrano {} wniosków, następny kursor={}",
+                    page.getItems().size(), page.getNextCursor());
+            return page;
+        } catch (Exception e) {
+            logger.error("findPage() – błąd podczas pobierania strony wniosków",
+                    e);
+            throw e;
+        }
+    }
+
     /**
      * Usuwa wniosek o nieobecność o podanym ID.
      * Operacja jest wykonywana w transakcji.
@@ -1,7 +1,7 @@
 /*
  * Classname: AddressRepository
- * Version information: 1.0
- * Date: 2025-06-04
+ * Version information: 1.1
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -13,6 +13,7 @@ import jakarta.persistence.EntityTransaction;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.example.sys.Address;
+import org.hibernate.jpa.HibernateHints;
 
 import java.util.List;
 
@@ -103,6 +104,11 @@ public class AddressRepository implements AutoCloseable {
             List<Address> list = em
                     .createQuery("SELECT a FROM Address a",
                             Address.class)
+                    // lista dla pól wyboru – wynik w cache zapytań,
+                    // unieważniany przy każdej zmianie tabeli Adresy
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION,
+                            SecondLevelCache.ADDRESS_QUERY_REGION)
                     .getResultList();
             logger.info("getAllAddresses() " +
                     "- pobrano {} adresów", list.size());
@@ -0,0 +1,352 @@
+/*
+ * Classname: CheckoutService
+ * Version information: 1.6
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.sys.Employee;
+import org.example.wyjatki.CheckoutException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serwis finalizujący sprzedaż przy kasie.
+ * <p>
+ * Zapisuje nagłówek transakcji, wszystkie pozycje
+ * ({@code Transakcje_Produkty}), zmniejszenie stanów magazynowych
+ * oraz przyrost dziennych agregatów sprzedaży i liczników transakcji
+ * ({@link SalesRollupRepository}) w jednej transakcji bazodanowej, korzystając z wsadowego JDBC
+ * na połączeniu z {@link ConnectionPool}. Jeżeli którykolwiek produkt
+ * nie ma wystarczającego stanu, cała sprzedaż jest wycofywana.
+ * Zakleszczenie lub przekroczenie czasu oczekiwania na blokadę
+ * powoduje ponowienie całej sprzedaży z wykładniczym opóźnieniem.
+ * </p>
+ * <p>
+ * Czas każdej finalizacji jest logowany oraz sumowany
+ * w statystykach dostępnych przez {@link #getCheckoutCount()},
+ * {@link #getAverageLatencyMillis()} i {@link #getMaxLatencyMillis()}.
+ * </p>
+ */
+public class CheckoutService {
+
+    /**
+     * Logger do rejestrowania zdarzeń związanych z klasą CheckoutService.
+     */
+    private static final Logger logger =
+            LogManager.getLogger(CheckoutService.class);
+
+    private static final String INSERT_TRANSACTION =
+            "INSERT INTO Transakcje (Id_pracownika, Data) VALUES (?, ?)";
+
+    private static final String INSERT_LINE =
+            "INSERT INTO Transakcje_Produkty "
+                    + "(Id_transakcji, Id_produktu, Ilosc) VALUES (?, ?, ?)";
+
+    private static final String DECREMENT_STOCK =
+            "UPDATE StanyMagazynowe SET Ilosc = Ilosc - ? "
+                    + "WHERE Id_produktu = ? AND Ilosc >= ?";
+
+    /**
+     * Statystyki czasu finalizacji wspólne dla wszystkich kas.
+     */
+    private static final LongAdder CHECKOUTS = new LongAdder();
+    private static final LongAdder FAILURES = new LongAdder();
+    private static final LongAdder TOTAL_NANOS = new LongAdder();
+    private static final AtomicLong MAX_NANOS = new AtomicLong();
+
+    private final DataSource dataSource;
+
+    /**
+     * Domyślny konstruktor – korzysta ze wspólnej puli połączeń.
+     */
+    public CheckoutService() {
+        this(ConnectionPool.getDataSource());
+    }
+
+    /**
+     * Konstruktor z jawnie podanym źródłem danych
+     * (np. bazą testową).
+     *
+     * @param dataSource źródło połączeń JDBC
+     */
+    public CheckoutService(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Finalizuje sprzedaż w jednej transakcji bazodanowej.
+     * Pozycje dotyczące tego samego produktu są sumowane.
+     *
+     * @param employee kasjer wykonujący sprzedaż
+     * @param lines    pozycje koszyka
+     * @return wynik zawierający identyfikator transakcji i czas operacji
+     * @throws CheckoutException gdy brakuje towaru lub zapis się nie powiódł;
+     *                           w obu przypadkach nic nie zostaje zapisane
+     */
+    public CheckoutResult checkout(Employee employee, List<CheckoutLine> lines)
+            throws CheckoutException {
+        if (employee == null) {
+            throw new CheckoutException("Brak zalogowanego pracownika.");
+        }
+        if (lines == null || lines.isEmpty()) {
+            throw new CheckoutException("Koszyk jest pusty.");
+        }
+        Map<Integer, Integer> merged = mergeLines(lines);
+
+        logger.debug("checkout() – start, employeeId={}, pozycji={}",
+                employee.getId(), merged.size());
+        long start = System.nanoTime();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                int txId = writeCheckout(employee.getId(), merged);
+                // Stany zmienione przez JDBC – usunięcie ich z cache L2
+                SecondLevelCache.evictStock(merged.keySet());
+                long elapsed = System.nanoTime() - start;
+                record(elapsed);
+                RepositoryMetrics.getInstance().recordQuery(
+                        "CheckoutService.checkout", elapsed, merged.size(),
+                        false, null);
+                logger.info("checkout() – transakcja {} zapisana: {} pozycji "
+                                + "w {} ms", txId, merged.size(),
+                        TimeUnit.NANOSECONDS.toMillis(elapsed));
+                return new CheckoutResult(txId, merged.size(), elapsed);
+            } catch (CheckoutException e) {
+                FAILURES.increment();
+                logger.warn("checkout() – sprzedaż wycofana: {}",
+                        e.getMessage());
+                throw e;
+            } catch (SQLException e) {
+                if (LockRetry.isLockConflict(e)
+                        && attempt < LockRetry.MAX_ATTEMPTS) {
+                    LockRetry.backoff("checkout()", attempt);
+                    continue;
+                }
+                FAILURES.increment();
+                RepositoryMetrics.getInstance().recordQuery(
+                        "CheckoutService.checkout", System.nanoTime() - start,
+                        -1, true, null);
+                logger.error("checkout() – błąd zapisu transakcji, "
+                        + "sprzedaż wycofana", e);
+                throw new CheckoutException(
+                        "Nie udało się zapisać transakcji: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Wykonuje jedną próbę zapisu sprzedaży w transakcji bazodanowej.
+     * Każdy błąd powoduje wycofanie wszystkich zmian.
+     *
+     * @return identyfikator zapisanej transakcji
+     */
+    private int writeCheckout(int employeeId, Map<Integer, Integer> merged)
+            throws SQLException, CheckoutException {
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                LocalDate today = LocalDate.now();
+                int txId = insertHeader(conn, employeeId, today);
+                decrementStock(conn, merged);
+                insertLines(conn, txId, merged);
+                updateDailyRollup(conn, today, merged);
+                SalesRollupRepository.countTransaction(conn, today,
+                        merged.keySet(), 1);
+                conn.commit();
+                return txId;
+            } catch (SQLException | CheckoutException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Łączy pozycje dotyczące tego samego produktu. Pozycje są
+     * sortowane po identyfikatorze, aby wszystkie kasy blokowały
+     * wiersze stanów w tej samej kolejności i nie dochodziło
+     * do zakleszczeń.
+     */
+    private Map<Integer, Integer> mergeLines(List<CheckoutLine> lines)
+            throws CheckoutException {
+        Map<Integer, Integer> merged = new TreeMap<>();
+        for (CheckoutLine line : lines) {
+            if (line.getQuantity() <= 0) {
+                throw new CheckoutException("Niepoprawna ilość produktu id="
+                        + line.getProductId());
+            }
+            merged.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        return merged;
+    }
+
+    /**
+     * Zapisuje nagłówek transakcji i zwraca jego wygenerowany klucz.
+     */
+    private int insertHeader(Connection conn, int employeeId, LocalDate date)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                INSERT_TRANSACTION, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setInt(1, employeeId);
+            ps.setDate(2, java.sql.Date.valueOf(date));
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException(
+                            "Brak wygenerowanego identyfikatora transakcji");
+                }
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Zmniejsza stany magazynowe jednym wsadem. Warunek
+     * {@code Ilosc >= ?} sprawia, że produkt bez wystarczającego stanu
+     * nie zostaje zaktualizowany, co wykrywamy po liczniku wierszy.
+     */
+    private void decrementStock(Connection conn, Map<Integer, Integer> lines)
+            throws SQLException, CheckoutException {
+        Integer[] order = lines.keySet().toArray(new Integer[0]);
+        try (PreparedStatement ps = conn.prepareStatement(DECREMENT_STOCK)) {
+            for (Integer productId : order) {
+                int qty = lines.get(productId);
+                ps.setInt(1, qty);
+                ps.setInt(2, productId);
+                ps.setInt(3, qty);
+                ps.addBatch();
+            }
+            int[] counts = ps.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    throw new CheckoutException("Niewystarczająca ilość "
+                            + "produktu id=" + order[i] + " w magazynie.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Zapisuje wszystkie pozycje transakcji jednym wsadem.
+     */
+    private void insertLines(Connection conn, int txId,
+                             Map<Integer, Integer> lines) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_LINE)) {
+            for (Map.Entry<Integer, Integer> e : lines.entrySet()) {
+                ps.setInt(1, txId);
+                ps.setInt(2, e.getKey());
+                ps.setInt(3, e.getValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Dolicza sprzedane pozycje do dziennych agregatów jednym wsadem.
+     */
+    private void updateDailyRollup(Connection conn, LocalDate date,
+                                   Map<Integer, Integer> lines)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                SalesRollupRepository.UPSERT_LINE)) {
+            for (Map.Entry<Integer, Integer> e : lines.entrySet()) {
+                SalesRollupRepository.bindLine(ps, date, null, e.getKey(),
+                        e.getValue(), 1, null);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static void record(long elapsedNanos) {
+        CHECKOUTS.increment();
+        TOTAL_NANOS.add(elapsedNanos);
+        MAX_NANOS.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    /**
+     * @return liczba udanych finalizacji od startu aplikacji
+     */
+    public static long getCheckoutCount() {
+        return CHECKOUTS.sum();
+    }
+
+    /**
+     * @return liczba wycofanych finalizacji od startu aplikacji
+     */
+    public static long getFailureCount() {
+        return FAILURES.sum();
+    }
+
+    /**
+     * @return średni czas udanej finalizacji w milisekundach
+     */
+    public static double getAverageLatencyMillis() {
+        long count = CHECKOUTS.sum();
+        return count == 0 ? 0.0 : TOTAL_NANOS.sum() / (count * 1_000_000.0);
+    }
+
+    /**
+     * @return najdłuższy czas udanej finalizacji w milisekundach
+     */
+    public static double getMaxLatencyMillis() {
+        return MAX_NANOS.get() / 1_000_000.0;
+    }
+
+    /**
+     * Pozycja koszyka przekazywana do finalizacji.
+     */
+    public static class CheckoutLine {
+        private final int productId;
+        private final int quantity;
+
+        public CheckoutLine(int productId, int quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+        public int getProductId() { return productId; }
+        public int getQuantity() { return quantity; }
+    }
+
+    /**
+     * Wynik finalizacji sprzedaży.
+     */
+    public static class CheckoutResult {
+        private final int transactionId;
+        private final int lineCount;
+        private final long elapsedNanos;
+
+        public CheckoutResult(int transactionId, int lineCount,
+                              long elapsedNanos) {
+            this.transactionId = transactionId;
+            this.lineCount = lineCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+        public int getTransactionId() { return transactionId; }
+        public int getLineCount() { return lineCount; }
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+    }
+}
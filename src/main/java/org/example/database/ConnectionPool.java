@@ -0,0 +1,308 @@
+/*
+ * Classname: ConnectionPool
+ * Version information: 1.1
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Współdzielona pula połączeń JDBC (HikariCP) dla całej aplikacji.
+ * <p>
+ * Pula jest przekazywana do {@link EMFProvider} jako źródło danych
+ * jednostki trwałości, dzięki czemu każde repozytorium otwierające
+ * własny EntityManager wypożycza gotowe połączenie zamiast
+ * zestawiać nowe.
+ * </p>
+ * <p>
+ * Parametry puli można nadpisać w pliku {@code config.properties}
+ * (lub właściwościami systemowymi {@code -D}) kluczami:
+ * <ul>
+ *   <li>{@code db.url}, {@code db.user}, {@code db.password} – adres
+ *       i dane logowania bazy (domyślnie wartości z {@link ILacz})</li>
+ *   <li>{@code db.pool.maxSize} – maksymalna liczba połączeń (10)</li>
+ *   <li>{@code db.pool.minIdle} – minimalna liczba bezczynnych
+ *       połączeń (2)</li>
+ *   <li>{@code db.pool.connectionTimeoutMs} – maksymalny czas
+ *       oczekiwania na połączenie (5000)</li>
+ *   <li>{@code db.pool.idleTimeoutMs} – czas po którym bezczynne
+ *       połączenie jest zamykane (600000)</li>
+ *   <li>{@code db.pool.maxLifetimeMs} – maksymalny czas życia
+ *       połączenia (1800000)</li>
+ *   <li>{@code db.pool.keepaliveMs} – odstęp walidacji bezczynnych
+ *       połączeń (300000)</li>
+ *   <li>{@code db.pool.validationTimeoutMs} – limit czasu walidacji
+ *       połączenia (3000)</li>
+ *   <li>{@code db.pool.leakDetectionMs} – próg wykrywania wycieków
+ *       połączeń, 0 wyłącza (20000)</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Statystyki puli są dostępne przez {@link #getStatistics()} oraz
+ * przez JMX pod nazwą {@code org.example.database:type=ConnectionPool}.
+ * </p>
+ */
+public final class ConnectionPool implements ILacz {
+
+    /**
+     * Logger do rejestrowania zdarzeń związanych z klasą ConnectionPool.
+     */
+    private static final Logger logger =
+            LogManager.getLogger(ConnectionPool.class);
+
+    /**
+     * Nazwa puli widoczna w logach i w JMX.
+     */
+    private static final String POOL_NAME = "StonkaPool";
+
+    /**
+     * Nazwa, pod którą rejestrowany jest MXBean ze statystykami.
+     */
+    private static final String MBEAN_NAME =
+            "org.example.database:type=ConnectionPool";
+
+    /**
+     * Liczniki czasu oczekiwania i użycia połączeń
+     * zasilane przez HikariCP.
+     */
+    private static final WaitTimeTracker TRACKER = new WaitTimeTracker();
+
+    /**
+     * Implementacja MXBean odczytująca stan puli z HikariCP
+     * oraz z własnych liczników czasu oczekiwania.
+     */
+    private static final ConnectionPoolMXBean STATISTICS =
+            new ConnectionPoolMXBean() {
+
+                private HikariPoolMXBean pool() {
+                    return DATA_SOURCE == null
+                            ? null : DATA_SOURCE.getHikariPoolMXBean();
+                }
+
+                @Override
+                public int getActiveConnections() {
+                    HikariPoolMXBean p = pool();
+                    return p == null ? 0 : p.getActiveConnections();
+                }
+
+                @Override
+                public int getIdleConnections() {
+                    HikariPoolMXBean p = pool();
+                    return p == null ? 0 : p.getIdleConnections();
+                }
+
+                @Override
+                public int getTotalConnections() {
+                    HikariPoolMXBean p = pool();
+                    return p == null ? 0 : p.getTotalConnections();
+                }
+
+                @Override
+                public int getThreadsAwaitingConnection() {
+                    HikariPoolMXBean p = pool();
+                    return p == null ? 0 : p.getThreadsAwaitingConnection();
+                }
+
+                @Override
+                public int getMaximumPoolSize() {
+                    return DATA_SOURCE == null
+                            ? 0 : DATA_SOURCE.getMaximumPoolSize();
+                }
+
+                @Override
+                public long getAcquisitionCount() {
+                    return TRACKER.acquisitions.sum();
+                }
+
+                @Override
+                public double getAverageWaitMillis() {
+                    long count = TRACKER.acquisitions.sum();
+                    return count == 0 ? 0.0
+                            : TRACKER.acquireNanos.sum() / (count * 1_000_000.0);
+                }
+
+                @Override
+                public double getMaxWaitMillis() {
+                    return TRACKER.maxAcquireNanos.get() / 1_000_000.0;
+                }
+
+                @Override
+                public double getAverageUsageMillis() {
+                    long count = TRACKER.usages.sum();
+                    return count == 0 ? 0.0
+                            : (double) TRACKER.usageMillis.sum() / count;
+                }
+
+                @Override
+                public long getConnectionTimeouts() {
+                    return TRACKER.timeouts.sum();
+                }
+
+                @Override
+                public String toString() {
+                    return String.format("ConnectionPool{active=%d, idle=%d, "
+                                    + "total=%d, awaiting=%d, avgWait=%.2f ms, "
+                                    + "maxWait=%.2f ms, timeouts=%d}",
+                            getActiveConnections(), getIdleConnections(),
+                            getTotalConnections(),
+                            getThreadsAwaitingConnection(),
+                            getAverageWaitMillis(), getMaxWaitMillis(),
+                            getConnectionTimeouts());
+                }
+            };
+
+    /**
+     * Współdzielone źródło danych.
+     */
+    private static final HikariDataSource DATA_SOURCE = createDataSource();
+
+    private ConnectionPool() {
+    }
+
+    /**
+     * Zwraca współdzielone źródło danych z pulą połączeń.
+     *
+     * @return źródło danych używane przez całą aplikację
+     */
+    public static DataSource getDataSource() {
+        return DATA_SOURCE;
+    }
+
+    /**
+     * Zwraca bieżące statystyki puli połączeń.
+     *
+     * @return obiekt MXBean z aktualnymi wartościami
+     */
+    public static ConnectionPoolMXBean getStatistics() {
+        return STATISTICS;
+    }
+
+    /**
+     * Zamyka pulę i wyrejestrowuje MXBean.
+     * Metoda powinna być wywołana przy zamykaniu aplikacji.
+     */
+    public static void close() {
+        MBeans.unregister(MBEAN_NAME);
+        if (!DATA_SOURCE.isClosed()) {
+            DATA_SOURCE.close();
+            logger.info("close() – pula połączeń {} zamknięta", POOL_NAME);
+        }
+    }
+
+    /**
+     * Tworzy i konfiguruje źródło danych HikariCP.
+     *
+     * @return skonfigurowane źródło danych
+     */
+    private static HikariDataSource createDataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(POOL_NAME);
+        String url = DatabaseSettings.getString("db.url", MYSQL_DB_URL);
+        config.setJdbcUrl(url);
+        config.setUsername(DatabaseSettings.getString("db.user", MYSQL_USER));
+        config.setPassword(
+                DatabaseSettings.getString("db.password", MYSQL_PASSWORD));
+
+        config.setMaximumPoolSize(DatabaseSettings.getInt("db.pool.maxSize", 10));
+        config.setMinimumIdle(DatabaseSettings.getInt("db.pool.minIdle", 2));
+        config.setConnectionTimeout(
+                DatabaseSettings.getLong("db.pool.connectionTimeoutMs", 5_000L));
+        config.setIdleTimeout(
+                DatabaseSettings.getLong("db.pool.idleTimeoutMs", 600_000L));
+        config.setMaxLifetime(
+                DatabaseSettings.getLong("db.pool.maxLifetimeMs", 1_800_000L));
+        config.setKeepaliveTime(
+                DatabaseSettings.getLong("db.pool.keepaliveMs", 300_000L));
+        config.setValidationTimeout(
+                DatabaseSettings.getLong("db.pool.validationTimeoutMs", 3_000L));
+        config.setLeakDetectionThreshold(
+                DatabaseSettings.getLong("db.pool.leakDetectionMs", 20_000L));
+
+        // Ustawienia sterownika MySQL: cache zapytań przygotowanych
+        // i przepisywanie wsadów na wielowierszowe INSERT-y
+        // (pomijane dla innych baz, np. H2 w benchmarkach)
+        if (url.startsWith("jdbc:mysql:")) {
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", "250");
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+            config.addDataSourceProperty("useServerPrepStmts", "true");
+            config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        }
+
+        config.setRegisterMbeans(true);
+        config.setMetricsTrackerFactory(TRACKER);
+
+        logger.info("Tworzenie puli połączeń {}: maxSize={}, minIdle={}, "
+                        + "connectionTimeout={} ms, leakDetection={} ms",
+                POOL_NAME, config.getMaximumPoolSize(),
+                config.getMinimumIdle(), config.getConnectionTimeout(),
+                config.getLeakDetectionThreshold());
+
+        HikariDataSource ds = new HikariDataSource(config);
+        MBeans.register(STATISTICS, MBEAN_NAME);
+        return ds;
+    }
+
+    /**
+     * Tracker metryk HikariCP zliczający czas oczekiwania na połączenie,
+     * czas jego użycia oraz przekroczenia limitu czasu.
+     */
+    private static final class WaitTimeTracker
+            implements MetricsTrackerFactory, IMetricsTracker {
+
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final AtomicLong maxAcquireNanos = new AtomicLong();
+        private final LongAdder usages = new LongAdder();
+        private final LongAdder usageMillis = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+
+        @Override
+        public IMetricsTracker create(String poolName, PoolStats poolStats) {
+            return this;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquisitions.increment();
+            acquireNanos.add(elapsedAcquiredNanos);
+            maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            if (elapsedAcquiredNanos > TimeUnit.MILLISECONDS.toNanos(500)) {
+                logger.warn("Długie oczekiwanie na połączenie z puli: {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(elapsedAcquiredNanos));
+            }
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usages.increment();
+            usageMillis.add(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+            logger.error("Przekroczono limit czasu oczekiwania "
+                    + "na połączenie z puli {}", POOL_NAME);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
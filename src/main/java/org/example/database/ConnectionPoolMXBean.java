@@ -0,0 +1,69 @@
+/*
+ * Classname: ConnectionPoolMXBean
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+/**
+ * Interfejs JMX udostępniający statystyki puli połączeń JDBC.
+ * Rejestrowany pod nazwą {@code org.example.database:type=ConnectionPool},
+ * dzięki czemu stan puli można podejrzeć np. w JConsole
+ * lub VisualVM podczas działania aplikacji.
+ */
+public interface ConnectionPoolMXBean {
+
+    /**
+     * @return liczba połączeń aktualnie wypożyczonych przez repozytoria
+     */
+    int getActiveConnections();
+
+    /**
+     * @return liczba bezczynnych połączeń gotowych do użycia
+     */
+    int getIdleConnections();
+
+    /**
+     * @return łączna liczba połączeń utrzymywanych przez pulę
+     */
+    int getTotalConnections();
+
+    /**
+     * @return liczba wątków oczekujących na wolne połączenie
+     */
+    int getThreadsAwaitingConnection();
+
+    /**
+     * @return maksymalny rozmiar puli
+     */
+    int getMaximumPoolSize();
+
+    /**
+     * @return łączna liczba wypożyczeń połączeń od startu puli
+     */
+    long getAcquisitionCount();
+
+    /**
+     * @return średni czas oczekiwania na połączenie w milisekundach
+     */
+    double getAverageWaitMillis();
+
+    /**
+     * @return najdłuższy zarejestrowany czas oczekiwania
+     *         na połączenie w milisekundach
+     */
+    double getMaxWaitMillis();
+
+    /**
+     * @return średni czas trzymania połączenia przez klienta
+     *         w milisekundach
+     */
+    double getAverageUsageMillis();
+
+    /**
+     * @return liczba przekroczeń limitu czasu oczekiwania na połączenie
+     */
+    long getConnectionTimeouts();
+}
@@ -0,0 +1,472 @@
+/*
+ * Classname: DataMigrator
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.sys.PasswordHasher;
+
+import java.security.GeneralSecurityException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Jednorazowe migracje danych z rejestrem postępu.
+ * <p>
+ * Migracja danych (np. hashowanie haseł zapisanych jawnym tekstem)
+ * przetwarza wiersze porcjami według rosnącego klucza. Po każdej
+ * porcji w tej samej transakcji zapisywany jest w tabeli
+ * {@code Migracje_danych} ostatni przetworzony klucz, liczniki
+ * i łączny czas. Przerwana migracja jest więc wznawiana od ostatniej
+ * zatwierdzonej porcji, a zakończona nie jest już nigdy uruchamiana –
+ * przy kolejnych startach kosztuje jedno zapytanie o rejestr.
+ * </p>
+ * <p>
+ * Równoległe starty aplikacji serializuje blokada {@code GET_LOCK},
+ * tak jak w {@link SchemaMigrator}.
+ * </p>
+ */
+public final class DataMigrator {
+
+    private static final Logger logger =
+            LogManager.getLogger(DataMigrator.class);
+
+    /**
+     * Tabela rejestru migracji danych.
+     */
+    static final String LEDGER_TABLE = "Migracje_danych";
+
+    private static final String CREATE_LEDGER = """
+            CREATE TABLE IF NOT EXISTS Migracje_danych (
+                Nazwa           VARCHAR(100) PRIMARY KEY,
+                Opis            VARCHAR(200) NOT NULL,
+                Status          VARCHAR(20)  NOT NULL,
+                Ostatni_klucz   BIGINT       NOT NULL DEFAULT 0,
+                Przetworzono    BIGINT       NOT NULL DEFAULT 0,
+                Zmieniono       BIGINT       NOT NULL DEFAULT 0,
+                Rozpoczeto      DATETIME     NOT NULL,
+                Zakonczono      DATETIME     NULL,
+                Czas_ms         BIGINT       NOT NULL DEFAULT 0
+            )""";
+
+    private static final String STATUS_RUNNING = "W_TOKU";
+    private static final String STATUS_DONE = "ZAKONCZONA";
+
+    /**
+     * Nazwa blokady serwera MySQL chroniącej przed równoległą migracją.
+     */
+    private static final String LOCK_NAME = "StonkaDB.data_migration";
+
+    /**
+     * Maksymalny czas oczekiwania na blokadę migracji (sekundy).
+     */
+    private static final int LOCK_TIMEOUT_SECONDS = 30;
+
+    /**
+     * Domyślna liczba wierszy w jednej porcji.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * Hasło zapisane jako hash HMAC-SHA256 ({@link PasswordHasher}).
+     */
+    private static final Pattern PASSWORD_HASH = Pattern.compile("[0-9a-f]{64}");
+
+    /**
+     * Migracja danych przetwarzana porcjami według rosnącego klucza.
+     */
+    public interface Migration {
+
+        /**
+         * @return unikalna nazwa migracji zapisywana w rejestrze
+         */
+        String name();
+
+        /**
+         * @return opis migracji
+         */
+        String description();
+
+        /**
+         * Przetwarza kolejną porcję wierszy o kluczu większym niż
+         * {@code afterKey}. Wywoływana w otwartej transakcji.
+         *
+         * @param conn      połączenie z bazą
+         * @param afterKey  ostatni przetworzony klucz (0 na początku)
+         * @param batchSize maksymalna liczba wierszy w porcji
+         * @return wynik porcji; {@code processed == 0} kończy migrację
+         * @throws SQLException gdy porcja się nie powiedzie
+         */
+        Batch migrateBatch(Connection conn, long afterKey, int batchSize)
+                throws SQLException;
+    }
+
+    /**
+     * Wynik pojedynczej porcji.
+     *
+     * @param lastKey   ostatni przetworzony klucz
+     * @param processed liczba odczytanych wierszy
+     * @param changed   liczba zmienionych wierszy
+     */
+    public record Batch(long lastKey, long processed, long changed) {
+    }
+
+    /**
+     * Podsumowanie wywołania {@link #migrate(Connection)}.
+     *
+     * @param completed    liczba migracji zakończonych w tym wywołaniu
+     * @param batches      liczba wykonanych porcji
+     * @param processed    liczba odczytanych wierszy
+     * @param changed      liczba zmienionych wierszy
+     * @param elapsedNanos czas trwania
+     */
+    public record Result(int completed, int batches, long processed,
+                         long changed, long elapsedNanos) {
+    }
+
+    /**
+     * Stan migracji zapisany w rejestrze.
+     */
+    private record LedgerEntry(String status, long lastKey) {
+    }
+
+    private final List<Migration> migrations;
+    private final int batchSize;
+
+    /**
+     * Tworzy migrator z migracjami danych aplikacji. Rozmiar porcji
+     * pochodzi z ustawienia {@code migrations.batchSize}.
+     */
+    public DataMigrator() {
+        this(defaultMigrations(), DatabaseSettings.getInt(
+                "migrations.batchSize", DEFAULT_BATCH_SIZE));
+    }
+
+    /**
+     * Tworzy migrator z podanymi migracjami.
+     *
+     * @param migrations migracje w kolejności wykonania
+     * @param batchSize  maksymalna liczba wierszy w porcji
+     */
+    public DataMigrator(List<Migration> migrations, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(
+                    "Rozmiar porcji musi być dodatni: " + batchSize);
+        }
+        Set<String> names = new HashSet<>();
+        for (Migration m : migrations) {
+            if (!names.add(m.name())) {
+                throw new IllegalStateException(
+                        "Powtórzona nazwa migracji danych: " + m.name());
+            }
+        }
+        this.migrations = List.copyOf(migrations);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Definicje migracji danych. Nowe migracje dopisujemy na końcu
+     * listy pod nową nazwą.
+     */
+    private static List<Migration> defaultMigrations() {
+        List<Migration> list = new ArrayList<>();
+        list.add(new PasswordHashMigration());
+        return list;
+    }
+
+    /**
+     * Wykonuje lub wznawia wszystkie niezakończone migracje.
+     *
+     * @param conn połączenie z docelową bazą
+     * @return podsumowanie wywołania
+     * @throws SQLException gdy migracja się nie powiedzie lub nie
+     *                      udało się uzyskać blokady
+     */
+    public Result migrate(Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        try (Statement st = conn.createStatement()) {
+            st.execute(CREATE_LEDGER);
+        }
+        if (!acquireLock(conn)) {
+            throw new SQLException("Nie uzyskano blokady migracji "
+                    + LOCK_NAME + " w ciągu " + LOCK_TIMEOUT_SECONDS + " s");
+        }
+        int completed = 0;
+        int batches = 0;
+        long processed = 0;
+        long changed = 0;
+        try {
+            Map<String, LedgerEntry> ledger = loadLedger(conn);
+            for (Migration m : migrations) {
+                LedgerEntry entry = ledger.get(m.name());
+                if (entry != null && STATUS_DONE.equals(entry.status())) {
+                    continue;
+                }
+                long lastKey = 0;
+                if (entry == null) {
+                    register(conn, m);
+                    logger.info("migrate() – migracja danych '{}': {}",
+                            m.name(), m.description());
+                } else {
+                    lastKey = entry.lastKey();
+                    logger.info("migrate() – wznawiam migrację danych '{}' "
+                            + "od klucza {}", m.name(), lastKey);
+                }
+                while (true) {
+                    Batch batch = runBatch(conn, m, lastKey);
+                    batches++;
+                    processed += batch.processed();
+                    changed += batch.changed();
+                    if (batch.processed() == 0) {
+                        break;
+                    }
+                    lastKey = batch.lastKey();
+                }
+                completed++;
+            }
+        } finally {
+            releaseLock(conn);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (completed > 0) {
+            logger.info("migrate() – zakończono {} migracji danych ({} porcji, "
+                            + "{} wierszy, zmieniono {}) w {} ms", completed,
+                    batches, processed, changed, elapsed / 1_000_000);
+        } else {
+            logger.debug("migrate() – brak migracji danych do wykonania");
+        }
+        return new Result(completed, batches, processed, changed, elapsed);
+    }
+
+    /**
+     * Sprawdza, czy migracja została zakończona.
+     *
+     * @param conn połączenie z bazą
+     * @param name nazwa migracji
+     * @return true, jeśli rejestr zawiera migrację ze statusem zakończonej
+     * @throws SQLException gdy odczyt rejestru się nie powiedzie
+     */
+    public boolean isCompleted(Connection conn, String name)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT Status FROM " + LEDGER_TABLE + " WHERE Nazwa = ?")) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && STATUS_DONE.equals(rs.getString(1));
+            }
+        }
+    }
+
+    /**
+     * Usuwa z rejestru wpisy migracji tego migratora, aby zostały
+     * wykonane ponownie – np. po wstawieniu danych początkowych
+     * do pustej bazy.
+     *
+     * @param conn połączenie z bazą
+     * @return liczba usuniętych wpisów
+     * @throws SQLException gdy usunięcie się nie powiedzie
+     */
+    public int reset(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute(CREATE_LEDGER);
+        }
+        int removed = 0;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "DELETE FROM " + LEDGER_TABLE + " WHERE Nazwa = ?")) {
+            for (Migration m : migrations) {
+                ps.setString(1, m.name());
+                removed += ps.executeUpdate();
+            }
+        }
+        if (removed > 0) {
+            logger.info("reset() – usunięto {} wpisów rejestru migracji danych",
+                    removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Wykonuje jedną porcję i zapisuje postęp w tej samej transakcji.
+     */
+    private Batch runBatch(Connection conn, Migration m, long afterKey)
+            throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        long start = System.nanoTime();
+        conn.setAutoCommit(false);
+        try {
+            Batch batch = m.migrateBatch(conn, afterKey, batchSize);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            boolean done = batch.processed() == 0;
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE " + LEDGER_TABLE + " SET Status = ?, "
+                            + "Ostatni_klucz = ?, "
+                            + "Przetworzono = Przetworzono + ?, "
+                            + "Zmieniono = Zmieniono + ?, "
+                            + "Zakonczono = ?, Czas_ms = Czas_ms + ? "
+                            + "WHERE Nazwa = ?")) {
+                ps.setString(1, done ? STATUS_DONE : STATUS_RUNNING);
+                ps.setLong(2, done ? afterKey : batch.lastKey());
+                ps.setLong(3, batch.processed());
+                ps.setLong(4, batch.changed());
+                ps.setTimestamp(5, done
+                        ? new Timestamp(System.currentTimeMillis()) : null);
+                ps.setLong(6, elapsedMs);
+                ps.setString(7, m.name());
+                ps.executeUpdate();
+            }
+            conn.commit();
+            if (done) {
+                logger.info("runBatch() – migracja danych '{}' zakończona",
+                        m.name());
+            } else {
+                logger.debug("runBatch() – '{}': klucze do {}, {} wierszy, "
+                                + "zmieniono {} w {} ms", m.name(),
+                        batch.lastKey(), batch.processed(), batch.changed(),
+                        elapsedMs);
+            }
+            return batch;
+        } catch (SQLException | RuntimeException e) {
+            rollbackQuietly(conn);
+            logger.error("runBatch() – porcja migracji '{}' od klucza {} "
+                    + "nie powiodła się: {}", m.name(), afterKey,
+                    e.getMessage(), e);
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void register(Connection conn, Migration m)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO " + LEDGER_TABLE
+                        + " (Nazwa, Opis, Status, Rozpoczeto) "
+                        + "VALUES (?, ?, ?, ?)")) {
+            ps.setString(1, m.name());
+            ps.setString(2, m.description());
+            ps.setString(3, STATUS_RUNNING);
+            ps.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+            ps.executeUpdate();
+        }
+    }
+
+    private static Map<String, LedgerEntry> loadLedger(Connection conn)
+            throws SQLException {
+        Map<String, LedgerEntry> ledger = new HashMap<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT Nazwa, Status, "
+                     + "Ostatni_klucz FROM " + LEDGER_TABLE)) {
+            while (rs.next()) {
+                ledger.put(rs.getString(1),
+                        new LedgerEntry(rs.getString(2), rs.getLong(3)));
+            }
+        }
+        return ledger;
+    }
+
+    private static void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            logger.warn("rollbackQuietly() – wycofanie nie powiodło się: {}",
+                    e.getMessage());
+        }
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        } catch (SQLException e) {
+            logger.warn("releaseLock() – nie zwolniono blokady {}: {}",
+                    LOCK_NAME, e.getMessage());
+        }
+    }
+
+    /**
+     * Hashuje hasła pracowników zapisane jawnym tekstem (dane
+     * początkowe i konta sprzed wprowadzenia {@link PasswordHasher}).
+     */
+    static final class PasswordHashMigration implements Migration {
+
+        @Override
+        public String name() {
+            return "hashowanie_hasel";
+        }
+
+        @Override
+        public String description() {
+            return "Hashowanie haseł pracowników zapisanych jawnym tekstem";
+        }
+
+        @Override
+        public Batch migrateBatch(Connection conn, long afterKey,
+                                  int batchSize) throws SQLException {
+            long lastKey = afterKey;
+            long processed = 0;
+            long changed = 0;
+            try (PreparedStatement select = conn.prepareStatement(
+                    "SELECT Id, Haslo FROM Pracownicy WHERE Id > ? "
+                            + "ORDER BY Id LIMIT ?");
+                 PreparedStatement update = conn.prepareStatement(
+                         "UPDATE Pracownicy SET Haslo = ? WHERE Id = ?")) {
+                select.setLong(1, afterKey);
+                select.setInt(2, batchSize);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        int id = rs.getInt(1);
+                        String raw = rs.getString(2);
+                        lastKey = id;
+                        processed++;
+                        if (raw == null || raw.isEmpty()
+                                || PASSWORD_HASH.matcher(raw).matches()) {
+                            continue;
+                        }
+                        try {
+                            update.setString(1,
+                                    PasswordHasher.hashPassword(raw, id));
+                        } catch (GeneralSecurityException e) {
+                            throw new SQLException("Nie można zhashować "
+                                    + "hasła pracownika id=" + id, e);
+                        }
+                        update.setInt(2, id);
+                        update.addBatch();
+                        changed++;
+                    }
+                }
+                if (changed > 0) {
+                    update.executeBatch();
+                }
+            }
+            return new Batch(lastKey, processed, changed);
+        }
+    }
+}
@@ -0,0 +1,423 @@
+/*
+ * Classname: DatabaseBackupEngine
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.sys.BackgroundTasks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Kopia zapasowa całej bazy danych wykonywana wyłącznie przez JDBC,
+ * bez zewnętrznego programu {@code mysqldump}.
+ * <p>
+ * Tabele są czytane równolegle ({@code backup.parallelism}, domyślnie 4)
+ * przez osobne połączenia. Aby wszystkie połączenia widziały ten sam
+ * stan bazy, na MySQL każde rozpoczyna transakcję
+ * {@code START TRANSACTION WITH CONSISTENT SNAPSHOT} w chwili, gdy
+ * baza jest krótko zablokowana przez {@code FLUSH TABLES WITH READ
+ * LOCK}. Gdy użytkownik nie ma uprawnienia {@code RELOAD} (lub baza to
+ * nie MySQL), kopia jest wykonywana przez jedno połączenie w jednej
+ * migawce – wolniej, ale nadal spójnie.
+ * </p>
+ * <p>
+ * Każda tabela jest zapisywana jako osobny człon gzip
+ * ({@code DROP TABLE} + {@code CREATE TABLE} na MySQL, w pozostałych
+ * bazach {@code DELETE}, a następnie wielowierszowe {@code INSERT}).
+ * Człony są łączone w jeden plik {@code .sql.gz} (poprawny plik gzip),
+ * a obok zapisywana jest suma SHA-256 w formacie {@code sha256sum}.
+ * Plik jest odtwarzany przez
+ * {@link DatabaseInitializer#executeScript} po sprawdzeniu sumy.
+ * </p>
+ */
+public final class DatabaseBackupEngine implements ILacz {
+    private static final Logger logger
+            = LogManager.getLogger(DatabaseBackupEngine.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String SUFFIX = ".sql.gz";
+    private static final String CHECKSUM_SUFFIX = ".sha256";
+
+    private static final DateTimeFormatter FILE_TIME =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /**
+     * Wynik zapisu jednej tabeli.
+     *
+     * @param table        nazwa tabeli
+     * @param rows         liczba wierszy
+     * @param bytes        rozmiar skompresowanego członu
+     * @param elapsedNanos czas zapisu tabeli
+     */
+    public record TableResult(String table, long rows, long bytes,
+                              long elapsedNanos) {
+    }
+
+    /**
+     * Wynik wykonania kopii.
+     *
+     * @param file         plik kopii
+     * @param sha256       suma kontrolna pliku (hex)
+     * @param tables       wyniki poszczególnych tabel
+     * @param workers      liczba równoległych połączeń
+     * @param bytes        rozmiar pliku
+     * @param elapsedNanos czas wykonania kopii
+     */
+    public record BackupResult(Path file, String sha256,
+                               List<TableResult> tables, int workers,
+                               long bytes, long elapsedNanos) {
+
+        /**
+         * @return łączna liczba wierszy
+         */
+        public long totalRows() {
+            return tables.stream().mapToLong(TableResult::rows).sum();
+        }
+
+        /**
+         * @return opis wyniku do wyświetlenia w GUI
+         */
+        public String describe() {
+            return String.format(Locale.ROOT,
+                    "%s: %d tabel, %d wierszy, %.2f MB, %.1f s (%d połączeń)",
+                    file.getFileName(), tables.size(), totalRows(),
+                    bytes / (1024.0 * 1024.0), elapsedNanos / 1e9, workers);
+        }
+    }
+
+    private DatabaseBackupEngine() {
+    }
+
+    /**
+     * Wykonuje kopię do folderu z ustawienia {@code backup.dir}
+     * (domyślnie {@code backups}).
+     *
+     * @return wynik kopii
+     * @throws SQLException gdy odczyt bazy się nie powiedzie
+     * @throws IOException  gdy zapis pliku się nie powiedzie
+     */
+    public static BackupResult backup() throws SQLException, IOException {
+        return backup(Path.of(DatabaseSettings.getString("backup.dir", "backups")));
+    }
+
+    /**
+     * Wykonuje pełną kopię wszystkich tabel do pliku
+     * {@code stonkadb-yyyyMMdd-HHmmss.sql.gz} w podanym folderze.
+     *
+     * @param dir folder docelowy (tworzony, jeśli nie istnieje)
+     * @return wynik kopii
+     * @throws SQLException gdy odczyt bazy się nie powiedzie
+     * @throws IOException  gdy zapis pliku się nie powiedzie
+     */
+    public static BackupResult backup(Path dir)
+            throws SQLException, IOException {
+        Files.createDirectories(dir);
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        String name = "stonkadb-" + FILE_TIME.format(now) + SUFFIX;
+        Path file = dir.resolve(name);
+        Path part = dir.resolve(name + ".part");
+
+        List<Connection> connections = new ArrayList<>();
+        List<Path> members = new ArrayList<>();
+        try {
+            List<String> tables;
+            boolean mysql;
+            try (Connection conn = DatabaseBackupExporter.openConnection()) {
+                tables = DatabaseBackupExporter.getAllTables(conn);
+                mysql = DatabaseBackupExporter.isMySql(conn);
+            }
+            int wanted = Math.max(1, Math.min(tables.size(),
+                    DatabaseSettings.getInt("backup.parallelism", 4)));
+            openSnapshots(connections, wanted, mysql);
+            logger.info("Rozpoczynanie kopii {} tabel do pliku {} ({} połączeń)",
+                    tables.size(), file, connections.size());
+
+            BlockingQueue<Connection> pool =
+                    new ArrayBlockingQueue<>(connections.size(), false, connections);
+            List<Callable<TableResult>> calls = new ArrayList<>();
+            for (String table : tables) {
+                Path member = dir.resolve(name + "." + members.size() + ".part");
+                members.add(member);
+                calls.add(() -> {
+                    Connection conn = pool.take();
+                    try {
+                        return dumpTable(conn, table, member, mysql);
+                    } finally {
+                        pool.add(conn);
+                    }
+                });
+            }
+            List<TableResult> results = BackgroundTasks.fanOut(
+                    BackgroundTasks.Category.EXPORT, connections.size(), calls);
+            closeAll(connections);
+
+            String sha256 = assemble(part, members, mysql, now);
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+            Files.writeString(dir.resolve(name + CHECKSUM_SUFFIX),
+                    sha256 + "  " + name + "\n", StandardCharsets.UTF_8);
+
+            BackupResult result = new BackupResult(file, sha256, results,
+                    connections.size(), Files.size(file),
+                    System.nanoTime() - start);
+            logger.info("Zakończono kopię bazy: {}", result.describe());
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Kopia przerwana", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            logger.error("Błąd podczas kopii bazy: {}", cause.getMessage(), cause);
+            if (cause instanceof SQLException sql) {
+                throw sql;
+            }
+            throw new IOException("Kopia nie powiodła się: "
+                    + cause.getMessage(), cause);
+        } finally {
+            closeAll(connections);
+            for (Path member : members) {
+                Files.deleteIfExists(member);
+            }
+            Files.deleteIfExists(part);
+        }
+    }
+
+    /**
+     * Sprawdza sumę kontrolną pliku kopii z plikiem {@code .sha256}.
+     *
+     * @param file plik kopii
+     * @return true, jeśli suma jest zgodna
+     * @throws IOException gdy brak pliku sumy lub odczyt się nie powiedzie
+     */
+    public static boolean verify(Path file) throws IOException {
+        Path checksumFile = file.resolveSibling(
+                file.getFileName() + CHECKSUM_SUFFIX);
+        String expected = Files.readString(checksumFile, StandardCharsets.UTF_8)
+                .trim().split("\\s+")[0];
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(
+                Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest())
+                .equalsIgnoreCase(expected);
+    }
+
+    /**
+     * Odtwarza bazę z pliku kopii po sprawdzeniu sumy kontrolnej.
+     * Po odtworzeniu czyszczone są cache aplikacji.
+     *
+     * @param file plik kopii ({@code .sql.gz})
+     * @return liczba wykonanych poleceń SQL
+     * @throws SQLException gdy wykonanie skryptu się nie powiedzie
+     * @throws IOException  gdy suma jest niezgodna lub odczyt się nie powiedzie
+     */
+    public static long restore(Path file) throws SQLException, IOException {
+        if (!verify(file)) {
+            throw new IOException("Suma kontrolna pliku " + file.getFileName()
+                    + " jest niezgodna – plik jest uszkodzony");
+        }
+        long start = System.nanoTime();
+        long statements;
+        try (Connection conn = DatabaseBackupExporter.openConnection();
+             Reader reader = new InputStreamReader(new GZIPInputStream(
+                     Files.newInputStream(file), BUFFER_SIZE),
+                     StandardCharsets.UTF_8)) {
+            boolean mysql = DatabaseBackupExporter.isMySql(conn);
+            try {
+                statements = DatabaseInitializer.executeScript(conn, reader, false);
+            } finally {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(IncrementalBackup.foreignKeyChecks(mysql, true));
+                }
+            }
+        }
+        IncrementalBackup.evictCaches();
+        logger.info("Odtworzono bazę z pliku {}: {} poleceń w {} ms",
+                file.getFileName(), statements,
+                (System.nanoTime() - start) / 1_000_000);
+        return statements;
+    }
+
+    /**
+     * Otwiera połączenia z migawką spójną. Na MySQL migawki
+     * wszystkich połączeń są rozpoczynane pod globalną blokadą
+     * odczytu; bez niej używane jest jedno połączenie.
+     */
+    private static void openSnapshots(List<Connection> connections,
+                                      int wanted, boolean mysql)
+            throws SQLException {
+        if (mysql && wanted > 1) {
+            try (Connection coordinator = DatabaseBackupExporter.openConnection();
+                 Statement stmt = coordinator.createStatement()) {
+                try {
+                    stmt.execute("FLUSH TABLES WITH READ LOCK");
+                } catch (SQLException e) {
+                    logger.warn("Brak blokady FLUSH TABLES WITH READ LOCK ({}), "
+                            + "kopia przez jedno połączenie", e.getMessage());
+                    wanted = 1;
+                }
+                if (wanted > 1) {
+                    try {
+                        for (int i = 0; i < wanted; i++) {
+                            connections.add(beginSnapshot(true));
+                        }
+                    } finally {
+                        stmt.execute("UNLOCK TABLES");
+                    }
+                    return;
+                }
+            }
+        }
+        connections.add(beginSnapshot(mysql));
+    }
+
+    private static Connection beginSnapshot(boolean mysql) throws SQLException {
+        Connection conn = DatabaseBackupExporter.openConnection();
+        try {
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            conn.setAutoCommit(false);
+            if (mysql) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT");
+                }
+            }
+            return conn;
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+    }
+
+    private static void closeAll(List<Connection> connections) {
+        for (Connection conn : connections) {
+            try {
+                if (!conn.isClosed()) {
+                    conn.commit();
+                    conn.close();
+                }
+            } catch (SQLException e) {
+                logger.warn("Błąd zamykania połączenia kopii: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Zapisuje jedną tabelę jako osobny człon gzip.
+     */
+    private static TableResult dumpTable(Connection conn, String table,
+                                         Path member, boolean mysql)
+            throws SQLException, IOException {
+        long start = System.nanoTime();
+        long rows;
+        try (SqlDumpWriter out = new SqlDumpWriter(new BufferedWriter(
+                new OutputStreamWriter(new GZIPOutputStream(
+                        Files.newOutputStream(member), BUFFER_SIZE),
+                        StandardCharsets.UTF_8), BUFFER_SIZE), mysql)) {
+            String quoted = DatabaseBackupExporter.quote(conn, table);
+            out.comment("Tabela " + table);
+            if (mysql) {
+                out.statement("DROP TABLE IF EXISTS " + quoted);
+                out.statement(showCreateTable(conn, quoted));
+            } else {
+                out.statement("DELETE FROM " + quoted);
+            }
+            rows = out.writeTable(conn, table, null, List.of(), false);
+        }
+        TableResult result = new TableResult(table, rows, Files.size(member),
+                System.nanoTime() - start);
+        logger.debug("Zapisano tabelę {}: {} wierszy, {} bajtów",
+                table, rows, result.bytes());
+        return result;
+    }
+
+    private static String showCreateTable(Connection conn, String quoted)
+            throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SHOW CREATE TABLE " + quoted)) {
+            if (!rs.next()) {
+                throw new SQLException("Brak definicji tabeli " + quoted);
+            }
+            return rs.getString(2);
+        }
+    }
+
+    /**
+     * Łączy nagłówek, człony tabel i stopkę w jeden plik, licząc
+     * jednocześnie jego sumę SHA-256.
+     *
+     * @return suma kontrolna (hex)
+     */
+    private static String assemble(Path part, List<Path> members,
+                                   boolean mysql, LocalDateTime now)
+            throws IOException {
+        MessageDigest digest = sha256();
+        try (OutputStream out = new DigestOutputStream(
+                Files.newOutputStream(part), digest)) {
+            writeMember(out, "-- Kopia bazy " + DB_NAME + " z " + now + "\n"
+                    + (mysql ? "SET NAMES utf8mb4;\n" : "")
+                    + IncrementalBackup.foreignKeyChecks(mysql, false) + ";\n");
+            for (Path member : members) {
+                Files.copy(member, out);
+            }
+            writeMember(out, IncrementalBackup.foreignKeyChecks(mysql, true) + ";\n");
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Dopisuje tekst jako osobny człon gzip; {@code finish()} kończy
+     * człon bez zamykania strumienia docelowego.
+     */
+    private static void writeMember(OutputStream out, String text)
+            throws IOException {
+        GZIPOutputStream member = new GZIPOutputStream(out);
+        member.write(text.getBytes(StandardCharsets.UTF_8));
+        member.finish();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Brak algorytmu SHA-256", e);
+        }
+    }
+}
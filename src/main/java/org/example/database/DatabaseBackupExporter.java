@@ -1,7 +1,7 @@
 /*
  * Classname: DatabaseBackupExporter
- * Version information: 1.0
- * Date: 2025-06-04
+ * Version information: 2.1
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -9,18 +9,150 @@ package org.example.database;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.example.sys.BackgroundTasks;
 
-import java.io.File;
-import java.io.FileWriter;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
 import java.io.IOException;
-import java.sql.*;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * Eksport wszystkich tabel bazy danych do plików CSV.
+ * <p>
+ * Każda tabela jest eksportowana przez osobne połączenie,
+ * równolegle z innymi (ustawienie {@code export.parallelism},
+ * domyślnie 4). Wiersze są czytane strumieniowo – dla MySQL
+ * z {@code fetchSize = Integer.MIN_VALUE}, więc tabela nie jest
+ * ładowana do pamięci – i zapisywane buforowanym strumieniem UTF-8,
+ * opcjonalnie kompresowanym gzip ({@code .csv.gz}). Postęp każdej
+ * tabeli (wiersze, bajty, przepustowość) jest zgłaszany przez
+ * {@link ProgressListener}.
+ * </p>
+ */
 public class DatabaseBackupExporter implements ILacz {
     private static final Logger logger
             = LogManager.getLogger(DatabaseBackupExporter.class);
 
+    /** Rozmiar bufora zapisu pliku. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Co ile wierszy zgłaszany jest postęp tabeli. */
+    private static final int PROGRESS_EVERY_ROWS = 10_000;
+
+    /**
+     * Postęp eksportu jednej tabeli.
+     *
+     * @param table        nazwa tabeli
+     * @param rows         liczba zapisanych wierszy
+     * @param bytes        liczba bajtów zapisanych do pliku
+     * @param elapsedNanos czas eksportu tabeli
+     * @param done         true, jeśli eksport tabeli się zakończył
+     * @param error        komunikat błędu albo null
+     */
+    public record TableProgress(String table, long rows, long bytes,
+                                long elapsedNanos, boolean done,
+                                String error) {
+
+        /**
+         * @return liczba wierszy na sekundę
+         */
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : rows * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * @return przepustowość zapisu w MB/s
+         */
+        public double megabytesPerSecond() {
+            return elapsedNanos == 0 ? 0.0
+                    : bytes * 1e9 / elapsedNanos / (1024.0 * 1024.0);
+        }
+
+        /**
+         * @return opis postępu do wyświetlenia w GUI
+         */
+        public String describe() {
+            if (error != null) {
+                return String.format("%s: błąd – %s", table, error);
+            }
+            return String.format(Locale.ROOT,
+                    "%s: %d wierszy, %.1f MB, %.0f wierszy/s%s", table, rows,
+                    bytes / (1024.0 * 1024.0), rowsPerSecond(),
+                    done ? "" : " …");
+        }
+    }
+
+    /**
+     * Wynik eksportu wszystkich tabel.
+     *
+     * @param tables       wynik każdej tabeli
+     * @param elapsedNanos łączny czas eksportu
+     */
+    public record ExportResult(List<TableProgress> tables, long elapsedNanos) {
+
+        /**
+         * @return liczba tabel zakończonych błędem
+         */
+        public long failedCount() {
+            return tables.stream().filter(t -> t.error() != null).count();
+        }
+
+        /**
+         * @return łączna liczba wierszy
+         */
+        public long totalRows() {
+            return tables.stream().mapToLong(TableProgress::rows).sum();
+        }
+
+        /**
+         * @return łączny rozmiar plików w bajtach
+         */
+        public long totalBytes() {
+            return tables.stream().mapToLong(TableProgress::bytes).sum();
+        }
+    }
+
+    /**
+     * Odbiorca postępu eksportu. Metody są wywoływane z wątków
+     * eksportu.
+     */
+    public interface ProgressListener {
+
+        /**
+         * Wywoływane po odczytaniu listy tabel.
+         *
+         * @param tables tabele do wyeksportowania
+         */
+        default void started(List<String> tables) {
+        }
+
+        /**
+         * Wywoływane co 10 000 wierszy oraz po zakończeniu tabeli.
+         *
+         * @param progress postęp tabeli
+         */
+        default void progress(TableProgress progress) {
+        }
+    }
+
     /**
      * Eksportuje wszystkie tabele z bazy danych do
      * plików CSV w określonym folderze.
@@ -33,46 +165,119 @@ public class DatabaseBackupExporter implements ILacz {
     public static void exportAllTablesToCsv(String outputFolder)
             throws SQLException,
             IOException {
-        // Utwórz folder jeśli nie istnieje
-        File folder = new File(outputFolder);
-        if (!folder.exists() && !folder.mkdirs()) {
-            throw new IOException("Nie można utworzyć katalogu: " +
-                    outputFolder);
-        }
-
-        try (Connection conn = DriverManager.getConnection(
-                MYSQL_DB_URL,
-                MYSQL_USER,
-                MYSQL_PASSWORD)
-        ) {
-            logger.info("Rozpoczynanie eksportu " +
-                    "bazy danych do plików CSV w folderze: {}", outputFolder);
-
-            // Pobierz listę wszystkich tabel w bazie danych
-            List<String> tables = getAllTables(conn);
-
-            // Eksportuj każdą tabelę do osobnego pliku CSV
-            for (String table : tables) {
-                try {
-                    if (tableExists(conn, table)) {
-                        exportTableToCsv(conn, table, folder);
-                    } else {
-                        logger.warn("Tabela {} nie istnieje," +
-                                " pomijam eksport", table);
-                    }
-                } catch (Exception e) {
-                    logger.error("Błąd podczas eksportu tabeli {}:" +
-                            " {}", table, e.getMessage(), e);
-                }
-            }
+        exportAllTablesToCsv(Path.of(outputFolder), false,
+                new ProgressListener() { });
+    }
+
+    /**
+     * Eksportuje równolegle wszystkie tabele do plików CSV.
+     * Błąd jednej tabeli nie przerywa eksportu pozostałych –
+     * jest zapisywany w wyniku.
+     *
+     * @param outputFolder folder docelowy (tworzony, jeśli nie istnieje)
+     * @param gzip         true – pliki {@code .csv.gz}
+     * @param listener     odbiorca postępu
+     * @return wynik eksportu
+     * @throws SQLException Jeśli nie można odczytać listy tabel
+     * @throws IOException  Jeśli nie można utworzyć folderu
+     */
+    public static ExportResult exportAllTablesToCsv(Path outputFolder,
+                                                    boolean gzip,
+                                                    ProgressListener listener)
+            throws SQLException, IOException {
+        Files.createDirectories(outputFolder);
+        long start = System.nanoTime();
+
+        List<String> tables;
+        try (Connection conn = openConnection()) {
+            tables = getAllTables(conn);
+        }
+        logger.info("Rozpoczynanie eksportu {} tabel do plików CSV "
+                + "w folderze: {}", tables.size(), outputFolder);
+        listener.started(tables);
+
+        List<Callable<TableProgress>> calls = new ArrayList<>();
+        for (String table : tables) {
+            calls.add(() -> exportTable(table, outputFolder, gzip, listener));
+        }
+        List<TableProgress> results;
+        try {
+            results = BackgroundTasks.fanOut(BackgroundTasks.Category.EXPORT,
+                    DatabaseSettings.getInt("export.parallelism", 4), calls);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Eksport przerwany", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Eksport nie powiódł się", e.getCause());
+        }
+
+        ExportResult result = new ExportResult(results, System.nanoTime() - start);
+        logger.info("Zakończono eksport. Wyeksportowano {} z {} tabel, "
+                        + "{} wierszy, {} bajtów w {} ms.",
+                tables.size() - result.failedCount(), tables.size(),
+                result.totalRows(), result.totalBytes(),
+                result.elapsedNanos() / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Otwiera nowe połączenie z bazą danych (poza pulą, aby długie
+     * odczyty nie blokowały połączeń używanych przez GUI).
+     *
+     * @return połączenie
+     * @throws SQLException Jeśli nie można się połączyć
+     */
+    static Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(
+                DatabaseSettings.getString("db.url", MYSQL_DB_URL),
+                DatabaseSettings.getString("db.user", MYSQL_USER),
+                DatabaseSettings.getString("db.password", MYSQL_PASSWORD));
+    }
 
-            logger.info("Zakończono eksport. " +
-                            "Wyeksportowano {} z {} tabel.",
-                    tables.size() - countErrors, tables.size());
+    /**
+     * Tworzy zapytanie odczytujące tabelę strumieniowo.
+     *
+     * @param conn połączenie
+     * @return zapytanie tylko do odczytu, w przód
+     * @throws SQLException Jeśli wystąpi błąd SQL
+     */
+    static Statement streamingStatement(Connection conn) throws SQLException {
+        Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+        if (isMySql(conn)) {
+            // Sterownik MySQL przesyła wiersze strumieniowo tylko dla
+            // tej specjalnej wartości
+            stmt.setFetchSize(Integer.MIN_VALUE);
+        } else {
+            stmt.setFetchSize(1000);
         }
+        return stmt;
     }
 
-    private static int countErrors = 0;
+    /**
+     * Zwraca nazwę tabeli w cudzysłowach identyfikatora bazy.
+     *
+     * @param conn  połączenie
+     * @param table nazwa tabeli
+     * @return nazwa do użycia w SQL
+     * @throws SQLException Jeśli wystąpi błąd SQL
+     */
+    static String quote(Connection conn, String table) throws SQLException {
+        String q = conn.getMetaData().getIdentifierQuoteString().trim();
+        return q + table.replace(q, q + q) + q;
+    }
+
+    /**
+     * Sprawdza, czy połączenie prowadzi do serwera MySQL.
+     *
+     * @param conn połączenie
+     * @return true dla MySQL
+     * @throws SQLException Jeśli wystąpi błąd SQL
+     */
+    static boolean isMySql(Connection conn) throws SQLException {
+        return conn.getMetaData().getDatabaseProductName()
+                .toLowerCase(Locale.ROOT).contains("mysql");
+    }
 
     /**
      * Pobiera listę wszystkich tabel w bazie danych.
@@ -81,13 +286,13 @@ public class DatabaseBackupExporter implements ILacz {
      * @return Lista nazw tabel
      * @throws SQLException Jeśli wystąpi błąd SQL
      */
-    private static List<String> getAllTables(Connection conn)
+    static List<String> getAllTables(Connection conn)
             throws SQLException {
         List<String> tables = new ArrayList<>();
         DatabaseMetaData meta = conn.getMetaData();
 
-        try (ResultSet rs = meta.getTables(DB_NAME,
-                null, "%",
+        try (ResultSet rs = meta.getTables(conn.getCatalog(),
+                conn.getSchema(), "%",
                 new String[] {"TABLE"})) {
             while (rs.next()) {
                 tables.add(rs.getString("TABLE_NAME"));
@@ -99,135 +304,132 @@ public class DatabaseBackupExporter implements ILacz {
     }
 
     /**
-     * Sprawdza czy tabela o podanej nazwie istnieje w bazie danych.
-     *
-     * @param conn Połączenie z bazą danych
-     * @param tableName Nazwa tabeli
-     * @return true jeśli tabela istnieje, false w przeciwnym przypadku
+     * Eksportuje pojedynczą tabelę do pliku CSV przez własne
+     * połączenie. Błędy są zapisywane w wyniku, a nie zgłaszane.
      */
-    private static boolean tableExists(Connection conn, String tableName) {
-        try {
-            DatabaseMetaData meta = conn.getMetaData();
-            try (ResultSet rs = meta.getTables(null, null,
-                    tableName, new String[] {"TABLE"})) {
-                return rs.next();
+    private static TableProgress exportTable(String tableName,
+                                             Path outputFolder,
+                                             boolean gzip,
+                                             ProgressListener listener)
+            throws InterruptedException {
+        Path file = outputFolder.resolve(tableName + (gzip ? ".csv.gz" : ".csv"));
+        logger.info("Eksportowanie tabeli {} do pliku {}", tableName, file);
+        long start = System.nanoTime();
+        long rows = 0;
+        CountingOutputStream counter = null;
+
+        try (Connection conn = openConnection();
+             Statement stmt = streamingStatement(conn);
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT * FROM " + quote(conn, tableName))) {
+            counter = new CountingOutputStream(Files.newOutputStream(file));
+            OutputStream out = gzip
+                    ? new GZIPOutputStream(counter, BUFFER_SIZE)
+                    : counter;
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    out, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                ResultSetMetaData meta = rs.getMetaData();
+                int columnCount = meta.getColumnCount();
+
+                // Najpierw zapisz nagłówki kolumn
+                for (int i = 1; i <= columnCount; i++) {
+                    if (i > 1) {
+                        writer.write(',');
+                    }
+                    writer.write(meta.getColumnName(i));
+                }
+                writer.write('\n');
+
+                // Następnie zapisz dane
+                while (rs.next()) {
+                    for (int i = 1; i <= columnCount; i++) {
+                        if (i > 1) {
+                            writer.write(',');
+                        }
+                        writeValue(writer, rs.getString(i));
+                    }
+                    writer.write('\n');
+                    if (++rows % PROGRESS_EVERY_ROWS == 0) {
+                        if (Thread.interrupted()) {
+                            throw new InterruptedException();
+                        }
+                        listener.progress(new TableProgress(tableName, rows,
+                                counter.count, System.nanoTime() - start,
+                                false, null));
+                    }
+                }
             }
-        } catch (SQLException e) {
-            logger.error("Błąd podczas sprawdzania istnienia tabeli" +
-                    " {}: {}", tableName, e.getMessage());
-            return false;
+            TableProgress done = new TableProgress(tableName, rows,
+                    counter.count, System.nanoTime() - start, true, null);
+            logger.debug("Pomyślnie wyeksportowano tabelę {}: {}",
+                    tableName, done.describe());
+            listener.progress(done);
+            return done;
+        } catch (SQLException | IOException e) {
+            logger.error("Błąd podczas eksportu tabeli {}: {}",
+                    tableName, e.getMessage(), e);
+            TableProgress failed = new TableProgress(tableName, rows,
+                    counter == null ? 0 : counter.count,
+                    System.nanoTime() - start, true, e.getMessage());
+            listener.progress(failed);
+            return failed;
         }
     }
 
     /**
-     * Eksportuje pojedynczą tabelę do pliku CSV.
-     *
-     * @param conn Połączenie z bazą danych
-     * @param tableName Nazwa tabeli do eksportu
-     * @param outputFolder Folder docelowy
-     * @throws SQLException Jeśli wystąpi błąd SQL
-     * @throws IOException Jeśli wystąpi błąd zapisu pliku
+     * Zapisuje jedną wartość w formacie CSV bez tworzenia
+     * pośrednich napisów dla wartości niewymagających cytowania.
      */
-    private static void exportTableToCsv(
-            Connection conn,
-            String tableName,
-            File outputFolder
-    ) throws SQLException,
-            IOException {
-        String csvFilePath = new File(outputFolder,
-                tableName + ".csv").getAbsolutePath();
-        logger.info("Eksportowanie tabeli {} do pliku {}",
-                tableName, csvFilePath);
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT * FROM " + tableName);
-             FileWriter writer = new FileWriter(csvFilePath)) {
-
-            // Najpierw zapisz nagłówki kolumn
-            writeColumnHeaders(rs, writer);
-
-            // Następnie zapisz dane
-            writeDataRows(rs, writer);
-
-            logger.debug("Pomyślnie wyeksportowano tabelę {}",
-                    tableName);
-        } catch (SQLException e) {
-            countErrors++;
-            logger.error("Błąd SQL podczas eksportu tabeli" +
-                    " {}: {}", tableName, e.getMessage());
-            throw e;
-        } catch (IOException e) {
-            countErrors++;
-            logger.error("Błąd IO podczas eksportu tabeli" +
-                    " {}: {}", tableName, e.getMessage());
-            throw e;
+    private static void writeValue(Writer writer, String value)
+            throws IOException {
+        if (value == null) {
+            return;
         }
-    }
-
-    /**
-     * Zapisuje nagłówki kolumn do pliku CSV.
-     *
-     * @param rs ResultSet zawierający dane tabeli
-     * @param writer Writer do pliku CSV
-     * @throws SQLException Jeśli wystąpi błąd SQL
-     * @throws IOException Jeśli wystąpi błąd zapisu pliku
-     */
-    private static void writeColumnHeaders(ResultSet rs,
-                                           FileWriter writer
-    ) throws SQLException, IOException {
-        ResultSetMetaData meta = rs.getMetaData();
-        int columnCount = meta.getColumnCount();
-
-        StringBuilder headerLine = new StringBuilder();
-        for (int i = 1; i <= columnCount; i++) {
-            headerLine.append(meta.getColumnName(i));
-            if (i < columnCount) {
-                headerLine.append(",");
+        boolean quote = false;
+        boolean escape = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"') {
+                quote = true;
+            }
+            if (c == '"' || c == '\n' || c == '\r') {
+                escape = true;
             }
         }
-        writer.write(headerLine.toString());
-        writer.write("\n");
+        if (escape) {
+            value = value.replace("\"", "\"\"")
+                    .replace("\n", "\\n")
+                    .replace("\r", "\\r");
+        }
+        if (quote) {
+            writer.write('"');
+            writer.write(value);
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
     }
 
     /**
-     * Zapisuje wiersze danych do pliku CSV.
-     *
-     * @param rs ResultSet zawierający dane tabeli
-     * @param writer Writer do pliku CSV
-     * @throws SQLException Jeśli wystąpi błąd SQL
-     * @throws IOException Jeśli wystąpi błąd zapisu pliku
+     * Strumień zliczający bajty zapisane do pliku.
      */
-    private static void writeDataRows
-    (ResultSet rs,
-     FileWriter writer
-    ) throws SQLException,
-            IOException {
-        ResultSetMetaData meta = rs.getMetaData();
-        int columnCount = meta.getColumnCount();
-
-        while (rs.next()) {
-            StringBuilder line = new StringBuilder();
-            for (int i = 1; i <= columnCount; i++) {
-                Object value = rs.getObject(i);
-                if (value != null) {
-                    String stringValue = value.toString()
-                            .replace("\"", "\"\"")
-                            .replace("\n", "\\n")
-                            .replace("\r", "\\r");
-
-                    if (stringValue.contains(",")
-                            || stringValue.contains("\"")) {
-                        line.append("\"").append(stringValue).append("\"");
-                    } else {
-                        line.append(stringValue);
-                    }
-                }
-                if (i < columnCount) {
-                    line.append(",");
-                }
-            }
-            writer.write(line.toString());
-            writer.write("\n");
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private volatile long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,7 @@
 /*
  * Classname: DatabaseInitializer
- * Version information: 1.3
- * Date: 2025-06-02
+ * Version information: 1.7
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -11,7 +11,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.sql.*;
 
@@ -19,33 +22,83 @@ public class DatabaseInitializer implements ILacz {
     private static final Logger logger
             = LogManager.getLogger(DatabaseInitializer.class);
 
+    /**
+     * Tworzy bazę danych (jeśli nie istnieje)
+     * i importuje do niej struktury oraz dane
+     * na podstawie plików SQL.
+     *
+     * @see #initializeStaged(Runnable)
+     */
+    public static void initialize() {
+        initializeStaged(() -> { });
+    }
+
     /**
      * Tworzy bazę danych (jeśli nie istnieje)
      * i importuje do niej struktury oraz dane
      * na podstawie plików SQL.
      * <p>
      * Najpierw łączy się z serwerem MySQL bez wskazania konkretnej bazy,
-     * tworzy bazę (jeśli nie istnieje), a następnie:
+     * tworzy bazę (jeśli nie istnieje), a następnie przez jedno
+     * połączenie:
      * 1. Tworzy strukturę tabel (jeśli nie istnieją)
      * 2. Wstawia dane początkowe (tylko jeśli tabela Pracownicy jest pusta)
+     * 3. Stosuje wersjonowane migracje schematu ({@link SchemaMigrator})
+     *    i uruchamia kontrolę indeksów ({@link SchemaHealthCheck})
+     * 4. Wykonuje lub wznawia jednorazowe migracje danych
+     *    ({@link DataMigrator}), np. hashowanie haseł
      * </p>
+     * <p>
+     * {@code afterTables} jest wywoływane zaraz po kroku 1, dzięki czemu
+     * start aplikacji może równolegle tworzyć fabrykę Hibernate,
+     * zanim zakończą się kroki 2–4. Czas każdego kroku jest logowany.
+     * </p>
+     *
+     * @param afterTables akcja wywoływana po utworzeniu struktury tabel
      */
-    public static void initialize() {
+    public static void initializeStaged(Runnable afterTables) {
         logger.info("Rozpoczynam inicjalizację bazy danych");
+        long start = System.nanoTime();
 
         try {
             // Krok 1: Sprawdź czy baza istnieje, jeśli nie - utwórz ją
+            long step = System.nanoTime();
             createDatabaseIfNotExists();
+            logStep("sprawdzenie bazy", step);
+
+            try (Connection conn = DriverManager.getConnection(MYSQL_DB_URL,
+                    MYSQL_USER,
+                    MYSQL_PASSWORD)
+            ) {
+                logger.debug("Połączenie do bazy danych '{}' nawiązane",
+                        DB_NAME);
+
+                // Krok 2: Utwórz strukturę tabel (jeśli nie istnieją)
+                step = System.nanoTime();
+                createTablesStructure(conn);
+                logStep("struktura tabel", step);
+                afterTables.run();
+
+                // Krok 3: Wstaw dane początkowe (tylko jeśli tabela
+                // Pracownicy jest pusta)
+                step = System.nanoTime();
+                boolean seeded = insertInitialData(conn);
+                logStep("dane początkowe", step);
 
-            // Krok 2: Połącz się z bazą i utwórz strukturę
-            // tabel (jeśli nie istnieją)
-            createTablesStructure();
+                // Krok 4: Zastosuj brakujące migracje schematu (indeksy itp.)
+                // i sprawdź indeksy oraz plany najczęstszych zapytań
+                step = System.nanoTime();
+                migrateSchema(conn);
+                logStep("migracje schematu", step);
 
-            // Krok 3: Wstaw dane początkowe (tylko jeśli tabela
-            // Pracownicy jest pusta)
-            insertInitialData();
+                // Krok 5: Wykonaj niezakończone migracje danych
+                step = System.nanoTime();
+                migrateData(conn, seeded);
+                logStep("migracje danych", step);
+            }
 
-            logger.info("Inicjalizacja bazy danych zakończona pomyślnie");
+            logger.info("Inicjalizacja bazy danych zakończona pomyślnie w {} ms",
+                    (System.nanoTime() - start) / 1_000_000);
         } catch (Exception e) {
             logger.error("Błąd podczas inicjalizacji bazy danych: {}", e.getMessage(), e);
             // Rzuć wyjątek dalej, żeby został obsłużony przez globalny handler w HelloApplication
@@ -53,6 +106,11 @@ public class DatabaseInitializer implements ILacz {
         }
     }
 
+    private static void logStep(String name, long startNanos) {
+        logger.info("Inicjalizacja bazy – {}: {} ms", name,
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
     /**
      * Sprawdza czy baza danych istnieje, a jeśli nie - tworzy ją.
      *
@@ -87,16 +145,11 @@ public class DatabaseInitializer implements ILacz {
     /**
      * Tworzy strukturę tabel w bazie danych na podstawie pliku Struktura.sql.
      *
+     * @param conn połączenie z bazą danych
      * @throws Exception gdy wystąpi błąd podczas wykonywania skryptu SQL
      */
-    private static void createTablesStructure() throws Exception {
-        try (Connection conn = DriverManager.getConnection(MYSQL_DB_URL,
-                MYSQL_USER,
-                MYSQL_PASSWORD)
-        ) {
-            logger.debug("Połączenie do bazy danych '{}' nawiązane",
-                    DB_NAME);
-
+    private static void createTablesStructure(Connection conn) throws Exception {
+        try {
             // Sprawdź czy tabela Pracownicy już istnieje
             boolean tablesExist = tableExists(conn, "Pracownicy");
 
@@ -118,17 +171,12 @@ public class DatabaseInitializer implements ILacz {
      * Wstawia dane początkowe do bazy danych na podstawie pliku Dane.sql,
      * ale tylko jeśli tabela Pracownicy jest pusta.
      *
+     * @param conn połączenie z bazą danych
+     * @return true, jeśli dane początkowe zostały wstawione
      * @throws Exception gdy wystąpi błąd podczas wykonywania skryptu SQL
      */
-    private static void insertInitialData() throws Exception {
-        try (Connection conn = DriverManager.getConnection(
-                MYSQL_DB_URL,
-                MYSQL_USER,
-                MYSQL_PASSWORD)
-        ) {
-            logger.debug("Połączenie do bazy danych '{}'" +
-                    " nawiązane do wstawienia danych", DB_NAME);
-
+    private static boolean insertInitialData(Connection conn) throws Exception {
+        try {
             // Sprawdź czy tabela Pracownicy zawiera jakiekolwiek dane
             boolean hasData = false;
             try (Statement stmt = conn.createStatement();
@@ -159,6 +207,7 @@ public class DatabaseInitializer implements ILacz {
                 logger.info("Tabela Pracownicy już zawiera dane," +
                         " pomijam wstawianie danych");
             }
+            return !hasData;
         } catch (Exception e) {
             logger.error("Błąd podczas inicjalizacji danych:" +
                     " {}", e.getMessage(), e);
@@ -166,6 +215,52 @@ public class DatabaseInitializer implements ILacz {
         }
     }
 
+    /**
+     * Stosuje niezastosowane migracje schematu, a następnie sprawdza
+     * obecność oczekiwanych indeksów i plany najczęstszych zapytań.
+     * Błąd migracji przerywa inicjalizację; wynik kontroli jest
+     * jedynie logowany.
+     *
+     * @param conn połączenie z bazą danych
+     * @throws SQLException gdy migracja się nie powiedzie
+     */
+    private static void migrateSchema(Connection conn) throws SQLException {
+        try {
+            SchemaMigrator migrator = new SchemaMigrator();
+            migrator.migrate(conn);
+            SchemaHealthCheck.run(conn, migrator.getExpectedIndexes());
+        } catch (SQLException e) {
+            logger.error("Błąd podczas migracji schematu: {}",
+                    e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Wykonuje lub wznawia niezakończone migracje danych. Po wstawieniu
+     * danych początkowych rejestr migracji danych jest czyszczony,
+     * ponieważ skrypt danych zawiera dane w starym formacie (np. hasła
+     * jawnym tekstem).
+     *
+     * @param conn   połączenie z bazą danych
+     * @param seeded true, jeśli w tym uruchomieniu wstawiono dane początkowe
+     * @throws SQLException gdy migracja się nie powiedzie
+     */
+    private static void migrateData(Connection conn, boolean seeded)
+            throws SQLException {
+        try {
+            DataMigrator migrator = new DataMigrator();
+            if (seeded) {
+                migrator.reset(conn);
+            }
+            migrator.migrate(conn);
+        } catch (SQLException e) {
+            logger.error("Błąd podczas migracji danych: {}",
+                    e.getMessage(), e);
+            throw e;
+        }
+    }
+
     /**
      * Sprawdza czy baza danych o podanej nazwie istnieje.
      *
@@ -229,37 +324,60 @@ public class DatabaseInitializer implements ILacz {
                 throw new FileNotFoundException("Plik " +
                         filePath + " nie został znaleziony w zasobach!");
             }
-            String sql = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-            String[] statements = sql.split(";");
+            executeScript(conn, new InputStreamReader(is,
+                    StandardCharsets.UTF_8), true);
+        }
+        logger.debug("Wykonano wszystkie polecenia " +
+                "SQL z pliku {}", filePath);
+    }
 
-            try (Statement stmt = conn.createStatement()) {
-                for (String s : statements) {
-                    String trimmed = s.trim();
-                    if (!trimmed.isEmpty()) {
-                        try {
-                            logger.trace("Wykonuję zapytanie SQL: {}",
-                                    trimmed.replaceAll("\\s+",
-                                            " "));
-                            stmt.execute(trimmed);
-                        } catch (SQLException e) {
-                            // Obsługa konkretnych błędów SQL
-                            if (e.getMessage().contains("Duplicate column")
-                                    || e.getMessage()
-                                    .contains("Duplicate entry")
-                                    || e.getMessage()
-                                    .contains("already exists")) {
-                                logger.warn("Ignoruję błąd duplikatu:" +
-                                        " {}", e.getMessage());
-                            } else {
-                                // Dla innych błędów rzucamy wyjątek
-                                throw e;
-                            }
-                        }
+    /**
+     * Wykonuje kolejne polecenia skryptu SQL czytanego strumieniowo
+     * przez {@link SqlScriptReader}, więc średniki w literałach nie
+     * dzielą poleceń, a skrypt nie jest w całości ładowany do pamięci.
+     * Używane także przy odtwarzaniu kopii zapasowych.
+     *
+     * @param conn             połączenie, na którym wykonywane są polecenia
+     * @param script           treść skryptu (zamykana po wykonaniu)
+     * @param ignoreDuplicates true – błędy duplikatów (istniejąca tabela,
+     *                         kolumna lub wiersz) są tylko logowane
+     * @return liczba wykonanych poleceń
+     * @throws SQLException gdy polecenie zakończy się błędem
+     * @throws IOException  gdy odczyt skryptu się nie powiedzie
+     */
+    public static long executeScript(
+            Connection conn,
+            Reader script,
+            boolean ignoreDuplicates
+    ) throws SQLException, IOException {
+        long count = 0;
+        try (SqlScriptReader reader = new SqlScriptReader(script);
+             Statement stmt = conn.createStatement()) {
+            String statement;
+            while ((statement = reader.nextStatement()) != null) {
+                try {
+                    if (logger.isTraceEnabled()) {
+                        logger.trace("Wykonuję zapytanie SQL: {}",
+                                statement.replaceAll("\\s+", " "));
+                    }
+                    stmt.execute(statement);
+                    count++;
+                } catch (SQLException e) {
+                    // Obsługa konkretnych błędów SQL
+                    String message = String.valueOf(e.getMessage());
+                    if (ignoreDuplicates
+                            && (message.contains("Duplicate column")
+                            || message.contains("Duplicate entry")
+                            || message.contains("already exists"))) {
+                        logger.warn("Ignoruję błąd duplikatu:" +
+                                " {}", message);
+                    } else {
+                        // Dla innych błędów rzucamy wyjątek
+                        throw e;
                     }
                 }
             }
         }
-        logger.debug("Wykonano wszystkie polecenia " +
-                "SQL z pliku {}", filePath);
+        return count;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+/*
+ * Classname: DatabaseSettings
+ * Version information: 1.1
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Odczyt ustawień warstwy bazodanowej (pula połączeń, cache,
+ * adres bazy itp.) z pliku {@code config.properties}. Wartości można
+ * nadpisać właściwościami systemowymi {@code -Dklucz=wartość}.
+ */
+final class DatabaseSettings {
+
+    private static final Logger logger =
+            LogManager.getLogger(DatabaseSettings.class);
+
+    /**
+     * Plik konfiguracyjny aplikacji (wspólny z ConfigManager).
+     */
+    private static final String CONFIG_FILE = "config.properties";
+
+    private static final Properties PROPS = load();
+
+    private DatabaseSettings() {
+    }
+
+    /**
+     * Zwraca ustawienie liczbowe lub wartość domyślną, gdy klucz
+     * nie istnieje albo ma niepoprawny format.
+     *
+     * @param key klucz ustawienia
+     * @param def wartość domyślna
+     * @return wartość ustawienia
+     */
+    static long getLong(String key, long def) {
+        String value = System.getProperty(key, PROPS.getProperty(key));
+        if (value == null || value.isBlank()) {
+            return def;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Niepoprawna wartość {}={}, używam {}",
+                    key, value, def);
+            return def;
+        }
+    }
+
+    /**
+     * @see #getLong(String, long)
+     */
+    static int getInt(String key, int def) {
+        return (int) getLong(key, def);
+    }
+
+    /**
+     * Zwraca ustawienie tekstowe lub wartość domyślną, gdy klucz
+     * nie istnieje.
+     *
+     * @param key klucz ustawienia
+     * @param def wartość domyślna (może być null)
+     * @return wartość ustawienia
+     */
+    static String getString(String key, String def) {
+        String value = System.getProperty(key, PROPS.getProperty(key));
+        return value == null ? def : value.trim();
+    }
+
+    private static Properties load() {
+        Properties props = new Properties();
+        File file = new File(CONFIG_FILE);
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                props.load(in);
+            } catch (IOException e) {
+                logger.warn("Nie można wczytać {} – używam ustawień "
+                        + "domyślnych: {}", CONFIG_FILE, e.getMessage());
+            }
+        }
+        return props;
+    }
+}
@@ -1,7 +1,7 @@
 /*
  * Classname: EMFProvider
- * Version information: 1.0
- * Date: 2025-06-04
+ * Version information: 1.4
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -10,20 +10,55 @@ package org.example.database;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Dostawca fabryki EntityManagerFactory dla całej aplikacji.
  * Implementuje wzorzec Singleton zapewniający jeden współdzielony
  * obiekt EntityManagerFactory dla wszystkich repozytoriów.
+ * Połączenia pobierane są ze wspólnej puli {@link ConnectionPool},
+ * a zapytania repozytoriów mierzy {@link RepositoryMetrics}.
+ * Encje słownikowe korzystają z {@link SecondLevelCache}.
  */
 public class EMFProvider {
 
     /**
      * Współdzielona instancja EntityManagerFactory.
      * Inicjalizowana przy pierwszym załadowaniu klasy.
-     * Używa jednostki trwałości "myPU" zdefiniowanej w persistence.xml.
+     * Używa jednostki trwałości "myPU" zdefiniowanej w persistence.xml,
+     * której połączenia dostarcza pula {@link ConnectionPool}.
+     */
+    private static final EntityManagerFactory EMF = createFactory();
+
+    /**
+     * Tworzy fabrykę EntityManagerFactory opartą na współdzielonej
+     * puli połączeń zamiast wbudowanej puli Hibernate.
+     *
+     * @return nowa instancja EntityManagerFactory
      */
-    private static final EntityManagerFactory EMF =
-            Persistence.createEntityManagerFactory("myPU");
+    private static EntityManagerFactory createFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put("jakarta.persistence.nonJtaDataSource",
+                ConnectionPool.getDataSource());
+        // Dialekt z persistence.xml można nadpisać razem z adresem bazy
+        // (db.url), np. dla H2 używanego w benchmarkach
+        String dialect = DatabaseSettings.getString("db.dialect", null);
+        if (dialect != null) {
+            props.put("hibernate.dialect", dialect);
+        }
+        // Cache drugiego poziomu z persistence.xml można wyłączyć
+        // (db.cache.enabled=0), np. do porównań w benchmarkach
+        if (!SecondLevelCache.isEnabled()) {
+            props.put("jakarta.persistence.sharedCache.mode", "NONE");
+            props.put("hibernate.cache.use_second_level_cache", "false");
+            props.put("hibernate.cache.use_query_cache", "false");
+        }
+        EntityManagerFactory emf = InstrumentedEntityManagerFactory.wrap(
+                Persistence.createEntityManagerFactory("myPU", props));
+        SecondLevelCache.register();
+        return emf;
+    }
 
     /**
      * Zwraca instancję EntityManagerFactory.
@@ -42,6 +77,9 @@ public class EMFProvider {
      * aby poprawnie zwolnić zasoby.
      */
     public static void close() {
+        RepositoryMetrics.getInstance().shutdown();
+        SecondLevelCache.unregister();
         EMF.close();
+        ConnectionPool.close();
     }
 }
\ No newline at end of file
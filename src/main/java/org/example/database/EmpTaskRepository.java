@@ -1,7 +1,7 @@
 /*
  * Classname: EmpTaskRepository
- * Version information: 1.3
- * Date: 2025-06-06
+ * Version information: 1.8
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -9,13 +9,18 @@ package org.example.database;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.Query;
 import jakarta.persistence.TemporalType;
+import jakarta.persistence.TypedQuery;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.example.sys.EmpTask;
 
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -24,13 +29,40 @@ import java.util.List;
  * Umożliwia operacje CRUD na zadaniach oraz ich wyszukiwanie
  * według różnych kryteriów. Implementuje miękkie usuwanie zadań.
  */
-public class EmpTaskRepository implements AutoCloseable {
+public class EmpTaskRepository implements AutoCloseable,
+        PagedRepository<EmpTask> {
     /**
      * Logger do rejestrowania zdarzeń związanych z klasą EmpTaskRepository.
      */
     private static final Logger logger = LogManager.getLogger(
             EmpTaskRepository.class);
 
+    /**
+     * Wiersz raportu zadań: kolumny zadania i jego przypisanego
+     * pracownika (pierwszego według identyfikatora).
+     *
+     * @param taskId           identyfikator zadania
+     * @param name             nazwa zadania
+     * @param date             data zadania
+     * @param status           status zadania
+     * @param priority         priorytet lub null
+     * @param assigneeLogin    login pracownika lub null, gdy brak przypisania
+     * @param assigneePosition stanowisko pracownika lub null
+     */
+    public record TaskReportRow(int taskId, String name, LocalDate date,
+                                String status, EmpTask.Priority priority,
+                                String assigneeLogin,
+                                String assigneePosition) {
+    }
+
+    /**
+     * Warunek wybierający jednego pracownika zadania – o najmniejszym
+     * identyfikatorze (odpowiednik {@link EmpTask#getSingleAssignee()}).
+     */
+    private static final String FIRST_ASSIGNEE =
+            "e.id = (SELECT MIN(te2.employee.id) FROM TaskEmployee te2 " +
+                    "WHERE te2.task = t)";
+
     /**
      * Domyślny konstruktor – korzysta ze wspólnego EMF z EMFProvider.
      * Operacja jest logowana na poziomie INFO.
@@ -57,6 +89,7 @@ public class EmpTaskRepository implements AutoCloseable {
             task.setUsuniety(false);
             em.persist(task);
             tx.commit();
+            WorkloadRepository.invalidate(task.getDate());
             logger.info("addTask() – zadanie dodane: {}", task);
         } catch (Exception e) {
             logger.error("addTask() " +
@@ -126,6 +159,71 @@ public class EmpTaskRepository implements AutoCloseable {
         }
     }
 
+    /**
+     * Pobiera stronę nieusuniętych zadań stronicowaną kluczem.
+     * Najpierw wybierane są identyfikatory strony (LIMIT na kluczu
+     * głównym), a dopiero potem same zadania z przypisaniami –
+     * złączenie kolekcji w jednym zapytaniu uniemożliwiłoby limit
+     * wierszy po stronie bazy.
+     *
+     * @param cursor kursor z poprzedniej strony lub null dla pierwszej strony
+     * @param limit  maksymalna liczba zadań na stronie
+     * @param sort   kierunek sortowania po identyfikatorze
+     * @return strona zadań
+     * @throws RuntimeException gdy pobranie strony się nie powiedzie
+     */
+    @Override
+    public Page<EmpTask> findPage(Long cursor, int limit, Page.Sort sort) {
+        logger.debug("findPage() – cursor={}, limit={}, sort={}",
+                cursor, limit, sort);
+        int size = KeysetPager.clamp(limit);
+        boolean desc = sort == Page.Sort.DESC;
+        String order = desc ? " ORDER BY t.id DESC" : " ORDER BY t.id ASC";
+        EntityManager em = EMFProvider.get().createEntityManager();
+        try {
+            TypedQuery<Integer> idQuery = em.createQuery(
+                            "SELECT t.id FROM EmpTask t " +
+                                    "WHERE t.usuniety = false" +
+                                    (cursor == null ? "" : desc
+                                            ? " AND t.id < :cursor"
+                                            : " AND t.id > :cursor") +
+                                    order,
+                            Integer.class)
+                    .setMaxResults(size + 1);
+            if (cursor != null) {
+                idQuery.setParameter("cursor", cursor.intValue());
+            }
+            List<Integer> ids = idQuery.getResultList();
+            boolean hasNext = ids.size() > size;
+            if (hasNext) {
+                ids = ids.subList(0, size);
+            }
+            if (ids.isEmpty()) {
+                return Page.empty();
+            }
+            List<EmpTask> tasks = em.createQuery(
+                            "SELECT DISTINCT t " +
+                                    "FROM EmpTask t " +
+                                    "LEFT JOIN FETCH t.taskEmployees te " +
+                                    "LEFT JOIN FETCH te.employee " +
+                                    "WHERE t.id IN :ids" + order,
+                            EmpTask.class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+            Long next = hasNext ? Long.valueOf(ids.get(size - 1)) : null;
+            logger.info("findPage() – pobrano {} zadań, następny kursor={}",
+                    tasks.size(), next);
+            return Page.of(tasks, next);
+        } catch (Exception e) {
+            logger.error("findPage() – błąd podczas pobierania strony zadań",
+                    e);
+            throw e;
+        } finally {
+            em.close();
+            logger.debug("findPage() – EntityManager zamknięty");
+        }
+    }
+
     /**
      * Zwraca wszystkie usunięte zadania wraz z przypisanymi pracownikami i ich danymi.
      *
@@ -170,8 +268,14 @@ public class EmpTaskRepository implements AutoCloseable {
         EntityTransaction tx = em.getTransaction();
         try {
             tx.begin();
-            em.merge(task);
+            EmpTask managed = em.merge(task);
+            List<Integer> assignees = managed.getTaskEmployees().stream()
+                    .filter(te -> te.getId() != null)
+                    .map(te -> te.getId().getEmployeeId())
+                    .toList();
             tx.commit();
+            WorkloadRepository.invalidateAll();
+            OpenTaskCache.invalidateEmployees(assignees);
             logger.info("updateTask() " +
                     "– zadanie zaktualizowane: {}", task);
         } catch (Exception e) {
@@ -202,6 +306,8 @@ public class EmpTaskRepository implements AutoCloseable {
             if (managedTask != null) {
                 managedTask.setUsuniety(true);
                 tx.commit();
+                WorkloadRepository.invalidateAll();
+                OpenTaskCache.invalidateAll();
                 logger.info("softDeleteTask() " +
                         "– zadanie oznaczone jako usunięte: {}", task);
                 return true;
@@ -240,6 +346,8 @@ public class EmpTaskRepository implements AutoCloseable {
             if (managedTask != null) {
                 managedTask.setUsuniety(false);
                 tx.commit();
+                WorkloadRepository.invalidateAll();
+                OpenTaskCache.invalidateAll();
                 logger.info("restoreTask() " +
                         "– zadanie przywrócone: {}", task);
                 return true;
@@ -285,6 +393,8 @@ public class EmpTaskRepository implements AutoCloseable {
                         "– brak zadania o id={}", task.getId());
             }
             tx.commit();
+            WorkloadRepository.invalidateAll();
+            OpenTaskCache.invalidateAll();
         } catch (Exception e) {
             logger.error("removeTask() " +
                     "– błąd podczas usuwania zadania", e);
@@ -524,6 +634,77 @@ public class EmpTaskRepository implements AutoCloseable {
         }
     }
 
+    /**
+     * Pobiera wiersze raportów zadań z podanego okresu. Filtrowanie dat
+     * i wybór kolumn odbywa się w bazie (indeks {@code idx_zadania_data}),
+     * więc czas zapytania zależy od długości okresu, a nie od całej
+     * historii zadań. Zwracany jest jeden wiersz na zadanie.
+     *
+     * @param from data początkowa (włącznie) lub null – bez ograniczenia
+     * @param to   data końcowa (włącznie) lub null – bez ograniczenia
+     * @return wiersze posortowane według daty lub pusta lista w przypadku błędu
+     */
+    public List<TaskReportRow> findReportRows(LocalDate from, LocalDate to) {
+        logger.debug("findReportRows() – from={}, to={}", from, to);
+        EntityManager em = EMFProvider.get().createEntityManager();
+        try {
+            Query query = em.createQuery(
+                    "SELECT t.id, t.name, t.date, t.status, t.priority, " +
+                            "e.login, e.position " +
+                            "FROM EmpTask t " +
+                            "LEFT JOIN t.taskEmployees te " +
+                            "LEFT JOIN te.employee e " +
+                            "WHERE t.usuniety = false " +
+                            "AND (e.id IS NULL OR " + FIRST_ASSIGNEE + ")" +
+                            dateRange(from, to) +
+                            " ORDER BY t.date, t.id");
+            bindDateRange(query, from, to);
+            List<TaskReportRow> rows = new ArrayList<>();
+            for (Object row : query.getResultList()) {
+                Object[] r = (Object[]) row;
+                rows.add(new TaskReportRow((Integer) r[0], (String) r[1],
+                        toLocalDate((Date) r[2]), (String) r[3],
+                        (EmpTask.Priority) r[4], (String) r[5],
+                        (String) r[6]));
+            }
+            logger.info("findReportRows() – pobrano {} zadań", rows.size());
+            return rows;
+        } catch (Exception e) {
+            logger.error("findReportRows() – błąd pobierania", e);
+            return List.of();
+        } finally {
+            em.close();
+            logger.debug("findReportRows() – EntityManager zamknięty");
+        }
+    }
+
+    private static String dateRange(LocalDate from, LocalDate to) {
+        return (from == null ? "" : " AND t.date >= :from")
+                + (to == null ? "" : " AND t.date <= :to");
+    }
+
+    private static void bindDateRange(Query query, LocalDate from,
+                                      LocalDate to) {
+        if (from != null) {
+            query.setParameter("from", java.sql.Date.valueOf(from),
+                    TemporalType.DATE);
+        }
+        if (to != null) {
+            query.setParameter("to", java.sql.Date.valueOf(to),
+                    TemporalType.DATE);
+        }
+    }
+
+    private static LocalDate toLocalDate(Date d) {
+        if (d == null) {
+            return null;
+        }
+        if (d instanceof java.sql.Date sqlDate) {
+            return sqlDate.toLocalDate();
+        }
+        return d.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
     /**
      * Zamyka wspólną fabrykę EMF (na zakończenie działania aplikacji).
      * Implementacja jest pusta, ponieważ korzystamy z EMFProvider.
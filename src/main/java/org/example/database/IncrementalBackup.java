@@ -0,0 +1,533 @@
+/*
+ * Classname: IncrementalBackup
+ * Version information: 1.4
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Przyrostowe kopie zapasowe bazy danych.
+ * <p>
+ * Co {@code backup.fullEveryDays} dni (domyślnie 7) lub po
+ * {@code backup.maxDeltas} przyrostach (domyślnie 30) wykonywana
+ * jest pełna migawka wszystkich tabel, a pomiędzy nimi – przyrosty
+ * zawierające tylko wiersze zmienione od poprzedniego uruchomienia.
+ * </p>
+ * <p>
+ * Tabele {@link #TRACKED_BY_MODIFICATION} mają kolumnę
+ * {@value #MODIFIED_COLUMN} (dodaje ją {@link SchemaMigrator}), którą
+ * MySQL ustawia przy każdym wstawieniu i zmianie wiersza. Przyrost
+ * zawiera wiersze ze znacznikiem nie starszym niż czas rozpoczęcia
+ * poprzedniej kopii pomniejszony o {@code backup.deltaOverlapSeconds}
+ * (domyślnie 300 s) – zapas obejmuje transakcje, które zmieniły
+ * wiersz przed kopią, a zatwierdziły go już po jej migawce. Dzięki
+ * temu przyrost niesie zarówno nowe wiersze, jak i zmiany istniejących
+ * (ilości i ceny zamówień, statusy starszych zadań, pozycje dopisane
+ * do starszych transakcji, przeliczone dni agregatu). Pozostałe (małe,
+ * słownikowe) tabele oraz tabele bez kolumny znacznika są zapisywane
+ * w całości.
+ * </p>
+ * <p>
+ * Przyrost wczytuje wiersze przez {@code INSERT ... ON DUPLICATE KEY
+ * UPDATE}, więc usunięcia są odtwarzane dopiero przez kolejną pełną
+ * migawkę. Pliki są skryptami SQL kompresowanymi gzip
+ * ({@code full-*.sql.gz}, {@code delta-*.sql.gz}) w folderze
+ * {@code backup.dir/incremental}; znaczniki są zapisywane w
+ * {@code state.properties}. Odczyt odbywa się w jednej transakcji
+ * z migawką spójną ({@code REPEATABLE READ}), więc plik odpowiada
+ * jednemu stanowi bazy.
+ * </p>
+ */
+public final class IncrementalBackup implements ILacz {
+    private static final Logger logger
+            = LogManager.getLogger(IncrementalBackup.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String STATE_FILE = "state.properties";
+    private static final String FULL_PREFIX = "full-";
+    private static final String DELTA_PREFIX = "delta-";
+    private static final String SUFFIX = ".sql.gz";
+
+    private static final DateTimeFormatter FILE_TIME =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private static final DateTimeFormatter SQL_TIME =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    /** Kolumna znacznika czasu ostatniej modyfikacji wiersza. */
+    static final String MODIFIED_COLUMN = "Zmodyfikowano";
+
+    /** Definicja kolumny {@value #MODIFIED_COLUMN}. */
+    static final String MODIFIED_DEFINITION = "TIMESTAMP(3) NOT NULL"
+            + " DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)";
+
+    /** Tabele, których zmiany są śledzone po kolumnie znacznika. */
+    static final List<String> TRACKED_BY_MODIFICATION = List.of(
+            "Transakcje", "Transakcje_Produkty", "Zamowienia", "Raporty",
+            "Zadania", "Zadania_Pracownicy", "Sprzedaz_dzienna");
+
+    private static final Object LOCK = new Object();
+
+    /**
+     * Wynik wykonania kopii.
+     *
+     * @param file         utworzony plik
+     * @param full         true – pełna migawka, false – przyrost
+     * @param rows         liczba zapisanych wierszy
+     * @param bytes        rozmiar pliku w bajtach
+     * @param elapsedNanos czas wykonania kopii
+     */
+    public record BackupResult(Path file, boolean full, long rows,
+                               long bytes, long elapsedNanos) {
+
+        /**
+         * @return opis wyniku do wyświetlenia w GUI
+         */
+        public String describe() {
+            return String.format(Locale.ROOT,
+                    "%s: %s, %d wierszy, %.2f MB, %.1f s",
+                    full ? "Pełna kopia" : "Kopia przyrostowa",
+                    file.getFileName(), rows, bytes / (1024.0 * 1024.0),
+                    elapsedNanos / 1e9);
+        }
+    }
+
+    /**
+     * Wynik odtworzenia bazy z kopii.
+     *
+     * @param files        odtworzone pliki w kolejności wczytania
+     * @param statements   liczba wykonanych poleceń SQL
+     * @param elapsedNanos czas odtwarzania
+     */
+    public record RestoreResult(List<Path> files, long statements,
+                                long elapsedNanos) {
+
+        /**
+         * @return opis wyniku do wyświetlenia w GUI
+         */
+        public String describe() {
+            return String.format(Locale.ROOT,
+                    "Odtworzono %d plików (%d poleceń SQL) w %.1f s",
+                    files.size(), statements, elapsedNanos / 1e9);
+        }
+    }
+
+    private IncrementalBackup() {
+    }
+
+    /**
+     * @return folder kopii przyrostowych z ustawienia {@code backup.dir}
+     */
+    public static Path getDefaultDirectory() {
+        return Path.of(DatabaseSettings.getString("backup.dir", "backups"),
+                "incremental");
+    }
+
+    /**
+     * Wykonuje kopię w folderze domyślnym.
+     *
+     * @param forceFull true – wymusza pełną migawkę
+     * @return wynik kopii
+     * @throws SQLException gdy odczyt bazy się nie powiedzie
+     * @throws IOException  gdy zapis pliku się nie powiedzie
+     */
+    public static BackupResult backup(boolean forceFull)
+            throws SQLException, IOException {
+        return backup(getDefaultDirectory(), forceFull);
+    }
+
+    /**
+     * Wykonuje pełną migawkę albo przyrost od poprzedniej kopii.
+     *
+     * @param dir       folder kopii (tworzony, jeśli nie istnieje)
+     * @param forceFull true – wymusza pełną migawkę
+     * @return wynik kopii
+     * @throws SQLException gdy odczyt bazy się nie powiedzie
+     * @throws IOException  gdy zapis pliku się nie powiedzie
+     */
+    public static BackupResult backup(Path dir, boolean forceFull)
+            throws SQLException, IOException {
+        synchronized (LOCK) {
+            Files.createDirectories(dir);
+            long start = System.nanoTime();
+            Properties state = loadState(dir);
+            LocalDateTime now = LocalDateTime.now();
+            boolean full = forceFull || needsFull(state, now);
+
+            String name = (full ? FULL_PREFIX : DELTA_PREFIX)
+                    + FILE_TIME.format(now) + SUFFIX;
+            Path file = dir.resolve(name);
+            Path part = dir.resolve(name + ".part");
+            Properties next = new Properties();
+            long rows;
+
+            try (Connection conn = DatabaseBackupExporter.openConnection()) {
+                boolean mysql = DatabaseBackupExporter.isMySql(conn);
+                // Czas odczytany przed migawką: zmiany z chwili pomiędzy
+                // trafią najwyżej drugi raz do następnego przyrostu
+                next.setProperty("last.modified", currentTime(conn));
+                beginSnapshot(conn, mysql);
+                try (OutputStream os = new GZIPOutputStream(
+                        Files.newOutputStream(part), BUFFER_SIZE);
+                     SqlDumpWriter out = new SqlDumpWriter(
+                             new BufferedWriter(new OutputStreamWriter(os,
+                                     StandardCharsets.UTF_8), BUFFER_SIZE),
+                             mysql)) {
+                    out.comment((full ? "Pełna kopia" : "Kopia przyrostowa")
+                            + " bazy " + DB_NAME + " z " + now);
+                    out.statement(foreignKeyChecks(mysql, false));
+                    rows = full
+                            ? writeFull(conn, out)
+                            : writeDelta(conn, out, state);
+                    out.statement(foreignKeyChecks(mysql, true));
+                } finally {
+                    conn.commit();
+                }
+            } catch (SQLException | IOException e) {
+                Files.deleteIfExists(part);
+                logger.error("Błąd podczas tworzenia kopii {}: {}",
+                        name, e.getMessage(), e);
+                throw e;
+            }
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+
+            next.setProperty("last.file", name);
+            next.setProperty("last.date", now.toLocalDate().toString());
+            if (full) {
+                next.setProperty("full.file", name);
+                next.setProperty("full.time", now.toString());
+                next.setProperty("deltas", "0");
+            } else {
+                next.setProperty("full.file", state.getProperty("full.file"));
+                next.setProperty("full.time", state.getProperty("full.time"));
+                next.setProperty("deltas", String.valueOf(
+                        Integer.parseInt(state.getProperty("deltas", "0")) + 1));
+            }
+            saveState(dir, next);
+            if (full) {
+                removeOldChains(dir);
+            }
+
+            BackupResult result = new BackupResult(file, full, rows,
+                    Files.size(file), System.nanoTime() - start);
+            logger.info(result.describe());
+            return result;
+        }
+    }
+
+    /**
+     * Odtwarza bazę z folderu domyślnego.
+     *
+     * @return wynik odtworzenia
+     * @throws SQLException gdy wykonanie skryptu się nie powiedzie
+     * @throws IOException  gdy brak kopii lub odczyt się nie powiedzie
+     */
+    public static RestoreResult restoreLatest()
+            throws SQLException, IOException {
+        return restoreLatest(getDefaultDirectory());
+    }
+
+    /**
+     * Odtwarza bazę z najnowszej pełnej migawki i wszystkich
+     * późniejszych przyrostów. Każdy plik jest wczytywany w osobnej
+     * transakcji; po odtworzeniu czyszczone są cache aplikacji.
+     *
+     * @param dir folder kopii
+     * @return wynik odtworzenia
+     * @throws SQLException gdy wykonanie skryptu się nie powiedzie
+     * @throws IOException  gdy brak kopii lub odczyt się nie powiedzie
+     */
+    public static RestoreResult restoreLatest(Path dir)
+            throws SQLException, IOException {
+        synchronized (LOCK) {
+            long start = System.nanoTime();
+            List<Path> chain = latestChain(dir);
+            if (chain.isEmpty()) {
+                throw new IOException("Brak pełnej kopii w folderze " + dir);
+            }
+            logger.info("Odtwarzanie bazy z {} plików, począwszy od {}",
+                    chain.size(), chain.get(0).getFileName());
+
+            long statements = 0;
+            try (Connection conn = DatabaseBackupExporter.openConnection()) {
+                boolean mysql = DatabaseBackupExporter.isMySql(conn);
+                conn.setAutoCommit(false);
+                try {
+                    for (Path file : chain) {
+                        try (InputStream is = new GZIPInputStream(
+                                Files.newInputStream(file), BUFFER_SIZE);
+                             Reader reader = new InputStreamReader(is,
+                                     StandardCharsets.UTF_8)) {
+                            statements += DatabaseInitializer.executeScript(
+                                    conn, reader, false);
+                            conn.commit();
+                        } catch (SQLException | IOException e) {
+                            conn.rollback();
+                            logger.error("Błąd podczas odtwarzania pliku {}: {}",
+                                    file.getFileName(), e.getMessage(), e);
+                            throw e;
+                        }
+                        logger.debug("Odtworzono plik {}", file.getFileName());
+                    }
+                } finally {
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.execute(foreignKeyChecks(mysql, true));
+                    }
+                    conn.setAutoCommit(true);
+                }
+            }
+            evictCaches();
+
+            RestoreResult result = new RestoreResult(chain, statements,
+                    System.nanoTime() - start);
+            logger.info(result.describe());
+            return result;
+        }
+    }
+
+    /**
+     * Zwraca najnowszą pełną migawkę i późniejsze przyrosty.
+     *
+     * @param dir folder kopii
+     * @return pliki w kolejności odtwarzania (pusta, gdy brak migawki)
+     * @throws IOException gdy nie można odczytać folderu
+     */
+    static List<Path> latestChain(Path dir) throws IOException {
+        List<Path> files = listBackups(dir);
+        int fullIndex = -1;
+        for (int i = 0; i < files.size(); i++) {
+            if (isFull(files.get(i))) {
+                fullIndex = i;
+            }
+        }
+        return fullIndex < 0 ? List.of()
+                : List.copyOf(files.subList(fullIndex, files.size()));
+    }
+
+    /**
+     * Pliki kopii posortowane według czasu utworzenia zapisanego
+     * w nazwie.
+     */
+    private static List<Path> listBackups(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> s = Files.list(dir)) {
+            return s.filter(p -> {
+                        String n = p.getFileName().toString();
+                        return n.endsWith(SUFFIX) && (n.startsWith(FULL_PREFIX)
+                                || n.startsWith(DELTA_PREFIX));
+                    })
+                    .sorted((a, b) -> timestamp(a).compareTo(timestamp(b)))
+                    .toList();
+        }
+    }
+
+    private static boolean isFull(Path file) {
+        return file.getFileName().toString().startsWith(FULL_PREFIX);
+    }
+
+    private static String timestamp(Path file) {
+        String n = file.getFileName().toString();
+        return n.substring(n.indexOf('-') + 1);
+    }
+
+    /**
+     * Usuwa łańcuchy starsze niż {@code backup.keepFull} ostatnich
+     * pełnych migawek (domyślnie 2).
+     */
+    private static void removeOldChains(Path dir) {
+        int keep = Math.max(1, DatabaseSettings.getInt("backup.keepFull", 2));
+        try {
+            List<Path> files = listBackups(dir);
+            int fulls = 0;
+            for (int i = files.size() - 1; i >= 0; i--) {
+                Path file = files.get(i);
+                if (fulls >= keep) {
+                    Files.deleteIfExists(file);
+                    logger.debug("Usunięto starą kopię {}", file.getFileName());
+                } else if (isFull(file)) {
+                    fulls++;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Nie udało się usunąć starych kopii: {}",
+                    e.getMessage());
+        }
+    }
+
+    private static boolean needsFull(Properties state, LocalDateTime now) {
+        String fullTime = state.getProperty("full.time");
+        if (fullTime == null || state.getProperty("last.date") == null
+                || state.getProperty("last.modified") == null) {
+            return true;
+        }
+        int days = DatabaseSettings.getInt("backup.fullEveryDays", 7);
+        int maxDeltas = DatabaseSettings.getInt("backup.maxDeltas", 30);
+        return Duration.between(LocalDateTime.parse(fullTime), now).toDays() >= days
+                || Integer.parseInt(state.getProperty("deltas", "0")) >= maxDeltas;
+    }
+
+    /**
+     * Rozpoczyna transakcję tylko do odczytu z migawką spójną.
+     */
+    private static void beginSnapshot(Connection conn, boolean mysql)
+            throws SQLException {
+        conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        conn.setAutoCommit(false);
+        if (mysql) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT");
+            }
+        }
+    }
+
+    /**
+     * Polecenie wyłączające lub włączające kontrolę kluczy obcych.
+     */
+    static String foreignKeyChecks(boolean mysql, boolean enabled) {
+        if (mysql) {
+            return "SET FOREIGN_KEY_CHECKS=" + (enabled ? 1 : 0);
+        }
+        return "SET REFERENTIAL_INTEGRITY " + (enabled ? "TRUE" : "FALSE");
+    }
+
+    /**
+     * Zapisuje wszystkie tabele: czyszczenie i wstawienie wierszy.
+     */
+    private static long writeFull(Connection conn, SqlDumpWriter out)
+            throws SQLException, IOException {
+        List<String> tables = DatabaseBackupExporter.getAllTables(conn);
+        long rows = 0;
+        for (String table : tables) {
+            out.comment("Tabela " + table);
+            out.statement("DELETE FROM "
+                    + DatabaseBackupExporter.quote(conn, table));
+            rows += out.writeTable(conn, table, null, List.of(), false);
+        }
+        return rows;
+    }
+
+    /**
+     * Zapisuje wiersze zmienione od poprzedniej kopii.
+     */
+    private static long writeDelta(Connection conn, SqlDumpWriter out,
+                                   Properties state)
+            throws SQLException, IOException {
+        int overlap = Math.max(0,
+                DatabaseSettings.getInt("backup.deltaOverlapSeconds", 300));
+        String since = SQL_TIME.format(Timestamp.valueOf(
+                state.getProperty("last.modified")).toLocalDateTime()
+                .minusSeconds(overlap));
+        List<String> tables = DatabaseBackupExporter.getAllTables(conn);
+        long rows = 0;
+        for (String table : tables) {
+            String where = null;
+            List<Object> params = List.of();
+            if (TRACKED_BY_MODIFICATION.contains(table)) {
+                if (SchemaHealthCheck.hasColumn(conn, table, MODIFIED_COLUMN)) {
+                    where = MODIFIED_COLUMN + " >= ?";
+                    params = List.of(since);
+                } else {
+                    logger.warn("Tabela {} nie ma kolumny {} – zapis w całości",
+                            table, MODIFIED_COLUMN);
+                }
+            }
+            out.comment("Tabela " + table
+                    + (where == null ? " (w całości)" : " (zmiany)"));
+            rows += out.writeTable(conn, table, where, params, true);
+        }
+        return rows;
+    }
+
+    /**
+     * Odczytuje bieżący czas serwera bazy, aby znaczniki porównywać
+     * z czasem tego samego zegara co kolumna {@value #MODIFIED_COLUMN}.
+     */
+    private static String currentTime(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT LOCALTIMESTAMP(3)")) {
+            if (!rs.next()) {
+                throw new SQLException("Nie odczytano czasu serwera bazy");
+            }
+            // Tekst bez konwersji strefy czasowej sterownika
+            return SQL_TIME.format(Timestamp.valueOf(rs.getString(1))
+                    .toLocalDateTime());
+        }
+    }
+
+    private static Properties loadState(Path dir) throws IOException {
+        Properties state = new Properties();
+        Path file = dir.resolve(STATE_FILE);
+        if (Files.exists(file)) {
+            try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                state.load(r);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Zapisuje stan przez plik tymczasowy, aby przerwany zapis nie
+     * uszkodził znaczników.
+     */
+    private static void saveState(Path dir, Properties state) throws IOException {
+        Path tmp = dir.resolve(STATE_FILE + ".tmp");
+        try (Writer w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            state.store(w, "Stan kopii przyrostowych");
+        }
+        Files.move(tmp, dir.resolve(STATE_FILE),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Po odtworzeniu bazy dane w cache są nieaktualne.
+     */
+    static void evictCaches() {
+        ProductCatalogCache.getInstance().invalidateAll();
+        WorkloadRepository.invalidateAll();
+        OpenTaskCache.invalidateAll();
+        if (SecondLevelCache.isEnabled()) {
+            try {
+                EMFProvider.get().getCache().evictAll();
+            } catch (RuntimeException e) {
+                logger.warn("Nie udało się wyczyścić cache drugiego poziomu: {}",
+                        e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Classname: InstrumentedEntityManagerFactory
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Instrumentacja fabryki EntityManagerFactory dla {@link RepositoryMetrics}.
+ * <p>
+ * Fabryka, EntityManagery i zapytania są opakowywane dynamicznymi
+ * proxy, dzięki czemu repozytoria nie wymagają żadnych zmian:
+ * <ul>
+ *   <li>EntityManager mierzy czas życia od utworzenia do
+ *       {@code close()},</li>
+ *   <li>zapytania mierzą czas i liczbę wierszy metod kończących
+ *       ({@code getResultList}, {@code getSingleResult},
+ *       {@code executeUpdate} itp.) oraz {@code find()}.</li>
+ * </ul>
+ * Pomiary przypisywane są metodzie repozytorium, która utworzyła
+ * EntityManager – ustalanej raz, przy tworzeniu, na podstawie stosu
+ * wywołań. {@code unwrap()} zwraca obiekty Hibernate bez instrumentacji.
+ * Dla {@code getResultStream} mierzony jest tylko czas otwarcia
+ * strumienia.
+ * </p>
+ */
+final class InstrumentedEntityManagerFactory {
+
+    /**
+     * Metody zapytania, które wykonują je w bazie.
+     */
+    private static final Set<String> TERMINAL_METHODS = Set.of(
+            "getResultList", "getSingleResult", "getSingleResultOrNull",
+            "getResultStream", "executeUpdate");
+
+    /**
+     * Metody EntityManagera tworzące zapytania.
+     */
+    private static final Set<String> QUERY_FACTORY_METHODS = Set.of(
+            "createQuery", "createNamedQuery", "createNativeQuery");
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private static final ClassLoader LOADER =
+            InstrumentedEntityManagerFactory.class.getClassLoader();
+
+    private InstrumentedEntityManagerFactory() {
+    }
+
+    /**
+     * Opakowuje fabrykę, jeśli instrumentacja jest włączona.
+     *
+     * @param delegate fabryka utworzona przez Hibernate
+     * @return fabryka z instrumentacją lub {@code delegate}
+     */
+    static EntityManagerFactory wrap(EntityManagerFactory delegate) {
+        if (!RepositoryMetrics.getInstance().isEnabled()) {
+            return delegate;
+        }
+        return (EntityManagerFactory) Proxy.newProxyInstance(LOADER,
+                new Class<?>[] {EntityManagerFactory.class},
+                new FactoryHandler(delegate));
+    }
+
+    /**
+     * Ustala metodę repozytorium na podstawie stosu wywołań:
+     * pierwszą ramkę z pakietu {@code org.example} spoza instrumentacji
+     * i klas pomocniczych.
+     *
+     * @return nazwa w postaci {@code Klasa.metoda}
+     */
+    static String callerMethod() {
+        return WALKER.walk(frames -> frames
+                .filter(f -> isApplicationFrame(f.getClassName()))
+                .findFirst()
+                .map(f -> simpleName(f.getClassName()) + "."
+                        + methodName(f.getMethodName()))
+                .orElse("(nieznana)"));
+    }
+
+    private static boolean isApplicationFrame(String className) {
+        return className.startsWith("org.example.")
+                && !className.startsWith(
+                InstrumentedEntityManagerFactory.class.getName())
+                && !className.equals(KeysetPager.class.getName())
+                && !className.equals(EMFProvider.class.getName());
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Zamienia nazwę metody lambdy ({@code lambda$getX$0})
+     * na nazwę metody, w której lambda została zdefiniowana.
+     */
+    private static String methodName(String name) {
+        if (name.startsWith("lambda$")) {
+            int end = name.indexOf('$', 7);
+            return end > 7 ? name.substring(7, end) : name;
+        }
+        return name;
+    }
+
+    private static Object call(Object target, Method method, Object[] args)
+            throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Obsługa wspólna dla {@code equals}/{@code hashCode}/{@code toString}
+     * proxy – zwraca null, gdy metoda nie jest jedną z nich.
+     */
+    private static Object objectMethod(Object proxy, Method method,
+                                       Object[] args, Object delegate) {
+        return switch (method.getName()) {
+            case "equals" -> method.getParameterCount() == 1
+                    ? proxy == args[0] : null;
+            case "hashCode" -> method.getParameterCount() == 0
+                    ? System.identityHashCode(proxy) : null;
+            case "toString" -> method.getParameterCount() == 0
+                    ? "Instrumented[" + delegate + "]" : null;
+            default -> null;
+        };
+    }
+
+    /**
+     * Proxy fabryki – opakowuje tworzone EntityManagery.
+     */
+    private record FactoryHandler(EntityManagerFactory delegate)
+            implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+                throws Throwable {
+            Object own = objectMethod(proxy, method, args, delegate);
+            if (own != null) {
+                return own;
+            }
+            Object result = call(delegate, method, args);
+            if ("createEntityManager".equals(method.getName())) {
+                return Proxy.newProxyInstance(LOADER,
+                        new Class<?>[] {EntityManager.class},
+                        new EntityManagerHandler((EntityManager) result,
+                                callerMethod()));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Proxy EntityManagera – mierzy czas życia i opakowuje zapytania.
+     */
+    private static final class EntityManagerHandler implements InvocationHandler {
+
+        private final EntityManager delegate;
+        private final String owner;
+        private final long created = System.nanoTime();
+        private boolean closed;
+
+        EntityManagerHandler(EntityManager delegate, String owner) {
+            this.delegate = delegate;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+                throws Throwable {
+            Object own = objectMethod(proxy, method, args, delegate);
+            if (own != null) {
+                return own;
+            }
+            String name = method.getName();
+            if ("find".equals(name)) {
+                long start = System.nanoTime();
+                try {
+                    Object result = call(delegate, method, args);
+                    RepositoryMetrics.getInstance().recordQuery(owner,
+                            System.nanoTime() - start, result == null ? 0 : 1,
+                            false, "find " + entityName(args[0]));
+                    return result;
+                } catch (Throwable t) {
+                    RepositoryMetrics.getInstance().recordQuery(owner,
+                            System.nanoTime() - start, -1, true,
+                            "find " + entityName(args[0]));
+                    throw t;
+                }
+            }
+            Object result = call(delegate, method, args);
+            if ("close".equals(name) && !closed) {
+                closed = true;
+                RepositoryMetrics.getInstance().recordEntityManager(owner,
+                        System.nanoTime() - created);
+            } else if (QUERY_FACTORY_METHODS.contains(name)
+                    && result instanceof Query
+                    && method.getReturnType().isInterface()) {
+                return Proxy.newProxyInstance(LOADER,
+                        new Class<?>[] {method.getReturnType()},
+                        new QueryHandler(result, owner,
+                                statementOf(name, args)));
+            }
+            return result;
+        }
+
+        private static String entityName(Object type) {
+            return type instanceof Class<?> c ? c.getSimpleName()
+                    : String.valueOf(type);
+        }
+
+        private static String statementOf(String factoryMethod, Object[] args) {
+            if (args == null || args.length == 0) {
+                return factoryMethod;
+            }
+            if (args[0] instanceof String s) {
+                return "createNamedQuery".equals(factoryMethod) ? "@" + s : s;
+            }
+            return "Criteria " + args[0].getClass().getSimpleName();
+        }
+    }
+
+    /**
+     * Proxy zapytania – mierzy metody kończące, a metody ustawiające
+     * parametry zwracają proxy zamiast opakowanego zapytania.
+     */
+    private record QueryHandler(Object delegate, String owner, String statement)
+            implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+                throws Throwable {
+            Object own = objectMethod(proxy, method, args, delegate);
+            if (own != null) {
+                return own;
+            }
+            if (!TERMINAL_METHODS.contains(method.getName())) {
+                Object result = call(delegate, method, args);
+                return result == delegate ? proxy : result;
+            }
+            long start = System.nanoTime();
+            try {
+                Object result = call(delegate, method, args);
+                RepositoryMetrics.getInstance().recordQuery(owner,
+                        System.nanoTime() - start, rowsOf(result), false,
+                        statement);
+                return result;
+            } catch (Throwable t) {
+                RepositoryMetrics.getInstance().recordQuery(owner,
+                        System.nanoTime() - start, -1, true, statement);
+                throw t;
+            }
+        }
+
+        private static long rowsOf(Object result) {
+            if (result instanceof List<?> list) {
+                return list.size();
+            }
+            if (result instanceof Integer updated) {
+                return updated;
+            }
+            if (result instanceof Stream<?>) {
+                return -1;
+            }
+            return result == null ? 0 : 1;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Classname: KeysetPager
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Wspólna implementacja stronicowania kluczem dla encji
+ * z liczbowym identyfikatorem {@code id}.
+ * <p>
+ * Buduje zapytanie postaci
+ * {@code SELECT a FROM Encja a [JOIN FETCH ...] WHERE a.id > :cursor
+ * ORDER BY a.id} z limitem {@code limit + 1}, dzięki czemu baza
+ * korzysta z klucza głównego zamiast przewijać {@code OFFSET}.
+ * Dołączenia {@code fetchJoins} powinny dotyczyć wyłącznie relacji
+ * do-jednego – złączenie kolekcji zepsułoby limit wierszy.
+ * </p>
+ */
+final class KeysetPager {
+
+    private static final Logger logger = LogManager.getLogger(
+            KeysetPager.class);
+
+    /**
+     * Górna granica rozmiaru strony, chroniąca przed przypadkowym
+     * pobraniem całej tabeli.
+     */
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private KeysetPager() {
+    }
+
+    /**
+     * Pobiera stronę encji danego typu.
+     *
+     * @param type       klasa encji (nazwa encji JPQL = prosta nazwa klasy)
+     * @param fetchJoins dołączenia relacji do-jednego (np.
+     *                   {@code "LEFT JOIN FETCH a.employee"}) lub pusty tekst
+     * @param filter     dodatkowy warunek na aliasie {@code a} lub null
+     * @param cursor     kursor poprzedniej strony lub null
+     * @param limit      rozmiar strony
+     * @param sort       kierunek sortowania
+     * @param keyOf      funkcja zwracająca identyfikator encji
+     * @param <T>        typ encji
+     * @return strona wyników
+     */
+    static <T> Page<T> fetch(Class<T> type, String fetchJoins, String filter,
+                             Long cursor, int limit, Page.Sort sort,
+                             ToLongFunction<T> keyOf) {
+        int size = clamp(limit);
+        boolean desc = sort == Page.Sort.DESC;
+        StringBuilder jpql = new StringBuilder("SELECT a FROM ")
+                .append(type.getSimpleName()).append(" a ")
+                .append(fetchJoins == null ? "" : fetchJoins)
+                .append(" WHERE 1 = 1");
+        if (filter != null) {
+            jpql.append(" AND (").append(filter).append(')');
+        }
+        if (cursor != null) {
+            jpql.append(desc ? " AND a.id < :cursor" : " AND a.id > :cursor");
+        }
+        jpql.append(desc ? " ORDER BY a.id DESC" : " ORDER BY a.id ASC");
+
+        EntityManager em = EMFProvider.get().createEntityManager();
+        try {
+            TypedQuery<T> query = em.createQuery(jpql.toString(), type)
+                    .setHint("org.hibernate.readOnly", true)
+                    .setMaxResults(size + 1);
+            if (cursor != null) {
+                query.setParameter("cursor", cursor.intValue());
+            }
+            Page<T> page = Page.of(query.getResultList(), size, keyOf);
+            logger.debug("fetch() – {}: {} rekordów, cursor={}, next={}",
+                    type.getSimpleName(), page.getItems().size(),
+                    cursor, page.getNextCursor());
+            return page;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Ogranicza rozmiar strony do przedziału [1, MAX_PAGE_SIZE].
+     *
+     * @param limit żądany rozmiar strony
+     * @return rozmiar strony po ograniczeniu
+     */
+    static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+}
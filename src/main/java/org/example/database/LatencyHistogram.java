@@ -0,0 +1,122 @@
+/*
+ * Classname: LatencyHistogram
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bezblokadowy histogram czasów o kubełkach rosnących wykładniczo.
+ * <p>
+ * Granice kubełków rosną o czynnik 2<sup>1/4</sup> (ok. 19%) od 1 µs,
+ * więc 128 kubełków obejmuje zakres do ok. 70 minut. Percentyl jest
+ * szacowany górną granicą kubełka – błąd względny nie przekracza
+ * szerokości kubełka, co w zupełności wystarcza do wskazania wolnych
+ * ekranów. Zapis to jedna inkrementacja licznika, bez alokacji.
+ * </p>
+ */
+final class LatencyHistogram {
+
+    private static final int BUCKETS = 128;
+    private static final long MIN_NANOS = 1_000L;
+    private static final int STEPS_PER_DOUBLING = 4;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Rejestruje jeden pomiar.
+     *
+     * @param nanos czas w nanosekundach
+     */
+    void record(long nanos) {
+        counts.incrementAndGet(bucketOf(nanos));
+        total.increment();
+        sumNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * @return liczba pomiarów
+     */
+    long count() {
+        return total.sum();
+    }
+
+    /**
+     * @return średni czas w milisekundach (0 przy braku pomiarów)
+     */
+    double meanMillis() {
+        long n = total.sum();
+        return n == 0 ? 0.0 : sumNanos.sum() / (n * 1_000_000.0);
+    }
+
+    /**
+     * @return najdłuższy czas w milisekundach
+     */
+    double maxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Szacuje percentyl rozkładu.
+     *
+     * @param quantile kwantyl z przedziału (0, 1], np. 0.95
+     * @return górna granica kubełka zawierającego percentyl, w ms
+     */
+    double percentileMillis(double quantile) {
+        long n = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) {
+            return 0.0;
+        }
+        long rank = (long) Math.ceil(quantile * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundNanos(i), maxNanos.get())
+                        / 1_000_000.0;
+            }
+        }
+        return maxMillis();
+    }
+
+    /**
+     * Zeruje histogram.
+     */
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        sumNanos.reset();
+        maxNanos.set(0);
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos <= MIN_NANOS) {
+            return 0;
+        }
+        double steps = STEPS_PER_DOUBLING
+                * (Math.log((double) nanos / MIN_NANOS) / Math.log(2));
+        return (int) Math.min(BUCKETS - 1, Math.ceil(steps));
+    }
+
+    static long upperBoundNanos(int bucket) {
+        return (long) (MIN_NANOS
+                * Math.pow(2, (double) bucket / STEPS_PER_DOUBLING));
+    }
+}
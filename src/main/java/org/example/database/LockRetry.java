@@ -0,0 +1,105 @@
+/*
+ * Classname: LockRetry
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PessimisticLockException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pomocnik do ponawiania operacji przerwanych konfliktem blokad
+ * (zakleszczenie lub przekroczenie czasu oczekiwania na blokadę wiersza).
+ * Zlicza wykryte konflikty, aby można było ocenić rywalizację kas
+ * o te same stany magazynowe.
+ */
+final class LockRetry {
+
+    private static final Logger logger = LogManager.getLogger(LockRetry.class);
+
+    /**
+     * Maksymalna liczba prób wykonania operacji.
+     */
+    static final int MAX_ATTEMPTS = 4;
+
+    /**
+     * Bazowe opóźnienie przed ponowieniem (podwajane przy każdej próbie).
+     */
+    private static final long BASE_BACKOFF_MS = 15;
+
+    /**
+     * Kod błędu MySQL: wykryto zakleszczenie.
+     */
+    private static final int ER_LOCK_DEADLOCK = 1213;
+
+    /**
+     * Kod błędu MySQL: przekroczono czas oczekiwania na blokadę.
+     */
+    private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+
+    private static final LongAdder CONFLICTS = new LongAdder();
+
+    private LockRetry() {
+    }
+
+    /**
+     * Sprawdza, czy wyjątek (lub jego przyczyna) wynika z konfliktu blokad,
+     * po którym operację można bezpiecznie powtórzyć.
+     *
+     * @param t wyjątek do sprawdzenia
+     * @return true jeśli operację warto ponowić
+     */
+    static boolean isLockConflict(Throwable t) {
+        for (Throwable c = t; c != null; c = c.getCause()) {
+            if (c instanceof PessimisticLockException
+                    || c instanceof LockTimeoutException
+                    || c instanceof SQLTransactionRollbackException) {
+                return true;
+            }
+            if (c instanceof SQLException sql
+                    && (sql.getErrorCode() == ER_LOCK_DEADLOCK
+                    || sql.getErrorCode() == ER_LOCK_WAIT_TIMEOUT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rejestruje konflikt i usypia wątek z wykładniczym opóźnieniem
+     * oraz losowym rozrzutem, aby rywalizujące kasy nie ponawiały
+     * operacji w tym samym momencie.
+     *
+     * @param operation nazwa operacji (do logów)
+     * @param attempt   numer nieudanej próby, licząc od 1
+     */
+    static void backoff(String operation, int attempt) {
+        CONFLICTS.increment();
+        long delay = BASE_BACKOFF_MS << (attempt - 1);
+        delay += ThreadLocalRandom.current().nextLong(delay + 1);
+        logger.warn("{} – konflikt blokad (próba {}/{}), ponawiam za {} ms",
+                operation, attempt, MAX_ATTEMPTS, delay);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return liczba konfliktów blokad wykrytych od startu aplikacji
+     */
+    static long getConflictCount() {
+        return CONFLICTS.sum();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Classname: MBeans
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Rejestracja obiektów ze statystykami warstwy bazodanowej w JMX,
+ * aby można je było odczytać podczas działania aplikacji
+ * (JConsole, VisualVM).
+ */
+final class MBeans {
+
+    private static final Logger logger = LogManager.getLogger(MBeans.class);
+
+    private MBeans() {
+    }
+
+    /**
+     * Rejestruje MXBean pod podaną nazwą, jeśli nie jest jeszcze
+     * zarejestrowany. Błąd rejestracji jest tylko logowany.
+     *
+     * @param bean obiekt implementujący interfejs *MXBean
+     * @param name nazwa obiektu JMX
+     */
+    static void register(Object bean, String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(bean, objectName);
+            }
+        } catch (Exception e) {
+            logger.warn("Nie udało się zarejestrować MXBean {}: {}",
+                    name, e.getMessage());
+        }
+    }
+
+    /**
+     * Wyrejestrowuje MXBean o podanej nazwie.
+     *
+     * @param name nazwa obiektu JMX
+     */
+    static void unregister(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            logger.warn("Nie udało się wyrejestrować MXBean {}: {}",
+                    name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Classname: OpenTaskCache
+ * Version information: 1.1
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.sys.EmpTask;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache otwartych (niezakończonych) zadań pracowników dla panelu
+ * pracownika.
+ * <p>
+ * Wpisy są unieważniane przez repozytoria przy zmianie zadania,
+ * jego statusu lub przypisań ({@link EmpTaskRepository},
+ * {@link TaskEmployeeRepository}). Czas życia wpisu
+ * ({@code tasks.cache.ttlSeconds}) ogranicza nieaktualność danych
+ * zmienionych przez inną instancję aplikacji.
+ * </p>
+ * <p>
+ * Wywołujący dostają kopie zadań, więc zmiana pola przed zapisem
+ * (np. statusu w panelu pracownika) nie trafia do cache, także gdy
+ * zapis się nie powiedzie.
+ * </p>
+ */
+final class OpenTaskCache {
+
+    private static final Logger logger =
+            LogManager.getLogger(OpenTaskCache.class);
+
+    private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(
+            DatabaseSettings.getLong("tasks.cache.ttlSeconds", 60));
+
+    private static final Map<Integer, Entry> ENTRIES =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Numer generacji zwiększany przy każdym unieważnieniu. Wynik
+     * ładowania rozpoczętego przed unieważnieniem nie trafia do cache.
+     */
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private record Entry(List<EmpTask> tasks, long loadedNanos) {
+    }
+
+    private OpenTaskCache() {
+    }
+
+    /**
+     * Zwraca otwarte zadania pracownika z cache lub ładuje je loaderem.
+     *
+     * @param employeeId identyfikator pracownika
+     * @param loader     zapytanie do bazy wykonywane przy braku trafienia
+     * @return nowa, modyfikowalna lista kopii zadań
+     */
+    static List<EmpTask> get(int employeeId, Supplier<List<EmpTask>> loader) {
+        Entry entry = ENTRIES.get(employeeId);
+        if (entry != null
+                && System.nanoTime() - entry.loadedNanos() < TTL_NANOS) {
+            logger.debug("get() – trafienie dla pracownika {}", employeeId);
+            return copies(entry.tasks());
+        }
+        long generation = GENERATION.get();
+        List<EmpTask> tasks = List.copyOf(loader.get());
+        if (GENERATION.get() == generation) {
+            ENTRIES.put(employeeId, new Entry(tasks, System.nanoTime()));
+        }
+        return copies(tasks);
+    }
+
+    private static List<EmpTask> copies(List<EmpTask> tasks) {
+        List<EmpTask> out = new ArrayList<>(tasks.size());
+        for (EmpTask task : tasks) {
+            out.add(new EmpTask(task));
+        }
+        return out;
+    }
+
+    /**
+     * Unieważnia wpisy podanych pracowników.
+     *
+     * @param employeeIds identyfikatory pracowników
+     */
+    static void invalidateEmployees(Collection<Integer> employeeIds) {
+        GENERATION.incrementAndGet();
+        for (Integer id : employeeIds) {
+            ENTRIES.remove(id);
+        }
+        logger.debug("invalidateEmployees() – {}", employeeIds);
+    }
+
+    /**
+     * Unieważnia wpis pracownika.
+     *
+     * @param employeeId identyfikator pracownika
+     */
+    static void invalidateEmployee(int employeeId) {
+        invalidateEmployees(List.of(employeeId));
+    }
+
+    /**
+     * Unieważnia wszystkie wpisy.
+     */
+    static void invalidateAll() {
+        GENERATION.incrementAndGet();
+        ENTRIES.clear();
+        logger.debug("invalidateAll() – cache otwartych zadań wyczyszczony");
+    }
+}
@@ -1,7 +1,7 @@
 /*
  * Classname: OrderRepository
- * Version information: 1.6
- * Date: 2025-06-04
+ * Version information: 1.8
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -24,7 +24,7 @@ import java.util.List;
  * Umożliwia zarządzanie zamówieniami oraz ich wyszukiwanie
  * według różnych kryteriów.
  */
-public class OrderRepository implements AutoCloseable {
+public class OrderRepository implements AutoCloseable, PagedRepository<Order> {
 
     /**
      * Logger do rejestrowania zdarzeń związanych z klasą OrderRepository.
@@ -121,6 +121,38 @@ public class OrderRepository implements AutoCloseable {
         }
     }
 
+    /**
+     * Pobiera stronę zamówień stronicowaną kluczem (identyfikatorem),
+     * razem z pracownikiem w jednym zapytaniu.
+     * W przypadku błędu, wyjątek jest logowany i propagowany, aby widok
+     * mógł odróżnić błąd od braku danych.
+     *
+     * @param cursor kursor z poprzedniej strony lub null dla pierwszej strony
+     * @param limit  maksymalna liczba zamówień na stronie
+     * @param sort   kierunek sortowania po identyfikatorze
+     * @return strona zamówień
+     * @throws RuntimeException gdy pobranie strony się nie powiedzie
+     */
+    @Override
+    public Page<Order> findPage(Long cursor, int limit, Page.Sort sort) {
+        logger.debug("findPage() – cursor={}, limit={}, sort={}",
+                cursor, limit, sort);
+        try {
+            Page<Order> page = KeysetPager.fetch(Order.class,
+                    "LEFT JOIN FETCH a.product " +
+                            "LEFT JOIN FETCH a.employee e " +
+                            "LEFT JOIN FETCH e.address",
+                    null, cursor, limit, sort, Order::getId);
+            logger.info("findPage() – pobrano {} zamówień, następny kursor={}",
+                    page.getItems().size(), page.getNextCursor());
+            return page;
+        } catch (Exception e) {
+            logger.error("findPage() – błąd podczas pobierania strony zamówień",
+                    e);
+            throw e;
+        }
+    }
+
     /**
      * Usuwa zamówienie o podanym identyfikatorze.
      * Operacja jest wykonywana w transakcji.
@@ -0,0 +1,103 @@
+/*
+ * Classname: Page
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Jedna strona wyników zapytania stronicowanego kluczem (keyset).
+ * <p>
+ * Zamiast numeru strony i {@code OFFSET} kolejne strony są wskazywane
+ * kursorem – kluczem ostatniego zwróconego rekordu. Koszt pobrania
+ * strony nie rośnie więc wraz z liczbą rekordów w tabeli.
+ * </p>
+ *
+ * @param <T> typ elementów strony
+ */
+public final class Page<T> {
+
+    /**
+     * Kierunek sortowania po kluczu.
+     */
+    public enum Sort {
+        /** Od najstarszych (najmniejszy klucz) do najnowszych. */
+        ASC,
+        /** Od najnowszych (największy klucz) do najstarszych. */
+        DESC
+    }
+
+    private final List<T> items;
+    private final Long nextCursor;
+
+    private Page(List<T> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Tworzy stronę z wyniku zapytania pobierającego {@code limit + 1}
+     * rekordów – obecność dodatkowego rekordu oznacza, że istnieje
+     * następna strona.
+     *
+     * @param fetched rekordy pobrane z bazy (co najwyżej limit + 1)
+     * @param limit   rozmiar strony
+     * @param keyOf   funkcja zwracająca klucz rekordu
+     * @param <T>     typ elementów
+     * @return strona wyników
+     */
+    public static <T> Page<T> of(List<T> fetched, int limit,
+                                 ToLongFunction<T> keyOf) {
+        if (fetched.size() <= limit) {
+            return new Page<>(List.copyOf(fetched), null);
+        }
+        List<T> items = List.copyOf(fetched.subList(0, limit));
+        return new Page<>(items, keyOf.applyAsLong(items.get(limit - 1)));
+    }
+
+    /**
+     * Tworzy stronę z gotowej listy elementów i znanego kursora.
+     *
+     * @param items      elementy strony
+     * @param nextCursor kursor następnej strony lub null
+     * @param <T>        typ elementów
+     * @return strona wyników
+     */
+    public static <T> Page<T> of(List<T> items, Long nextCursor) {
+        return new Page<>(List.copyOf(items), nextCursor);
+    }
+
+    /**
+     * @param <T> typ elementów
+     * @return pusta strona bez kontynuacji
+     */
+    public static <T> Page<T> empty() {
+        return new Page<>(List.of(), null);
+    }
+
+    /**
+     * @return elementy strony
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return kursor następnej strony lub null, jeśli to ostatnia strona
+     */
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * @return true, jeśli istnieje następna strona
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Classname: PagedRepository
+ * Version information: 1.1
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+/**
+ * Repozytorium udostępniające stronicowanie kluczem (keyset).
+ * Pozwala widokom tabelarycznym doczytywać rekordy porcjami
+ * zamiast ładować całą historię metodami {@code getAll*}.
+ *
+ * @param <T> typ encji
+ */
+public interface PagedRepository<T> {
+
+    /**
+     * Pobiera stronę rekordów następujących po kursorze.
+     *
+     * @param cursor kursor z poprzedniej strony lub null dla pierwszej strony
+     * @param limit  maksymalna liczba rekordów na stronie
+     * @param sort   kierunek sortowania po kluczu
+     * @return strona wyników
+     * @throws RuntimeException gdy pobranie strony się nie powiedzie –
+     *                          błąd nie jest zamieniany na pustą stronę
+     */
+    Page<T> findPage(Long cursor, int limit, Page.Sort sort);
+}
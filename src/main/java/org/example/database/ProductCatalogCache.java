@@ -0,0 +1,327 @@
+/*
+ * Classname: ProductCatalogCache
+ * Version information: 1.2
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.sys.Product;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Wspólny dla całego procesu cache katalogu produktów.
+ * <p>
+ * Przechowuje pełną listę produktów (używaną np. przez ekran sprzedaży)
+ * oraz pojedyncze produkty wyszukiwane po identyfikatorze. Każdy wpis
+ * wygasa po czasie TTL, a liczba pojedynczych produktów jest ograniczona
+ * – po przekroczeniu limitu usuwany jest najdawniej używany (LRU).
+ * </p>
+ * <p>
+ * Wywołujący dostają kopie produktów, więc zmiana pól przed zapisem
+ * (np. w panelu logistyka) nie trafia do cache ani do innych paneli,
+ * także gdy zapis się nie powiedzie.
+ * </p>
+ * <p>
+ * {@link ProductRepository} unieważnia cache po każdej zmianie produktu,
+ * więc kolejny odczyt pobiera aktualne dane z bazy. Ustawienia:
+ * {@code catalog.cache.ttlSeconds} (300) i
+ * {@code catalog.cache.maxEntries} (5000) w {@code config.properties}.
+ * Statystyki dostępne są przez JMX pod nazwą
+ * {@code org.example.database:type=ProductCatalogCache}.
+ * </p>
+ */
+public final class ProductCatalogCache implements ProductCatalogCacheMXBean {
+
+    private static final Logger logger =
+            LogManager.getLogger(ProductCatalogCache.class);
+
+    private static final String MBEAN_NAME =
+            "org.example.database:type=ProductCatalogCache";
+
+    private static final ProductCatalogCache INSTANCE = createShared();
+
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Pojedyncze produkty w kolejności dostępu (LRU).
+     */
+    private final LinkedHashMap<Integer, Entry<Product>> byId;
+
+    /**
+     * Pełna lista produktów lub null, jeśli nie jest załadowana.
+     */
+    private Entry<List<Product>> catalog;
+
+    /**
+     * Indeks wyszukiwania zbudowany dla listy {@link #catalog}.
+     */
+    private ProductSearchIndex searchIndex;
+    private List<Product> indexedCatalog;
+
+    /**
+     * Numer generacji zwiększany przy każdym unieważnieniu. Wynik
+     * ładowania rozpoczętego przed unieważnieniem nie trafia do cache.
+     */
+    private long generation;
+
+    /**
+     * Tworzy cache o podanych parametrach.
+     *
+     * @param ttlMillis  czas życia wpisu w milisekundach
+     * @param maxEntries maksymalna liczba pojedynczych produktów
+     */
+    public ProductCatalogCache(long ttlMillis, int maxEntries) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxEntries = Math.max(1, maxEntries);
+        this.byId = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<Integer, Entry<Product>> eldest) {
+                boolean evict = size() > ProductCatalogCache.this.maxEntries;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * Zwraca wspólną instancję cache używaną przez repozytoria.
+     *
+     * @return cache katalogu produktów
+     */
+    public static ProductCatalogCache getInstance() {
+        return INSTANCE;
+    }
+
+    private static ProductCatalogCache createShared() {
+        long ttl = DatabaseSettings.getLong("catalog.cache.ttlSeconds", 300);
+        int max = DatabaseSettings.getInt("catalog.cache.maxEntries", 5_000);
+        ProductCatalogCache cache =
+                new ProductCatalogCache(TimeUnit.SECONDS.toMillis(ttl), max);
+        MBeans.register(cache, MBEAN_NAME);
+        logger.info("Utworzono cache katalogu produktów: ttl={} s, "
+                + "maxEntries={}", ttl, max);
+        return cache;
+    }
+
+    /**
+     * Zwraca pełną listę produktów z cache lub ładuje ją loaderem.
+     *
+     * @param loader zapytanie do bazy wykonywane przy braku trafienia
+     * @return niemodyfikowalna lista kopii produktów
+     */
+    public List<Product> getAll(Supplier<List<Product>> loader) {
+        return copies(catalog(loader));
+    }
+
+    /**
+     * Zwraca współdzieloną listę katalogu; jej produkty nie mogą
+     * opuścić cache bez skopiowania.
+     */
+    private List<Product> catalog(Supplier<List<Product>> loader) {
+        long gen;
+        synchronized (this) {
+            if (catalog != null && !catalog.isExpired(ttlNanos)) {
+                hits.increment();
+                return catalog.value;
+            }
+            if (catalog != null) {
+                expirations.increment();
+                catalog = null;
+            }
+            misses.increment();
+            gen = generation;
+        }
+        List<Product> loaded = List.copyOf(loader.get());
+        synchronized (this) {
+            if (gen == generation && !loaded.isEmpty()) {
+                catalog = new Entry<>(loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Zwraca indeks wyszukiwania dla aktualnej listy produktów.
+     * Indeks jest budowany ponownie tylko wtedy, gdy lista katalogu
+     * została przeładowana (po unieważnieniu lub wygaśnięciu).
+     *
+     * @param loader zapytanie do bazy wykonywane przy braku trafienia
+     * @return indeks wyszukiwania produktów
+     */
+    public ProductSearchIndex getSearchIndex(Supplier<List<Product>> loader) {
+        List<Product> all = catalog(loader);
+        synchronized (this) {
+            if (searchIndex == null || indexedCatalog != all) {
+                long start = System.nanoTime();
+                searchIndex = new ProductSearchIndex(all);
+                indexedCatalog = all;
+                logger.info("getSearchIndex() – zbudowano indeks {} produktów "
+                                + "w {} ms", all.size(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            return searchIndex;
+        }
+    }
+
+    /**
+     * Zwraca produkt o podanym identyfikatorze z cache lub ładuje go
+     * loaderem. Brak produktu (null) nie jest zapamiętywany.
+     *
+     * @param id     identyfikator produktu
+     * @param loader zapytanie do bazy wykonywane przy braku trafienia
+     * @return kopia produktu lub null
+     */
+    public Product get(int id, IntFunction<Product> loader) {
+        long gen;
+        synchronized (this) {
+            Entry<Product> e = byId.get(id);
+            if (e != null && !e.isExpired(ttlNanos)) {
+                hits.increment();
+                return new Product(e.value);
+            }
+            if (e != null) {
+                expirations.increment();
+                byId.remove(id);
+            }
+            misses.increment();
+            gen = generation;
+        }
+        Product loaded = loader.apply(id);
+        synchronized (this) {
+            if (loaded != null && gen == generation) {
+                byId.put(id, new Entry<>(loaded));
+            }
+        }
+        return loaded == null ? null : new Product(loaded);
+    }
+
+    /**
+     * Kopiuje produkty, aby wywołujący nie zmieniali wpisów cache.
+     *
+     * @param products produkty z cache
+     * @return niemodyfikowalna lista kopii
+     */
+    static List<Product> copies(List<Product> products) {
+        List<Product> out = new ArrayList<>(products.size());
+        for (Product p : products) {
+            out.add(new Product(p));
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * Unieważnia produkt o podanym identyfikatorze oraz pełną listę
+     * katalogu. Wywoływane po dodaniu, zmianie lub usunięciu produktu.
+     *
+     * @param id identyfikator zmienionego produktu
+     */
+    public synchronized void invalidate(int id) {
+        invalidations.increment();
+        generation++;
+        byId.remove(id);
+        catalog = null;
+        logger.debug("invalidate() – unieważniono produkt id={} i katalog",
+                id);
+    }
+
+    /**
+     * Czyści cały cache.
+     */
+    @Override
+    public synchronized void invalidateAll() {
+        invalidations.increment();
+        generation++;
+        byId.clear();
+        catalog = null;
+        logger.debug("invalidateAll() – wyczyszczono cache katalogu");
+    }
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    @Override
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public synchronized int getSize() {
+        return byId.size();
+    }
+
+    @Override
+    public long getTtlSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(ttlNanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ProductCatalogCache{hits=%d, misses=%d, "
+                        + "hitRatio=%.2f, evictions=%d, expirations=%d, size=%d}",
+                getHits(), getMisses(), getHitRatio(), getEvictions(),
+                getExpirations(), getSize());
+    }
+
+    /**
+     * Wpis cache z czasem utworzenia.
+     */
+    private static final class Entry<V> {
+        private final V value;
+        private final long createdAt = System.nanoTime();
+
+        private Entry(V value) {
+            this.value = value;
+        }
+
+        private boolean isExpired(long ttlNanos) {
+            return System.nanoTime() - createdAt > ttlNanos;
+        }
+    }
+}
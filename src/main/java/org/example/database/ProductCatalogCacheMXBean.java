@@ -0,0 +1,61 @@
+/*
+ * Classname: ProductCatalogCacheMXBean
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+/**
+ * Interfejs JMX ze statystykami cache katalogu produktów,
+ * rejestrowany pod nazwą
+ * {@code org.example.database:type=ProductCatalogCache}.
+ */
+public interface ProductCatalogCacheMXBean {
+
+    /**
+     * @return liczba odczytów obsłużonych z pamięci
+     */
+    long getHits();
+
+    /**
+     * @return liczba odczytów, które wymagały zapytania do bazy
+     */
+    long getMisses();
+
+    /**
+     * @return liczba wpisów usuniętych z powodu limitu rozmiaru (LRU)
+     */
+    long getEvictions();
+
+    /**
+     * @return liczba wpisów, które wygasły po upływie TTL
+     */
+    long getExpirations();
+
+    /**
+     * @return liczba unieważnień wywołanych zmianą produktu
+     */
+    long getInvalidations();
+
+    /**
+     * @return stosunek trafień do wszystkich odczytów (0..1)
+     */
+    double getHitRatio();
+
+    /**
+     * @return liczba produktów przechowywanych pojedynczo
+     */
+    int getSize();
+
+    /**
+     * @return czas życia wpisu w sekundach
+     */
+    long getTtlSeconds();
+
+    /**
+     * Czyści cały cache (np. po zmianach wykonanych poza aplikacją).
+     */
+    void invalidateAll();
+}
@@ -1,7 +1,7 @@
 /*
  * Classname: ProductRepository
- * Version information: 1.5
- * Date: 2025-06-04
+ * Version information: 1.7
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -22,6 +22,11 @@ import java.util.List;
  * Zapewnia operacje CRUD oraz metody wyszukiwania produktów
  * według różnych kryteriów. Wykorzystuje EntityManager
  * do komunikacji z bazą danych.
+ * <p>
+ * Odczyty {@link #getAllProducts()} i {@link #findProductById(int)}
+ * przechodzą przez {@link ProductCatalogCache}; każda metoda
+ * modyfikująca produkty unieważnia odpowiednie wpisy cache.
+ * </p>
  */
 public class ProductRepository implements AutoCloseable {
 
@@ -31,6 +36,8 @@ public class ProductRepository implements AutoCloseable {
     private static final Logger logger = LogManager.getLogger(
             ProductRepository.class);
 
+    private final ProductCatalogCache cache = ProductCatalogCache.getInstance();
+
     /**
      * Domyślny konstruktor – korzysta ze wspólnego EMF z EMFProvider.
      * Operacja jest logowana na poziomie INFO.
@@ -63,18 +70,24 @@ public class ProductRepository implements AutoCloseable {
             if (tx.isActive()) tx.rollback();
         } finally {
             em.close();
+            cache.invalidate(product.getId());
             logger.debug("addProduct() – EM zamknięty");
         }
     }
 
     /**
      * Znajduje produkt o podanym identyfikatorze.
+     * Wynik jest pobierany z cache katalogu, a przy braku trafienia z bazy.
      * W przypadku błędu, wyjątek jest logowany i zwracana jest wartość null.
      *
      * @param id identyfikator produktu
      * @return obiekt Product lub null, jeśli nie istnieje
      */
     public Product findProductById(int id) {
+        return cache.get(id, this::loadProductById);
+    }
+
+    private Product loadProductById(int id) {
         logger.debug("findProductById() – start, id={}", id);
         EntityManager em = EMFProvider.get().createEntityManager();
         try {
@@ -95,11 +108,16 @@ public class ProductRepository implements AutoCloseable {
 
     /**
      * Pobiera listę wszystkich produktów.
+     * Lista pochodzi z cache katalogu i nie może być modyfikowana.
      * W przypadku błędu, wyjątek jest logowany i zwracana jest pusta lista.
      *
      * @return lista wszystkich produktów lub pusta lista w przypadku błędu
      */
     public List<Product> getAllProducts() {
+        return cache.getAll(this::loadAllProducts);
+    }
+
+    private List<Product> loadAllProducts() {
         logger.debug("getAllProducts() – start");
         EntityManager em = EMFProvider.get().createEntityManager();
         try {
@@ -181,6 +199,7 @@ public class ProductRepository implements AutoCloseable {
             if (tx.isActive()) tx.rollback();
         } finally {
             em.close();
+            cache.invalidate(id);
             logger.debug("removeProduct() – EM zamknięty");
         }
     }
@@ -208,6 +227,7 @@ public class ProductRepository implements AutoCloseable {
             if (tx.isActive()) tx.rollback();
         } finally {
             em.close();
+            cache.invalidate(product.getId());
             logger.debug("updateProduct() – EM zamknięty");
         }
     }
@@ -245,6 +265,7 @@ public class ProductRepository implements AutoCloseable {
             if (tx.isActive()) tx.rollback();
         } finally {
             em.close();
+            cache.invalidate(id);
             logger.debug("updateProductPrice() – EM zamknięty");
         }
     }
@@ -279,6 +300,7 @@ public class ProductRepository implements AutoCloseable {
             return 0;
         } finally {
             em.close();
+            cache.invalidateAll();
             logger.debug("removeProductsFromCategory() – EM zamknięty");
         }
     }
@@ -377,6 +399,41 @@ public class ProductRepository implements AutoCloseable {
         }
     }
 
+    /**
+     * Wyszukuje produkty po fragmencie nazwy.
+     * W trybie indeksowanym korzysta z {@link ProductSearchIndex}
+     * zbudowanego nad cache katalogu zamiast skanowania {@code LIKE}
+     * w bazie; wyniki są posortowane według trafności, a zapytania
+     * krótsze niż 3 znaki dopasowują początki słów.
+     *
+     * @param fragName fragment nazwy produktu
+     * @param indexed  true – wyszukiwanie w indeksie w pamięci,
+     *                 false – zapytanie do bazy
+     * @return lista produktów z pasującą nazwą
+     */
+    public List<Product> findByName(String fragName, boolean indexed) {
+        if (!indexed) {
+            return findByName(fragName);
+        }
+        logger.debug("findByName() – indeks, fragName={}", fragName);
+        List<Product> list = getSearchIndex()
+                .searchByName(fragName, Integer.MAX_VALUE);
+        logger.info("findByName() – indeks, znaleziono {} produktów",
+                list.size());
+        return list;
+    }
+
+    /**
+     * Zwraca indeks wyszukiwania dla aktualnego katalogu produktów.
+     * Indeks jest przebudowywany automatycznie po każdej zmianie
+     * produktów wykonanej przez to repozytorium.
+     *
+     * @return indeks wyszukiwania produktów
+     */
+    public ProductSearchIndex getSearchIndex() {
+        return cache.getSearchIndex(this::loadAllProducts);
+    }
+
     /**
      * Wyszukuje produkty o dokładnie zadanej cenie.
      * Zwraca produkty, których cena jest równa podanej wartości.
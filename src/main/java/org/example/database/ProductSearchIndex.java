@@ -0,0 +1,314 @@
+/*
+ * Classname: ProductSearchIndex
+ * Version information: 1.1
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import org.example.sys.Product;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Niezmienny indeks wyszukiwania produktów w pamięci.
+ * <p>
+ * Nazwy i kategorie są jednorazowo normalizowane (małe litery, bez
+ * polskich znaków diakrytycznych), a następnie indeksowane na dwa
+ * sposoby:
+ * </p>
+ * <ul>
+ *     <li>trigramy – zapytanie o długości co najmniej 3 znaków wybiera
+ *     najrzadszy ze swoich trigramów i sprawdza tylko produkty z jego
+ *     listy, co daje dopasowanie podciągu jak {@code LIKE '%x%'};</li>
+ *     <li>posortowane słowa – zapytanie 1–2 znakowe dopasowuje początki
+ *     słów nazwy lub kategorii (wyszukiwanie binarne).</li>
+ * </ul>
+ * <p>
+ * Wyniki są sortowane według trafności: pełna nazwa, początek nazwy,
+ * początek słowa w nazwie, fragment nazwy, a na końcu dopasowanie
+ * w kategorii. Indeks odpowiada jednej wersji katalogu – aktualną
+ * instancję zwraca {@link ProductCatalogCache#getSearchIndex}, która
+ * buduje indeks od nowa po każdym unieważnieniu katalogu. Indeks jest
+ * współdzielony, więc wyniki są kopiami produktów.
+ * </p>
+ */
+public final class ProductSearchIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int SCORE_EXACT = 0;
+    private static final int SCORE_NAME_PREFIX = 1;
+    private static final int SCORE_WORD_PREFIX = 2;
+    private static final int SCORE_NAME_CONTAINS = 3;
+    private static final int SCORE_CATEGORY = 4;
+
+    private final List<Product> products;
+    private final String[] names;
+    private final String[] categories;
+
+    /**
+     * Trigram (trzy znaki spakowane w long) → rosnące indeksy produktów.
+     */
+    private final Map<Long, int[]> trigrams;
+
+    /**
+     * Posortowane słowa nazw i kategorii wraz z listami produktów.
+     */
+    private final String[] words;
+    private final int[][] wordPostings;
+
+    /**
+     * Buduje indeks dla podanej listy produktów.
+     *
+     * @param products produkty katalogu
+     */
+    public ProductSearchIndex(List<Product> products) {
+        this.products = List.copyOf(products);
+        int n = this.products.size();
+        this.names = new String[n];
+        this.categories = new String[n];
+
+        Map<Long, IntList> grams = new HashMap<>();
+        TreeMap<String, IntList> tokens = new TreeMap<>();
+        for (int i = 0; i < n; i++) {
+            Product p = this.products.get(i);
+            names[i] = normalize(p.getName());
+            categories[i] = normalize(p.getCategory());
+            addTrigrams(grams, names[i], i);
+            addTrigrams(grams, categories[i], i);
+            addWords(tokens, names[i], i);
+            addWords(tokens, categories[i], i);
+        }
+
+        this.trigrams = new HashMap<>(grams.size() * 2);
+        grams.forEach((k, v) -> trigrams.put(k, v.toArray()));
+        this.words = tokens.keySet().toArray(new String[0]);
+        this.wordPostings = new int[words.length][];
+        int w = 0;
+        for (IntList postings : tokens.values()) {
+            wordPostings[w++] = postings.toArray();
+        }
+    }
+
+    /**
+     * @return kopie produktów, dla których zbudowano indeks
+     */
+    public List<Product> getProducts() {
+        return ProductCatalogCache.copies(products);
+    }
+
+    /**
+     * @return liczba zaindeksowanych produktów
+     */
+    public int size() {
+        return products.size();
+    }
+
+    /**
+     * Wyszukuje produkty po nazwie lub kategorii.
+     *
+     * @param query fragment wpisany przez użytkownika
+     * @param limit maksymalna liczba wyników
+     * @return produkty posortowane według trafności;
+     *         dla pustego zapytania – pierwsze {@code limit} produktów
+     */
+    public List<Product> search(String query, int limit) {
+        return search(query, limit, false);
+    }
+
+    /**
+     * Wyszukuje produkty wyłącznie po nazwie – odpowiednik
+     * {@link ProductRepository#findByName(String)} bez zapytania do bazy.
+     *
+     * @param query fragment nazwy
+     * @param limit maksymalna liczba wyników
+     * @return produkty posortowane według trafności
+     */
+    public List<Product> searchByName(String query, int limit) {
+        return search(query, limit, true);
+    }
+
+    private List<Product> search(String query, int limit, boolean nameOnly) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return ProductCatalogCache.copies(
+                    products.subList(0, Math.min(limit, products.size())));
+        }
+        int[] candidates = q.length() >= 3 ? trigramCandidates(q)
+                : wordCandidates(q);
+
+        List<long[]> hits = new ArrayList<>();
+        for (int idx : candidates) {
+            int score = score(q, idx, nameOnly);
+            if (score >= 0) {
+                hits.add(new long[]{score, idx});
+            }
+        }
+        hits.sort(Comparator
+                .<long[]>comparingLong(h -> h[0])
+                .thenComparingInt(h -> names[(int) h[1]].length())
+                .thenComparing(h -> names[(int) h[1]]));
+
+        int size = Math.min(limit, hits.size());
+        List<Product> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new Product(products.get((int) hits.get(i)[1])));
+        }
+        return result;
+    }
+
+    /**
+     * Zwraca produkty z listy najrzadszego trigramu zapytania.
+     * Pozostałe trigramy weryfikuje później {@link #score}.
+     */
+    private int[] trigramCandidates(String q) {
+        int[] best = null;
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            int[] postings = trigrams.get(pack(q, i));
+            if (postings == null) {
+                return new int[0];
+            }
+            if (best == null || postings.length < best.length) {
+                best = postings;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Zwraca produkty, których słowo nazwy lub kategorii zaczyna się
+     * od zapytania (zakres słów wyznaczony wyszukiwaniem binarnym).
+     */
+    private int[] wordCandidates(String q) {
+        int from = Arrays.binarySearch(words, q);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        boolean[] seen = new boolean[products.size()];
+        IntList out = new IntList();
+        for (int w = from; w < words.length && words[w].startsWith(q); w++) {
+            for (int idx : wordPostings[w]) {
+                if (!seen[idx]) {
+                    seen[idx] = true;
+                    out.add(idx);
+                }
+            }
+        }
+        return out.toArray();
+    }
+
+    /**
+     * Ocenia dopasowanie produktu; mniejsza wartość oznacza lepsze
+     * dopasowanie, -1 – brak dopasowania.
+     */
+    private int score(String q, int idx, boolean nameOnly) {
+        String name = names[idx];
+        if (name.equals(q)) {
+            return SCORE_EXACT;
+        }
+        if (name.startsWith(q)) {
+            return SCORE_NAME_PREFIX;
+        }
+        int pos = name.indexOf(q);
+        if (pos > 0) {
+            return Character.isLetterOrDigit(name.charAt(pos - 1))
+                    ? SCORE_NAME_CONTAINS : SCORE_WORD_PREFIX;
+        }
+        if (q.length() < 3 && hasWordStartingWith(name, q)) {
+            return SCORE_WORD_PREFIX;
+        }
+        if (!nameOnly && categories[idx].contains(q)) {
+            return SCORE_CATEGORY;
+        }
+        return -1;
+    }
+
+    private static boolean hasWordStartingWith(String text, String q) {
+        for (String word : WORD_SPLIT.split(text)) {
+            if (word.startsWith(q)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sprowadza tekst do postaci porównywalnej: małe litery,
+     * bez znaków diakrytycznych, bez zbędnych spacji.
+     *
+     * @param text tekst źródłowy (może być null)
+     * @return tekst znormalizowany
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String lower = text.trim().toLowerCase(Locale.ROOT)
+                .replace('ł', 'l');
+        return MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD))
+                .replaceAll("");
+    }
+
+    private static void addTrigrams(Map<Long, IntList> grams, String text,
+                                    int idx) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.computeIfAbsent(pack(text, i), k -> new IntList()).addOnce(idx);
+        }
+    }
+
+    private static void addWords(Map<String, IntList> tokens, String text,
+                                 int idx) {
+        for (String word : WORD_SPLIT.split(text)) {
+            if (!word.isEmpty()) {
+                tokens.computeIfAbsent(word, k -> new IntList()).addOnce(idx);
+            }
+        }
+    }
+
+    private static long pack(String s, int i) {
+        return ((long) s.charAt(i) << 32)
+                | ((long) s.charAt(i + 1) << 16)
+                | s.charAt(i + 2);
+    }
+
+    /**
+     * Prosta rosnąca lista liczb całkowitych bez opakowywania w Integer.
+     */
+    private static final class IntList {
+        private int[] data = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        /**
+         * Dodaje wartość, pomijając powtórzenie ostatniego elementu
+         * (produkty są dodawane w kolejności rosnących indeksów).
+         */
+        void addOnce(int value) {
+            if (size == 0 || data[size - 1] != value) {
+                add(value);
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
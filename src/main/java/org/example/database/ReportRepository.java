@@ -1,7 +1,7 @@
 /*
  * Classname: ReportRepository
- * Version information: 1.5
- * Date: 2025-06-04
+ * Version information: 1.8
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -10,13 +10,16 @@ package org.example.database;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.Query;
 import jakarta.persistence.TemporalType;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.example.sys.Employee;
 import org.example.sys.Report;
 
 import java.io.File;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -27,7 +30,7 @@ import java.util.List;
  * Zapewnia operacje CRUD oraz wyszukiwanie raportów według różnych
  * kryteriów.
  */
-public class ReportRepository {
+public class ReportRepository implements PagedRepository<Report> {
 
     /**
      * Logger do rejestrowania zdarzeń związanych z klasą ReportRepository.
@@ -40,6 +43,39 @@ public class ReportRepository {
      */
     private final EntityManagerFactory emf = EMFProvider.get();
 
+    /**
+     * Wiersz listy raportów: kolumny raportu i dane autora pobrane
+     * jednym zapytaniem, bez ładowania encji {@link Employee}.
+     *
+     * @param id           identyfikator raportu
+     * @param reportType   typ raportu
+     * @param startDate    data początkowa zakresu
+     * @param endDate      data końcowa zakresu
+     * @param filePath     ścieżka do pliku raportu
+     * @param employeeId   identyfikator autora
+     * @param employeeName imię i nazwisko autora
+     */
+    public record ReportSummary(int id, String reportType,
+                                LocalDate startDate, LocalDate endDate,
+                                String filePath, int employeeId,
+                                String employeeName) {
+
+        /**
+         * Tworzy wiersz z zapisanego raportu, którego pracownik jest
+         * już załadowany.
+         *
+         * @param report zapisany raport
+         * @return wiersz listy raportów
+         */
+        public static ReportSummary of(Report report) {
+            Employee e = report.getEmployee();
+            return new ReportSummary(report.getId(), report.getReportType(),
+                    report.getStartDate(), report.getEndDate(),
+                    report.getFilePath(), e.getId(),
+                    e.getName() + " " + e.getSurname());
+        }
+    }
+
     /**
      * Dodaje nowy raport do bazy.
      * Operacja jest wykonywana w transakcji.
@@ -112,6 +148,92 @@ public class ReportRepository {
         }
     }
 
+    /**
+     * Pobiera stronę raportów stronicowaną kluczem (identyfikatorem),
+     * razem z pracownikiem w jednym zapytaniu.
+     * W przypadku błędu, wyjątek jest logowany i propagowany, aby widok
+     * mógł odróżnić błąd od braku danych.
+     *
+     * @param cursor kursor z poprzedniej strony lub null dla pierwszej strony
+     * @param limit  maksymalna liczba raportów na stronie
+     * @param sort   kierunek sortowania po identyfikatorze
+     * @return strona raportów
+     * @throws RuntimeException gdy pobranie strony się nie powiedzie
+     */
+    @Override
+    public Page<Report> findPage(Long cursor, int limit, Page.Sort sort) {
+        logger.debug("findPage() – cursor={}, limit={}, sort={}",
+                cursor, limit, sort);
+        try {
+            Page<Report> page = KeysetPager.fetch(Report.class,
+                    "LEFT JOIN FETCH a.employee e " +
+                            "LEFT JOIN FETCH e.address",
+                    null, cursor, limit, sort, Report::getId);
+            logger.info("findPage() – pobrano {} raportów, następny kursor={}",
+                    page.getItems().size(), page.getNextCursor());
+            return page;
+        } catch (Exception e) {
+            logger.error("findPage() – błąd podczas pobierania strony raportów",
+                    e);
+            throw e;
+        }
+    }
+
+    /**
+     * Pobiera stronę raportów pracownika, od najnowszych, stronicowaną
+     * kluczem (identyfikatorem). Filtr po pracowniku i sortowanie
+     * korzystają z indeksu {@code idx_raporty_pracownik_id}, a wiersze
+     * są projekcją {@link ReportSummary} – bez ładowania encji.
+     * W przypadku błędu, wyjątek jest logowany i propagowany, aby widok
+     * mógł odróżnić błąd od braku danych.
+     *
+     * @param employeeId identyfikator pracownika
+     * @param cursor     kursor z poprzedniej strony lub null dla pierwszej
+     * @param limit      maksymalna liczba raportów na stronie
+     * @return strona raportów
+     * @throws RuntimeException gdy pobranie strony się nie powiedzie
+     */
+    public Page<ReportSummary> findPageForEmployee(int employeeId,
+                                                   Long cursor, int limit) {
+        logger.debug("findPageForEmployee() – employeeId={}, cursor={}, "
+                + "limit={}", employeeId, cursor, limit);
+        int size = KeysetPager.clamp(limit);
+        EntityManager em = emf.createEntityManager();
+        try {
+            Query query = em.createQuery(
+                            "SELECT r.id, r.reportType, r.startDate, " +
+                                    "r.endDate, r.filePath, e.id, " +
+                                    "e.name, e.surname " +
+                                    "FROM Report r JOIN r.employee e " +
+                                    "WHERE e.id = :pid" +
+                                    (cursor == null ? "" : " AND r.id < :cursor") +
+                                    " ORDER BY r.id DESC")
+                    .setParameter("pid", employeeId)
+                    .setMaxResults(size + 1);
+            if (cursor != null) {
+                query.setParameter("cursor", cursor.intValue());
+            }
+            List<ReportSummary> rows = new ArrayList<>();
+            for (Object row : query.getResultList()) {
+                Object[] r = (Object[]) row;
+                rows.add(new ReportSummary((Integer) r[0], (String) r[1],
+                        (LocalDate) r[2], (LocalDate) r[3], (String) r[4],
+                        (Integer) r[5], r[6] + " " + r[7]));
+            }
+            Page<ReportSummary> page = Page.of(rows, size, ReportSummary::id);
+            logger.info("findPageForEmployee() – pobrano {} raportów, "
+                            + "następny kursor={}",
+                    page.getItems().size(), page.getNextCursor());
+            return page;
+        } catch (Exception e) {
+            logger.error("findPageForEmployee() – błąd dla employeeId={}",
+                    employeeId, e);
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
     /**
      * Pobiera raporty danego pracownika przypisane na konkretny dzień.
      * Wyszukuje raporty po identyfikatorze pracownika i dacie rozpoczęcia.
@@ -0,0 +1,418 @@
+/*
+ * Classname: RepositoryMetrics
+ * Version information: 1.1
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metryki wywołań repozytoriów warstwy bazodanowej.
+ * <p>
+ * Dla każdej metody repozytorium (np. {@code OrderRepository.findPage})
+ * zbierane są: liczba zapytań i błędów, liczba zwróconych lub
+ * zmienionych wierszy, histogram czasu zapytań (p50/p95/p99) oraz
+ * czas życia EntityManagera. Pomiary dostarcza
+ * {@link InstrumentedEntityManagerFactory} (repozytoria JPA)
+ * albo bezpośrednie wywołania {@link #recordQuery} (kod JDBC).
+ * </p>
+ * <p>
+ * Ustawienia ({@code config.properties} lub {@code -D}):
+ * <ul>
+ *   <li>{@code metrics.enabled} – 0 wyłącza instrumentację (1)</li>
+ *   <li>{@code metrics.slowQueryMs} – próg wolnego zapytania
+ *       zapisywanego w {@code logs/slow-queries.log} (500)</li>
+ *   <li>{@code metrics.snapshotSeconds} – odstęp zapisu migawki
+ *       metryk, 0 wyłącza (60)</li>
+ *   <li>{@code metrics.snapshotFile} – plik migawek w formacie
+ *       JSON Lines ({@code logs/repository-metrics.jsonl})</li>
+ * </ul>
+ * </p>
+ */
+public final class RepositoryMetrics {
+
+    private static final Logger logger =
+            LogManager.getLogger(RepositoryMetrics.class);
+
+    /**
+     * Osobny logger wolnych zapytań – kierowany do własnego pliku
+     * w log4j2.xml.
+     */
+    private static final Logger slowQueryLogger =
+            LogManager.getLogger("org.example.database.SlowQueries");
+
+    /**
+     * Liczba ostatnich wolnych zapytań pamiętanych dla widoku
+     * diagnostyki.
+     */
+    private static final int RECENT_SLOW_QUERIES = 50;
+
+    /**
+     * Maksymalna długość treści zapytania w logu i w migawce.
+     */
+    private static final int MAX_STATEMENT_LENGTH = 500;
+
+    private static final RepositoryMetrics INSTANCE = new RepositoryMetrics();
+
+    /**
+     * Statystyki jednej metody repozytorium w chwili odczytu.
+     *
+     * @param method                  klasa i metoda repozytorium
+     * @param queries                 liczba wykonanych zapytań
+     * @param errors                  liczba zapytań zakończonych błędem
+     * @param rows                    suma zwróconych / zmienionych wierszy
+     * @param meanMillis              średni czas zapytania
+     * @param p50Millis               mediana czasu zapytania
+     * @param p95Millis               95. percentyl czasu zapytania
+     * @param p99Millis               99. percentyl czasu zapytania
+     * @param maxMillis               najdłuższe zapytanie
+     * @param entityManagers          liczba zamkniętych EntityManagerów
+     * @param meanEntityManagerMillis średni czas życia EntityManagera
+     * @param maxEntityManagerMillis  najdłuższy czas życia EntityManagera
+     */
+    public record MethodStats(String method, long queries, long errors,
+                              long rows, double meanMillis, double p50Millis,
+                              double p95Millis, double p99Millis,
+                              double maxMillis, long entityManagers,
+                              double meanEntityManagerMillis,
+                              double maxEntityManagerMillis) {
+
+        /**
+         * @return średnia liczba wierszy na zapytanie
+         */
+        public double rowsPerQuery() {
+            return queries == 0 ? 0.0 : (double) rows / queries;
+        }
+    }
+
+    /**
+     * Zapytanie, które przekroczyło próg {@code metrics.slowQueryMs}.
+     *
+     * @param time      chwila zakończenia zapytania
+     * @param method    klasa i metoda repozytorium
+     * @param millis    czas wykonania
+     * @param rows      liczba wierszy (-1, gdy nieznana)
+     * @param statement treść zapytania (JPQL lub SQL)
+     */
+    public record SlowQuery(LocalDateTime time, String method, double millis,
+                            long rows, String statement) {
+    }
+
+    /**
+     * Liczniki jednej metody.
+     */
+    private static final class MethodEntry {
+        final LatencyHistogram queryLatency = new LatencyHistogram();
+        final LatencyHistogram entityManagerLifetime = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+    }
+
+    private final Map<String, MethodEntry> methods = new ConcurrentHashMap<>();
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+    private final boolean enabled;
+    private final long slowQueryNanos;
+    private final Path snapshotFile;
+    private final ScheduledExecutorService scheduler;
+
+    private RepositoryMetrics() {
+        enabled = DatabaseSettings.getInt("metrics.enabled", 1) != 0;
+        slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(
+                DatabaseSettings.getLong("metrics.slowQueryMs", 500));
+        snapshotFile = Path.of(DatabaseSettings.getString(
+                "metrics.snapshotFile", "logs/repository-metrics.jsonl"));
+        long interval = DatabaseSettings.getLong("metrics.snapshotSeconds", 60);
+        if (enabled && interval > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "repository-metrics");
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.scheduleAtFixedRate(this::writeSnapshotQuietly,
+                    interval, interval, TimeUnit.SECONDS);
+        } else {
+            scheduler = null;
+        }
+        logger.info("Metryki repozytoriów: włączone={}, próg wolnego "
+                        + "zapytania={} ms, migawka co {} s do {}",
+                enabled, TimeUnit.NANOSECONDS.toMillis(slowQueryNanos),
+                interval, snapshotFile);
+    }
+
+    /**
+     * Zwraca współdzieloną instancję metryk.
+     *
+     * @return instancja RepositoryMetrics
+     */
+    public static RepositoryMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return true, jeśli instrumentacja jest włączona
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return próg wolnego zapytania w milisekundach
+     */
+    public long getSlowQueryThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowQueryNanos);
+    }
+
+    /**
+     * Rejestruje wykonanie zapytania.
+     *
+     * @param method    klasa i metoda repozytorium, np.
+     *                  {@code "ProductRepository.getAllProducts"}
+     * @param nanos     czas wykonania w nanosekundach
+     * @param rows      liczba zwróconych lub zmienionych wierszy,
+     *                  -1 gdy nieznana
+     * @param failed    czy zapytanie zakończyło się błędem
+     * @param statement treść zapytania (może być null)
+     */
+    public void recordQuery(String method, long nanos, long rows,
+                            boolean failed, String statement) {
+        if (!enabled) {
+            return;
+        }
+        MethodEntry entry = entry(method);
+        entry.queryLatency.record(nanos);
+        if (rows > 0) {
+            entry.rows.add(rows);
+        }
+        if (failed) {
+            entry.errors.increment();
+        }
+        if (nanos >= slowQueryNanos) {
+            SlowQuery slow = new SlowQuery(LocalDateTime.now(), method,
+                    nanos / 1_000_000.0, rows, abbreviate(statement));
+            synchronized (slowQueries) {
+                if (slowQueries.size() == RECENT_SLOW_QUERIES) {
+                    slowQueries.removeLast();
+                }
+                slowQueries.addFirst(slow);
+            }
+            slowQueryLogger.warn("{} – {} ms, wierszy={}{}: {}",
+                    method, String.format("%.1f", slow.millis()), rows,
+                    failed ? ", BŁĄD" : "", slow.statement());
+        }
+    }
+
+    /**
+     * Rejestruje czas życia EntityManagera (od utworzenia do zamknięcia).
+     *
+     * @param method klasa i metoda repozytorium, która go utworzyła
+     * @param nanos  czas życia w nanosekundach
+     */
+    public void recordEntityManager(String method, long nanos) {
+        if (enabled) {
+            entry(method).entityManagerLifetime.record(nanos);
+        }
+    }
+
+    /**
+     * Zwraca statystyki wszystkich metod, posortowane malejąco
+     * według 95. percentyla czasu zapytania.
+     *
+     * @return niemodyfikowalna lista statystyk
+     */
+    public List<MethodStats> snapshot() {
+        List<MethodStats> out = new ArrayList<>(methods.size());
+        methods.forEach((method, e) -> out.add(new MethodStats(method,
+                e.queryLatency.count(), e.errors.sum(), e.rows.sum(),
+                e.queryLatency.meanMillis(),
+                e.queryLatency.percentileMillis(0.50),
+                e.queryLatency.percentileMillis(0.95),
+                e.queryLatency.percentileMillis(0.99),
+                e.queryLatency.maxMillis(),
+                e.entityManagerLifetime.count(),
+                e.entityManagerLifetime.meanMillis(),
+                e.entityManagerLifetime.maxMillis())));
+        out.sort(Comparator.comparingDouble(MethodStats::p95Millis).reversed());
+        return List.copyOf(out);
+    }
+
+    /**
+     * Zwraca ostatnie wolne zapytania, od najnowszego.
+     *
+     * @return niemodyfikowalna lista wolnych zapytań
+     */
+    public List<SlowQuery> getRecentSlowQueries() {
+        synchronized (slowQueries) {
+            return List.copyOf(slowQueries);
+        }
+    }
+
+    /**
+     * Zeruje wszystkie liczniki i listę wolnych zapytań.
+     */
+    public void reset() {
+        methods.clear();
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+        logger.info("reset() – metryki repozytoriów wyzerowane");
+    }
+
+    /**
+     * Dopisuje bieżącą migawkę metryk jako jeden wiersz JSON
+     * do pliku {@code metrics.snapshotFile}.
+     *
+     * @return ścieżka pliku migawek
+     * @throws IOException gdy zapis się nie powiedzie
+     */
+    public Path writeSnapshot() throws IOException {
+        Path parent = snapshotFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(snapshotFile,
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+            out.write(toJson(snapshot()));
+            out.newLine();
+        }
+        logger.debug("writeSnapshot() – migawka zapisana do {}", snapshotFile);
+        return snapshotFile;
+    }
+
+    /**
+     * Zatrzymuje okresowy zapis migawek, zapisując ostatnią.
+     * Wywoływane przy zamykaniu {@link EMFProvider}.
+     */
+    public void shutdown() {
+        if (scheduler != null && !scheduler.isShutdown()) {
+            scheduler.shutdownNow();
+            writeSnapshotQuietly();
+        }
+    }
+
+    private void writeSnapshotQuietly() {
+        if (methods.isEmpty()) {
+            return;
+        }
+        try {
+            writeSnapshot();
+        } catch (IOException e) {
+            logger.warn("writeSnapshot() – nie można zapisać migawki "
+                    + "metryk do {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    private MethodEntry entry(String method) {
+        return methods.computeIfAbsent(method, k -> new MethodEntry());
+    }
+
+    private String toJson(List<MethodStats> stats) {
+        ConnectionPoolMXBean pool = ConnectionPool.getStatistics();
+        StringBuilder sb = new StringBuilder(256 + stats.size() * 256);
+        sb.append("{\"time\":\"").append(LocalDateTime.now()).append('"')
+                .append(",\"pool\":{\"active\":")
+                .append(pool.getActiveConnections())
+                .append(",\"idle\":").append(pool.getIdleConnections())
+                .append(",\"awaiting\":")
+                .append(pool.getThreadsAwaitingConnection())
+                .append(",\"avgWaitMs\":")
+                .append(format(pool.getAverageWaitMillis()))
+                .append("},\"cache\":[");
+        List<SecondLevelCache.RegionStats> regions =
+                SecondLevelCache.getStatistics();
+        for (int i = 0; i < regions.size(); i++) {
+            SecondLevelCache.RegionStats r = regions.get(i);
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"region\":\"").append(escape(r.region()))
+                    .append("\",\"hits\":").append(r.hits())
+                    .append(",\"misses\":").append(r.misses())
+                    .append(",\"puts\":").append(r.puts())
+                    .append(",\"hitRatio\":").append(format(r.hitRatio()))
+                    .append('}');
+        }
+        sb.append("],\"methods\":[");
+        for (int i = 0; i < stats.size(); i++) {
+            MethodStats s = stats.get(i);
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"method\":\"").append(escape(s.method()))
+                    .append("\",\"queries\":").append(s.queries())
+                    .append(",\"errors\":").append(s.errors())
+                    .append(",\"rows\":").append(s.rows())
+                    .append(",\"meanMs\":").append(format(s.meanMillis()))
+                    .append(",\"p50Ms\":").append(format(s.p50Millis()))
+                    .append(",\"p95Ms\":").append(format(s.p95Millis()))
+                    .append(",\"p99Ms\":").append(format(s.p99Millis()))
+                    .append(",\"maxMs\":").append(format(s.maxMillis()))
+                    .append(",\"entityManagers\":")
+                    .append(s.entityManagers())
+                    .append(",\"meanEntityManagerMs\":")
+                    .append(format(s.meanEntityManagerMillis()))
+                    .append(",\"maxEntityManagerMs\":")
+                    .append(format(s.maxEntityManagerMillis()))
+                    .append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (char c : s.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String abbreviate(String statement) {
+        if (statement == null) {
+            return "";
+        }
+        String oneLine = statement.replaceAll("\\s+", " ").trim();
+        return oneLine.length() <= MAX_STATEMENT_LENGTH
+                ? oneLine : oneLine.substring(0, MAX_STATEMENT_LENGTH) + "…";
+    }
+}
@@ -0,0 +1,746 @@
+/*
+ * Classname: SalesRollupRepository
+ * Version information: 1.6
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import jakarta.persistence.EntityManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.pdflib.SalesRollupReportGenerator.ProductSales;
+import org.example.pdflib.SalesRollupReportGenerator.SalesRollup;
+import org.hibernate.Session;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repozytorium dziennych agregatów sprzedaży (tabela
+ * {@code Sprzedaz_dzienna}).
+ * <p>
+ * Każdy wiersz przechowuje dla pary (dzień, produkt) oraz kategorii
+ * produktu w chwili sprzedaży: liczbę sprzedanych sztuk, przychód
+ * i liczbę transakcji. Liczba różnych transakcji danego dnia
+ * ({@code Sprzedaz_dzienna_transakcje}) oraz transakcji zawierających
+ * produkty danej kategorii ({@code Sprzedaz_dzienna_kategorie}) jest
+ * przechowywana osobno, bo nie da się jej odtworzyć z wierszy
+ * produktów. Tabele są aktualizowane przyrostowo przez
+ * {@link CheckoutService} w tej samej transakcji co sprzedaż.
+ * Pozostałe ścieżki zapisu transakcji i ich pozycji
+ * ({@link TransactionRepository}, {@link TransactionProductRepository})
+ * nanoszą w swojej transakcji różnicę pozycji zmienionej transakcji
+ * tym samym poleceniem co kasa
+ * ({@link #applyChange(EntityManager, TransactionLines, int)}), więc
+ * koszt zapisu zależy od liczby pozycji transakcji, a nie dnia.
+ * Pełne przeliczenie z {@code Transakcje_Produkty}
+ * ({@link #rebuild(LocalDate, LocalDate)}) służy tylko do uzupełnienia
+ * historii i naprawy po zmianach wykonanych poza aplikacją.
+ * </p>
+ * <p>
+ * Raporty miesięczne i roczne ({@link #getSalesRollup}) oraz liczba
+ * sprzedanych sztuk produktu w danym dniu są odczytywane z agregatów
+ * zamiast sumowania pojedynczych pozycji transakcji.
+ * </p>
+ */
+public class SalesRollupRepository {
+
+    /**
+     * Logger do rejestrowania zdarzeń związanych z klasą SalesRollupRepository.
+     */
+    private static final Logger logger =
+            LogManager.getLogger(SalesRollupRepository.class);
+
+    /**
+     * Definicja tabeli agregatów (ta sama co w Struktura.sql), tworzona
+     * przez migrację schematu w wersji 2 ({@link SchemaMigrator}).
+     * Brak klucza obcego do Produkty jest celowy – historia sprzedaży
+     * ma przetrwać usunięcie produktu z katalogu.
+     */
+    public static final String CREATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS Sprzedaz_dzienna (
+                Data              DATE          NOT NULL,
+                Id_produktu       INT           NOT NULL,
+                Kategoria         VARCHAR(100)  NOT NULL DEFAULT '',
+                Ilosc             INT           NOT NULL DEFAULT 0,
+                Przychod          DECIMAL(14,2) NOT NULL DEFAULT 0,
+                Liczba_transakcji INT           NOT NULL DEFAULT 0,
+                PRIMARY KEY (Data, Id_produktu, Kategoria),
+                INDEX idx_sprzedaz_produkt (Id_produktu, Data)
+            )""";
+
+    /**
+     * Liczba transakcji z co najmniej jedną pozycją w danym dniu.
+     * Tworzona przez migrację schematu w wersji 5.
+     */
+    public static final String CREATE_DAY_TABLE = """
+            CREATE TABLE IF NOT EXISTS Sprzedaz_dzienna_transakcje (
+                Data              DATE NOT NULL,
+                Liczba_transakcji INT  NOT NULL DEFAULT 0,
+                PRIMARY KEY (Data)
+            )""";
+
+    /**
+     * Liczba transakcji zawierających produkty danej kategorii
+     * w danym dniu. Tworzona przez migrację schematu w wersji 5.
+     */
+    public static final String CREATE_DAY_CATEGORY_TABLE = """
+            CREATE TABLE IF NOT EXISTS Sprzedaz_dzienna_kategorie (
+                Data              DATE         NOT NULL,
+                Kategoria         VARCHAR(100) NOT NULL DEFAULT '',
+                Liczba_transakcji INT          NOT NULL DEFAULT 0,
+                PRIMARY KEY (Data, Kategoria)
+            )""";
+
+    /**
+     * Zmiana agregatu o ilość, przychód i liczbę pozycji (wartości
+     * ujemne odejmują). Parametry: data, kategoria (null – bieżąca
+     * kategoria produktu), ilość, przychód (null – ilość razy bieżąca
+     * cena), ilość, zmiana liczby pozycji, id produktu.
+     */
+    static final String UPSERT_LINE = """
+            INSERT INTO Sprzedaz_dzienna
+                (Data, Id_produktu, Kategoria, Ilosc, Przychod, Liczba_transakcji)
+            SELECT ?, p.Id, COALESCE(?, p.Kategoria, ''), ?,
+                   COALESCE(?, ? * p.Cena), ?
+            FROM Produkty p WHERE p.Id = ?
+            ON DUPLICATE KEY UPDATE
+                Ilosc = Ilosc + VALUES(Ilosc),
+                Przychod = Przychod + VALUES(Przychod),
+                Liczba_transakcji = Liczba_transakcji + VALUES(Liczba_transakcji)""";
+
+    /**
+     * Wiersz agregatu, z którego odejmowana jest sprzedaż produktu:
+     * najpierw o bieżącej kategorii produktu, potem o największej
+     * ilości. Parametry: data, id produktu.
+     */
+    private static final String FIND_LINE = """
+            SELECT s.Kategoria, s.Ilosc, s.Przychod
+            FROM Sprzedaz_dzienna s
+            LEFT JOIN Produkty p ON p.Id = s.Id_produktu
+            WHERE s.Data = ? AND s.Id_produktu = ?
+            ORDER BY CASE WHEN s.Kategoria = COALESCE(p.Kategoria, '')
+                     THEN 0 ELSE 1 END, s.Ilosc DESC
+            LIMIT 1""";
+
+    private static final String DELETE_EMPTY_LINES = "DELETE FROM Sprzedaz_dzienna "
+            + "WHERE Data = ? AND Id_produktu = ? "
+            + "AND Ilosc <= 0 AND Liczba_transakcji <= 0";
+
+    private static final String SELECT_LINES =
+            "SELECT Id_produktu, Ilosc FROM Transakcje_Produkty "
+                    + "WHERE Id_transakcji = ?";
+
+    /**
+     * Zmiana liczby transakcji dnia. Parametry: data, zmiana.
+     */
+    private static final String UPSERT_DAY = """
+            INSERT INTO Sprzedaz_dzienna_transakcje (Data, Liczba_transakcji)
+            VALUES (?, ?)
+            ON DUPLICATE KEY UPDATE
+                Liczba_transakcji = Liczba_transakcji + VALUES(Liczba_transakcji)""";
+
+    /**
+     * Zmiana liczby transakcji w każdej kategorii wśród podanych
+     * produktów (raz na kategorię). Parametry: data, zmiana,
+     * identyfikatory produktów w miejscu {@code %s}.
+     */
+    private static final String UPSERT_DAY_CATEGORIES = """
+            INSERT INTO Sprzedaz_dzienna_kategorie (Data, Kategoria, Liczba_transakcji)
+            SELECT ?, COALESCE(p.Kategoria, ''), ?
+            FROM Produkty p WHERE p.Id IN (%s)
+            GROUP BY COALESCE(p.Kategoria, '')
+            ON DUPLICATE KEY UPDATE
+                Liczba_transakcji = Liczba_transakcji + VALUES(Liczba_transakcji)""";
+
+    /**
+     * Pary (usunięcie zakresu, przeliczenie zakresu) dla wszystkich
+     * tabel agregatów; pierwsza para dotyczy {@code Sprzedaz_dzienna}.
+     * Parametry każdego polecenia: pierwszy i ostatni dzień.
+     */
+    private static final String[][] REBUILD_STEPS = {
+            {"DELETE FROM Sprzedaz_dzienna WHERE Data BETWEEN ? AND ?", """
+            INSERT INTO Sprzedaz_dzienna
+                (Data, Id_produktu, Kategoria, Ilosc, Przychod, Liczba_transakcji)
+            SELECT t.Data, p.Id, COALESCE(p.Kategoria, ''),
+                   SUM(tp.Ilosc), SUM(tp.Ilosc * p.Cena), COUNT(DISTINCT t.Id)
+            FROM Transakcje t
+            JOIN Transakcje_Produkty tp ON tp.Id_transakcji = t.Id
+            JOIN Produkty p ON p.Id = tp.Id_produktu
+            WHERE t.Data BETWEEN ? AND ?
+            GROUP BY t.Data, p.Id, COALESCE(p.Kategoria, '')"""},
+            {"DELETE FROM Sprzedaz_dzienna_transakcje WHERE Data BETWEEN ? AND ?", """
+            INSERT INTO Sprzedaz_dzienna_transakcje (Data, Liczba_transakcji)
+            SELECT t.Data, COUNT(DISTINCT t.Id)
+            FROM Transakcje t
+            JOIN Transakcje_Produkty tp ON tp.Id_transakcji = t.Id
+            WHERE t.Data BETWEEN ? AND ?
+            GROUP BY t.Data"""},
+            {"DELETE FROM Sprzedaz_dzienna_kategorie WHERE Data BETWEEN ? AND ?", """
+            INSERT INTO Sprzedaz_dzienna_kategorie (Data, Kategoria, Liczba_transakcji)
+            SELECT t.Data, COALESCE(p.Kategoria, ''), COUNT(DISTINCT t.Id)
+            FROM Transakcje t
+            JOIN Transakcje_Produkty tp ON tp.Id_transakcji = t.Id
+            JOIN Produkty p ON p.Id = tp.Id_produktu
+            WHERE t.Data BETWEEN ? AND ?
+            GROUP BY t.Data, COALESCE(p.Kategoria, '')"""}
+    };
+
+    private final DataSource dataSource;
+
+    /**
+     * Domyślny konstruktor – korzysta ze wspólnej puli połączeń.
+     */
+    public SalesRollupRepository() {
+        this(ConnectionPool.getDataSource());
+    }
+
+    /**
+     * Konstruktor z jawnie podanym źródłem danych.
+     *
+     * @param dataSource źródło połączeń JDBC
+     */
+    public SalesRollupRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Przelicza agregaty i liczniki transakcji dla podanego zakresu dat
+     * z pozycji transakcji. Usunięcie starych i wstawienie nowych
+     * wierszy odbywa się w jednej transakcji bazodanowej.
+     *
+     * @param from pierwszy dzień (włącznie)
+     * @param to   ostatni dzień (włącznie)
+     * @return liczba zapisanych wierszy agregatów produktów lub -1
+     *         w przypadku błędu
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        logger.debug("rebuild() – start, from={}, to={}", from, to);
+        long start = System.nanoTime();
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                int rows = -1;
+                for (String[] step : REBUILD_STEPS) {
+                    try (PreparedStatement del = conn.prepareStatement(step[0]);
+                         PreparedStatement ins = conn.prepareStatement(step[1])) {
+                        del.setDate(1, Date.valueOf(from));
+                        del.setDate(2, Date.valueOf(to));
+                        del.executeUpdate();
+                        ins.setDate(1, Date.valueOf(from));
+                        ins.setDate(2, Date.valueOf(to));
+                        int inserted = ins.executeUpdate();
+                        if (rows < 0) {
+                            rows = inserted;
+                        }
+                    }
+                }
+                conn.commit();
+                logger.info("rebuild() – przeliczono {} wierszy agregatów "
+                                + "({} – {}) w {} ms", rows, from, to,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            logger.error("rebuild() – błąd przeliczania agregatów "
+                    + "({} – {})", from, to, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Dzień i ilości produktów jednej transakcji w danej chwili.
+     *
+     * @param day        dzień transakcji lub null, gdy jej nie ma
+     * @param quantities ilość sprzedana na identyfikator produktu
+     */
+    record TransactionLines(LocalDate day, Map<Integer, Integer> quantities) {
+
+        /**
+         * Transakcja nieistniejąca (przed dodaniem lub po usunięciu).
+         */
+        static final TransactionLines NONE =
+                new TransactionLines(null, Map.of());
+    }
+
+    /**
+     * Odczytuje pozycje transakcji w bieżącej transakcji
+     * EntityManagera, po wysłaniu do bazy oczekujących zmian.
+     *
+     * @param em            EntityManager z aktywną transakcją
+     * @param transactionId identyfikator transakcji
+     * @return dzień i ilości produktów; {@link TransactionLines#NONE},
+     *         gdy transakcji nie ma
+     */
+    static TransactionLines linesOf(EntityManager em, int transactionId) {
+        em.flush();
+        return em.unwrap(Session.class).doReturningWork(
+                conn -> linesOf(conn, transactionId));
+    }
+
+    private static TransactionLines linesOf(Connection conn, int transactionId)
+            throws SQLException {
+        LocalDate day;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT Data FROM Transakcje WHERE Id = ?")) {
+            ps.setInt(1, transactionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getDate(1) == null) {
+                    return TransactionLines.NONE;
+                }
+                day = rs.getDate(1).toLocalDate();
+            }
+        }
+        Map<Integer, Integer> quantities = new TreeMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_LINES)) {
+            ps.setInt(1, transactionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    quantities.merge(rs.getInt(1), rs.getInt(2), Integer::sum);
+                }
+            }
+        }
+        return new TransactionLines(day, quantities);
+    }
+
+    /**
+     * Nanosi na agregaty zmianę jednej transakcji w bieżącej
+     * transakcji EntityManagera, dzięki czemu zmiana i jej agregat są
+     * zatwierdzane razem. Stan po zmianie jest odczytywany po wysłaniu
+     * do bazy oczekujących zmian encji.
+     *
+     * @param em            EntityManager z aktywną transakcją
+     * @param before        pozycje transakcji przed zmianą
+     * @param transactionId identyfikator zmienionej transakcji
+     */
+    static void applyChange(EntityManager em, TransactionLines before,
+                            int transactionId) {
+        em.flush();
+        em.unwrap(Session.class).doWork(conn ->
+                applyChange(conn, before, linesOf(conn, transactionId)));
+    }
+
+    /**
+     * Nanosi różnicę pozycji transakcji na agregaty.
+     * <p>
+     * Dodane sztuki są wyceniane bieżącą ceną, jak przy kasie.
+     * Odejmowane sztuki zdejmują przychód wg średniej ceny wiersza
+     * agregatu, więc późniejsza zmiana ceny w katalogu nie zmienia
+     * przychodu zapisanej sprzedaży. Przeniesienie transakcji na inny
+     * dzień przenosi jej przychód bez ponownej wyceny. Liczniki
+     * transakcji są zmieniane tylko wtedy, gdy zmienił się zestaw
+     * produktów transakcji.
+     * </p>
+     */
+    private static void applyChange(Connection conn, TransactionLines before,
+                                    TransactionLines after) throws SQLException {
+        Map<Integer, Integer> was = before.quantities();
+        Map<Integer, Integer> now = after.quantities();
+        if (!Objects.equals(before.day(), after.day())) {
+            Map<Integer, BigDecimal> revenue = new HashMap<>();
+            if (before.day() != null) {
+                for (Map.Entry<Integer, Integer> e : was.entrySet()) {
+                    revenue.put(e.getKey(), removeLine(conn, before.day(),
+                            e.getKey(), e.getValue(), 1));
+                }
+                countTransaction(conn, before.day(), was.keySet(), -1);
+            }
+            if (after.day() != null) {
+                for (Map.Entry<Integer, Integer> e : now.entrySet()) {
+                    BigDecimal moved = Objects.equals(
+                            was.get(e.getKey()), e.getValue())
+                            ? revenue.get(e.getKey()) : null;
+                    addLine(conn, after.day(), e.getKey(), e.getValue(), 1,
+                            moved);
+                }
+                countTransaction(conn, after.day(), now.keySet(), 1);
+            }
+            return;
+        }
+        if (after.day() == null) {
+            return;
+        }
+        Set<Integer> products = new TreeSet<>(was.keySet());
+        products.addAll(now.keySet());
+        for (Integer productId : products) {
+            int b = was.getOrDefault(productId, 0);
+            int a = now.getOrDefault(productId, 0);
+            int lines = (a > 0 ? 1 : 0) - (b > 0 ? 1 : 0);
+            if (a > b) {
+                addLine(conn, after.day(), productId, a - b, lines, null);
+            } else if (a < b) {
+                removeLine(conn, after.day(), productId, b - a, -lines);
+            }
+        }
+        if (!was.keySet().equals(now.keySet())) {
+            countTransaction(conn, after.day(), was.keySet(), -1);
+            countTransaction(conn, after.day(), now.keySet(), 1);
+        }
+        logger.debug("applyChange() – dzień {}: {} produktów",
+                after.day(), products.size());
+    }
+
+    /**
+     * Dolicza sprzedaż produktu do agregatu dnia.
+     *
+     * @param revenue przychód lub null – ilość razy bieżąca cena
+     */
+    private static void addLine(Connection conn, LocalDate day, int productId,
+                                int quantity, int lines, BigDecimal revenue)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(UPSERT_LINE)) {
+            bindLine(ps, day, null, productId, quantity, lines, revenue);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Odejmuje sprzedaż produktu od agregatu dnia i usuwa wiersz,
+     * który nie ma już sprzedaży.
+     *
+     * @return odjęty przychód lub null, gdy dzień nie ma agregatu
+     *         produktu
+     */
+    private static BigDecimal removeLine(Connection conn, LocalDate day,
+                                         int productId, int quantity,
+                                         int lines) throws SQLException {
+        String category;
+        BigDecimal revenue;
+        try (PreparedStatement ps = conn.prepareStatement(FIND_LINE)) {
+            ps.setDate(1, Date.valueOf(day));
+            ps.setInt(2, productId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    logger.warn("removeLine() – brak agregatu produktu {} "
+                            + "w dniu {}", productId, day);
+                    return null;
+                }
+                category = rs.getString(1);
+                int sold = rs.getInt(2);
+                BigDecimal total = rs.getBigDecimal(3);
+                revenue = quantity >= sold || sold <= 0
+                        ? total
+                        : total.multiply(BigDecimal.valueOf(quantity))
+                        .divide(BigDecimal.valueOf(sold), 2,
+                                RoundingMode.HALF_UP);
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(UPSERT_LINE)) {
+            bindLine(ps, day, category, productId, -quantity, -lines,
+                    revenue.negate());
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(DELETE_EMPTY_LINES)) {
+            ps.setDate(1, Date.valueOf(day));
+            ps.setInt(2, productId);
+            ps.executeUpdate();
+        }
+        return revenue;
+    }
+
+    /**
+     * Ustawia parametry {@link #UPSERT_LINE}.
+     *
+     * @param category kategoria lub null – bieżąca kategoria produktu
+     * @param revenue  przychód lub null – ilość razy bieżąca cena
+     */
+    static void bindLine(PreparedStatement ps, LocalDate day, String category,
+                         int productId, int quantity, int lines,
+                         BigDecimal revenue) throws SQLException {
+        ps.setDate(1, Date.valueOf(day));
+        if (category == null) {
+            ps.setNull(2, Types.VARCHAR);
+        } else {
+            ps.setString(2, category);
+        }
+        ps.setInt(3, quantity);
+        if (revenue == null) {
+            ps.setNull(4, Types.DECIMAL);
+        } else {
+            ps.setBigDecimal(4, revenue);
+        }
+        ps.setInt(5, quantity);
+        ps.setInt(6, lines);
+        ps.setInt(7, productId);
+    }
+
+    /**
+     * Zmienia liczniki transakcji dnia o {@code delta}: licznik dnia
+     * oraz licznik każdej bieżącej kategorii występującej wśród
+     * produktów transakcji (jeden raz na kategorię). Liczniki, które
+     * spadły do zera, są usuwane.
+     *
+     * @param conn       połączenie w aktywnej transakcji
+     * @param day        dzień transakcji
+     * @param productIds produkty pozycji transakcji
+     * @param delta      1 dla dodanej transakcji, -1 dla usuniętej
+     * @throws SQLException gdy zapis się nie powiódł
+     */
+    static void countTransaction(Connection conn, LocalDate day,
+                                 Collection<Integer> productIds, int delta)
+            throws SQLException {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        Date date = Date.valueOf(day);
+        try (PreparedStatement ps = conn.prepareStatement(UPSERT_DAY)) {
+            ps.setDate(1, date);
+            ps.setInt(2, delta);
+            ps.executeUpdate();
+        }
+        String sql = String.format(UPSERT_DAY_CATEGORIES,
+                String.join(", ", Collections.nCopies(productIds.size(), "?")));
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setDate(1, date);
+            ps.setInt(2, delta);
+            int i = 3;
+            for (Integer productId : productIds) {
+                ps.setInt(i++, productId);
+            }
+            ps.executeUpdate();
+        }
+        if (delta < 0) {
+            for (String table : new String[]{"Sprzedaz_dzienna_transakcje",
+                    "Sprzedaz_dzienna_kategorie"}) {
+                try (PreparedStatement ps = conn.prepareStatement("DELETE FROM "
+                        + table + " WHERE Data = ? AND Liczba_transakcji <= 0")) {
+                    ps.setDate(1, date);
+                    ps.executeUpdate();
+                }
+            }
+        }
+    }
+
+    /**
+     * Przelicza agregaty dla całej historii transakcji.
+     *
+     * @return liczba zapisanych wierszy agregatów lub -1 w przypadku błędu
+     */
+    public int rebuildAll() {
+        LocalDate[] range = transactionDateRange();
+        if (range == null) {
+            logger.info("rebuildAll() – brak transakcji, nic do przeliczenia");
+            return 0;
+        }
+        return rebuild(range[0], range[1]);
+    }
+
+    /**
+     * Uzupełnia agregaty, jeśli tabela agregatów lub liczników
+     * transakcji jest pusta, a w bazie są już transakcje (pierwsze
+     * uruchomienie po aktualizacji).
+     *
+     * @return liczba zapisanych wierszy (0, gdy uzupełnienie nie było
+     *         potrzebne)
+     */
+    public int backfillIfEmpty() {
+        try (Connection conn = dataSource.getConnection();
+             Statement st = conn.createStatement()) {
+            if (hasRows(st, "Sprzedaz_dzienna")
+                    && hasRows(st, "Sprzedaz_dzienna_transakcje")) {
+                logger.debug("backfillIfEmpty() – agregaty już istnieją");
+                return 0;
+            }
+        } catch (SQLException e) {
+            logger.error("backfillIfEmpty() – błąd sprawdzania agregatów", e);
+            return -1;
+        }
+        logger.info("backfillIfEmpty() – tabela agregatów pusta, "
+                + "przeliczam historię sprzedaży");
+        return rebuildAll();
+    }
+
+    private static boolean hasRows(Statement st, String table)
+            throws SQLException {
+        try (ResultSet rs = st.executeQuery(
+                "SELECT 1 FROM " + table + " LIMIT 1")) {
+            return rs.next();
+        }
+    }
+
+    /**
+     * Zwraca liczbę sztuk produktu sprzedanych w danym dniu.
+     *
+     * @param productId identyfikator produktu
+     * @param date      dzień sprzedaży
+     * @return liczba sprzedanych sztuk (0 przy braku sprzedaży lub błędzie)
+     */
+    public int getSoldQuantity(int productId, LocalDate date) {
+        logger.debug("getSoldQuantity() – productId={}, date={}",
+                productId, date);
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT COALESCE(SUM(Ilosc), 0) FROM Sprzedaz_dzienna "
+                             + "WHERE Data = ? AND Id_produktu = ?")) {
+            ps.setDate(1, Date.valueOf(date));
+            ps.setInt(2, productId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            logger.error("getSoldQuantity() – błąd dla productId={}, "
+                    + "date={}", productId, date, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Pobiera dane raportu z agregatów: jeden wiersz na wiersz
+     * agregatu (dzień, produkt, kategoria) oraz liczby transakcji
+     * z liczników dziennych.
+     * <p>
+     * Przy filtrze kategorii liczba transakcji dnia to suma liczników
+     * wybranych kategorii ograniczona liczbą wszystkich transakcji
+     * dnia – transakcja zawierająca produkty kilku wybranych kategorii
+     * może zostać policzona więcej niż raz, jeśli nie przekracza to
+     * dziennej liczby transakcji.
+     * </p>
+     *
+     * @param from       pierwszy dzień (włącznie)
+     * @param to         ostatni dzień (włącznie)
+     * @param categories kategorie do uwzględnienia; pusta lista – wszystkie
+     * @return dane raportu lub puste dane w przypadku błędu
+     */
+    public SalesRollup getSalesRollup(
+            LocalDate from,
+            LocalDate to,
+            List<String> categories
+    ) {
+        logger.debug("getSalesRollup() – from={}, to={}, categories={}",
+                from, to, categories);
+        List<String> filter = categories == null ? List.of() : categories;
+        String categoryFilter = filter.isEmpty() ? "" : "AND Kategoria IN ("
+                + String.join(", ", Collections.nCopies(filter.size(), "?"))
+                + ") ";
+        String sql = "SELECT s.Data, s.Id_produktu, p.Nazwa, s.Kategoria, "
+                + "s.Ilosc, s.Przychod "
+                + "FROM Sprzedaz_dzienna s "
+                + "LEFT JOIN Produkty p ON p.Id = s.Id_produktu "
+                + "WHERE s.Data BETWEEN ? AND ? "
+                + categoryFilter.replace("Kategoria", "s.Kategoria")
+                + "ORDER BY s.Data, s.Kategoria, p.Nazwa";
+        String categorySql = "SELECT Kategoria, SUM(Liczba_transakcji) "
+                + "FROM Sprzedaz_dzienna_kategorie "
+                + "WHERE Data BETWEEN ? AND ? " + categoryFilter
+                + "GROUP BY Kategoria";
+        String totalSql = filter.isEmpty()
+                ? "SELECT COALESCE(SUM(Liczba_transakcji), 0) "
+                + "FROM Sprzedaz_dzienna_transakcje WHERE Data BETWEEN ? AND ?"
+                : "SELECT COALESCE(SUM(LEAST(c.n, d.Liczba_transakcji)), 0) "
+                + "FROM (SELECT Data, SUM(Liczba_transakcji) AS n "
+                + "FROM Sprzedaz_dzienna_kategorie "
+                + "WHERE Data BETWEEN ? AND ? " + categoryFilter
+                + "GROUP BY Data) c "
+                + "JOIN Sprzedaz_dzienna_transakcje d ON d.Data = c.Data";
+
+        long start = System.nanoTime();
+        try (Connection conn = dataSource.getConnection()) {
+            List<ProductSales> rows = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                bindRange(ps, from, to, filter);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        String name = rs.getString(3);
+                        rows.add(new ProductSales(
+                                rs.getDate(1).toLocalDate(),
+                                name != null ? name : "Produkt #" + rs.getInt(2),
+                                rs.getString(4), rs.getInt(5),
+                                rs.getBigDecimal(6).doubleValue()));
+                    }
+                }
+            }
+            Map<String, Integer> byCategory = new TreeMap<>();
+            try (PreparedStatement ps = conn.prepareStatement(categorySql)) {
+                bindRange(ps, from, to, filter);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        byCategory.put(rs.getString(1), rs.getInt(2));
+                    }
+                }
+            }
+            long transactions;
+            try (PreparedStatement ps = conn.prepareStatement(totalSql)) {
+                bindRange(ps, from, to, filter);
+                try (ResultSet rs = ps.executeQuery()) {
+                    transactions = rs.next() ? rs.getLong(1) : 0;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            RepositoryMetrics.getInstance().recordQuery(
+                    "SalesRollupRepository.getSalesRollup", elapsed,
+                    rows.size(), false, sql);
+            logger.info("getSalesRollup() – {} wierszy agregatów, {} "
+                            + "transakcji w {} ms", rows.size(), transactions,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed));
+            return new SalesRollup(rows, byCategory, transactions);
+        } catch (SQLException e) {
+            RepositoryMetrics.getInstance().recordQuery(
+                    "SalesRollupRepository.getSalesRollup",
+                    System.nanoTime() - start, -1, true, sql);
+            logger.error("getSalesRollup() – błąd pobierania agregatów", e);
+            return SalesRollup.empty();
+        }
+    }
+
+    /**
+     * Ustawia parametry zakresu dat i kategorii zapytania raportu.
+     */
+    private static void bindRange(PreparedStatement ps, LocalDate from,
+                                  LocalDate to, List<String> categories)
+            throws SQLException {
+        ps.setDate(1, Date.valueOf(from));
+        ps.setDate(2, Date.valueOf(to));
+        for (int i = 0; i < categories.size(); i++) {
+            ps.setString(3 + i, categories.get(i));
+        }
+    }
+
+    /**
+     * Zwraca najwcześniejszą i najpóźniejszą datę transakcji
+     * albo null, jeśli transakcji nie ma.
+     */
+    private LocalDate[] transactionDateRange() {
+        try (Connection conn = dataSource.getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT MIN(Data), MAX(Data) FROM Transakcje")) {
+            if (rs.next() && rs.getDate(1) != null) {
+                return new LocalDate[]{
+                        rs.getDate(1).toLocalDate(),
+                        rs.getDate(2).toLocalDate()};
+            }
+            return null;
+        } catch (SQLException e) {
+            logger.error("transactionDateRange() – błąd odczytu zakresu dat", e);
+            return null;
+        }
+    }
+}
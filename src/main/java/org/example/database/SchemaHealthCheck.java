@@ -0,0 +1,235 @@
+/*
+ * Classname: SchemaHealthCheck
+ * Version information: 1.1
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Kontrola schematu wykonywana przy starcie aplikacji.
+ * <p>
+ * Sprawdza, czy istnieją indeksy oczekiwane przez
+ * {@link SchemaMigrator}, oraz wykonuje {@code EXPLAIN} dla
+ * najczęstszych zapytań aplikacji. Plan z pełnym skanem tabeli
+ * ({@code type = ALL}) szacowanym na co najmniej
+ * {@code schema.check.fullScanRows} wierszy (domyślnie 1000)
+ * jest zgłaszany jako wolny. Wyniki trafiają do logu – kontrola
+ * nigdy nie przerywa uruchamiania aplikacji.
+ * </p>
+ */
+public final class SchemaHealthCheck {
+
+    private static final Logger logger =
+            LogManager.getLogger(SchemaHealthCheck.class);
+
+    /**
+     * Najczęstsze predykaty aplikacji: opis → zapytanie do EXPLAIN.
+     */
+    private static final Map<String, String> HOT_QUERIES = new LinkedHashMap<>();
+
+    static {
+        HOT_QUERIES.put("Transakcje wg zakresu dat",
+                "SELECT Id FROM Transakcje WHERE Data BETWEEN "
+                        + "CURRENT_DATE - INTERVAL 30 DAY AND CURRENT_DATE");
+        HOT_QUERIES.put("Zamówienia wg zakresu dat",
+                "SELECT Id FROM Zamowienia WHERE Data BETWEEN "
+                        + "CURRENT_DATE - INTERVAL 30 DAY AND CURRENT_DATE");
+        HOT_QUERIES.put("Zadania wg statusu",
+                "SELECT Id FROM Zadania WHERE Status = 'Nowe'");
+        HOT_QUERIES.put("Zadania wg daty",
+                "SELECT Id FROM Zadania WHERE Data = CURRENT_DATE");
+        HOT_QUERIES.put("Logowanie pracownika",
+                "SELECT Id FROM Pracownicy WHERE Login = 'x'");
+        HOT_QUERIES.put("Pracownik wg e-mail",
+                "SELECT Id FROM Pracownicy WHERE Email = 'x'");
+        HOT_QUERIES.put("Produkty wg kategorii",
+                "SELECT Id FROM Produkty WHERE Kategoria = 'x'");
+        HOT_QUERIES.put("Raporty pracownika",
+                "SELECT Id FROM Raporty WHERE Id_pracownika = 0");
+        HOT_QUERIES.put("Nieobecności w dniu",
+                "SELECT Id FROM Wnioski_o_nieobecnosc "
+                        + "WHERE Data_rozpoczecia <= CURRENT_DATE "
+                        + "AND Data_zakonczenia >= CURRENT_DATE");
+    }
+
+    /**
+     * Wynik kontroli schematu.
+     *
+     * @param missingIndexes brakujące indeksy
+     * @param slowPlans      opisy zapytań z wolnym planem wykonania
+     */
+    public record Report(List<SchemaMigrator.IndexDefinition> missingIndexes,
+                         List<String> slowPlans) {
+
+        /**
+         * @return true, jeśli nie wykryto żadnych problemów
+         */
+        public boolean isHealthy() {
+            return missingIndexes.isEmpty() && slowPlans.isEmpty();
+        }
+    }
+
+    private SchemaHealthCheck() {
+    }
+
+    /**
+     * Wykonuje kontrolę i zapisuje jej wynik w logu.
+     *
+     * @param conn     połączenie z bazą
+     * @param expected indeksy, które powinny istnieć
+     * @return wynik kontroli (pusty, jeśli kontrola się nie powiodła)
+     */
+    public static Report run(Connection conn,
+                             List<SchemaMigrator.IndexDefinition> expected) {
+        long start = System.nanoTime();
+        List<SchemaMigrator.IndexDefinition> missing = new ArrayList<>();
+        List<String> slow = new ArrayList<>();
+        try {
+            for (SchemaMigrator.IndexDefinition index : expected) {
+                if (!indexes(conn, index.table()).containsKey(index.name())
+                        && !isCovered(conn, index)) {
+                    missing.add(index);
+                    logger.warn("run() – brak indeksu {}", index);
+                }
+            }
+            long threshold = DatabaseSettings.getLong(
+                    "schema.check.fullScanRows", 1000);
+            for (Map.Entry<String, String> q : HOT_QUERIES.entrySet()) {
+                String plan = explain(conn, q.getValue(), threshold);
+                if (plan != null) {
+                    slow.add(q.getKey() + ": " + plan);
+                    logger.warn("run() – wolny plan dla \"{}\": {}",
+                            q.getKey(), plan);
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("run() – kontrola schematu nie powiodła się", e);
+        }
+        Report report = new Report(List.copyOf(missing), List.copyOf(slow));
+        logger.info("run() – kontrola schematu w {} ms: brakujące indeksy={},"
+                        + " wolne plany={}",
+                (System.nanoTime() - start) / 1_000_000,
+                missing.size(), slow.size());
+        return report;
+    }
+
+    /**
+     * Wykonuje EXPLAIN i zwraca opis planu, jeśli zawiera pełny skan
+     * dużej tabeli.
+     *
+     * @return opis wolnego planu lub null, gdy plan jest akceptowalny
+     */
+    private static String explain(Connection conn, String sql, long threshold)
+            throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("EXPLAIN " + sql)) {
+            while (rs.next()) {
+                String type = rs.getString("type");
+                long rows = rs.getLong("rows");
+                if ("ALL".equalsIgnoreCase(type) && rows >= threshold) {
+                    return "pełny skan " + rs.getString("table")
+                            + " (~" + rows + " wierszy, key="
+                            + rs.getString("key") + ")";
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isCovered(Connection conn,
+                                     SchemaMigrator.IndexDefinition index)
+            throws SQLException {
+        int n = index.columns().size();
+        for (List<String> cols : indexes(conn, index.table()).values()) {
+            if (cols.size() >= n
+                    && sameColumns(cols.subList(0, n), index.columns())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Odczytuje indeksy tabeli z metadanych JDBC.
+     *
+     * @param conn  połączenie z bazą
+     * @param table nazwa tabeli
+     * @return nazwa indeksu → kolumny w kolejności
+     * @throws SQLException gdy odczyt metadanych się nie powiedzie
+     */
+    static Map<String, List<String>> indexes(Connection conn, String table)
+            throws SQLException {
+        Map<String, TreeMap<Short, String>> byName = new LinkedHashMap<>();
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), null,
+                table, false, true)) {
+            while (rs.next()) {
+                String name = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (name == null || column == null) {
+                    continue;
+                }
+                byName.computeIfAbsent(name, k -> new TreeMap<>())
+                        .put(rs.getShort("ORDINAL_POSITION"), column);
+            }
+        }
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        byName.forEach((name, cols) ->
+                result.put(name, List.copyOf(cols.values())));
+        return result;
+    }
+
+    /**
+     * Sprawdza w metadanych JDBC, czy tabela ma kolumnę o podanej nazwie.
+     *
+     * @param conn   połączenie z bazą
+     * @param table  nazwa tabeli
+     * @param column nazwa kolumny
+     * @return true, gdy kolumna istnieje
+     * @throws SQLException gdy odczyt metadanych się nie powiedzie
+     */
+    static boolean hasColumn(Connection conn, String table, String column)
+            throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getColumns(conn.getCatalog(), null,
+                table, null)) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Porównuje listy kolumn bez rozróżniania wielkości liter.
+     */
+    static boolean sameColumns(List<String> a, List<String> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!a.get(i).equalsIgnoreCase(b.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
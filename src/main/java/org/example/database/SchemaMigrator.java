@@ -0,0 +1,427 @@
+/*
+ * Classname: SchemaMigrator
+ * Version information: 1.4
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Wersjonowane migracje schematu bazy danych.
+ * <p>
+ * Każda migracja ma numer wersji, opis i listę kroków (utworzenie
+ * indeksu, dodanie kolumny, dowolne polecenie DDL). Zastosowane wersje
+ * zapisywane są w tabeli {@code Migracje_schematu} razem z sumą
+ * kontrolną kroków i czasem wykonania, więc przy kolejnym starcie
+ * wykonywane są wyłącznie nowe wersje. Zmiana treści już zastosowanej
+ * migracji jest zgłaszana w logu – schemat należy wtedy rozwijać
+ * kolejną wersją, a nie edycją starej.
+ * </p>
+ * <p>
+ * Kroki są idempotentne: indeks nie jest tworzony, jeśli w tabeli
+ * istnieje już indeks o tej nazwie albo indeks zaczynający się od
+ * tych samych kolumn (np. indeks klucza obcego), a kolumna – jeśli
+ * tabela już ją ma. Równoległe starty
+ * aplikacji serializuje blokada {@code GET_LOCK}.
+ * </p>
+ */
+public final class SchemaMigrator {
+
+    private static final Logger logger =
+            LogManager.getLogger(SchemaMigrator.class);
+
+    /**
+     * Tabela rejestru zastosowanych migracji.
+     */
+    static final String LEDGER_TABLE = "Migracje_schematu";
+
+    private static final String CREATE_LEDGER = """
+            CREATE TABLE IF NOT EXISTS Migracje_schematu (
+                Wersja          INT          PRIMARY KEY,
+                Opis            VARCHAR(200) NOT NULL,
+                Suma_kontrolna  BIGINT       NOT NULL,
+                Zastosowano     DATETIME     NOT NULL,
+                Czas_ms         BIGINT       NOT NULL
+            )""";
+
+    /**
+     * Nazwa blokady serwera MySQL chroniącej przed równoległą migracją.
+     */
+    private static final String LOCK_NAME = "StonkaDB.schema_migration";
+
+    /**
+     * Maksymalny czas oczekiwania na blokadę migracji (sekundy).
+     */
+    private static final int LOCK_TIMEOUT_SECONDS = 30;
+
+    /**
+     * Pojedynczy krok migracji.
+     */
+    @FunctionalInterface
+    interface Step {
+        /**
+         * @param conn połączenie z bazą
+         * @throws SQLException gdy krok się nie powiedzie
+         */
+        void apply(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Definicja indeksu oczekiwanego w schemacie.
+     *
+     * @param table   tabela
+     * @param name    nazwa indeksu
+     * @param columns kolumny indeksu w kolejności
+     */
+    public record IndexDefinition(String table, String name,
+                                  List<String> columns) {
+
+        @Override
+        public String toString() {
+            return table + "." + name + columns;
+        }
+    }
+
+    /**
+     * Wersja schematu: numer, opis i kroki do wykonania.
+     *
+     * @param version     numer wersji (rosnąco, bez powtórzeń)
+     * @param description opis zmian
+     * @param steps       kroki w kolejności wykonania
+     * @param signature   tekstowy opis kroków, z którego liczona jest
+     *                    suma kontrolna
+     */
+    record Migration(int version, String description, List<Step> steps,
+                     String signature) {
+
+        long checksum() {
+            CRC32 crc = new CRC32();
+            crc.update(signature.getBytes(StandardCharsets.UTF_8));
+            return crc.getValue();
+        }
+    }
+
+    private final List<Migration> migrations;
+    private final Map<String, IndexDefinition> expectedIndexes;
+
+    /**
+     * Tworzy migrator z migracjami aplikacji.
+     */
+    public SchemaMigrator() {
+        this.migrations = new ArrayList<>();
+        this.expectedIndexes = new LinkedHashMap<>();
+        defineMigrations();
+    }
+
+    /**
+     * Definicje kolejnych wersji schematu. Nowe zmiany dopisujemy
+     * jako kolejną wersję na końcu listy.
+     */
+    private void defineMigrations() {
+        new Builder(1, "Indeksy dla najczęstszych filtrów dat i statusów")
+                .createIndex("Transakcje", "idx_transakcje_data", "Data")
+                .createIndex("Zamowienia", "idx_zamowienia_data", "Data")
+                .createIndex("Zadania", "idx_zadania_data", "Data")
+                .createIndex("Zadania", "idx_zadania_status",
+                        "Status", "Data")
+                .createIndex("Pracownicy", "idx_pracownicy_login", "Login")
+                .createIndex("Pracownicy", "idx_pracownicy_email", "Email")
+                .createIndex("Produkty", "idx_produkty_kategoria",
+                        "Kategoria")
+                .createIndex("Raporty", "idx_raporty_pracownik_data",
+                        "Id_pracownika", "Data_poczatku")
+                .createIndex("Wnioski_o_nieobecnosc", "idx_wnioski_daty",
+                        "Data_rozpoczecia", "Data_zakonczenia")
+                .add();
+        new Builder(2, "Dzienny agregat sprzedaży Sprzedaz_dzienna")
+                .sql(SalesRollupRepository.CREATE_TABLE)
+                .expectIndex("Sprzedaz_dzienna", "idx_sprzedaz_produkt",
+                        "Id_produktu", "Data")
+                .add();
+        new Builder(3, "Indeks listy raportów pracownika")
+                .createIndex("Raporty", "idx_raporty_pracownik_id",
+                        "Id_pracownika", "Id")
+                .add();
+        Builder modified = new Builder(4,
+                "Znacznik czasu modyfikacji dla kopii przyrostowych");
+        for (String table : IncrementalBackup.TRACKED_BY_MODIFICATION) {
+            modified.addColumn(table, IncrementalBackup.MODIFIED_COLUMN,
+                            IncrementalBackup.MODIFIED_DEFINITION)
+                    .createIndex(table, "idx_" + table.toLowerCase(Locale.ROOT)
+                            + "_zmodyfikowano", IncrementalBackup.MODIFIED_COLUMN);
+        }
+        modified.add();
+        new Builder(5, "Dzienne liczby transakcji do raportów z agregatów")
+                .sql(SalesRollupRepository.CREATE_DAY_TABLE)
+                .sql(SalesRollupRepository.CREATE_DAY_CATEGORY_TABLE)
+                .add();
+    }
+
+    /**
+     * Wykonuje wszystkie niezastosowane migracje.
+     *
+     * @param conn połączenie z docelową bazą
+     * @return liczba zastosowanych w tym wywołaniu migracji
+     * @throws SQLException gdy migracja się nie powiedzie lub nie
+     *                      udało się uzyskać blokady
+     */
+    public int migrate(Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        try (Statement st = conn.createStatement()) {
+            st.execute(CREATE_LEDGER);
+        }
+        if (!acquireLock(conn)) {
+            throw new SQLException("Nie uzyskano blokady migracji "
+                    + LOCK_NAME + " w ciągu " + LOCK_TIMEOUT_SECONDS + " s");
+        }
+        int applied = 0;
+        try {
+            Map<Integer, Long> done = loadLedger(conn);
+            for (Migration m : migrations) {
+                Long checksum = done.get(m.version());
+                if (checksum != null) {
+                    if (checksum != m.checksum()) {
+                        logger.warn("migrate() – migracja V{} ({}) różni się "
+                                        + "od zastosowanej wersji; zmiany "
+                                        + "schematu dodaj jako nową wersję",
+                                m.version(), m.description());
+                    }
+                    continue;
+                }
+                apply(conn, m);
+                applied++;
+            }
+        } finally {
+            releaseLock(conn);
+        }
+        logger.info("migrate() – schemat w wersji {}, zastosowano {} "
+                        + "migracji w {} ms", getLatestVersion(), applied,
+                (System.nanoTime() - start) / 1_000_000);
+        return applied;
+    }
+
+    /**
+     * Zwraca najwyższą wersję zapisaną w rejestrze migracji.
+     *
+     * @param conn połączenie z bazą
+     * @return numer wersji lub 0, gdy nie zastosowano żadnej migracji
+     * @throws SQLException gdy odczyt rejestru się nie powiedzie
+     */
+    public int getCurrentVersion(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT COALESCE(MAX(Wersja), 0) FROM " + LEDGER_TABLE)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * @return najwyższa wersja zdefiniowana w aplikacji
+     */
+    public int getLatestVersion() {
+        return migrations.isEmpty()
+                ? 0 : migrations.get(migrations.size() - 1).version();
+    }
+
+    /**
+     * Zwraca indeksy, które powinny istnieć po zastosowaniu wszystkich
+     * migracji (uwzględnia indeksy usunięte w późniejszych wersjach).
+     *
+     * @return lista oczekiwanych indeksów
+     */
+    public List<IndexDefinition> getExpectedIndexes() {
+        return List.copyOf(expectedIndexes.values());
+    }
+
+    private void apply(Connection conn, Migration m) throws SQLException {
+        logger.info("apply() – migracja V{}: {}", m.version(),
+                m.description());
+        long start = System.nanoTime();
+        for (Step step : m.steps()) {
+            step.apply(conn);
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO " + LEDGER_TABLE
+                        + " (Wersja, Opis, Suma_kontrolna, Zastosowano, "
+                        + "Czas_ms) VALUES (?, ?, ?, ?, ?)")) {
+            ps.setInt(1, m.version());
+            ps.setString(2, m.description());
+            ps.setLong(3, m.checksum());
+            ps.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+            ps.setLong(5, elapsedMs);
+            ps.executeUpdate();
+        }
+        logger.info("apply() – migracja V{} zakończona w {} ms",
+                m.version(), elapsedMs);
+    }
+
+    private Map<Integer, Long> loadLedger(Connection conn)
+            throws SQLException {
+        Map<Integer, Long> done = new HashMap<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT Wersja, Suma_kontrolna FROM " + LEDGER_TABLE)) {
+            while (rs.next()) {
+                done.put(rs.getInt(1), rs.getLong(2));
+            }
+        }
+        return done;
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        } catch (SQLException e) {
+            logger.warn("releaseLock() – nie zwolniono blokady {}: {}",
+                    LOCK_NAME, e.getMessage());
+        }
+    }
+
+    /**
+     * Tworzy indeks, o ile tabela nie ma już indeksu o tej nazwie ani
+     * indeksu zaczynającego się od tych samych kolumn.
+     */
+    private static void createIndexIfMissing(Connection conn,
+                                             IndexDefinition index)
+            throws SQLException {
+        Map<String, List<String>> existing = SchemaHealthCheck.indexes(
+                conn, index.table());
+        if (existing.containsKey(index.name())) {
+            logger.debug("createIndexIfMissing() – {} już istnieje", index);
+            return;
+        }
+        for (Map.Entry<String, List<String>> e : existing.entrySet()) {
+            List<String> cols = e.getValue();
+            if (cols.size() >= index.columns().size()
+                    && SchemaHealthCheck.sameColumns(
+                    cols.subList(0, index.columns().size()),
+                    index.columns())) {
+                logger.info("createIndexIfMissing() – {} pokryty przez "
+                        + "istniejący indeks {}", index, e.getKey());
+                return;
+            }
+        }
+        String ddl = "CREATE INDEX " + index.name() + " ON " + index.table()
+                + " (" + String.join(", ", index.columns()) + ")";
+        logger.info("createIndexIfMissing() – {}", ddl);
+        try (Statement st = conn.createStatement()) {
+            st.execute(ddl);
+        }
+    }
+
+    /**
+     * Dodaje kolumnę, o ile tabela jej jeszcze nie ma.
+     */
+    private static void addColumnIfMissing(Connection conn, String table,
+                                           String column, String definition)
+            throws SQLException {
+        if (SchemaHealthCheck.hasColumn(conn, table, column)) {
+            logger.debug("addColumnIfMissing() – {}.{} już istnieje",
+                    table, column);
+            return;
+        }
+        String ddl = "ALTER TABLE " + table + " ADD COLUMN " + column
+                + " " + definition;
+        logger.info("addColumnIfMissing() – {}", ddl);
+        try (Statement st = conn.createStatement()) {
+            st.execute(ddl);
+        }
+    }
+
+    /**
+     * Składa migrację z kroków i rejestruje oczekiwane indeksy.
+     */
+    private final class Builder {
+        private final int version;
+        private final String description;
+        private final List<Step> steps = new ArrayList<>();
+        private final StringBuilder signature = new StringBuilder();
+
+        Builder(int version, String description) {
+            this.version = version;
+            this.description = description;
+        }
+
+        Builder createIndex(String table, String name, String... columns) {
+            IndexDefinition index = expect(table, name, columns);
+            steps.add(conn -> createIndexIfMissing(conn, index));
+            signature.append("create ").append(index).append('\n');
+            return this;
+        }
+
+        Builder addColumn(String table, String column, String definition) {
+            steps.add(conn -> addColumnIfMissing(conn, table, column,
+                    definition));
+            signature.append("column ").append(table).append('.')
+                    .append(column).append(' ').append(definition)
+                    .append('\n');
+            return this;
+        }
+
+        Builder sql(String statement) {
+            steps.add(conn -> {
+                try (Statement st = conn.createStatement()) {
+                    st.execute(statement);
+                }
+            });
+            signature.append("sql ").append(statement.strip()).append('\n');
+            return this;
+        }
+
+        Builder expectIndex(String table, String name, String... columns) {
+            expect(table, name, columns);
+            return this;
+        }
+
+        private IndexDefinition expect(String table, String name,
+                                       String... columns) {
+            IndexDefinition index = new IndexDefinition(
+                    table, name, List.of(columns));
+            expectedIndexes.put(table + "." + name, index);
+            return index;
+        }
+
+        void add() {
+            if (!migrations.isEmpty() && migrations.get(
+                    migrations.size() - 1).version() >= version) {
+                throw new IllegalStateException(
+                        "Wersje migracji muszą rosnąć: V" + version);
+            }
+            migrations.add(new Migration(version, description,
+                    List.copyOf(steps), signature.toString()));
+        }
+    }
+}
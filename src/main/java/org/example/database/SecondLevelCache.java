@@ -0,0 +1,208 @@
+/*
+ * Classname: SecondLevelCache
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.sys.Warehouse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache drugiego poziomu Hibernate dla encji słownikowych.
+ * <p>
+ * Encje {@code Product}, {@code Address}, {@code Employee}
+ * i {@code Warehouse} są oznaczone {@code @Cacheable} z własnym
+ * regionem; limity wpisów i czasy wygaśnięcia regionów są zdefiniowane
+ * w {@code ehcache.xml}. Klasa udostępnia statystyki trafień regionów
+ * (widok diagnostyki, migawki metryk, JMX pod nazwą
+ * {@code org.example.database:type=SecondLevelCache}) oraz
+ * unieważnianie wpisów zmienionych z pominięciem Hibernate
+ * (np. stanów magazynowych w {@link CheckoutService}).
+ * </p>
+ * <p>
+ * Cache można wyłączyć ustawieniem {@code db.cache.enabled=0}.
+ * </p>
+ */
+public final class SecondLevelCache implements SecondLevelCacheMXBean {
+
+    private static final Logger logger =
+            LogManager.getLogger(SecondLevelCache.class);
+
+    private static final String MBEAN_NAME =
+            "org.example.database:type=SecondLevelCache";
+
+    /** Region encji Product. */
+    public static final String PRODUCT_REGION = "stonka.product";
+
+    /** Region encji Address. */
+    public static final String ADDRESS_REGION = "stonka.address";
+
+    /** Region encji Employee. */
+    public static final String EMPLOYEE_REGION = "stonka.employee";
+
+    /** Region encji Warehouse. */
+    public static final String WAREHOUSE_REGION = "stonka.warehouse";
+
+    /** Region wyników zapytania o listę adresów. */
+    public static final String ADDRESS_QUERY_REGION = "stonka.query.addresses";
+
+    private static final List<String> ENTITY_REGIONS = List.of(
+            PRODUCT_REGION, ADDRESS_REGION, EMPLOYEE_REGION, WAREHOUSE_REGION);
+
+    private static final List<String> QUERY_REGIONS = List.of(
+            ADDRESS_QUERY_REGION);
+
+    private static final SecondLevelCache INSTANCE = new SecondLevelCache();
+
+    /**
+     * Statystyki jednego regionu cache.
+     *
+     * @param region   nazwa regionu
+     * @param hits     liczba trafień
+     * @param misses   liczba chybień
+     * @param puts     liczba zapisów do regionu
+     * @param elements liczba wpisów w pamięci (-1, gdy nieznana)
+     */
+    public record RegionStats(String region, long hits, long misses,
+                              long puts, long elements) {
+
+        /**
+         * @return stosunek trafień do odczytów (0..1)
+         */
+        public double hitRatio() {
+            long reads = hits + misses;
+            return reads == 0 ? 0.0 : (double) hits / reads;
+        }
+    }
+
+    private SecondLevelCache() {
+    }
+
+    /**
+     * @return true, jeśli cache drugiego poziomu jest włączony
+     */
+    public static boolean isEnabled() {
+        return DatabaseSettings.getInt("db.cache.enabled", 1) != 0;
+    }
+
+    /**
+     * Rejestruje statystyki cache w JMX. Wywoływane przez
+     * {@link EMFProvider} po utworzeniu fabryki.
+     */
+    static void register() {
+        if (isEnabled()) {
+            MBeans.register(INSTANCE, MBEAN_NAME);
+        }
+    }
+
+    /**
+     * Wyrejestrowuje statystyki cache z JMX.
+     */
+    static void unregister() {
+        MBeans.unregister(MBEAN_NAME);
+    }
+
+    /**
+     * Zwraca statystyki wszystkich regionów cache.
+     *
+     * @return lista statystyk (pusta, gdy cache jest wyłączony)
+     */
+    public static List<RegionStats> getStatistics() {
+        List<RegionStats> out = new ArrayList<>();
+        if (!isEnabled()) {
+            return out;
+        }
+        try {
+            Statistics stats = EMFProvider.get()
+                    .unwrap(SessionFactory.class).getStatistics();
+            for (String region : ENTITY_REGIONS) {
+                add(out, region, stats.getDomainDataRegionStatistics(region));
+            }
+            for (String region : QUERY_REGIONS) {
+                add(out, region, stats.getQueryRegionStatistics(region));
+            }
+        } catch (Exception e) {
+            logger.warn("getStatistics() – nie można odczytać statystyk "
+                    + "cache: {}", e.getMessage());
+        }
+        return out;
+    }
+
+    /**
+     * Usuwa z cache stany magazynowe podanych produktów. Wywoływane
+     * po zmianach stanów wykonanych bezpośrednio przez JDBC.
+     *
+     * @param productIds identyfikatory produktów
+     */
+    public static void evictStock(Collection<Integer> productIds) {
+        if (!isEnabled() || productIds.isEmpty()) {
+            return;
+        }
+        try {
+            jakarta.persistence.Cache cache = EMFProvider.get().getCache();
+            for (Integer id : productIds) {
+                cache.evict(Warehouse.class, id);
+            }
+        } catch (Exception e) {
+            logger.warn("evictStock() – nie można unieważnić stanów "
+                    + "magazynowych: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, Double> getHitRatios() {
+        Map<String, Double> ratios = new LinkedHashMap<>();
+        for (RegionStats s : getStatistics()) {
+            ratios.put(s.region(), s.hitRatio());
+        }
+        return ratios;
+    }
+
+    @Override
+    public long getHits() {
+        return getStatistics().stream().mapToLong(RegionStats::hits).sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return getStatistics().stream().mapToLong(RegionStats::misses).sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+        List<RegionStats> all = getStatistics();
+        long hits = all.stream().mapToLong(RegionStats::hits).sum();
+        long reads = hits + all.stream().mapToLong(RegionStats::misses).sum();
+        return reads == 0 ? 0.0 : (double) hits / reads;
+    }
+
+    @Override
+    public void evictAll() {
+        if (!isEnabled()) {
+            return;
+        }
+        EMFProvider.get().getCache().evictAll();
+        logger.info("evictAll() – cache drugiego poziomu wyczyszczony");
+    }
+
+    private static void add(List<RegionStats> out, String region,
+                            CacheRegionStatistics s) {
+        if (s != null) {
+            out.add(new RegionStats(region, s.getHitCount(), s.getMissCount(),
+                    s.getPutCount(), s.getElementCountInMemory()));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Classname: SecondLevelCacheMXBean
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import java.util.Map;
+
+/**
+ * Interfejs JMX ze statystykami cache drugiego poziomu Hibernate,
+ * rejestrowany pod nazwą
+ * {@code org.example.database:type=SecondLevelCache}.
+ */
+public interface SecondLevelCacheMXBean {
+
+    /**
+     * @return stosunek trafień do odczytów (0..1) dla każdego regionu
+     */
+    Map<String, Double> getHitRatios();
+
+    /**
+     * @return łączna liczba trafień we wszystkich regionach
+     */
+    long getHits();
+
+    /**
+     * @return łączna liczba chybień we wszystkich regionach
+     */
+    long getMisses();
+
+    /**
+     * @return łączny stosunek trafień do odczytów (0..1)
+     */
+    double getHitRatio();
+
+    /**
+     * Czyści wszystkie regiony (np. po zmianach wykonanych poza aplikacją).
+     */
+    void evictAll();
+}
@@ -0,0 +1,227 @@
+/*
+ * Classname: SqlDumpWriter
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Zapisuje zawartość tabel jako skrypt SQL możliwy do odtworzenia
+ * przez {@link DatabaseInitializer#executeScript}.
+ * <p>
+ * Wiersze są czytane strumieniowo i grupowane w wielowierszowe
+ * polecenia {@code INSERT} (po {@value #ROWS_PER_INSERT} wierszy)
+ * z jawną listą kolumn. W trybie upsert dodawane jest
+ * {@code ON DUPLICATE KEY UPDATE}, dzięki czemu ponowne wczytanie
+ * wiersza nadpisuje go bez kaskadowego usuwania powiązanych danych
+ * (jak przy {@code REPLACE}).
+ * </p>
+ */
+final class SqlDumpWriter implements Closeable {
+
+    /** Maksymalna liczba wierszy w jednym poleceniu INSERT. */
+    static final int ROWS_PER_INSERT = 500;
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final Writer out;
+    private final boolean backslashEscapes;
+
+    /**
+     * @param out              docelowy strumień skryptu
+     * @param backslashEscapes true – w literałach escapowany jest także
+     *                         znak {@code \} (składnia MySQL)
+     */
+    SqlDumpWriter(Writer out, boolean backslashEscapes) {
+        this.out = out;
+        this.backslashEscapes = backslashEscapes;
+    }
+
+    /**
+     * Zapisuje komentarz jednowierszowy.
+     *
+     * @param text treść komentarza
+     * @throws IOException gdy zapis się nie powiedzie
+     */
+    void comment(String text) throws IOException {
+        out.write("-- ");
+        out.write(text.replace('\n', ' '));
+        out.write('\n');
+    }
+
+    /**
+     * Zapisuje pojedyncze polecenie zakończone średnikiem.
+     *
+     * @param sql polecenie SQL
+     * @throws IOException gdy zapis się nie powiedzie
+     */
+    void statement(String sql) throws IOException {
+        out.write(sql);
+        out.write(";\n");
+    }
+
+    /**
+     * Zapisuje wiersze tabeli spełniające warunek.
+     *
+     * @param conn   połączenie, z którego czytane są dane
+     * @param table  nazwa tabeli
+     * @param where  warunek bez słowa WHERE albo null (cała tabela)
+     * @param params parametry warunku
+     * @param upsert true – {@code INSERT ... ON DUPLICATE KEY UPDATE}
+     * @return liczba zapisanych wierszy
+     * @throws SQLException gdy odczyt się nie powiedzie
+     * @throws IOException  gdy zapis się nie powiedzie
+     */
+    long writeTable(Connection conn, String table, String where,
+                    List<?> params, boolean upsert)
+            throws SQLException, IOException {
+        String quoted = DatabaseBackupExporter.quote(conn, table);
+        String sql = "SELECT * FROM " + quoted
+                + (where == null ? "" : " WHERE " + where);
+        long rows = 0;
+        try (PreparedStatement ps = conn.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(DatabaseBackupExporter.isMySql(conn)
+                    ? Integer.MIN_VALUE : 1000);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                int columnCount = meta.getColumnCount();
+                int[] types = new int[columnCount];
+                StringBuilder head = new StringBuilder("INSERT INTO ")
+                        .append(quoted).append(" (");
+                StringBuilder tail = new StringBuilder(
+                        " ON DUPLICATE KEY UPDATE ");
+                for (int i = 1; i <= columnCount; i++) {
+                    types[i - 1] = meta.getColumnType(i);
+                    String column = DatabaseBackupExporter.quote(conn,
+                            meta.getColumnName(i));
+                    if (i > 1) {
+                        head.append(',');
+                        tail.append(',');
+                    }
+                    head.append(column);
+                    tail.append(column).append("=VALUES(")
+                            .append(column).append(')');
+                }
+                head.append(") VALUES\n");
+
+                StringBuilder row = new StringBuilder(256);
+                int inBatch = 0;
+                while (rs.next()) {
+                    out.write(inBatch == 0 ? head.toString() : ",\n");
+                    row.setLength(0);
+                    row.append('(');
+                    for (int i = 1; i <= columnCount; i++) {
+                        if (i > 1) {
+                            row.append(',');
+                        }
+                        appendValue(row, rs, i, types[i - 1]);
+                    }
+                    row.append(')');
+                    out.write(row.toString());
+                    rows++;
+                    if (++inBatch == ROWS_PER_INSERT) {
+                        endInsert(upsert, tail);
+                        inBatch = 0;
+                    }
+                }
+                if (inBatch > 0) {
+                    endInsert(upsert, tail);
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void endInsert(boolean upsert, CharSequence tail)
+            throws IOException {
+        if (upsert) {
+            out.write(tail.toString());
+        }
+        out.write(";\n");
+    }
+
+    /**
+     * Dopisuje wartość kolumny jako literał SQL.
+     */
+    private void appendValue(StringBuilder sb, ResultSet rs, int column,
+                             int type) throws SQLException {
+        switch (type) {
+            case Types.BIT, Types.BOOLEAN -> {
+                boolean value = rs.getBoolean(column);
+                sb.append(rs.wasNull() ? "NULL" : value ? "1" : "0");
+            }
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT,
+                 Types.DECIMAL, Types.NUMERIC, Types.REAL, Types.FLOAT,
+                 Types.DOUBLE -> {
+                String value = rs.getString(column);
+                sb.append(value == null ? "NULL" : value);
+            }
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY,
+                 Types.BLOB -> {
+                byte[] value = rs.getBytes(column);
+                if (value == null) {
+                    sb.append("NULL");
+                } else {
+                    sb.append("X'");
+                    for (byte b : value) {
+                        sb.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+                    }
+                    sb.append('\'');
+                }
+            }
+            default -> appendString(sb, rs.getString(column));
+        }
+    }
+
+    private void appendString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("NULL");
+            return;
+        }
+        sb.append('\'');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\'') {
+                sb.append("''");
+            } else if (c == '\\' && backslashEscapes) {
+                sb.append("\\\\");
+            } else if (c == '\0' && backslashEscapes) {
+                sb.append("\\0");
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('\'');
+    }
+
+    /**
+     * Opróżnia bufor zapisu.
+     *
+     * @throws IOException gdy zapis się nie powiedzie
+     */
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
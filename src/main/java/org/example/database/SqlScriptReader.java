@@ -0,0 +1,137 @@
+/*
+ * Classname: SqlScriptReader
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Dzieli skrypt SQL na pojedyncze polecenia, czytając go strumieniowo.
+ * <p>
+ * Średnik kończy polecenie tylko poza literałami ({@code '...'},
+ * {@code "..."}, {@code `...`}) i komentarzami. W literałach
+ * uwzględniane są sekwencje {@code \'} oraz {@code ''} (składnia
+ * MySQL). Komentarze {@code -- ...} i {@code /* ... *&#47;} są
+ * pomijane, więc skrypt może mieć dowolny rozmiar (np. kopia
+ * zapasowa bazy), a do pamięci trafia tylko bieżące polecenie.
+ * </p>
+ */
+public final class SqlScriptReader implements Closeable {
+
+    private final Reader in;
+    private int pushback = -2;
+
+    /**
+     * @param in źródło skryptu (zamykane razem z czytnikiem)
+     */
+    public SqlScriptReader(Reader in) {
+        this.in = in instanceof BufferedReader ? in : new BufferedReader(in, 64 * 1024);
+    }
+
+    /**
+     * Zwraca kolejne niepuste polecenie bez końcowego średnika.
+     *
+     * @return polecenie albo null na końcu skryptu
+     * @throws IOException gdy odczyt się nie powiedzie
+     */
+    public String nextStatement() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char quote = 0;
+        int c;
+        while ((c = read()) != -1) {
+            if (quote != 0) {
+                sb.append((char) c);
+                if (c == '\\' && quote != '`') {
+                    int next = read();
+                    if (next != -1) {
+                        sb.append((char) next);
+                    }
+                } else if (c == quote) {
+                    int next = read();
+                    if (next == quote) {
+                        sb.append((char) next); // podwojony cudzysłów
+                    } else {
+                        unread(next);
+                        quote = 0;
+                    }
+                }
+                continue;
+            }
+            if (c == '\'' || c == '"' || c == '`') {
+                quote = (char) c;
+                sb.append((char) c);
+            } else if (c == '-') {
+                int next = read();
+                if (next == '-') {
+                    skipLine();
+                    sb.append('\n');
+                } else {
+                    sb.append('-');
+                    unread(next);
+                }
+            } else if (c == '/') {
+                int next = read();
+                if (next == '*') {
+                    skipBlockComment();
+                    sb.append(' ');
+                } else {
+                    sb.append('/');
+                    unread(next);
+                }
+            } else if (c == ';') {
+                String statement = sb.toString().trim();
+                if (!statement.isEmpty()) {
+                    return statement;
+                }
+                sb.setLength(0);
+            } else {
+                sb.append((char) c);
+            }
+        }
+        String statement = sb.toString().trim();
+        return statement.isEmpty() ? null : statement;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int read() throws IOException {
+        if (pushback != -2) {
+            int c = pushback;
+            pushback = -2;
+            return c;
+        }
+        return in.read();
+    }
+
+    private void unread(int c) {
+        pushback = c;
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != '\n') {
+            // pomijamy komentarz do końca linii
+        }
+    }
+
+    private void skipBlockComment() throws IOException {
+        int prev = 0;
+        int c;
+        while ((c = read()) != -1) {
+            if (prev == '*' && c == '/') {
+                return;
+            }
+            prev = c;
+        }
+    }
+}
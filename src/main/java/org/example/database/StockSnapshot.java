@@ -0,0 +1,60 @@
+/*
+ * Classname: StockSnapshot
+ * Version information: 1.1
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.database;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Migawka stanów magazynowych pobrana jednym zapytaniem
+ * przez {@link WarehouseRepository#snapshot(java.util.Collection)}.
+ * <p>
+ * Służy jako źródło danych dla kolumn tabel (np. „Stan” w oknie
+ * sprzedaży), dzięki czemu przewijanie i filtrowanie nie wykonuje
+ * zapytań do bazy. Migawka jest niezmienna – aktualne stany daje
+ * kolejna migawka.
+ * </p>
+ */
+public final class StockSnapshot {
+
+    private final Map<Integer, Integer> quantities;
+    private final LocalDateTime takenAt = LocalDateTime.now();
+
+    /**
+     * Tworzy migawkę na podstawie mapy identyfikator produktu → ilość.
+     *
+     * @param quantities ilości produktów
+     */
+    public StockSnapshot(Map<Integer, Integer> quantities) {
+        this.quantities = Map.copyOf(quantities);
+    }
+
+    /**
+     * Zwraca ilość produktu w chwili wykonania migawki.
+     *
+     * @param productId identyfikator produktu
+     * @return ilość lub 0, jeśli produkt nie ma stanu magazynowego
+     */
+    public int getQuantity(int productId) {
+        return quantities.getOrDefault(productId, 0);
+    }
+
+    /**
+     * @return liczba produktów w migawce
+     */
+    public int size() {
+        return quantities.size();
+    }
+
+    /**
+     * @return moment wykonania migawki
+     */
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+}
@@ -1,7 +1,7 @@
 /*
  * Classname: TaskEmployeeRepository
- * Version information: 1.3
- * Date: 2025-06-04
+ * Version information: 1.6
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -10,15 +10,20 @@ package org.example.database;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.TemporalType;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.example.sys.EmpTask;
 import org.example.sys.Employee;
 import org.example.sys.TaskEmployee;
 import org.example.sys.TaskEmployeeId;
+import org.hibernate.Session;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Repozytorium zarządzające powiązaniami zadań z pracownikami.
@@ -34,6 +39,23 @@ public class TaskEmployeeRepository implements AutoCloseable {
     private static final Logger logger = LogManager.getLogger(
             TaskEmployeeRepository.class);
 
+    /**
+     * Status nadawany zadaniom i przypisaniom przy zamknięciu zmiany.
+     */
+    public static final String STATUS_COMPLETED = "Zakończone";
+
+    /**
+     * Wynik zamknięcia zmiany.
+     *
+     * @param assignments  liczba zamkniętych przypisań (ustawiony czas
+     *                     zakończenia i czas trwania)
+     * @param tasks        liczba zadań, którym zmieniono status
+     * @param elapsedNanos czas operacji
+     */
+    public record ShiftCloseResult(int assignments, int tasks,
+                                   long elapsedNanos) {
+    }
+
     /**
      * Fabryka EntityManager współdzielona z EMFProvider.
      */
@@ -67,6 +89,8 @@ public class TaskEmployeeRepository implements AutoCloseable {
             // – obie referencje są "managed"
             em.persist(te);
             tx.commit();
+            WorkloadRepository.invalidateAll();
+            OpenTaskCache.invalidateEmployee(empId);
             logger.info("add() – przypisanie zapisane: {}", te);
         } catch (Exception e) {
             logger.error("add() – błąd podczas zapisywania przypisania:" +
@@ -94,6 +118,9 @@ public class TaskEmployeeRepository implements AutoCloseable {
             TaskEmployee managed = em.merge(te);
             em.remove(managed);
             tx.commit();
+            WorkloadRepository.invalidateAll();
+            OpenTaskCache.invalidateEmployee(
+                    managed.getId().getEmployeeId());
             logger.info("remove() – przypisanie usunięte:" +
                     " {}", te);
         } catch (Exception e) {
@@ -164,6 +191,54 @@ public class TaskEmployeeRepository implements AutoCloseable {
         }
     }
 
+    /**
+     * Zwraca otwarte zadania pracownika – nieusunięte i o statusie
+     * innym niż „Zakończone” – posortowane według terminu. Zadania są
+     * pobierane jednym zapytaniem ze złączeniem przypisań i zadań,
+     * a wynik jest przechowywany w cache otwartych zadań pracownika
+     * (unieważnianym przy zmianie zadań, statusów i przypisań).
+     * W przypadku błędu, wyjątek jest logowany i zwracana jest pusta lista.
+     *
+     * @param employeeId identyfikator pracownika
+     * @return lista otwartych zadań lub pusta lista
+     */
+    public List<EmpTask> findOpenTasksForEmployee(int employeeId) {
+        logger.debug("findOpenTasksForEmployee() " +
+                "– start, employeeId={}", employeeId);
+        try {
+            return OpenTaskCache.get(employeeId,
+                    () -> queryOpenTasks(employeeId));
+        } catch (Exception e) {
+            logger.error("findOpenTasksForEmployee() " +
+                            "– błąd podczas wyszukiwania dla employeeId={}",
+                    employeeId, e);
+            return List.of();
+        }
+    }
+
+    private List<EmpTask> queryOpenTasks(int employeeId) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            List<EmpTask> list = em.createQuery(
+                            "SELECT t FROM TaskEmployee te " +
+                                    "JOIN te.task t " +
+                                    "WHERE te.id.employeeId = :eid " +
+                                    "AND t.usuniety = false " +
+                                    "AND (t.status IS NULL " +
+                                    "OR LOWER(t.status) <> LOWER(:done)) " +
+                                    "ORDER BY t.date, t.id",
+                            EmpTask.class)
+                    .setParameter("eid", employeeId)
+                    .setParameter("done", "Zakończone")
+                    .getResultList();
+            logger.info("findOpenTasksForEmployee() " +
+                    "– znaleziono {} otwartych zadań", list.size());
+            return list;
+        } finally {
+            em.close();
+        }
+    }
+
     /**
      * Pobiera wszystkie przypisania dla danego zadania.
      * W przypadku błędu, wyjątek jest logowany i zwracana jest pusta lista.
@@ -213,6 +288,8 @@ public class TaskEmployeeRepository implements AutoCloseable {
                 em.merge(managed.getTask());
             }
             tx.commit();
+            WorkloadRepository.invalidateAll();
+            OpenTaskCache.invalidateAll();
             logger.info("update() – zakończono pomyślnie");
         } catch (Exception e) {
             logger.error("update() – błąd", e);
@@ -296,6 +373,9 @@ public class TaskEmployeeRepository implements AutoCloseable {
                         "– zaktualizowano status zadania");
             }
             tx.commit();
+            OpenTaskCache.invalidateEmployees(t.getTaskEmployees().stream()
+                    .map(te -> te.getId().getEmployeeId())
+                    .collect(Collectors.toList()));
         } catch (Exception ex) {
             logger.error("updateTaskStatus() " +
                     "– błąd aktualizacji statusu", ex);
@@ -306,6 +386,92 @@ public class TaskEmployeeRepository implements AutoCloseable {
         }
     }
 
+    /**
+     * Zamyka zmianę pracownika: wszystkim jego przypisaniom do zadań
+     * z podanego dnia, które nie mają jeszcze czasu zakończenia,
+     * ustawia czas zakończenia, czas trwania (od czasu rozpoczęcia)
+     * i status, a samym zadaniom – status „Zakończone”.
+     * <p>
+     * Całość wykonywana jest w jednej transakcji: przypisania są
+     * pobierane jednym zapytaniem i zapisywane jedną paczką JDBC,
+     * a statusy zadań jednym poleceniem {@code UPDATE}.
+     * W przypadku błędu, transakcja jest wycofywana, a wyjątek propagowany.
+     * </p>
+     *
+     * @param employeeId identyfikator pracownika
+     * @param day        dzień zmiany
+     * @return liczba zamkniętych przypisań i zadań oraz czas operacji
+     */
+    public ShiftCloseResult closeShift(int employeeId, LocalDate day) {
+        logger.debug("closeShift() – employeeId={}, day={}",
+                employeeId, day);
+        long start = System.nanoTime();
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            java.sql.Date date = java.sql.Date.valueOf(day);
+            List<TaskEmployee> open = em.createQuery(
+                            "SELECT te FROM TaskEmployee te " +
+                                    "WHERE te.id.employeeId = :eid " +
+                                    "AND te.endTime IS NULL " +
+                                    "AND te.id.taskId IN (" +
+                                    "SELECT t.id FROM EmpTask t " +
+                                    "WHERE t.date = :day " +
+                                    "AND t.usuniety = false)",
+                            TaskEmployee.class)
+                    .setParameter("eid", employeeId)
+                    .setParameter("day", date, TemporalType.DATE)
+                    .getResultList();
+
+            em.unwrap(Session.class).setJdbcBatchSize(
+                    Math.max(1, open.size()));
+            LocalDateTime now = LocalDateTime.now();
+            for (TaskEmployee te : open) {
+                te.setEndTime(now);
+                if (te.getStartTime() != null) {
+                    te.setShiftDuration(
+                            Duration.between(te.getStartTime(), now));
+                }
+                te.setStatus(STATUS_COMPLETED);
+            }
+            em.flush();
+
+            int tasks = em.createQuery(
+                            "UPDATE EmpTask t SET t.status = :status " +
+                                    "WHERE t.date = :day " +
+                                    "AND t.usuniety = false " +
+                                    "AND (t.status IS NULL " +
+                                    "OR t.status <> :status) " +
+                                    "AND t.id IN (" +
+                                    "SELECT te.id.taskId FROM TaskEmployee te " +
+                                    "WHERE te.id.employeeId = :eid)")
+                    .setParameter("status", STATUS_COMPLETED)
+                    .setParameter("day", date, TemporalType.DATE)
+                    .setParameter("eid", employeeId)
+                    .executeUpdate();
+            tx.commit();
+            // Zadania mogą mieć też innych przypisanych pracowników;
+            // zamknięcie zmiany jest rzadkie, więc czyścimy cały cache
+            OpenTaskCache.invalidateAll();
+
+            ShiftCloseResult result = new ShiftCloseResult(open.size(), tasks,
+                    System.nanoTime() - start);
+            logger.info("closeShift() – pracownik {}: zamknięto {} przypisań "
+                            + "i {} zadań w {} ms", employeeId,
+                    result.assignments(), result.tasks(),
+                    result.elapsedNanos() / 1_000_000);
+            return result;
+        } catch (Exception ex) {
+            logger.error("closeShift() – błąd zamykania zmiany pracownika {}",
+                    employeeId, ex);
+            if (tx.isActive()) tx.rollback();
+            throw ex;
+        } finally {
+            em.close();
+        }
+    }
+
     /**
      * Pobiera zadanie wraz z przypisanymi pracownikami (eager loading).
      * Używa JOIN FETCH do pobrania powiązanych przypisań w jednym zapytaniu.
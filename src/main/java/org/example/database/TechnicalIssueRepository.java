@@ -1,7 +1,7 @@
 /*
  * Classname: TechnicalIssueRepository
- * Version information: 2.0
- * Date: 2025-06-04
+ * Version information: 2.2
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -26,7 +26,8 @@ import java.util.List;
  * Korzysta z wspólnego EntityManagerFactory dostarczanego przez
  * {@link EMFProvider}.
  */
-public class TechnicalIssueRepository {
+public class TechnicalIssueRepository implements
+        PagedRepository<TechnicalIssue> {
 
     /**
      * Logger do rejestrowania zdarzeń związanych z klasą.
@@ -111,6 +112,37 @@ public class TechnicalIssueRepository {
         }
     }
 
+    /**
+     * Pobiera stronę zgłoszeń stronicowaną kluczem (identyfikatorem),
+     * razem z pracownikiem w jednym zapytaniu.
+     * W przypadku błędu, wyjątek jest logowany i propagowany, aby widok
+     * mógł odróżnić błąd od braku danych.
+     *
+     * @param cursor kursor z poprzedniej strony lub null dla pierwszej strony
+     * @param limit  maksymalna liczba zgłoszeń na stronie
+     * @param sort   kierunek sortowania po identyfikatorze
+     * @return strona zgłoszeń
+     * @throws RuntimeException gdy pobranie strony się nie powiedzie
+     */
+    @Override
+    public Page<TechnicalIssue> findPage(Long cursor, int limit, Page.Sort sort) {
+        logger.debug("findPage() – cursor={}, limit={}, sort={}",
+                cursor, limit, sort);
+        try {
+            Page<TechnicalIssue> page = KeysetPager.fetch(TechnicalIssue.class,
+                    "LEFT JOIN FETCH a.employee e " +
+                            "LEFT JOIN FETCH e.address",
+                    null, cursor, limit, sort, TechnicalIssue::getId);
+            logger.info("findPage() – pobrano {} zgłoszeń, następny kursor={}",
+                    page.getItems().size(), page.getNextCursor());
+            return page;
+        } catch (Exception e) {
+            logger.error("findPage() – błąd podczas pobierania strony zgłoszeń",
+                    e);
+            throw e;
+        }
+    }
+
     /**
      * Aktualizuje istniejące zgłoszenie techniczne.
      * Operacja jest wykonywana w transakcji.
@@ -1,7 +1,7 @@
 /*
  * Classname: TransactionProductRepository
- * Version information: 2.0
- * Date: 2025-05-30
+ * Version information: 2.4
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -19,13 +19,15 @@ import org.example.sys.TransactionProductId;
 
 import java.util.List;
 
-public class TransactionProductRepository {
+public class TransactionProductRepository implements
+        PagedRepository<TransactionProduct> {
 
     private static final Logger logger
             = LogManager.getLogger(TransactionProductRepository.class);
 
     /**
-     * Dodaje nową pozycję produktu do transakcji.
+     * Dodaje nową pozycję produktu do transakcji i dolicza ją do agregatu
+     * sprzedaży dnia transakcji w tej samej transakcji bazodanowej.
      *
      * @param tp obiekt TransactionProduct do zapisania
      */
@@ -42,6 +44,8 @@ public class TransactionProductRepository {
                     Product.class, tp.getProduct().getId()
             );
 
+            SalesRollupRepository.TransactionLines before =
+                    SalesRollupRepository.linesOf(em, managedTx.getId());
             tp.setTransaction(managedTx);
             tp.setProduct(managedPr);
             tp.setId(new TransactionProductId(
@@ -49,6 +53,7 @@ public class TransactionProductRepository {
             ));
 
             em.persist(tp);
+            SalesRollupRepository.applyChange(em, before, managedTx.getId());
             tx.commit();
             logger.info("addTransactionProduct() " +
                     "– zapisano: {}", tp);
@@ -160,7 +165,73 @@ public class TransactionProductRepository {
     }
 
     /**
-     * Aktualizuje istniejącą pozycję transakcji.
+     * Pobiera stronę pozycji transakcji stronicowaną kluczem złożonym
+     * (identyfikator transakcji, identyfikator produktu).
+     * Kursor koduje oba identyfikatory w jednej liczbie:
+     * {@code (idTransakcji << 32) | idProduktu}.
+     *
+     * @param cursor kursor z poprzedniej strony lub null dla pierwszej strony
+     * @param limit  maksymalna liczba pozycji na stronie
+     * @param sort   kierunek sortowania po kluczu
+     * @return strona pozycji
+     * @throws RuntimeException gdy pobranie strony się nie powiedzie
+     */
+    @Override
+    public Page<TransactionProduct> findPage(Long cursor, int limit,
+                                             Page.Sort sort) {
+        logger.debug("findPage() – cursor={}, limit={}, sort={}",
+                cursor, limit, sort);
+        int size = KeysetPager.clamp(limit);
+        boolean desc = sort == Page.Sort.DESC;
+        String cmp = desc ? "<" : ">";
+        String dir = desc ? "DESC" : "ASC";
+        String jpql = "SELECT tp FROM TransactionProduct tp " +
+                "JOIN FETCH tp.transaction " +
+                "JOIN FETCH tp.product " +
+                (cursor == null ? "" :
+                        "WHERE tp.id.transactionId " + cmp + " :tid " +
+                                "OR (tp.id.transactionId = :tid " +
+                                "AND tp.id.productId " + cmp + " :pid) ") +
+                "ORDER BY tp.id.transactionId " + dir +
+                ", tp.id.productId " + dir;
+        EntityManager em = EMFProvider.get().createEntityManager();
+        try {
+            TypedQuery<TransactionProduct> query = em.createQuery(jpql,
+                            TransactionProduct.class)
+                    .setHint("org.hibernate.readOnly", true)
+                    .setMaxResults(size + 1);
+            if (cursor != null) {
+                query.setParameter("tid", (int) (cursor >>> 32));
+                query.setParameter("pid", (int) (cursor & 0xFFFFFFFFL));
+            }
+            Page<TransactionProduct> page = Page.of(query.getResultList(),
+                    size, TransactionProductRepository::cursorOf);
+            logger.info("findPage() – zwrócono {} pozycji, następny kursor={}",
+                    page.getItems().size(), page.getNextCursor());
+            return page;
+        } catch (Exception e) {
+            logger.error("findPage() – błąd podczas zapytania", e);
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Koduje klucz złożony pozycji transakcji jako kursor strony.
+     *
+     * @param tp pozycja transakcji
+     * @return kursor {@code (idTransakcji << 32) | idProduktu}
+     */
+    static long cursorOf(TransactionProduct tp) {
+        TransactionProductId id = tp.getId();
+        return ((long) id.getTransactionId() << 32)
+                | (id.getProductId() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Aktualizuje istniejącą pozycję transakcji i nanosi zmianę ilości
+     * na agregat sprzedaży w tej samej transakcji bazodanowej.
      */
     public void updateTransactionProduct(TransactionProduct tp) {
         logger.debug("updateTransactionProduct() – start, tp={}", tp);
@@ -168,7 +239,11 @@ public class TransactionProductRepository {
         EntityTransaction tx = em.getTransaction();
         try {
             tx.begin();
+            int transactionId = tp.getId().getTransactionId();
+            SalesRollupRepository.TransactionLines before =
+                    SalesRollupRepository.linesOf(em, transactionId);
             em.merge(tp);
+            SalesRollupRepository.applyChange(em, before, transactionId);
             tx.commit();
             logger.info("updateTransactionProduct() " +
                     "– zaktualizowano: {}", tp);
@@ -182,7 +257,8 @@ public class TransactionProductRepository {
     }
 
     /**
-     * Usuwa pozycję transakcji z bazy.
+     * Usuwa pozycję transakcji z bazy i odejmuje ją od agregatu sprzedaży
+     * w tej samej transakcji bazodanowej.
      */
     public void removeTransactionProduct(TransactionProduct tp) {
         logger.debug("removeTransactionProduct() – start, tp={}", tp);
@@ -193,7 +269,11 @@ public class TransactionProductRepository {
             TransactionProduct managed
                     = em.find(TransactionProduct.class, tp.getId());
             if (managed != null) {
+                int transactionId = managed.getTransaction().getId();
+                SalesRollupRepository.TransactionLines before =
+                        SalesRollupRepository.linesOf(em, transactionId);
                 em.remove(managed);
+                SalesRollupRepository.applyChange(em, before, transactionId);
                 logger.info("removeTransactionProduct() " +
                         "– usunięto: {}", tp);
             } else {
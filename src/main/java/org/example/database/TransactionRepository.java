@@ -1,7 +1,7 @@
 /*
  * Classname: TransactionRepository
- * Version information: 2.0
- * Date: 2025-06-04
+ * Version information: 2.6
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -10,6 +10,7 @@ package org.example.database;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityTransaction;
 import jakarta.persistence.TemporalType;
+import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.JoinType;
@@ -20,11 +21,20 @@ import org.example.sys.Product;
 import org.example.sys.Transaction;
 import org.example.sys.TransactionProduct;
 import org.hibernate.Session;
+import pdf.SalesReportGenerator.SalesRecord;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Repozytorium do zarządzania transakcjami w systemie.
@@ -32,7 +42,7 @@ import java.util.List;
  * według różnych kryteriów. Wykorzystuje EntityManager
  * do komunikacji z bazą danych.
  */
-public class TransactionRepository {
+public class TransactionRepository implements PagedRepository<Transaction> {
 
     /**
      * Logger do rejestrowania zdarzeń związanych z klasą TransactionRepository.
@@ -40,6 +50,13 @@ public class TransactionRepository {
     private static final Logger logger = LogManager.getLogger(
             TransactionRepository.class);
 
+    /**
+     * Rozmiar pobierania dla zapytań strumieniowych. Wartość
+     * {@code Integer.MIN_VALUE} przełącza sterownik MySQL w tryb
+     * przesyłania wyniku wiersz po wierszu zamiast buforowania całości.
+     */
+    private static final int STREAM_FETCH_SIZE = Integer.MIN_VALUE;
+
     /**
      * Konstruktor domyślny – korzysta ze wspólnego EMF z EMFProvider.
      * Nie tworzy nowej fabryki EntityManager.
@@ -51,7 +68,8 @@ public class TransactionRepository {
 
     /**
      * Dodaje nową transakcję do bazy.
-     * Operacja jest wykonywana w transakcji bazodanowej.
+     * Operacja jest wykonywana w transakcji bazodanowej, razem
+     * z doliczeniem pozycji do dziennego agregatu sprzedaży.
      * W przypadku błędu, transakcja jest wycofywana.
      *
      * @param transaction obiekt Transaction do zapisania
@@ -64,6 +82,9 @@ public class TransactionRepository {
         try {
             tx.begin();
             em.persist(transaction);
+            SalesRollupRepository.applyChange(em,
+                    SalesRollupRepository.TransactionLines.NONE,
+                    transaction.getId());
             tx.commit();
             logger.info("addTransaction() – transaction dodana: {}",
                     transaction);
@@ -128,10 +149,43 @@ public class TransactionRepository {
         }
     }
 
+    /**
+     * Pobiera stronę transakcji stronicowaną kluczem (identyfikatorem),
+     * razem z pracownikiem w jednym zapytaniu.
+     * W przypadku błędu, wyjątek jest logowany i propagowany, aby widok
+     * mógł odróżnić błąd od braku danych.
+     *
+     * @param cursor kursor z poprzedniej strony lub null dla pierwszej strony
+     * @param limit  maksymalna liczba transakcji na stronie
+     * @param sort   kierunek sortowania po identyfikatorze
+     * @return strona transakcji
+     * @throws RuntimeException gdy pobranie strony się nie powiedzie
+     */
+    @Override
+    public Page<Transaction> findPage(Long cursor, int limit, Page.Sort sort) {
+        logger.debug("findPage() – cursor={}, limit={}, sort={}",
+                cursor, limit, sort);
+        try {
+            Page<Transaction> page = KeysetPager.fetch(Transaction.class,
+                    "LEFT JOIN FETCH a.employee e " +
+                            "LEFT JOIN FETCH e.address",
+                    null, cursor, limit, sort, Transaction::getId);
+            logger.info("findPage() – pobrano {} transakcji, następny kursor={}",
+                    page.getItems().size(), page.getNextCursor());
+            return page;
+        } catch (Exception e) {
+            logger.error("findPage() – błąd podczas pobierania strony transakcji",
+                    e);
+            throw e;
+        }
+    }
+
     /**
      * Usuwa transakcję o podanym identyfikatorze.
      * Operacja jest wykonywana w transakcji bazodanowej.
      * Jeśli transakcja nie istnieje, operacja jest logowana jako ostrzeżenie.
+     * Pozycje transakcji są odejmowane od agregatu sprzedaży w tej
+     * samej transakcji.
      *
      * @param id identyfikator transakcji do usunięcia
      */
@@ -143,7 +197,10 @@ public class TransactionRepository {
             tx.begin();
             Transaction t = em.find(Transaction.class, id);
             if (t != null) {
+                SalesRollupRepository.TransactionLines before =
+                        SalesRollupRepository.linesOf(em, id);
                 em.remove(t);
+                SalesRollupRepository.applyChange(em, before, id);
                 logger.info("removeTransactions() " +
                         "– usunięto transakcję: {}", t);
             } else {
@@ -163,7 +220,8 @@ public class TransactionRepository {
 
     /**
      * Aktualizuje istniejącą transakcję.
-     * Operacja jest wykonywana w transakcji bazodanowej.
+     * Operacja jest wykonywana w transakcji bazodanowej, razem
+     * z naniesieniem różnicy pozycji na agregaty sprzedaży.
      * W przypadku błędu, transakcja jest wycofywana.
      *
      * @param transaction zaktualizowany obiekt Transaction
@@ -175,7 +233,11 @@ public class TransactionRepository {
         EntityTransaction tx = em.getTransaction();
         try {
             tx.begin();
+            SalesRollupRepository.TransactionLines before =
+                    SalesRollupRepository.linesOf(em, transaction.getId());
             em.merge(transaction);
+            SalesRollupRepository.applyChange(em, before,
+                    transaction.getId());
             tx.commit();
             logger.info("updateTransaction() " +
                             "– transaction zaktualizowana: {}",
@@ -193,7 +255,8 @@ public class TransactionRepository {
 
     /**
      * Oblicza ilość sprzedanych sztuk produktu w określonym dniu.
-     * Wykorzystuje zapytanie agregujące SUM.
+     * Odczytuje dzienny agregat sprzedaży ({@link SalesRollupRepository})
+     * zamiast sumować pozycje transakcji.
      *
      * @param product produkt, dla którego obliczana jest sprzedaż
      * @param date data, dla której obliczana jest sprzedaż
@@ -206,35 +269,12 @@ public class TransactionRepository {
         logger.debug("getSoldQuantityForProductOnDate() " +
                         "– start, product={}, date={}",
                 product, date);
-        EntityManager em = EMFProvider.get().createEntityManager();
-        try {
-            Date sqlDate = Date.from(date.atStartOfDay(
-                    ZoneId.systemDefault()).toInstant());
-            Long total = em.createQuery(
-                            "SELECT COALESCE(SUM(tp.quantity), 0) " +
-                                    "FROM TransactionProduct tp " +
-                                    "JOIN tp.transaction t " +
-                                    "WHERE tp.product = :product " +
-                                    "AND t.date = :date",
-                            Long.class)
-                    .setParameter("product", product)
-                    .setParameter("date", sqlDate, TemporalType.DATE)
-                    .getSingleResult();
-            int result = total.intValue();
-            logger.info("getSoldQuantityForProductOnDate() " +
-                    "– sprzedano {} sztuk "
-                    + "produktu {} w dniu {}", result, product, date);
-            return result;
-        } catch (Exception e) {
-            logger.error("getSoldQuantityForProductOnDate() " +
-                    "– błąd liczenia sprzedaży "
-                    + "produktu {} w dniu {}", product, date, e);
-            return 0;
-        } finally {
-            em.close();
-            logger.debug("getSoldQuantityForProductOnDate() " +
-                    "– EntityManager zamknięty");
-        }
+        int result = new SalesRollupRepository()
+                .getSoldQuantity(product.getId(), date);
+        logger.info("getSoldQuantityForProductOnDate() " +
+                "– sprzedano {} sztuk "
+                + "produktu {} w dniu {}", result, product, date);
+        return result;
     }
 
     /**
@@ -280,9 +320,152 @@ public class TransactionRepository {
         }
     }
 
+    /**
+     * Zlicza transakcje z podanego zakresu dat bez ich pobierania.
+     *
+     * @param startDate początek zakresu dat (włącznie)
+     * @param endDate koniec zakresu dat (włącznie)
+     * @return liczba transakcji w zakresie
+     */
+    public long countTransactionsBetweenDates(Date startDate, Date endDate) {
+        logger.debug("countTransactionsBetweenDates() " +
+                "– start, from={}, to={}", startDate, endDate);
+        EntityManager em = EMFProvider.get().createEntityManager();
+        try {
+            Long count = em.createQuery(
+                            "SELECT COUNT(t) FROM Transaction t " +
+                                    "WHERE t.date BETWEEN :from AND :to",
+                            Long.class)
+                    .setParameter("from", startDate, TemporalType.DATE)
+                    .setParameter("to", endDate, TemporalType.DATE)
+                    .getSingleResult();
+            logger.info("countTransactionsBetweenDates() " +
+                    "– {} transakcji", count);
+            return count;
+        } catch (Exception e) {
+            logger.error("countTransactionsBetweenDates() " +
+                    "– błąd zliczania transakcji "
+                    + "między {} a {}", startDate, endDate, e);
+            return 0;
+        } finally {
+            em.close();
+            logger.debug("countTransactionsBetweenDates() " +
+                    "– EntityManager zamknięty");
+        }
+    }
+
+    /**
+     * Strumieniowo pobiera pozycje sprzedaży z podanego zakresu dat
+     * i przekazuje je odbiorcy w paczkach po {@code chunkSize} rekordów.
+     * <p>
+     * Zapytanie zwraca wyłącznie potrzebne kolumny (bez encji
+     * i kontekstu utrwalania), a wynik jest czytany kursorem, więc
+     * zużycie pamięci przez repozytorium nie zależy od długości okresu.
+     * Filtr kategorii jest wykonywany w bazie.
+     * </p>
+     *
+     * @param startDate  początek zakresu dat (włącznie)
+     * @param endDate    koniec zakresu dat (włącznie)
+     * @param categories kategorie do uwzględnienia; pusta lista – wszystkie
+     * @param chunkSize  liczba rekordów w jednej paczce
+     * @param sink       odbiorca kolejnych paczek
+     * @return podsumowanie: liczba wierszy i czas pobierania
+     */
+    public StreamStats streamSalesRecords(
+            Date startDate,
+            Date endDate,
+            List<String> categories,
+            int chunkSize,
+            Consumer<List<SalesRecord>> sink
+    ) {
+        logger.debug("streamSalesRecords() – start, from={}, to={}, "
+                + "categories={}", startDate, endDate, categories);
+        boolean byCategory = categories != null && !categories.isEmpty();
+        String jpql = "SELECT t.id, t.date, p.name, p.category, "
+                + "tp.quantity, p.price "
+                + "FROM TransactionProduct tp "
+                + "JOIN tp.transaction t JOIN tp.product p "
+                + "WHERE t.date BETWEEN :from AND :to "
+                + (byCategory ? "AND p.category IN :cats " : "")
+                + "ORDER BY t.date, t.id";
+
+        long start = System.nanoTime();
+        long rows = 0;
+        EntityManager em = EMFProvider.get().createEntityManager();
+        try {
+            TypedQuery<Object[]> query = em.createQuery(jpql, Object[].class)
+                    .setParameter("from", startDate, TemporalType.DATE)
+                    .setParameter("to", endDate, TemporalType.DATE)
+                    .setHint("org.hibernate.fetchSize", STREAM_FETCH_SIZE)
+                    .setHint("org.hibernate.readOnly", true);
+            if (byCategory) {
+                query.setParameter("cats", categories);
+            }
+            List<SalesRecord> chunk = new ArrayList<>(chunkSize);
+            try (Stream<Object[]> stream = query.getResultStream()) {
+                Iterator<Object[]> it = stream.iterator();
+                while (it.hasNext()) {
+                    chunk.add(toSalesRecord(it.next()));
+                    rows++;
+                    if (chunk.size() >= chunkSize) {
+                        sink.accept(chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                sink.accept(chunk);
+            }
+            StreamStats stats = new StreamStats(rows, System.nanoTime() - start);
+            logger.info("streamSalesRecords() – {} wierszy w {} ms "
+                            + "({} wierszy/s)", rows, stats.getElapsedMillis(),
+                    Math.round(stats.getRowsPerSecond()));
+            return stats;
+        } catch (Exception e) {
+            logger.error("streamSalesRecords() – błąd pobierania sprzedaży "
+                    + "między {} a {} (po {} wierszach)",
+                    startDate, endDate, rows, e);
+            throw e;
+        } finally {
+            em.close();
+            logger.debug("streamSalesRecords() – EntityManager zamknięty");
+        }
+    }
+
+    private static SalesRecord toSalesRecord(Object[] row) {
+        int qty = (Integer) row[4];
+        LocalDateTime txTime = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(((Date) row[1]).getTime()),
+                ZoneId.systemDefault());
+        return new SalesRecord((Integer) row[0], txTime, (String) row[2],
+                (String) row[3], qty,
+                qty * ((BigDecimal) row[5]).doubleValue());
+    }
+
+    /**
+     * Podsumowanie pobierania strumieniowego.
+     */
+    public static class StreamStats {
+        private final long rows;
+        private final long elapsedNanos;
+
+        public StreamStats(long rows, long elapsedNanos) {
+            this.rows = rows;
+            this.elapsedNanos = elapsedNanos;
+        }
+        public long getRows() { return rows; }
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : rows * 1e9 / elapsedNanos;
+        }
+    }
+
     /**
      * Dodaje produkt do transakcji lub aktualizuje ilość, jeśli już istnieje.
-     * Operacja jest wykonywana w transakcji bazodanowej.
+     * Operacja jest wykonywana w transakcji bazodanowej, razem
+     * z przeliczeniem agregatu sprzedaży dnia transakcji.
      *
      * @param transaction transakcja, do której dodawany jest produkt
      * @param product produkt dodawany do transakcji
@@ -305,6 +488,8 @@ public class TransactionRepository {
                     = em.find(Transaction.class, transaction.getId());
             Product managedPr = em.find(Product.class, product.getId());
             if (managedTx != null && managedPr != null) {
+                SalesRollupRepository.TransactionLines before =
+                        SalesRollupRepository.linesOf(em, managedTx.getId());
                 String jpql = "SELECT tp FROM TransactionProduct tp " +
                         "WHERE tp.transaction.id " +
                         "= :txId AND tp.product.id = :prodId";
@@ -332,6 +517,8 @@ public class TransactionRepository {
                                     + "(tx={}, prod={}, qty={})",
                             managedTx.getId(), managedPr.getId(), quantity);
                 }
+                SalesRollupRepository.applyChange(em, before,
+                        managedTx.getId());
             } else {
                 logger.warn("addProductToTransaction() " +
                                 "– nie znaleziono transakcji "
@@ -1,7 +1,7 @@
 /*
  * Classname: WarehouseRepository
- * Version information: 1.0
- * Date: 2025-06-04
+ * Version information: 1.3
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -12,14 +12,28 @@ import jakarta.persistence.EntityTransaction;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.example.sys.Warehouse;
+import org.hibernate.jpa.HibernateHints;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Repozytorium do zarządzania stanem magazynowym produktów.
  * Zapewnia operacje CRUD oraz metody wyszukiwania stanów magazynowych
  * według różnych kryteriów ilościowych. Wykorzystuje EntityManager
  * do komunikacji z bazą danych.
+ * <p>
+ * Zmiany ilości wynikające ze sprzedaży i dostaw należy wykonywać
+ * metodami {@link #decreaseQuantity(int, int)} oraz
+ * {@link #increaseQuantity(int, int)}, które modyfikują stan jednym
+ * warunkowym zapytaniem UPDATE zamiast schematu odczyt–zapis,
+ * dzięki czemu równoległe kasy nie gubią zmian i nie sprzedają
+ * więcej, niż jest w magazynie.
+ * </p>
  */
 public class WarehouseRepository {
 
@@ -29,6 +43,16 @@ public class WarehouseRepository {
     private static final Logger logger = LogManager.getLogger(
             WarehouseRepository.class);
 
+    /**
+     * Licznik odrzuconych zmniejszeń stanu z powodu niewystarczającej ilości.
+     */
+    private static final LongAdder REJECTED_DECREMENTS = new LongAdder();
+
+    /**
+     * Maksymalna liczba identyfikatorów w jednej klauzuli IN.
+     */
+    private static final int IN_CHUNK_SIZE = 1_000;
+
     /**
      * Domyślny konstruktor – korzysta ze wspólnego EMF z EMFProvider.
      * Operacja jest logowana na poziomie INFO.
@@ -118,6 +142,66 @@ public class WarehouseRepository {
         }
     }
 
+    /**
+     * Pobiera ilości dla podanych produktów jednym zapytaniem
+     * (przy bardzo długich listach – jednym zapytaniem na każde
+     * {@value #IN_CHUNK_SIZE} identyfikatorów). Produkty bez stanu
+     * magazynowego nie występują w wyniku.
+     * W przypadku błędu, wyjątek jest logowany i zwracana jest pusta mapa.
+     *
+     * @param productIds identyfikatory produktów
+     * @return mapa identyfikator produktu → ilość w magazynie
+     */
+    public Map<Integer, Integer> getQuantitiesByProductIds(
+            Collection<Integer> productIds) {
+        logger.debug("getQuantitiesByProductIds() – start, ids={}",
+                productIds.size());
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        List<Integer> ids = new ArrayList<>(productIds);
+        Map<Integer, Integer> result = new HashMap<>(ids.size() * 2);
+        EntityManager em = EMFProvider.get().createEntityManager();
+        try {
+            for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(from,
+                        Math.min(from + IN_CHUNK_SIZE, ids.size()));
+                List<Object[]> rows = em.createQuery(
+                                "SELECT w.productId, w.quantity "
+                                        + "FROM Warehouse w "
+                                        + "WHERE w.productId IN :ids",
+                                Object[].class)
+                        .setParameter("ids", chunk)
+                        .getResultList();
+                for (Object[] row : rows) {
+                    result.put((Integer) row[0], (Integer) row[1]);
+                }
+            }
+            logger.info("getQuantitiesByProductIds() " +
+                    "– pobrano {} stanów", result.size());
+            return result;
+        } catch (Exception ex) {
+            logger.error("getQuantitiesByProductIds() " +
+                    "– błąd podczas pobierania stanów", ex);
+            return Map.of();
+        } finally {
+            em.close();
+            logger.debug("getQuantitiesByProductIds() – EM zamknięty");
+        }
+    }
+
+    /**
+     * Tworzy migawkę stanów magazynowych dla podanych produktów,
+     * z której mogą korzystać widoki tabelaryczne zamiast odpytywać
+     * bazę dla każdego wiersza.
+     *
+     * @param productIds identyfikatory produktów
+     * @return migawka stanów
+     */
+    public StockSnapshot snapshot(Collection<Integer> productIds) {
+        return new StockSnapshot(getQuantitiesByProductIds(productIds));
+    }
+
     /**
      * Usuwa stan magazynowy dla produktu o podanym identyfikatorze.
      * Operacja jest wykonywana w transakcji.
@@ -217,6 +301,150 @@ public class WarehouseRepository {
         }
     }
 
+    /**
+     * Atomowo zmniejsza ilość produktu w magazynie.
+     * Aktualizacja wykonywana jest pojedynczym zapytaniem
+     * {@code UPDATE ... SET Ilosc = Ilosc - ? WHERE Ilosc >= ?},
+     * więc stan nigdy nie spadnie poniżej zera, a równoległe
+     * zmniejszenia nie nadpisują się nawzajem. Blokada wiersza trwa
+     * tylko przez czas jednej instrukcji. W razie konfliktu blokad
+     * operacja jest ponawiana z wykładniczym opóźnieniem.
+     *
+     * @param productId identyfikator produktu
+     * @param qty       ilość do odjęcia (dodatnia)
+     * @return true jeśli stan został zmniejszony, false gdy brak rekordu,
+     *         niewystarczająca ilość lub błąd
+     */
+    public boolean decreaseQuantity(int productId, int qty) {
+        logger.debug("decreaseQuantity() – start, productId={}, qty={}",
+                productId, qty);
+        if (qty <= 0) {
+            logger.warn("decreaseQuantity() – niepoprawna ilość {}", qty);
+            return false;
+        }
+        int updated = executeStockUpdate("decreaseQuantity()",
+                "UPDATE Warehouse w SET w.quantity = w.quantity - :qty " +
+                        "WHERE w.productId = :id AND w.quantity >= :qty",
+                productId, qty);
+        if (updated == 0) {
+            REJECTED_DECREMENTS.increment();
+            logger.warn("decreaseQuantity() – niewystarczający stan " +
+                    "lub brak rekordu dla productId={}", productId);
+        }
+        return updated > 0;
+    }
+
+    /**
+     * Atomowo zwiększa ilość produktu w magazynie (np. po dostawie).
+     * Jeśli produkt nie ma jeszcze stanu magazynowego, rekord jest
+     * tworzony. W razie konfliktu blokad operacja jest ponawiana.
+     *
+     * @param productId identyfikator produktu
+     * @param qty       ilość do dodania (dodatnia)
+     * @return true jeśli stan został zaktualizowany
+     */
+    public boolean increaseQuantity(int productId, int qty) {
+        logger.debug("increaseQuantity() – start, productId={}, qty={}",
+                productId, qty);
+        if (qty <= 0) {
+            logger.warn("increaseQuantity() – niepoprawna ilość {}", qty);
+            return false;
+        }
+        for (int attempt = 1; ; attempt++) {
+            EntityManager em = EMFProvider.get().createEntityManager();
+            EntityTransaction tx = em.getTransaction();
+            try {
+                tx.begin();
+                int updated = em.createNativeQuery(
+                                "INSERT INTO StanyMagazynowe (Id_produktu, Ilosc) " +
+                                        "VALUES (?1, ?2) " +
+                                        "ON DUPLICATE KEY UPDATE Ilosc = Ilosc + ?2")
+                        .setParameter(1, productId)
+                        .setParameter(2, qty)
+                        // zapytanie natywne unieważnia w cache L2
+                        // tylko stany magazynowe, a nie wszystkie regiony
+                        .setHint(HibernateHints.HINT_NATIVE_SPACES,
+                                Warehouse.class)
+                        .executeUpdate();
+                tx.commit();
+                logger.info("increaseQuantity() – productId={} +{}",
+                        productId, qty);
+                return updated > 0;
+            } catch (Exception ex) {
+                if (tx.isActive()) tx.rollback();
+                if (LockRetry.isLockConflict(ex)
+                        && attempt < LockRetry.MAX_ATTEMPTS) {
+                    LockRetry.backoff("increaseQuantity()", attempt);
+                    continue;
+                }
+                logger.error("increaseQuantity() " +
+                        "– błąd podczas zwiększania stanu", ex);
+                return false;
+            } finally {
+                em.close();
+                logger.debug("increaseQuantity() – EM zamknięty");
+            }
+        }
+    }
+
+    /**
+     * Wykonuje warunkową aktualizację stanu z ponawianiem
+     * w przypadku konfliktu blokad.
+     *
+     * @return liczba zmienionych wierszy lub 0 w przypadku błędu
+     */
+    private int executeStockUpdate(String operation, String jpql,
+                                   int productId, int qty) {
+        for (int attempt = 1; ; attempt++) {
+            EntityManager em = EMFProvider.get().createEntityManager();
+            EntityTransaction tx = em.getTransaction();
+            try {
+                tx.begin();
+                int updated = em.createQuery(jpql)
+                        .setParameter("qty", qty)
+                        .setParameter("id", productId)
+                        .executeUpdate();
+                tx.commit();
+                logger.info("{} – productId={}, qty={}, zmieniono {} wierszy",
+                        operation, productId, qty, updated);
+                return updated;
+            } catch (Exception ex) {
+                if (tx.isActive()) tx.rollback();
+                if (LockRetry.isLockConflict(ex)
+                        && attempt < LockRetry.MAX_ATTEMPTS) {
+                    LockRetry.backoff(operation, attempt);
+                    continue;
+                }
+                logger.error("{} – błąd podczas aktualizacji stanu",
+                        operation, ex);
+                return 0;
+            } finally {
+                em.close();
+                logger.debug("{} – EM zamknięty", operation);
+            }
+        }
+    }
+
+    /**
+     * Zwraca liczbę konfliktów blokad (zakleszczeń i przekroczeń czasu
+     * oczekiwania) wykrytych przy aktualizacji stanów od startu aplikacji.
+     *
+     * @return liczba ponowień spowodowanych konfliktem
+     */
+    public static long getConflictCount() {
+        return LockRetry.getConflictCount();
+    }
+
+    /**
+     * Zwraca liczbę zmniejszeń stanu odrzuconych z powodu
+     * niewystarczającej ilości w magazynie.
+     *
+     * @return liczba odrzuconych zmniejszeń
+     */
+    public static long getRejectedDecrementCount() {
+        return REJECTED_DECREMENTS.sum();
+    }
+
     /**
      * Wyszukuje produkty o dokładnie określonej ilości w magazynie.
      * W przypadku błędu, wyjątek jest logowany i zwracana jest pusta lista.
@@ -1,28 +1,57 @@
 /*
  * Classname: WorkloadRepository
- * Version information: 1.0
- * Date: 2025-06-04
+ * Version information: 2.1
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
 package org.example.database;
 
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.Query;
+import jakarta.persistence.TemporalType;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pdf.WorkloadReportGenerator.EmployeeWorkload;
 
-import java.sql.Date;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Repozytorium do pobierania danych o obciążeniu pracowników.
- * Umożliwia wykonanie zapytań natywnych do obliczenia sumy godzin
- * przepracowanych przez pracowników w zadanym przedziale dat.
- * Wykorzystywane głównie do generowania raportów obciążenia.
+ * Repozytorium analityki obciążenia pracowników – jedyne źródło
+ * danych dla raportu obciążenia i zestawień godzin.
+ * <p>
+ * Godziny są sumowane w bazie ({@code GROUP BY}) do poziomu
+ * pracownik × dzień: każdy przypisany do zadania pracownik otrzymuje
+ * czas trwania zmiany zadania ({@code czas_trwania_zmiany}), pomijane
+ * są zadania usunięte i bez czasu zmiany. Z tych wierszy składane są
+ * zestawienia według pracownika, stanowiska i dnia oraz średnie
+ * kroczące.
+ * </p>
+ * <p>
+ * Wiersze zamkniętych miesięcy (zakończonych przed dniem dzisiejszym)
+ * są przechowywane we współdzielonym cache, więc raport za dłuższy
+ * okres odpytuje bazę tylko o brakujące miesiące i bieżący okres.
+ * Cache zawiera wyłącznie identyfikator pracownika, dzień, czas
+ * i liczbę zadań – imię, nazwisko i stanowisko są dołączane przy
+ * każdym zestawieniu, więc zmiana danych pracownika nie wymaga
+ * unieważnienia. Zmiany zadań i przypisań unieważniają cache
+ * ({@link #invalidate(Date)}, {@link #invalidateAll()}).
+ * </p>
  */
 public class WorkloadRepository implements AutoCloseable {
 
@@ -32,6 +61,82 @@ public class WorkloadRepository implements AutoCloseable {
     private static final Logger logger = LogManager.getLogger(
             WorkloadRepository.class);
 
+    /**
+     * Suma godzin na pracownika i dzień; czas zmiany liczony w sekundach,
+     * aby zapytanie działało w każdym dialekcie (MySQL, H2).
+     */
+    private static final String DAILY_QUERY =
+            "SELECT e.id, t.date, " +
+                    "SUM(EXTRACT(HOUR FROM t.durationOfTheShift) * 3600 " +
+                    "+ EXTRACT(MINUTE FROM t.durationOfTheShift) * 60 " +
+                    "+ EXTRACT(SECOND FROM t.durationOfTheShift)), " +
+                    "COUNT(t) " +
+                    "FROM EmpTask t " +
+                    "JOIN t.taskEmployees te " +
+                    "JOIN te.employee e " +
+                    "WHERE t.usuniety = false " +
+                    "AND t.durationOfTheShift IS NOT NULL " +
+                    "AND t.date BETWEEN :from AND :to " +
+                    "GROUP BY e.id, t.date";
+
+    /**
+     * Dane pracowników dołączane do wierszy obciążenia.
+     */
+    private static final String EMPLOYEE_QUERY =
+            "SELECT e.id, e.name, e.surname, e.position " +
+                    "FROM Employee e WHERE e.id IN :ids";
+
+    /**
+     * Wiersze zamkniętych miesięcy.
+     */
+    private static final Map<YearMonth, List<WorkloadRow>> CLOSED_MONTHS =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Licznik unieważnień – wynik zapytania rozpoczętego przed
+     * unieważnieniem nie trafia do cache.
+     */
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private static final AtomicLong CACHE_HITS = new AtomicLong();
+    private static final AtomicLong CACHE_MISSES = new AtomicLong();
+
+    /**
+     * Godziny pracownika w jednym dniu.
+     *
+     * @param employeeId identyfikator pracownika
+     * @param firstName  imię
+     * @param lastName   nazwisko
+     * @param position   stanowisko
+     * @param day        dzień
+     * @param hours      suma godzin zmian
+     * @param tasks      liczba zadań
+     */
+    public record DailyWorkload(int employeeId, String firstName,
+                                String lastName, String position,
+                                LocalDate day, double hours, long tasks) {
+
+        /**
+         * @return imię i nazwisko pracownika
+         */
+        public String employeeName() {
+            return firstName + " " + lastName;
+        }
+    }
+
+    /**
+     * Wiersz obciążenia bez danych pracownika (postać przechowywana
+     * w cache).
+     *
+     * @param employeeId identyfikator pracownika
+     * @param day        dzień
+     * @param seconds    suma czasu zmian w sekundach
+     * @param tasks      liczba zadań
+     */
+    private record WorkloadRow(int employeeId, LocalDate day, double seconds,
+                               long tasks) {
+    }
+
     /**
      * Domyślny konstruktor – korzysta ze wspólnego EMF z EMFProvider.
      * Operacja jest logowana na poziomie INFO.
@@ -41,15 +146,14 @@ public class WorkloadRepository implements AutoCloseable {
     }
 
     /**
-     * Pobiera listę obciążeń pracowników w zadanym przedziale dat.
-     * Wykorzystuje zapytanie natywne SQL do obliczenia łącznej liczby
-     * przepracowanych godzin, pogrupowanych według pracownika.
+     * Pobiera listę obciążeń pracowników w zadanym przedziale dat
+     * (zestawienie według pracownika) – dane raportu obciążenia.
      *
      * @param startDate data początkowa (włącznie)
      * @param endDate   data końcowa (włącznie)
      * @return lista obiektów EmployeeWorkload zawierających imię i nazwisko
-     *         pracownika, stanowisko oraz łączną liczbę godzin;
-     *         zwraca pustą listę w przypadku błędu
+     *         pracownika, stanowisko oraz łączną liczbę godzin, posortowana
+     *         według nazwiska; zwraca pustą listę w przypadku błędu
      */
     public List<EmployeeWorkload> getWorkloadData(
             LocalDate startDate,
@@ -58,49 +162,315 @@ public class WorkloadRepository implements AutoCloseable {
         logger.debug("getWorkloadData() " +
                         "– start, startDate={}, endDate={}",
                 startDate, endDate);
+        Map<Integer, DailyWorkload> totals = new LinkedHashMap<>();
+        getDailyWorkload(startDate, endDate).stream()
+                .sorted(Comparator.comparing(DailyWorkload::lastName)
+                        .thenComparing(DailyWorkload::firstName)
+                        .thenComparingInt(DailyWorkload::employeeId))
+                .forEach(d -> totals.merge(d.employeeId(), d, (a, b) ->
+                        new DailyWorkload(a.employeeId(), a.firstName(),
+                                a.lastName(), a.position(), null,
+                                a.hours() + b.hours(), a.tasks() + b.tasks())));
+        List<EmployeeWorkload> result = new ArrayList<>(totals.size());
+        for (DailyWorkload d : totals.values()) {
+            result.add(new EmployeeWorkload(d.employeeName(), d.position(),
+                    round(d.hours())));
+        }
+        logger.info("getWorkloadData() – zwrócono {} rekordów",
+                result.size());
+        return result;
+    }
+
+    /**
+     * Sumuje godziny według stanowiska.
+     *
+     * @param startDate data początkowa (włącznie)
+     * @param endDate   data końcowa (włącznie)
+     * @return mapa stanowisko → godziny, posortowana według stanowiska;
+     *         pusta w przypadku błędu
+     */
+    public Map<String, Double> getHoursByPosition(LocalDate startDate,
+                                                  LocalDate endDate) {
+        Map<String, Double> byPosition = new TreeMap<>();
+        for (DailyWorkload d : getDailyWorkload(startDate, endDate)) {
+            byPosition.merge(d.position(), d.hours(), Double::sum);
+        }
+        byPosition.replaceAll((position, hours) -> round(hours));
+        logger.debug("getHoursByPosition() – {} stanowisk", byPosition.size());
+        return byPosition;
+    }
+
+    /**
+     * Sumuje godziny wszystkich pracowników według dnia. Dni bez
+     * zadań mają wartość 0.
+     *
+     * @param startDate data początkowa (włącznie)
+     * @param endDate   data końcowa (włącznie)
+     * @return mapa dzień → godziny dla każdego dnia okresu; pusta
+     *         w przypadku błędu lub nieprawidłowego zakresu
+     */
+    public SortedMap<LocalDate, Double> getHoursByDay(LocalDate startDate,
+                                                      LocalDate endDate) {
+        SortedMap<LocalDate, Double> byDay = new TreeMap<>();
+        if (startDate == null || endDate == null
+                || startDate.isAfter(endDate)) {
+            return byDay;
+        }
+        for (LocalDate d = startDate; !d.isAfter(endDate); d = d.plusDays(1)) {
+            byDay.put(d, 0.0);
+        }
+        for (DailyWorkload d : getDailyWorkload(startDate, endDate)) {
+            byDay.merge(d.day(), d.hours(), Double::sum);
+        }
+        byDay.replaceAll((day, hours) -> round(hours));
+        return byDay;
+    }
+
+    /**
+     * Średnia krocząca dziennej liczby godzin: dla każdego dnia okresu
+     * średnia z {@code windowDays} dni kończących się tym dniem (okno
+     * obejmuje także dni sprzed {@code startDate}).
+     *
+     * @param startDate  data początkowa (włącznie)
+     * @param endDate    data końcowa (włącznie)
+     * @param windowDays długość okna w dniach (co najmniej 1)
+     * @return mapa dzień → średnia godzin; pusta w przypadku błędu
+     *         lub nieprawidłowego zakresu
+     */
+    public SortedMap<LocalDate, Double> getMovingAverage(LocalDate startDate,
+                                                         LocalDate endDate,
+                                                         int windowDays) {
+        SortedMap<LocalDate, Double> result = new TreeMap<>();
+        if (windowDays < 1 || startDate == null || endDate == null
+                || startDate.isAfter(endDate)) {
+            return result;
+        }
+        LocalDate windowStart = startDate.minusDays(windowDays - 1L);
+        List<Double> daily = new ArrayList<>(
+                getHoursByDay(windowStart, endDate).values());
+        double sum = 0;
+        for (int i = 0; i < daily.size(); i++) {
+            sum += daily.get(i);
+            if (i >= windowDays) {
+                sum -= daily.get(i - windowDays);
+            }
+            if (i >= windowDays - 1) {
+                result.put(windowStart.plusDays(i), round(sum / windowDays));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Pobiera godziny według pracownika i dnia. Zamknięte miesiące są
+     * odczytywane z cache, brakujące zamknięte miesiące pobierane jednym
+     * zapytaniem, a bieżący okres zawsze z bazy.
+     *
+     * @param startDate data początkowa (włącznie)
+     * @param endDate   data końcowa (włącznie)
+     * @return wiersze pracownik × dzień lub pusta lista w przypadku błędu
+     *         albo nieprawidłowego zakresu
+     */
+    public List<DailyWorkload> getDailyWorkload(LocalDate startDate,
+                                                LocalDate endDate) {
+        if (startDate == null || endDate == null
+                || startDate.isAfter(endDate)) {
+            logger.warn("getDailyWorkload() – nieprawidłowy zakres {} – {}",
+                    startDate, endDate);
+            return Collections.emptyList();
+        }
         var em = EMFProvider.get().createEntityManager();
         try {
-            @SuppressWarnings("unchecked")
-            List<EmployeeWorkload> result = em.createNativeQuery(
-                            // language=SQL
-                            """
-                            SELECT
-                              CONCAT(p.Imie, ' ', p.Nazwisko) AS employeeName,
-                              p.Stanowisko                  AS department,
-                              ROUND(
-                                  SUM(
-                                      TIME_TO_SEC(
-                                          COALESCE(zp.czas_trwania_zmiany,
-                                           z.czas_trwania_zmiany)
-                                      )
-                                  ) / 3600
-                              , 2)                           AS totalHours
-                            FROM   Pracownicy          p
-                            JOIN   Zadania_Pracownicy  zp ON zp.Id_pracownika 
-                                                                 = p.Id
-                            JOIN   Zadania             z  ON z.Id            
-                                                                 = zp.Id_zadania
-                            WHERE  z.Data BETWEEN :start AND :end
-                            GROUP  BY p.Id, p.Imie, p.Nazwisko, p.Stanowisko
-                            ORDER  BY p.Nazwisko, p.Imie
-                            """,
-                            "EmployeeWorkloadMapping")
-                    .setParameter("start", Date.valueOf(startDate))
-                    .setParameter("end",   Date.valueOf(endDate))
-                    .getResultList();
-
-            logger.info("getWorkloadData() – zwrócono {} rekordów",
-                    result.size());
-            return result;
+            YearMonth current = YearMonth.from(LocalDate.now());
+            YearMonth first = YearMonth.from(startDate);
+            YearMonth last = YearMonth.from(endDate);
+            YearMonth lastClosed = last.isBefore(current)
+                    ? last : current.minusMonths(1);
+
+            List<YearMonth> missing = new ArrayList<>();
+            for (YearMonth m = first; !m.isAfter(lastClosed);
+                 m = m.plusMonths(1)) {
+                if (!CLOSED_MONTHS.containsKey(m)) {
+                    missing.add(m);
+                }
+            }
+            if (!missing.isEmpty()) {
+                loadClosedMonths(em, missing.get(0),
+                        missing.get(missing.size() - 1));
+            }
+
+            List<WorkloadRow> rows = new ArrayList<>();
+            for (YearMonth m = first; !m.isAfter(lastClosed);
+                 m = m.plusMonths(1)) {
+                List<WorkloadRow> month = CLOSED_MONTHS.get(m);
+                if (month == null) {
+                    // Unieważnione w trakcie odczytu – pobierz bez cache
+                    month = query(em, m.atDay(1), m.atEndOfMonth());
+                } else if (!missing.contains(m)) {
+                    CACHE_HITS.incrementAndGet();
+                }
+                for (WorkloadRow d : month) {
+                    if (!d.day().isBefore(startDate)
+                            && !d.day().isAfter(endDate)) {
+                        rows.add(d);
+                    }
+                }
+            }
+            if (last.isAfter(lastClosed)) {
+                LocalDate openFrom = lastClosed.plusMonths(1).atDay(1);
+                rows.addAll(query(em, openFrom.isAfter(startDate)
+                        ? openFrom : startDate, endDate));
+            }
+            logger.debug("getDailyWorkload() – {} wierszy dla {} – {}",
+                    rows.size(), startDate, endDate);
+            return withEmployees(em, rows);
         } catch (Exception ex) {
-            logger.error("getWorkloadData() " +
+            logger.error("getDailyWorkload() " +
                     "– błąd podczas pobierania obciążenia "
                     + "pracowników", ex);
             return Collections.emptyList();
         } finally {
             em.close();
-            logger.debug("getWorkloadData() – EM zamknięty");
+            logger.debug("getDailyWorkload() – EM zamknięty");
+        }
+    }
+
+    /**
+     * Unieważnia cache miesiąca, do którego należy data (np. po dodaniu
+     * zadania).
+     *
+     * @param date data zadania; null – bez zmian
+     */
+    public static void invalidate(Date date) {
+        if (date == null) {
+            return;
+        }
+        LocalDate day = date instanceof java.sql.Date sqlDate
+                ? sqlDate.toLocalDate()
+                : date.toInstant().atZone(ZoneId.systemDefault())
+                .toLocalDate();
+        GENERATION.incrementAndGet();
+        if (CLOSED_MONTHS.remove(YearMonth.from(day)) != null) {
+            logger.debug("invalidate() – unieważniono miesiąc {}",
+                    YearMonth.from(day));
+        }
+    }
+
+    /**
+     * Unieważnia cały cache zamkniętych miesięcy (np. po zmianie daty
+     * zadania, przypisań lub odtworzeniu bazy).
+     */
+    public static void invalidateAll() {
+        GENERATION.incrementAndGet();
+        CLOSED_MONTHS.clear();
+        logger.debug("invalidateAll() – cache obciążenia wyczyszczony");
+    }
+
+    /**
+     * @return liczba miesięcy w cache
+     */
+    public static int getCachedMonths() {
+        return CLOSED_MONTHS.size();
+    }
+
+    /**
+     * @return liczba miesięcy odczytanych z cache
+     */
+    public static long getCacheHits() {
+        return CACHE_HITS.get();
+    }
+
+    /**
+     * @return liczba miesięcy pobranych z bazy do cache
+     */
+    public static long getCacheMisses() {
+        return CACHE_MISSES.get();
+    }
+
+    /**
+     * Pobiera zamknięte miesiące z zakresu jednym zapytaniem i zapisuje
+     * każdy miesiąc w cache (także miesiące bez zadań).
+     */
+    private static void loadClosedMonths(EntityManager em, YearMonth from,
+                                         YearMonth to) {
+        long generation = GENERATION.get();
+        List<WorkloadRow> rows = query(em, from.atDay(1), to.atEndOfMonth());
+        Map<YearMonth, List<WorkloadRow>> byMonth = new TreeMap<>();
+        for (YearMonth m = from; !m.isAfter(to); m = m.plusMonths(1)) {
+            byMonth.put(m, new ArrayList<>());
+        }
+        for (WorkloadRow d : rows) {
+            byMonth.get(YearMonth.from(d.day())).add(d);
         }
+        if (GENERATION.get() != generation) {
+            return;
+        }
+        for (Map.Entry<YearMonth, List<WorkloadRow>> e : byMonth.entrySet()) {
+            if (CLOSED_MONTHS.putIfAbsent(e.getKey(),
+                    List.copyOf(e.getValue())) == null) {
+                CACHE_MISSES.incrementAndGet();
+            }
+        }
+        logger.debug("loadClosedMonths() – zapisano w cache miesiące {} – {}",
+                from, to);
+    }
+
+    private static List<WorkloadRow> query(EntityManager em, LocalDate from,
+                                           LocalDate to) {
+        List<Object[]> result = em.createQuery(DAILY_QUERY, Object[].class)
+                .setParameter("from", java.sql.Date.valueOf(from),
+                        TemporalType.DATE)
+                .setParameter("to", java.sql.Date.valueOf(to),
+                        TemporalType.DATE)
+                .getResultList();
+        List<WorkloadRow> rows = new ArrayList<>(result.size());
+        for (Object[] r : result) {
+            Date day = (Date) r[1];
+            rows.add(new WorkloadRow((Integer) r[0],
+                    day instanceof java.sql.Date sqlDate
+                            ? sqlDate.toLocalDate()
+                            : day.toInstant().atZone(ZoneId.systemDefault())
+                            .toLocalDate(),
+                    ((Number) r[2]).doubleValue(),
+                    ((Number) r[3]).longValue()));
+        }
+        return rows;
+    }
+
+    /**
+     * Dołącza bieżące dane pracowników do wierszy obciążenia jednym
+     * zapytaniem o pracowników występujących w wierszach.
+     */
+    private static List<DailyWorkload> withEmployees(EntityManager em,
+                                                     List<WorkloadRow> rows) {
+        if (rows.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Integer> ids = new HashSet<>();
+        for (WorkloadRow row : rows) {
+            ids.add(row.employeeId());
+        }
+        Map<Integer, Object[]> employees = new HashMap<>();
+        for (Object[] e : em.createQuery(EMPLOYEE_QUERY, Object[].class)
+                .setParameter("ids", ids)
+                .getResultList()) {
+            employees.put((Integer) e[0], e);
+        }
+        List<DailyWorkload> result = new ArrayList<>(rows.size());
+        for (WorkloadRow row : rows) {
+            Object[] e = employees.get(row.employeeId());
+            if (e == null) {
+                continue;
+            }
+            result.add(new DailyWorkload(row.employeeId(), (String) e[1],
+                    (String) e[2], (String) e[3], row.day(),
+                    row.seconds() / 3600.0, row.tasks()));
+        }
+        return result;
+    }
+
+    private static double round(double hours) {
+        return Math.round(hours * 100) / 100.0;
     }
 
     /**
@@ -110,4 +480,4 @@ public class WorkloadRepository implements AutoCloseable {
     @Override
     public void close() {
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,7 @@
 /*
  * Classname: AdminPanel
- * Version information: 1.3
- * Date: 2025-06-07
+ * Version information: 1.5
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -25,10 +25,9 @@ import javafx.stage.Stage;
 import javafx.util.Duration;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.example.sys.BackgroundTasks;
 
 import java.util.Objects;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Klasa reprezentująca główny panel administratora.
@@ -41,8 +40,6 @@ public class AdminPanel {
     private Stage primaryStage;
     private AdminPanelController controller;
     private Image logoImage;
-    private static final ExecutorService executor =
-            Executors.newVirtualThreadPerTaskExecutor();
     private Button activeButton; // Pole do śledzenia aktywnego przycisku
 
     /**
@@ -121,7 +118,7 @@ public class AdminPanel {
                     task.getException().getMessage(), task.getException());
         });
 
-        executor.execute(task);
+        BackgroundTasks.execute(BackgroundTasks.Category.MAINTENANCE, task);
         logger.debug("Zadanie ładowania logo przesłane do executor");
     }
 
@@ -161,7 +158,7 @@ public class AdminPanel {
                     task.getException().getMessage(), task.getException());
         });
 
-        executor.execute(task);
+        BackgroundTasks.execute(BackgroundTasks.Category.MAINTENANCE, task);
         logger.debug("Zadanie tworzenia menu przesłane do executor");
     }
 
@@ -225,6 +222,13 @@ public class AdminPanel {
             controller.showIssuesPanel();
         });
 
+        Button diagnosticsButton = createStyledButton("Diagnostyka");
+        diagnosticsButton.setOnAction(e -> {
+            logger.debug("Kliknięto przycisk 'Diagnostyka'");
+            setActiveButton(diagnosticsButton);
+            controller.showDiagnosticsPanel();
+        });
+
         Button logoutButton = createStyledButton("Wyloguj", "#E74C3C");
         logoutButton.setOnAction(e -> {
             logger.info("Użytkownik wylogowuje się z panelu administratora");
@@ -239,6 +243,7 @@ public class AdminPanel {
                 configButton,
                 reportsButton,
                 issuesButton,
+                diagnosticsButton,
                 logoutButton);
 
         // Ustawienie domyślnego aktywnego przycisku
@@ -1,13 +1,17 @@
 /*
  * Classname: AdminPanelController
- * Version information: 1.12
- * Date: 2025-06-07
+ * Version information: 1.23
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
 package org.example.gui;
 
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.concurrent.Task;
 import javafx.geometry.Insets;
@@ -26,6 +30,7 @@ import javafx.scene.control.DatePicker;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.control.PasswordField;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
@@ -54,9 +59,7 @@ import java.nio.file.Paths;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.*;
-import java.time.LocalTime;
 import java.time.temporal.TemporalAdjusters;
 
 import pdf.StatsRaportGenerator;
@@ -65,8 +68,8 @@ import pdf.WorkloadReportGenerator;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -81,10 +84,7 @@ public class AdminPanelController {
     private TableView<Employee> tableView;
     private final TechnicalIssueRepository technicalIssueRepository;
     private TableView<TechnicalIssue> issuesTableView;
-
-    // Executor do operacji asynchronicznych
-    private static final ExecutorService executor =
-            Executors.newVirtualThreadPerTaskExecutor();
+    private LazyTableLoader<TechnicalIssue> issuesLoader;
     private static final Logger logger =
             LogManager.getLogger(AdminPanelController.class);
 
@@ -94,6 +94,12 @@ public class AdminPanelController {
     private VBox reportsPanelView;
     private VBox issuesPanelView;
 
+    /**
+     * Odstęp automatycznego odświeżania widoku diagnostyki.
+     */
+    private static final javafx.util.Duration DIAGNOSTICS_REFRESH =
+            javafx.util.Duration.seconds(5);
+
     /**
      * Konstruktor klasy kontrolera.
      *
@@ -164,7 +170,7 @@ public class AdminPanelController {
                         "Nie udało się załadować panelu użytkowników");
             });
 
-            executor.execute(task);
+            BackgroundTasks.execute(BackgroundTasks.Category.DATA_LOAD, task);
         } else {
             // Jeśli widok już istnieje, po prostu go pokaż
             adminPanel.setCenterPane(userManagementView);
@@ -310,9 +316,10 @@ public class AdminPanelController {
         Label addressLabel = new Label("Adres:");
         AddressRepository addressRepository = new AddressRepository();
         ComboBox<Address> addressComboBox = new ComboBox<>();
-        addressComboBox.getItems().addAll(addressRepository.getAllAddresses());
         addressComboBox.setValue(selected.getAddress()); // ustawiamy istniejący
         addressComboBox.setPromptText("Wybierz adres");
+        AsyncDataLoader.getInstance().loadCombo("AdminPanel.addresses",
+                addressComboBox, addressRepository::getAllAddresses);
 
         Button addNewAddressBtn = new Button("Dodaj nowy adres");
         addNewAddressBtn.setOnAction(e -> openNewAddressWindow(addressComboBox));
@@ -409,7 +416,11 @@ public class AdminPanelController {
                 selected.setEmail(emailField.getText().trim());
                 selected.setAddress(addressComboBox.getValue());
                 if (!passwordField.getText().isEmpty()) {
+                    // Walidacja długości na haśle jawnym, zapis jako hash –
+                    // migracja haseł wykonywana jest tylko raz
                     selected.setPassword(passwordField.getText());
+                    selected.setPassword(PasswordHasher.hashPassword(
+                            passwordField.getText(), selected.getId()));
                 }
                 selected.setPosition(positionBox.getValue());
                 selected.setAge(Integer.parseInt(ageField.getText().trim()));
@@ -439,7 +450,7 @@ public class AdminPanelController {
                     showUserManagement();
                 });
 
-                executor.execute(updateTask);
+                BackgroundTasks.execute(BackgroundTasks.Category.UPDATE, updateTask);
 
             } catch (NumberFormatException ex) {
                 showAlert(Alert.AlertType.ERROR,
@@ -456,6 +467,11 @@ public class AdminPanelController {
                         "Nieprawidłowe zarobki",
                         ex.getMessage());
                 showUserManagement();
+            } catch (NoSuchAlgorithmException | InvalidKeyException ex) {
+                showAlert(Alert.AlertType.ERROR,
+                        "Błąd",
+                        "Błąd podczas hashowania hasła: " + ex.getMessage());
+                showUserManagement();
             }
         });
 
@@ -466,28 +482,8 @@ public class AdminPanelController {
      * Pobiera dane z bazy i ładuje do tabeli asynchronicznie.
      */
     private void refreshEmployeeList() {
-        Task<List<Employee>> task = new Task<>() {
-            @Override
-            protected List<Employee> call() throws Exception {
-                return userRepository.getAllEmployees();
-            }
-        };
-
-        task.setOnSucceeded(e -> {
-            tableView.getItems().clear();
-            tableView.getItems().addAll(task.getValue());
-        });
-
-        task.setOnFailed(e -> {
-            task.getException().printStackTrace();
-            Platform.runLater(() -> showAlert(
-                    Alert.AlertType.ERROR,
-                    "Błąd",
-                    "Nie udało się pobrać listy pracowników"
-            ));
-        });
-
-        executor.execute(task);
+        AsyncDataLoader.getInstance().loadTable("AdminPanel.employees",
+                tableView, userRepository::getAllEmployees);
     }
 
     /**
@@ -519,8 +515,9 @@ public class AdminPanelController {
         Label addressLabel = new Label("Adres:");
         AddressRepository addressRepository = new AddressRepository();
         ComboBox<Address> addressComboBox = new ComboBox<>();
-        addressComboBox.getItems().addAll(addressRepository.getAllAddresses());
         addressComboBox.setPromptText("Wybierz istniejący adres");
+        AsyncDataLoader.getInstance().loadCombo("AdminPanel.addresses",
+                addressComboBox, addressRepository::getAllAddresses);
 
         Button addNewAddressBtn = new Button("Dodaj nowy adres");
         addNewAddressBtn.setOnAction(e -> openNewAddressWindow(addressComboBox));
@@ -681,7 +678,7 @@ public class AdminPanelController {
                     showUserManagement();
                 });
 
-                executor.execute(addTask);
+                BackgroundTasks.execute(BackgroundTasks.Category.UPDATE, addTask);
 
             } catch (NumberFormatException ex) {
                 showAlert(Alert.AlertType.ERROR, "Błąd",
@@ -807,69 +804,135 @@ public class AdminPanelController {
         styleAdminButton(backupButton, "#27AE60");
         backupButton.setOnAction(e -> performDatabaseBackup());
 
+        Button restoreBackupButton = new Button("Przywróć bazę z pliku backupu");
+        styleAdminButton(restoreBackupButton, "#C0392B");
+        restoreBackupButton.setOnAction(e -> restoreDatabaseBackup());
+
         // DODANY PRZYCISK DO EKSPORTU CSV
         Button exportCsvButton = new Button("Eksportuj bazę danych do CSV");
         styleAdminButton(exportCsvButton, "#16A085");  // Inny kolor dla odróżnienia
-        exportCsvButton.setOnAction(e -> exportDatabaseToCsv());
+        CheckBox gzipCheckBox = new CheckBox("Kompresuj pliki CSV (gzip)");
+        exportCsvButton.setOnAction(e -> exportDatabaseToCsv(gzipCheckBox.isSelected()));
+
+        Button incrementalBackupButton = new Button("Backup przyrostowy");
+        styleAdminButton(incrementalBackupButton, "#27AE60");
+        CheckBox forceFullCheckBox = new CheckBox("Wymuś pełną kopię");
+        incrementalBackupButton.setOnAction(e ->
+                performIncrementalBackup(forceFullCheckBox.isSelected()));
+
+        Button restoreButton = new Button("Przywróć z backupu przyrostowego");
+        styleAdminButton(restoreButton, "#C0392B");
+        restoreButton.setOnAction(e -> restoreIncrementalBackup());
 
         layout.getChildren().addAll(
                 titleLabel,
                 openLogsButton,
                 configurePDF,
                 backupButton,
-                exportCsvButton  // DODANY PRZYCISK
+                restoreBackupButton,
+                exportCsvButton,  // DODANY PRZYCISK
+                gzipCheckBox,
+                incrementalBackupButton,
+                forceFullCheckBox,
+                restoreButton
         );
 
         return layout;
     }
 
-    private void exportDatabaseToCsv() {
+    /**
+     * Eksportuje wszystkie tabele do folderu {@code backup-csv}
+     * i pokazuje postęp każdej tabeli (wiersze, rozmiar, przepustowość).
+     *
+     * @param gzip true – pliki kompresowane gzip
+     */
+    private void exportDatabaseToCsv(boolean gzip) {
 
-        File folder = new File("backup-csv");
-        if (!folder.exists() && !folder.mkdirs()) {
-            showAlert(Alert.AlertType.ERROR, "Błąd",
-                    "Nie można utworzyć katalogu:\n" + folder.getAbsolutePath());
-            return;
-        }
+        Path folder = Path.of("backup-csv");
 
-        /* ---------- loader ---------- */
+        /* ---------- okno postępu ---------- */
         Stage loaderStage = new Stage();
         loaderStage.initOwner(primaryStage);
         loaderStage.initModality(Modality.APPLICATION_MODAL);
         loaderStage.initStyle(StageStyle.UNDECORATED);
 
-        VBox box = new VBox(10, new ProgressIndicator());
+        Label statusLabel = new Label("Odczyt listy tabel…");
+        ProgressBar progressBar = new ProgressBar(ProgressBar.INDETERMINATE_PROGRESS);
+        progressBar.setPrefWidth(400);
+        ListView<String> tablesList = new ListView<>();
+        tablesList.setPrefHeight(250);
+        Map<String, Integer> rowIndex = new HashMap<>();
+
+        VBox box = new VBox(10, statusLabel, progressBar, tablesList);
         box.setPadding(new Insets(20));
         box.setAlignment(Pos.CENTER);
         loaderStage.setScene(new Scene(box));
         loaderStage.setTitle("Eksport CSV – trwa…");
         loaderStage.show();
 
+        DatabaseBackupExporter.ProgressListener listener =
+                new DatabaseBackupExporter.ProgressListener() {
+                    private final AtomicInteger finished = new AtomicInteger();
+                    private volatile int total;
+
+                    @Override
+                    public void started(List<String> tables) {
+                        total = tables.size();
+                        Platform.runLater(() -> {
+                            for (String t : tables) {
+                                rowIndex.put(t, tablesList.getItems().size());
+                                tablesList.getItems().add(t + ": oczekuje");
+                            }
+                            statusLabel.setText("Eksport " + total + " tabel");
+                            progressBar.setProgress(0);
+                        });
+                    }
+
+                    @Override
+                    public void progress(DatabaseBackupExporter.TableProgress p) {
+                        int done = p.done() ? finished.incrementAndGet() : finished.get();
+                        Platform.runLater(() -> {
+                            Integer i = rowIndex.get(p.table());
+                            if (i != null) {
+                                tablesList.getItems().set(i, p.describe());
+                            }
+                            if (total > 0) {
+                                progressBar.setProgress((double) done / total);
+                            }
+                        });
+                    }
+                };
+
         /* ---------- zadanie ---------- */
-        Task<Void> task = new Task<>() {
+        Task<DatabaseBackupExporter.ExportResult> task = new Task<>() {
             @Override
-            protected Void call() throws Exception {
-                logger.info("Rozpoczęcie eksportu CSV do: {}", folder.getAbsolutePath());
-                DatabaseBackupExporter.exportAllTablesToCsv(folder.getAbsolutePath());
-                return null;
+            protected DatabaseBackupExporter.ExportResult call() throws Exception {
+                logger.info("Rozpoczęcie eksportu CSV do: {}", folder.toAbsolutePath());
+                return DatabaseBackupExporter.exportAllTablesToCsv(folder, gzip, listener);
             }
         };
 
-        task.setOnSucceeded(ev -> Platform.runLater(() -> {
+        task.setOnSucceeded(ev -> {
             loaderStage.close();
-            showAlert(Alert.AlertType.INFORMATION, "Eksport zakończony",
-                    "Pliki CSV znajdują się w:\n" + folder.getAbsolutePath());
-        }));
+            DatabaseBackupExporter.ExportResult r = task.getValue();
+            String summary = String.format(
+                    "Tabele: %d (błędy: %d), wiersze: %d, rozmiar: %.1f MB, czas: %.1f s",
+                    r.tables().size(), r.failedCount(), r.totalRows(),
+                    r.totalBytes() / (1024.0 * 1024.0), r.elapsedNanos() / 1e9);
+            showAlert(r.failedCount() == 0 ? Alert.AlertType.INFORMATION
+                            : Alert.AlertType.WARNING, "Eksport zakończony",
+                    summary + "\nPliki CSV znajdują się w:\n" + folder.toAbsolutePath());
+        });
 
-        task.setOnFailed(ev -> Platform.runLater(() -> {
+        task.setOnFailed(ev -> {
             loaderStage.close();
             Throwable ex = task.getException();
             logger.error("Błąd eksportu CSV", ex);
             showAlert(Alert.AlertType.ERROR, "Błąd eksportu",
                     (ex != null) ? ex.getMessage() : "Nieznany błąd");
-        }));
+        });
 
-        new Thread(task, "CsvExportTask").start();
+        BackgroundTasks.execute(BackgroundTasks.Category.EXPORT, task);
     }
 
     public void openLogsDirectory(String path) {
@@ -1410,52 +1473,40 @@ public class AdminPanelController {
                                                                      LocalDate to) {
         logger.debug("Pobieranie danych dla raportu KPI od {} do {}", from, to);
         EmpTaskRepository repo = new EmpTaskRepository();
-        List<EmpTask> allTasks = repo.getAllTasksWithEmployeesAndAssignees();
-        logger.info("Pobrano {} zadań z repozytorium", allTasks.size());
+        List<EmpTaskRepository.TaskReportRow> rows = repo.findReportRows(from, to);
 
-        // Logowanie szczegółów surowych zadań
-        allTasks.forEach(t -> logger.debug("Zadanie surowe: id={}, name={}, date={}, status={}, priority={}, assignee={}",
-                t.getId(), t.getName(), toLocalDate(t.getDate()), t.getStatus(),
-                t.getPriority(), t.getSingleAssignee() !=
-                        null ? t.getSingleAssignee().getLogin() : "Brak"));
-
-        List<StatsRaportGenerator.TaskRecord> filteredTasks = allTasks.stream()
-                .filter(t -> inRange(t.getDate(), from, to))
+        List<StatsRaportGenerator.TaskRecord> filteredTasks = rows.stream()
                 .map(t -> {
-                    Employee assignee = t.getSingleAssignee();
                     StatsRaportGenerator.Priority priority = null;
-                    if (t.getPriority() != null) {
+                    if (t.priority() != null) {
                         try {
-                            priority = StatsRaportGenerator.Priority.valueOf(t.getPriority().name());
+                            priority = StatsRaportGenerator.Priority.valueOf(t.priority().name());
                         } catch (IllegalArgumentException e) {
                             logger.warn("Nie można zmapować priorytetu: {} dla zadania: {}",
-                                    t.getPriority(), t.getName());
+                                    t.priority(), t.name());
                         }
                     }
-                    StatsRaportGenerator.TaskRecord record = new StatsRaportGenerator.TaskRecord(
-                            t.getName(),
-                            assignee != null ? assignee.getPosition() : "Brak",
+                    return new StatsRaportGenerator.TaskRecord(
+                            t.name(),
+                            t.assigneeLogin() != null ? t.assigneePosition() : "Brak",
                             priority,
-                            toLocalDate(t.getDate()), // dueDate
-                            "Zakończone".equals(t.getStatus()) ? toLocalDate(t.getDate()) : null, // completionDate
-                            assignee != null ? assignee.getLogin() : "Brak"
+                            t.date(), // dueDate
+                            "Zakończone".equals(t.status()) ? t.date() : null, // completionDate
+                            t.assigneeLogin() != null ? t.assigneeLogin() : "Brak"
                     );
-                    // Logowanie każdego utworzonego TaskRecord
-                    logger.debug("Utworzono TaskRecord: taskName={}, position={}, priority={}, dueDate={}, completionDate={}, assignee={}",
-                            record.taskName(), record.position(), record.priority(),
-                            record.dueDate(), record.completionDate(), record.assignee());
-                    return record;
                 })
                 .toList();
 
-        logger.info("Po filtracji dat: {} zadań", filteredTasks.size());
+        logger.info("Pobrano {} zadań z okresu {} – {}", filteredTasks.size(), from, to);
         // Logowanie podsumowania listy TaskRecord
-        logger.debug("Podsumowanie TaskRecords: {}", filteredTasks.stream()
-                .map(r -> String.format("{taskName=%s, dueDate=%s, completionDate=%s," +
-                                " priority=%s, position=%s, assignee=%s}",
-                        r.taskName(), r.dueDate(), r.completionDate(), r.priority(),
-                        r.position(), r.assignee()))
-                .collect(Collectors.joining(", ")));
+        if (logger.isDebugEnabled()) {
+            logger.debug("Podsumowanie TaskRecords: {}", filteredTasks.stream()
+                    .map(r -> String.format("{taskName=%s, dueDate=%s, completionDate=%s," +
+                                    " priority=%s, position=%s, assignee=%s}",
+                            r.taskName(), r.dueDate(), r.completionDate(), r.priority(),
+                            r.position(), r.assignee()))
+                    .collect(Collectors.joining(", ")));
+        }
 
         return filteredTasks;
     }
@@ -1464,31 +1515,22 @@ public class AdminPanelController {
                                                                      LocalDate to) {
         logger.debug("Pobieranie danych dla raportu zadań od {} do {}", from, to);
 
-        EmpTaskRepository repo   = new EmpTaskRepository();
-        List<EmpTask>     source = repo.getAllTasksWithEmployeesAndAssignees();
-        logger.info("Pobrano {} zadań z repozytorium", source.size());
-
-        List<TaskRaportGenerator.TaskRecord> result = source.stream()
-                .filter(t -> inRange(t.getDate(), from, to))
-                .map(t -> {
-                    Employee assignee = t.getSingleAssignee();
-                    return new TaskRaportGenerator.TaskRecord(
-                            t.getName(),
-                            // dueDate
-                            toLocalDate(t.getDate()),
-                            // completionDate
-                            "Zakończone".equals(t.getStatus())
-                                    ? toLocalDate(t.getDate())
-                                    : null,
-                            // assignee
-                            assignee != null ? assignee.getLogin() : "Brak",
-                            // dbStatus  <- NOWE
-                            t.getStatus()
-                    );
-                })
+        EmpTaskRepository repo = new EmpTaskRepository();
+        List<TaskRaportGenerator.TaskRecord> result = repo.findReportRows(from, to).stream()
+                .map(t -> new TaskRaportGenerator.TaskRecord(
+                        t.name(),
+                        // dueDate
+                        t.date(),
+                        // completionDate
+                        "Zakończone".equals(t.status()) ? t.date() : null,
+                        // assignee
+                        t.assigneeLogin() != null ? t.assigneeLogin() : "Brak",
+                        // dbStatus
+                        t.status()
+                ))
                 .toList();
 
-        logger.info("Po filtracji dat: {} zadań", result.size());
+        logger.info("Pobrano {} zadań z okresu {} – {}", result.size(), from, to);
         return result;
     }
 
@@ -1514,50 +1556,13 @@ public class AdminPanelController {
     private List<WorkloadReportGenerator.EmployeeWorkload> fetchWorkloadData(LocalDate from,
                                                                              LocalDate to) {
         logger.debug("Pobieranie danych dla raportu obciążenia od {} do {}", from, to);
-        EmpTaskRepository repo = new EmpTaskRepository();
-        List<EmpTask> allTasks = repo.getAllTasksWithEmployeesAndAssignees();
-        logger.info("Pobrano {} zadań z repozytorium", allTasks.size());
-        List<WorkloadReportGenerator.EmployeeWorkload> workloadData = allTasks.stream()
-                .filter(t -> !t.getTaskEmployees().isEmpty()
-                        && t.getDurationOfTheShift() != null
-                        && inRange(t.getDate(), from, to))
-                .collect(Collectors.groupingBy(
-                        EmpTask::getSingleAssignee,
-                        Collectors.summingDouble(t -> hours(t.getDurationOfTheShift()))
-                ))
-                .entrySet().stream()
-                .map(e -> new WorkloadReportGenerator.EmployeeWorkload(
-                        e.getKey().getLogin(),
-                        e.getKey().getPosition(),
-                        e.getValue()
-                ))
-                .toList();
-        logger.info("Po filtracji i grupowaniu: dane dla {} pracowników",
+        List<WorkloadReportGenerator.EmployeeWorkload> workloadData =
+                new WorkloadRepository().getWorkloadData(from, to);
+        logger.info("Pobrano dane obciążenia dla {} pracowników",
                 workloadData.size());
         return workloadData;
     }
 
-    // =====================  METODY POMOCNICZE  ====================
-    private static boolean inRange(Date d, LocalDate from, LocalDate to) {
-        if (d == null) return false;
-        LocalDate ld = toLocalDate(d);
-        return (from == null || !ld.isBefore(from)) && (to == null || !ld.isAfter(to));
-    }
-
-    private static LocalDate toLocalDate(Date d) {
-        if (d instanceof java.sql.Date) {
-            return ((java.sql.Date) d).toLocalDate();
-        } else {
-            return d.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-        }
-    }
-
-    /** LocalTime → liczba godzin, np. 02:30 ⇒ 2.5 */
-    private static double hours(LocalTime t) {
-        return t.getHour() + t.getMinute() / 60d;
-    }
-
-
     /**
      * Wyświetla panel zgłoszeń technicznych.
      */
@@ -1588,7 +1593,7 @@ public class AdminPanelController {
                                 "Nie udało się załadować panelu zgłoszeń")
                 );
             });
-            executor.execute(task);
+            BackgroundTasks.execute(BackgroundTasks.Category.DATA_LOAD, task);
         } else {
             Platform.runLater(() -> {
                 adminPanel.setCenterPane(issuesPanelView);
@@ -1600,6 +1605,183 @@ public class AdminPanelController {
         }
     }
 
+    /**
+     * Wyświetla panel diagnostyki warstwy bazodanowej: czasy zapytań
+     * repozytoriów (p50/p95/p99), liczbę wierszy, czas życia
+     * EntityManagerów, ostatnie wolne zapytania, stan puli połączeń
+     * i skuteczność cache drugiego poziomu.
+     * Widok odświeża się automatycznie, dopóki jest wyświetlany.
+     */
+    public void showDiagnosticsPanel() {
+        logger.debug("showDiagnosticsPanel() – otwieranie panelu diagnostyki");
+        adminPanel.setCenterPane(createDiagnosticsView());
+    }
+
+    /**
+     * Tworzy widok diagnostyki oparty na {@link RepositoryMetrics}.
+     *
+     * @return VBox z tabelą metryk, listą wolnych zapytań i przyciskami
+     */
+    private VBox createDiagnosticsView() {
+        RepositoryMetrics metrics = RepositoryMetrics.getInstance();
+
+        VBox layout = new VBox(10);
+        layout.setPadding(new Insets(20));
+
+        Label title = new Label("Diagnostyka bazy danych");
+        title.setStyle("-fx-font-size: 14px; -fx-font-weight: bold;");
+
+        Label poolLabel = new Label();
+        poolLabel.setWrapText(true);
+
+        Label cacheLabel = new Label();
+        cacheLabel.setWrapText(true);
+
+        Label loadsLabel = new Label();
+        loadsLabel.setWrapText(true);
+
+        Label tasksLabel = new Label();
+        tasksLabel.setWrapText(true);
+
+        TableView<RepositoryMetrics.MethodStats> tbl = new TableView<>();
+        tbl.setMinHeight(200);
+        tbl.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+        TableColumn<RepositoryMetrics.MethodStats, String> methodCol =
+                new TableColumn<>("Metoda");
+        methodCol.setCellValueFactory(cd ->
+                new ReadOnlyObjectWrapper<>(cd.getValue().method()));
+        methodCol.setPrefWidth(220);
+
+        tbl.getColumns().add(methodCol);
+        tbl.getColumns().addAll(List.of(
+                metricsColumn("Zapytania", s -> s.queries(), false),
+                metricsColumn("Błędy", s -> s.errors(), false),
+                metricsColumn("Wiersze/zap.",
+                        RepositoryMetrics.MethodStats::rowsPerQuery, true),
+                metricsColumn("p50 [ms]",
+                        RepositoryMetrics.MethodStats::p50Millis, true),
+                metricsColumn("p95 [ms]",
+                        RepositoryMetrics.MethodStats::p95Millis, true),
+                metricsColumn("p99 [ms]",
+                        RepositoryMetrics.MethodStats::p99Millis, true),
+                metricsColumn("max [ms]",
+                        RepositoryMetrics.MethodStats::maxMillis, true),
+                metricsColumn("EM śr. [ms]",
+                        RepositoryMetrics.MethodStats::meanEntityManagerMillis,
+                        true)));
+
+        Label slowTitle = new Label("Wolne zapytania (próg "
+                + metrics.getSlowQueryThresholdMillis() + " ms)");
+        slowTitle.setStyle("-fx-font-weight: bold;");
+        ListView<String> slowList = new ListView<>();
+        slowList.setPrefHeight(120);
+
+        Runnable refresh = () -> {
+            tbl.getItems().setAll(metrics.snapshot());
+            slowList.getItems().setAll(metrics.getRecentSlowQueries().stream()
+                    .map(q -> String.format("%s  %s  %.1f ms  (%d wierszy)  %s",
+                            q.time().toLocalTime().withNano(0), q.method(),
+                            q.millis(), q.rows(), q.statement()))
+                    .collect(Collectors.toList()));
+            poolLabel.setText(ConnectionPool.getStatistics().toString());
+            cacheLabel.setText("Cache L2: " + SecondLevelCache.getStatistics()
+                    .stream()
+                    .map(r -> String.format("%s %.0f%% (%d/%d)", r.region(),
+                            r.hitRatio() * 100, r.hits(), r.hits() + r.misses()))
+                    .collect(Collectors.joining(", ")));
+            AsyncDataLoader loader = AsyncDataLoader.getInstance();
+            loadsLabel.setText("Ładowania paneli (w toku: "
+                    + loader.getActiveCount() + "): "
+                    + loader.getStatistics().stream()
+                    .limit(5)
+                    .map(l -> String.format("%s śr. %.0f ms, max %.0f ms",
+                            l.key(), l.meanMillis(), l.maxMillis()))
+                    .collect(Collectors.joining(", ")));
+            tasksLabel.setText("Zadania w tle: " + BackgroundTasks.getStatistics()
+                    .stream()
+                    .map(t -> String.format("%s %d/%d (kolejka %d, błędy %d)",
+                            t.category().label(), t.running(), t.limit(),
+                            t.queued(), t.failed()))
+                    .collect(Collectors.joining(", ")));
+        };
+        refresh.run();
+
+        Timeline autoRefresh = new Timeline(
+                new KeyFrame(DIAGNOSTICS_REFRESH, e -> refresh.run()));
+        autoRefresh.setCycleCount(Animation.INDEFINITE);
+        autoRefresh.play();
+        // Zatrzymanie odświeżania po przełączeniu na inny widok
+        layout.parentProperty().addListener((obs, oldParent, newParent) -> {
+            if (newParent == null) {
+                autoRefresh.stop();
+            }
+        });
+
+        Button refreshButton = new Button("Odśwież");
+        styleAdminButton(refreshButton, "#3498DB");
+        refreshButton.setOnAction(e -> refresh.run());
+
+        Button snapshotButton = new Button("Zapisz migawkę");
+        styleAdminButton(snapshotButton, "#2980B9");
+        snapshotButton.setOnAction(e -> BackgroundTasks.execute(
+                BackgroundTasks.Category.MAINTENANCE, () -> {
+            try {
+                Path file = metrics.writeSnapshot();
+                Platform.runLater(() -> showAlert(Alert.AlertType.INFORMATION,
+                        "Migawka zapisana",
+                        "Metryki dopisano do pliku: " + file.toAbsolutePath()));
+            } catch (IOException ex) {
+                logger.error("Nie udało się zapisać migawki metryk", ex);
+                Platform.runLater(() -> showAlert(Alert.AlertType.ERROR,
+                        "Błąd", "Nie udało się zapisać migawki metryk: "
+                                + ex.getMessage()));
+            }
+        }));
+
+        Button resetButton = new Button("Wyzeruj");
+        styleAdminButton(resetButton, "#E74C3C");
+        resetButton.setOnAction(e -> {
+            metrics.reset();
+            refresh.run();
+        });
+
+        HBox btnBox = new HBox(10, refreshButton, snapshotButton, resetButton);
+        btnBox.setAlignment(Pos.CENTER);
+
+        layout.getChildren().addAll(title, poolLabel, cacheLabel, loadsLabel,
+                tasksLabel, tbl, slowTitle, slowList, btnBox);
+        return layout;
+    }
+
+    /**
+     * Tworzy kolumnę liczbową tabeli metryk.
+     *
+     * @param header  nagłówek kolumny
+     * @param value   funkcja odczytująca wartość
+     * @param decimal czy wyświetlać jedno miejsce po przecinku
+     * @return kolumna tabeli
+     */
+    private static TableColumn<RepositoryMetrics.MethodStats, Number> metricsColumn(
+            String header,
+            ToDoubleFunction<RepositoryMetrics.MethodStats> value,
+            boolean decimal) {
+        TableColumn<RepositoryMetrics.MethodStats, Number> col =
+                new TableColumn<>(header);
+        col.setCellValueFactory(cd ->
+                new ReadOnlyObjectWrapper<>(value.applyAsDouble(cd.getValue())));
+        col.setCellFactory(c -> new TableCell<>() {
+            @Override
+            protected void updateItem(Number item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null
+                        : String.format(decimal ? "%.1f" : "%.0f",
+                        item.doubleValue()));
+            }
+        });
+        return col;
+    }
+
     /**
      * Pokazuje dialog z filtrami dla wskazanego raportu i okresu.
      * Po wybraniu filtrów wywołuje odpowiednią metodę generującą PDF.
@@ -1759,7 +1941,7 @@ public class AdminPanelController {
                     TechnicalIssue issue = getTableRow().getItem();
                     if (issue != null) {
                         issue.setStatus(cb.getValue());
-                        executor.execute(new Task<>() {
+                        BackgroundTasks.execute(BackgroundTasks.Category.UPDATE, new Task<>() {
                             @Override protected Void call() {
                                 technicalIssueRepository.updateIssue(issue);
                                 return null;
@@ -1799,24 +1981,17 @@ public class AdminPanelController {
     }
 
     /**
-     * Odświeża listę zgłoszeń technicznych.
+     * Odświeża listę zgłoszeń technicznych – ładuje pierwszą stronę,
+     * kolejne są doczytywane podczas przewijania tabeli.
      */
     private void refreshIssuesTable(TableView<TechnicalIssue> tbl) {
-        Task<List<TechnicalIssue>> task = new Task<>() {
-            @Override protected List<TechnicalIssue> call() {
-                return technicalIssueRepository.getAllIssues();
-            }
-        };
-        task.setOnSucceeded(e -> {
-            tbl.getItems().setAll(task.getValue());
-        });
-        task.setOnFailed(e -> {
-            task.getException().printStackTrace();
-            Platform.runLater(() ->
-                    showAlert(Alert.AlertType.ERROR, "Błąd", "Nie udało się pobrać zgłoszeń")
-            );
-        });
-        executor.execute(task);
+        if (issuesLoader == null) {
+            issuesLoader = new LazyTableLoader<>(tbl, technicalIssueRepository,
+                    Page.Sort.DESC)
+                    .onError(ex -> showAlert(Alert.AlertType.ERROR, "Błąd",
+                            "Nie udało się pobrać zgłoszeń"));
+        }
+        issuesLoader.reload();
     }
 
     /**
@@ -1847,7 +2022,8 @@ public class AdminPanelController {
      * Wylogowuje użytkownika i uruchamia okno logowania.
      */
     public void logout() {
-        // Zamknij połączenia z bazą danych
+        // Anuluj zadania w tle należące do sesji administratora
+        BackgroundTasks.cancelSessionTasks();
         Task<Void> closeTask = new Task<>() {
             @Override
             protected Void call() throws Exception {
@@ -1865,155 +2041,199 @@ public class AdminPanelController {
             }
         });
 
-        executor.execute(closeTask);
+        BackgroundTasks.execute(BackgroundTasks.Category.MAINTENANCE, closeTask);
     }
 
     /**
-     * Wykonuje backup bazy danych MySQL do pliku .sql.
-     * Obsługuje zarówno XAMPP, jak i standardową instalację
-     * MySQL na Windows, Linux i Mac OS.
+     * Wykonuje pełny backup bazy danych silnikiem JDBC
+     * ({@link DatabaseBackupEngine}) do skompresowanego pliku
+     * {@code .sql.gz} z sumą kontrolną – bez programu mysqldump.
      */
     private void performDatabaseBackup() {
-        Stage loaderStage = new Stage();
-        loaderStage.initOwner(primaryStage);
-        loaderStage.initModality(Modality.APPLICATION_MODAL);
-        loaderStage.initStyle(StageStyle.UNDECORATED);
-
-        VBox box = new VBox(10, new ProgressIndicator());
-        box.setPadding(new Insets(20));
-        box.setAlignment(Pos.CENTER);
-        loaderStage.setScene(new Scene(box));
-        loaderStage.setTitle("Backup bazy – trwa…");
-        loaderStage.show();
+        Stage loaderStage = showBusyWindow("Backup bazy – trwa…");
 
-        String os = System.getProperty("os.name").toLowerCase();
-        String mysqldumpPath;
-        try {
-            if (os.contains("win")) {
-                File programFiles = new File("C:\\Program Files\\MySQL");
-                File found = searchForMysqlDump(programFiles, "mysqldump.exe");
-                if (found != null && found.exists()) {
-                    mysqldumpPath = found.getAbsolutePath();
-                } else {
-                    File xampp = new File("C:\\xampp\\mysql\\bin\\mysqldump.exe");
-                    if (xampp.exists()) {
-                        mysqldumpPath = xampp.getAbsolutePath();
-                    } else {
-                        loaderStage.close();
-                        showAlert(Alert.AlertType.ERROR, "Nie znaleziono mysqldump.exe",
-                                "Nie znaleziono mysqldump ani w Program Files, ani w XAMPP.");
-                        return;
-                    }
-                }
-            } else if (os.contains("nix") || os.contains("nux") || os.contains("mac")) {
-                File[] paths = {
-                        new File("/usr/bin/mysqldump"),
-                        new File("/usr/local/bin/mysqldump"),
-                        new File("/usr/local/mysql/bin/mysqldump"),
-                        new File("/opt/mysql/bin/mysqldump")
-                };
-                File found = null;
-                for (File p : paths) if (p.exists()) { found = p; break; }
-                mysqldumpPath = (found != null) ? found.getAbsolutePath() : "mysqldump";
-            } else {
-                loaderStage.close();
-                showAlert(Alert.AlertType.ERROR, "Nieobsługiwany system",
-                        "System „" + os + "” nie jest obsługiwany.");
-                return;
+        Task<DatabaseBackupEngine.BackupResult> task = new Task<>() {
+            @Override
+            protected DatabaseBackupEngine.BackupResult call() throws Exception {
+                return DatabaseBackupEngine.backup();
             }
-        } catch (Exception ex) {
+        };
+
+        task.setOnSucceeded(ev -> {
             loaderStage.close();
-            logger.error("Błąd wyszukiwania mysqldump", ex);
-            showAlert(Alert.AlertType.ERROR, "Błąd", ex.getMessage());
+            DatabaseBackupEngine.BackupResult result = task.getValue();
+            showAlert(Alert.AlertType.INFORMATION, "Backup zakończony",
+                    result.describe() + "\nPlik zapisano w:\n"
+                            + result.file().toAbsolutePath());
+        });
+
+        task.setOnFailed(ev -> {
+            loaderStage.close();
+            Throwable ex = task.getException();
+            logger.error("Błąd backupu", ex);
+            showAlert(Alert.AlertType.ERROR, "Błąd backupu",
+                    (ex != null) ? ex.getMessage() : "Nieznany błąd");
+        });
+
+        BackgroundTasks.execute(BackgroundTasks.Category.EXPORT, task);
+    }
+
+    /**
+     * Pozwala wybrać plik backupu i po potwierdzeniu odtwarza z niego
+     * bazę (po sprawdzeniu sumy kontrolnej).
+     */
+    private void restoreDatabaseBackup() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Wybierz plik backupu");
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Backup bazy (*.sql.gz)", "*.sql.gz"));
+        File backupDir = new File("backups");
+        if (backupDir.isDirectory()) {
+            fileChooser.setInitialDirectory(backupDir);
+        }
+        File selected = fileChooser.showOpenDialog(primaryStage);
+        if (selected == null) {
             return;
         }
 
-        Task<Path> task = new Task<>() {
-            @Override
-            protected Path call() throws Exception {
-
-                String ts   = java.time.LocalDateTime.now().toString().replace(":", "-");
-                String name = "stonkadb-backup-" + ts + ".sql";
-
-                File backupDir = new File("backups");
-                if (!backupDir.exists()) backupDir.mkdirs();
-
-                File out = new File(backupDir, name);
-
-                ProcessBuilder pb = new ProcessBuilder(
-                        mysqldumpPath,
-                        "-u", org.example.database.ILacz.MYSQL_USER,
-                        "--password=" + org.example.database.ILacz.MYSQL_PASSWORD,
-                        "--routines",
-                        "--events",
-                        "--triggers",
-                        "--single-transaction",
-                        "--quick",
-                        "--skip-lock-tables",
-                        "--add-drop-database",
-                        "--add-drop-table",
-                        "--complete-insert",
-                        "--databases", org.example.database.ILacz.DB_NAME
-                );
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.getDialogPane().setMinWidth(350);
+        confirm.getDialogPane().setMinHeight(220);
+        confirm.setTitle("Potwierdzenie przywracania");
+        confirm.setHeaderText("Czy na pewno chcesz przywrócić bazę z backupu?");
+        confirm.setContentText("Bieżące dane zostaną zastąpione zawartością pliku "
+                + selected.getName() + ".");
+
+        confirm.showAndWait().ifPresent(response -> {
+            if (response != ButtonType.OK) {
+                return;
+            }
+            Stage loaderStage = showBusyWindow("Przywracanie bazy – trwa…");
+
+            Task<Long> task = new Task<>() {
+                @Override
+                protected Long call() throws Exception {
+                    return DatabaseBackupEngine.restore(selected.toPath());
+                }
+            };
 
-                String pwd = org.example.database.ILacz.MYSQL_PASSWORD;
-                if (pwd != null && !pwd.isEmpty()) pb.environment().put("MYSQL_PWD", pwd);
+            task.setOnSucceeded(ev -> {
+                loaderStage.close();
+                showAlert(Alert.AlertType.INFORMATION, "Przywracanie zakończone",
+                        "Wykonano " + task.getValue() + " poleceń SQL z pliku "
+                                + selected.getName());
+            });
+
+            task.setOnFailed(ev -> {
+                loaderStage.close();
+                Throwable ex = task.getException();
+                logger.error("Błąd przywracania bazy", ex);
+                showAlert(Alert.AlertType.ERROR, "Błąd przywracania",
+                        (ex != null) ? ex.getMessage() : "Nieznany błąd");
+            });
 
-                pb.redirectOutput(out);
-                pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+            BackgroundTasks.execute(BackgroundTasks.Category.EXPORT, task);
+        });
+    }
 
-                Process proc = pb.start();
-                if (proc.waitFor() != 0)
-                    throw new IOException("mysqldump zakończył się nie-zerowym kodem.");
+    /**
+     * Wykonuje kopię przyrostową ({@link IncrementalBackup}) i pokazuje
+     * jej rodzaj, rozmiar oraz czas trwania.
+     *
+     * @param forceFull true – wymusza pełną migawkę
+     */
+    private void performIncrementalBackup(boolean forceFull) {
+        Stage loaderStage = showBusyWindow("Backup przyrostowy – trwa…");
 
-                return out.toPath();
+        Task<IncrementalBackup.BackupResult> task = new Task<>() {
+            @Override
+            protected IncrementalBackup.BackupResult call() throws Exception {
+                return IncrementalBackup.backup(forceFull);
             }
         };
 
-        task.setOnSucceeded(ev -> Platform.runLater(() -> {
+        task.setOnSucceeded(ev -> {
             loaderStage.close();
-            Path p = task.getValue();
+            IncrementalBackup.BackupResult result = task.getValue();
             showAlert(Alert.AlertType.INFORMATION, "Backup zakończony",
-                    "Plik zapisano w:\n" + p.toAbsolutePath());
-        }));
+                    result.describe() + "\nFolder: "
+                            + result.file().getParent().toAbsolutePath());
+        });
 
-        task.setOnFailed(ev -> Platform.runLater(() -> {
+        task.setOnFailed(ev -> {
             loaderStage.close();
             Throwable ex = task.getException();
-            logger.error("Błąd backupu", ex);
+            logger.error("Błąd backupu przyrostowego", ex);
             showAlert(Alert.AlertType.ERROR, "Błąd backupu",
                     (ex != null) ? ex.getMessage() : "Nieznany błąd");
-        }));
+        });
 
-        new Thread(task, "BackupTask").start();
+        BackgroundTasks.execute(BackgroundTasks.Category.EXPORT, task);
     }
 
     /**
-     * Przeszukuje rekurencyjnie podany katalog w poszukiwaniu pliku
-     * o nazwie targetName.
-     * Zatrzymuje się po znalezieniu pierwszego pasującego pliku.
-     *
-     * @param dir        Katalog początkowy, od którego rozpoczyna się
-     *                   przeszukiwanie
-     * @param targetName Nazwa szukanego pliku (np. "mysqldump.exe"),
-     *                   bez względu na wielkość liter
+     * Po potwierdzeniu odtwarza bazę z najnowszej pełnej kopii
+     * i późniejszych przyrostów.
      */
-    private File searchForMysqlDump(File dir, String targetName) {
-        File[] files = dir.listFiles();
-        if (files == null) return null;
+    private void restoreIncrementalBackup() {
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.getDialogPane().setMinWidth(350);
+        confirm.getDialogPane().setMinHeight(220);
+        confirm.setTitle("Potwierdzenie przywracania");
+        confirm.setHeaderText("Czy na pewno chcesz przywrócić bazę z backupu?");
+        confirm.setContentText("Bieżące dane zostaną zastąpione stanem "
+                + "z ostatniej kopii przyrostowej.");
 
-        for (File file : files) {
-            try {
-                if (file.isDirectory() && !file.isHidden()) {
-                    File result = searchForMysqlDump(file, targetName);
-                    if (result != null) return result;
-                } else if (file.getName().equalsIgnoreCase(targetName)) {
-                    return file;
-                }
-            } catch (SecurityException ignored) {
+        confirm.showAndWait().ifPresent(response -> {
+            if (response != ButtonType.OK) {
+                return;
             }
-        }
-        return null;
+            Stage loaderStage = showBusyWindow("Przywracanie bazy – trwa…");
+
+            Task<IncrementalBackup.RestoreResult> task = new Task<>() {
+                @Override
+                protected IncrementalBackup.RestoreResult call() throws Exception {
+                    return IncrementalBackup.restoreLatest();
+                }
+            };
+
+            task.setOnSucceeded(ev -> {
+                loaderStage.close();
+                showAlert(Alert.AlertType.INFORMATION, "Przywracanie zakończone",
+                        task.getValue().describe());
+            });
+
+            task.setOnFailed(ev -> {
+                loaderStage.close();
+                Throwable ex = task.getException();
+                logger.error("Błąd przywracania bazy", ex);
+                showAlert(Alert.AlertType.ERROR, "Błąd przywracania",
+                        (ex != null) ? ex.getMessage() : "Nieznany błąd");
+            });
+
+            BackgroundTasks.execute(BackgroundTasks.Category.EXPORT, task);
+        });
+    }
+
+    /**
+     * Pokazuje modalne okno z animacją oczekiwania.
+     *
+     * @param title tytuł okna
+     * @return otwarte okno (do zamknięcia po zakończeniu operacji)
+     */
+    private Stage showBusyWindow(String title) {
+        Stage loaderStage = new Stage();
+        loaderStage.initOwner(primaryStage);
+        loaderStage.initModality(Modality.APPLICATION_MODAL);
+        loaderStage.initStyle(StageStyle.UNDECORATED);
+
+        VBox box = new VBox(10, new ProgressIndicator(), new Label(title));
+        box.setPadding(new Insets(20));
+        box.setAlignment(Pos.CENTER);
+        loaderStage.setScene(new Scene(box));
+        loaderStage.setTitle(title);
+        loaderStage.show();
+        return loaderStage;
     }
 
     /**
@@ -2146,9 +2366,8 @@ public class AdminPanelController {
 
             // 7. Odświeżamy ComboBox z adresami i ustawiamy nowo dodany
             // adres jako wybrany
-            List<Address> updatedList = repo.getAllAddresses();
-            addressComboBox.getItems().clear();
-            addressComboBox.getItems().addAll(updatedList);
+            AsyncDataLoader.getInstance().loadCombo("AdminPanel.addresses",
+                    addressComboBox, repo::getAllAddresses);
             addressComboBox.setValue(newAddress);
 
             stage.close();
@@ -0,0 +1,272 @@
+/*
+ * Classname: AsyncDataLoader
+ * Version information: 1.2
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.gui;
+
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableView;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.sys.BackgroundTasks;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Wspólna usługa ładowania danych dla paneli GUI.
+ * <p>
+ * Zapytania do repozytoriów wykonywane są w tle, a wynik trafia
+ * do wątku JavaFX. Każde ładowanie ma klucz (np.
+ * {@code "ManagerPanel.tasks"}); nowe ładowanie z tym samym kluczem
+ * anuluje poprzednie, a spóźniony wynik zastąpionego ładowania jest
+ * odrzucany. Na czas ładowania tabele i listy wyboru pokazują
+ * wskaźnik postępu. Dla każdego klucza zbierany jest czas ładowania
+ * oraz liczba błędów i anulowań ({@link #getStatistics()}).
+ * </p>
+ * <p>
+ * Zapytania wykonuje {@link BackgroundTasks} w kategorii
+ * {@code DATA_LOAD}, więc trwające ładowania są anulowane przy
+ * wylogowaniu. Metody {@code load*} należy wywoływać w wątku JavaFX.
+ * </p>
+ */
+final class AsyncDataLoader {
+
+    private static final Logger logger =
+            LogManager.getLogger(AsyncDataLoader.class);
+
+    private static final AsyncDataLoader INSTANCE = new AsyncDataLoader();
+
+    private static final String LOADING_PROMPT = "Ładowanie...";
+
+    /**
+     * Statystyki ładowań o jednym kluczu.
+     *
+     * @param key        klucz ładowania
+     * @param loads      liczba zakończonych ładowań
+     * @param failed     liczba ładowań zakończonych błędem
+     * @param cancelled  liczba ładowań zastąpionych nowszymi
+     * @param meanMillis średni czas ładowania
+     * @param maxMillis  najdłuższe ładowanie
+     * @param lastMillis czas ostatniego ładowania
+     */
+    record LoadStats(String key, long loads, long failed, long cancelled,
+                     double meanMillis, double maxMillis, double lastMillis) {
+    }
+
+    /**
+     * Liczniki jednego klucza.
+     */
+    private static final class Counters {
+        final LongAdder loads = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder cancelled = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final AtomicLong lastNanos = new AtomicLong();
+    }
+
+    private final Map<String, Task<?>> active = new ConcurrentHashMap<>();
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    private AsyncDataLoader() {
+    }
+
+    /**
+     * @return współdzielona instancja usługi
+     */
+    static AsyncDataLoader getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Wykonuje zapytanie w tle, anulując poprzednie ładowanie
+     * o tym samym kluczu.
+     *
+     * @param key      klucz ładowania
+     * @param query    zapytanie wykonywane poza wątkiem JavaFX
+     * @param onLoaded obsługa wyniku (wątek JavaFX)
+     * @param onFailed obsługa błędu (wątek JavaFX)
+     * @param <T>      typ wyniku
+     * @return zadanie ładowania
+     */
+    <T> Task<T> load(String key, Callable<T> query, Consumer<T> onLoaded,
+                     Consumer<Throwable> onFailed) {
+        Counters c = counters.computeIfAbsent(key, k -> new Counters());
+        long start = System.nanoTime();
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return query.call();
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if (active.remove(key, task)) {
+                record(key, c, System.nanoTime() - start);
+                onLoaded.accept(task.getValue());
+            }
+        });
+        task.setOnFailed(e -> {
+            if (active.remove(key, task)) {
+                c.failed.increment();
+                record(key, c, System.nanoTime() - start);
+                logger.error("load() – błąd ładowania {}", key,
+                        task.getException());
+                onFailed.accept(task.getException());
+            }
+        });
+        // Zadania anulowane z zewnątrz (np. przy wylogowaniu) też
+        // muszą zwolnić klucz
+        task.setOnCancelled(e -> {
+            if (active.remove(key, task)) {
+                c.cancelled.increment();
+                logger.debug("load() – ładowanie {} anulowane", key);
+            }
+        });
+        Task<?> previous = active.put(key, task);
+        if (previous != null && previous.cancel(true)) {
+            c.cancelled.increment();
+            logger.debug("load() – ładowanie {} zastąpione nowszym", key);
+        }
+        BackgroundTasks.execute(BackgroundTasks.Category.DATA_LOAD, task);
+        return task;
+    }
+
+    /**
+     * Ładuje wiersze tabeli. Na czas ładowania tabela jest czyszczona
+     * i pokazuje wskaźnik postępu, a w razie błędu – komunikat.
+     *
+     * @param key   klucz ładowania
+     * @param table tabela do wypełnienia
+     * @param query zapytanie zwracające wiersze
+     * @param <T>   typ wierszy
+     * @return zadanie ładowania
+     */
+    <T> Task<List<T>> loadTable(String key, TableView<T> table,
+                                Callable<List<T>> query) {
+        Node placeholder = table.getPlaceholder();
+        if (placeholder instanceof ProgressIndicator
+                || placeholder instanceof LoadError) {
+            placeholder = null;
+        }
+        Node original = placeholder;
+        table.getItems().clear();
+        table.setPlaceholder(progressPlaceholder());
+        return load(key, query,
+                rows -> {
+                    table.setPlaceholder(original);
+                    table.getItems().setAll(rows);
+                },
+                ex -> table.setPlaceholder(new LoadError()));
+    }
+
+    /**
+     * Ładuje pozycje listy wyboru. Na czas ładowania lista jest
+     * zablokowana i pokazuje podpowiedź „Ładowanie...”; po błędzie
+     * jest odblokowywana z komunikatem błędu.
+     *
+     * @param key   klucz ładowania
+     * @param combo lista wyboru
+     * @param query zapytanie zwracające pozycje
+     * @param <T>   typ pozycji
+     * @return zadanie ładowania
+     */
+    <T> Task<List<T>> loadCombo(String key, ComboBox<T> combo,
+                                Callable<List<T>> query) {
+        String current = combo.getPromptText();
+        String prompt = LOADING_PROMPT.equals(current) ? null : current;
+        combo.setDisable(true);
+        combo.setPromptText(LOADING_PROMPT);
+        return load(key, query,
+                items -> {
+                    combo.getItems().setAll(items);
+                    combo.setPromptText(prompt);
+                    combo.setDisable(false);
+                },
+                ex -> {
+                    combo.setPromptText("Błąd ładowania danych");
+                    combo.setDisable(false);
+                });
+    }
+
+    /**
+     * Anuluje trwające ładowanie o podanym kluczu.
+     *
+     * @param key klucz ładowania
+     */
+    void cancel(String key) {
+        Task<?> task = active.remove(key);
+        if (task != null && task.cancel(true)) {
+            counters.computeIfAbsent(key, k -> new Counters())
+                    .cancelled.increment();
+        }
+    }
+
+    /**
+     * @return liczba trwających ładowań
+     */
+    int getActiveCount() {
+        return active.size();
+    }
+
+    /**
+     * Zwraca statystyki ładowań, posortowane malejąco według
+     * średniego czasu.
+     *
+     * @return lista statystyk
+     */
+    List<LoadStats> getStatistics() {
+        List<LoadStats> out = new ArrayList<>();
+        counters.forEach((key, c) -> {
+            long n = c.loads.sum();
+            out.add(new LoadStats(key, n, c.failed.sum(), c.cancelled.sum(),
+                    n == 0 ? 0.0 : c.totalNanos.sum() / (n * 1_000_000.0),
+                    c.maxNanos.get() / 1_000_000.0,
+                    c.lastNanos.get() / 1_000_000.0));
+        });
+        out.sort(Comparator.comparingDouble(LoadStats::meanMillis).reversed());
+        return out;
+    }
+
+    private void record(String key, Counters c, long nanos) {
+        c.loads.increment();
+        c.totalNanos.add(nanos);
+        c.lastNanos.set(nanos);
+        c.maxNanos.accumulateAndGet(nanos, Math::max);
+        logger.debug("load() – {} wczytane w {} ms", key, nanos / 1_000_000);
+    }
+
+    /**
+     * @return wskaźnik postępu do użycia jako placeholder tabeli
+     */
+    static Node progressPlaceholder() {
+        ProgressIndicator progress = new ProgressIndicator();
+        progress.setMaxSize(50, 50);
+        return progress;
+    }
+
+    /**
+     * Komunikat wyświetlany w tabeli po nieudanym ładowaniu.
+     */
+    private static final class LoadError extends Label {
+        LoadError() {
+            super("Nie udało się wczytać danych");
+            setStyle("-fx-text-fill: #E74C3C;");
+        }
+    }
+}
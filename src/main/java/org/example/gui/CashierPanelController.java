@@ -1,7 +1,7 @@
 /*
  * Classname: CashierPanelController
- * Version information: 1.12
- * Date: 2025-06-07
+ * Version information: 1.23
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -9,12 +9,15 @@ package org.example.gui;
 
 import javafx.animation.FadeTransition;
 import javafx.animation.ParallelTransition;
+import javafx.animation.PauseTransition;
 import javafx.animation.TranslateTransition;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -27,9 +30,12 @@ import javafx.stage.Stage;
 import javafx.util.Duration;
 import javafx.util.converter.IntegerStringConverter;
 import org.example.database.*;
+import org.example.database.ReportRepository.ReportSummary;
 import org.example.sys.*;
+import org.example.wyjatki.CheckoutException;
 
 import org.example.pdflib.ConfigManager;
+import org.example.pdflib.SalesRollupReportGenerator;
 import pdf.SalesReportGenerator;
 import org.hibernate.Session;
 import org.apache.logging.log4j.LogManager;
@@ -53,16 +59,32 @@ public class CashierPanelController {
     private final ReportRepository reportRepository;
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
+    private final CheckoutService checkoutService;
     private boolean reportGeneratedInCurrentSession = false;
 
+    /**
+     * Raporty zalogowanego pracownika zapamiętane na czas sesji.
+     */
+    private ReportSessionCache reportCache;
+
     // Ścieżka do katalogu z raportami
     private static final String REPORTS_DIRECTORY = "reports";
 
+    // Opóźnienie wyszukiwania po ostatnim naciśnięciu klawisza
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(150);
+
+    // Maksymalna liczba produktów pokazywanych w wynikach wyszukiwania
+    private static final int MAX_SEARCH_RESULTS = 500;
+
+    // Liczba pozycji sprzedaży pobieranych jedną paczką do raportu
+    private static final int REPORT_CHUNK_SIZE = 1_000;
+
     public CashierPanelController(CashierPanel cashierPanel) {
         this.cashierPanel = cashierPanel;
         this.reportRepository = new ReportRepository();
         this.transactionRepository = new TransactionRepository();
         this.userRepository = new UserRepository();
+        this.checkoutService = new CheckoutService();
         this.reportGeneratedInCurrentSession = false;
 
         // Utworzenie katalogu na raporty, jeśli nie istnieje
@@ -204,7 +226,7 @@ public class CashierPanelController {
         Label titleLabel = new Label("Raporty sprzedaży");
         titleLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
 
-        TableView<Report> tableView = createReportTable();
+        TableView<ReportSummary> tableView = createReportTable();
         tableView.setPrefHeight(400);
         VBox.setVgrow(tableView, Priority.ALWAYS);
 
@@ -225,8 +247,10 @@ public class CashierPanelController {
     /**
      * Odświeża tabelę raportów, pokazując tylko
      * te wygenerowane przez aktualnego pracownika.
+     * Raporty są doczytywane stronami z bazy (filtr po pracowniku
+     * wykonywany w zapytaniu) i zapamiętywane w {@link ReportSessionCache}.
      */
-    private void refreshReportTable(TableView<Report> tableView) {
+    private void refreshReportTable(TableView<ReportSummary> tableView) {
 
         if (tableView == null) {
             return;
@@ -238,15 +262,27 @@ public class CashierPanelController {
             return;
         }
 
-        List<Report> allReports = reportRepository.getAllReports();
-        List<Report> filtered = new ArrayList<>();
-        for (Report r : allReports) {
-            if (r.getEmployee() !=
-                    null && r.getEmployee().getId() == currentEmployee.getId()) {
-                filtered.add(r);
-            }
+        new LazyTableLoader<>(tableView, reportCache(currentEmployee),
+                Page.Sort.DESC)
+                .onError(ex -> showNotification("Błąd",
+                        "Nie udało się pobrać raportów."))
+                .reload();
+    }
+
+    /**
+     * Zwraca pamięć raportów bieżącej sesji, tworząc ją przy pierwszym
+     * użyciu lub po zmianie zalogowanego pracownika.
+     *
+     * @param current zalogowany pracownik
+     * @return pamięć raportów pracownika
+     */
+    private synchronized ReportSessionCache reportCache(Employee current) {
+        if (reportCache == null
+                || reportCache.getEmployeeId() != current.getId()) {
+            reportCache = new ReportSessionCache(reportRepository,
+                    current.getId());
         }
-        tableView.setItems(FXCollections.observableArrayList(filtered));
+        return reportCache;
     }
 
     /**
@@ -272,7 +308,7 @@ public class CashierPanelController {
      * @param tableView referencja do tabeli raportów,
      *                  którą odświeżamy po zatwierdzeniu
      */
-    private void showReportDialog(TableView<Report> tableView) {
+    private void showReportDialog(TableView<ReportSummary> tableView) {
         Stage dialog = createStyledDialog("Generowanie raportu sprzedaży");
         dialog.setMinWidth(500);
         dialog.setMinHeight(450);
@@ -293,10 +329,16 @@ public class CashierPanelController {
         ListView<String> categoryListView = new ListView<>();
         categoryListView.setPrefHeight(150);
         categoryListView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
-        ProductRepository productRepo = new ProductRepository();
-        categoryListView.setItems(FXCollections.observableArrayList(
-                productRepo.getCategories()));
-        productRepo.close();
+        categoryListView.setPlaceholder(new Label("Ładowanie..."));
+        AsyncDataLoader.getInstance().load("CashierPanel.reportCategories",
+                () -> {
+                    try (ProductRepository productRepo = new ProductRepository()) {
+                        return productRepo.getCategories();
+                    }
+                },
+                categories -> categoryListView.getItems().setAll(categories),
+                ex -> categoryListView.setPlaceholder(
+                        new Label("Nie udało się wczytać kategorii")));
 
         Button generateBtn = cashierPanel.createStyledButton("Generuj raport",
                 "#2980B9");
@@ -316,38 +358,53 @@ public class CashierPanelController {
                 return;
             }
 
+            final PeriodType periodType;
             try {
-                PeriodType periodType = getPeriodTypeFromString(reportTypeStr);
-                LocalDate[] dates = calculateReportDates(periodType, selectedDate);
-
-                Date d1 = Date.from(dates[0].atStartOfDay(ZoneId.systemDefault()).toInstant());
-                Date d2 = Date.from(dates[1].atTime(23,59,59).atZone(
-                        ZoneId.systemDefault()).toInstant());
-                List<Transaction> transactions =
-                        transactionRepository.getTransactionsBetweenDates(d1, d2);
-
-                if (transactions.isEmpty()) {
-                    saveEmptyReportInfo(periodType, dates[0], dates[1]);
+                periodType = getPeriodTypeFromString(reportTypeStr);
+            } catch (IllegalArgumentException ex) {
+                showNotification("Błąd", ex.getMessage());
+                return;
+            }
+            LocalDate[] dates = calculateReportDates(periodType, selectedDate);
+
+            // Raport generowany w tle – pula PDF ogranicza liczbę
+            // równoczesnych renderowań
+            Task<String> reportTask = new Task<>() {
+                @Override
+                protected String call() throws Exception {
+                    Date d1 = Date.from(dates[0].atStartOfDay(ZoneId.systemDefault()).toInstant());
+                    Date d2 = Date.from(dates[1].atTime(23,59,59).atZone(
+                            ZoneId.systemDefault()).toInstant());
+                    if (transactionRepository.countTransactionsBetweenDates(d1, d2) == 0) {
+                        saveEmptyReportInfo(periodType, dates[0], dates[1]);
+                        return null;
+                    }
+                    String reportPath = generateSalesReport(periodType, dates[0],
+                            dates[1], selectedCategories);
+                    saveReportInfo(periodType, dates[0], dates[1], reportPath);
+                    return reportPath;
+                }
+            };
+            reportTask.setOnSucceeded(ev -> {
+                String reportPath = reportTask.getValue();
+                if (reportPath == null) {
                     showNotification("Brak danych", "Nie znaleziono transakcji w wybranym okresie.");
-                    // Od razu odświeżamy tabelę raportów:
-                    refreshReportTable(tableView);
-                    dialog.close();
-                    return;
+                } else {
+                    showNotification("Sukces", "Raport zapisano: " + reportPath);
                 }
-
-                String reportPath = generateSalesReport(periodType, dates[0],
-                        dates[1], selectedCategories);
-                saveReportInfo(periodType, dates[0], dates[1], reportPath);
-                showNotification("Sukces", "Raport zapisano: " + reportPath);
-                // Po udanym wygenerowaniu od razu odświeżamy tabelę w panelu kasjera:
+                // Po zapisaniu od razu odświeżamy tabelę w panelu kasjera:
                 refreshReportTable(tableView);
-
                 dialog.close();
-            } catch (Exception ex) {
-                ex.printStackTrace();
+            });
+            reportTask.setOnFailed(ev -> {
+                Throwable ex = reportTask.getException();
+                log.error("Nie udało się wygenerować raportu", ex);
+                generateBtn.setDisable(false);
                 showNotification("Błąd",
                         "Nie udało się wygenerować raportu: " + ex.getMessage());
-            }
+            });
+            generateBtn.setDisable(true);
+            BackgroundTasks.execute(BackgroundTasks.Category.PDF, reportTask);
         });
 
         cancelBtn.setOnAction(e -> dialog.close());
@@ -389,6 +446,7 @@ public class CashierPanelController {
         report.setReportType(periodType.getDisplayName() + " (brak danych)");
         report.setFilePath("");
         reportRepository.addReport(report);
+        cacheReport(current, report);
         reportGeneratedInCurrentSession = true;
     }
 
@@ -429,41 +487,55 @@ public class CashierPanelController {
         report.setReportType(periodType.getDisplayName());
         report.setFilePath(reportPath);
         reportRepository.addReport(report);
+        cacheReport(current, report);
         reportGeneratedInCurrentSession = true;
         log.info("Zapisano raport – flaga " +
                 "reportGeneratedInCurrentSession ustawiona na true.");
     }
 
+    /**
+     * Dopisuje zapisany raport do pamięci raportów sesji. Raport, którego
+     * nie udało się zapisać (brak identyfikatora), jest pomijany.
+     */
+    private void cacheReport(Employee current, Report report) {
+        if (report.getId() > 0) {
+            reportCache(current).add(ReportSummary.of(report));
+        }
+    }
+
     /**
      * Tworzy tabelę raportów z kolumnami i przyciskami akcji.
      */
-    private TableView<Report> createReportTable() {
-        TableView<Report> tableView = new TableView<>();
+    private TableView<ReportSummary> createReportTable() {
+        TableView<ReportSummary> tableView = new TableView<>();
         tableView.setMinHeight(300);   // lub inna wartość, np. 350
 
-        TableColumn<Report, Integer> idColumn = new TableColumn<>("ID");
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
+        TableColumn<ReportSummary, Integer> idColumn = new TableColumn<>("ID");
+        idColumn.setCellValueFactory(cellData ->
+                new SimpleObjectProperty<>(cellData.getValue().id()));
         idColumn.setPrefWidth(50);
 
-        TableColumn<Report, String> typeColumn = new TableColumn<>("Typ raportu");
-        typeColumn.setCellValueFactory(new PropertyValueFactory<>("reportType"));
+        TableColumn<ReportSummary, String> typeColumn = new TableColumn<>("Typ raportu");
+        typeColumn.setCellValueFactory(cellData ->
+                new SimpleStringProperty(cellData.getValue().reportType()));
         typeColumn.setPrefWidth(120);
 
-        TableColumn<Report, LocalDate> dateStartColumn = new TableColumn<>("Od");
-        dateStartColumn.setCellValueFactory(new PropertyValueFactory<>("startDate"));
+        TableColumn<ReportSummary, LocalDate> dateStartColumn = new TableColumn<>("Od");
+        dateStartColumn.setCellValueFactory(cellData ->
+                new SimpleObjectProperty<>(cellData.getValue().startDate()));
         dateStartColumn.setPrefWidth(100);
 
-        TableColumn<Report, LocalDate> dateEndColumn = new TableColumn<>("Do");
-        dateEndColumn.setCellValueFactory(new PropertyValueFactory<>("endDate"));
+        TableColumn<ReportSummary, LocalDate> dateEndColumn = new TableColumn<>("Do");
+        dateEndColumn.setCellValueFactory(cellData ->
+                new SimpleObjectProperty<>(cellData.getValue().endDate()));
         dateEndColumn.setPrefWidth(100);
 
-        TableColumn<Report, String> employeeColumn = new TableColumn<>("Wygenerował");
+        TableColumn<ReportSummary, String> employeeColumn = new TableColumn<>("Wygenerował");
         employeeColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getEmployee().getName() + " " +
-                        cellData.getValue().getEmployee().getSurname()));
+                new SimpleStringProperty(cellData.getValue().employeeName()));
         employeeColumn.setPrefWidth(150);
 
-        TableColumn<Report, Void> actionsColumn = new TableColumn<>("Akcje");
+        TableColumn<ReportSummary, Void> actionsColumn = new TableColumn<>("Akcje");
         actionsColumn.setPrefWidth(200);
         actionsColumn.setCellFactory(param -> new TableCell<>() {
             private final Button viewButton = new Button("Podgląd");
@@ -477,17 +549,17 @@ public class CashierPanelController {
                 deleteButton.setStyle("-fx-background-color: #E74C3C; -fx-text-fill: white;");
 
                 viewButton.setOnAction(event -> {
-                    Report report = getTableView().getItems().get(getIndex());
+                    ReportSummary report = getTableView().getItems().get(getIndex());
                     showReportDetails(report);
                 });
 
                 openButton.setOnAction(event -> {
-                    Report report = getTableView().getItems().get(getIndex());
-                    openReportFile(report.getFilePath());
+                    ReportSummary report = getTableView().getItems().get(getIndex());
+                    openReportFile(report.filePath());
                 });
 
                 deleteButton.setOnAction(event -> {
-                    Report report = getTableView().getItems().get(getIndex());
+                    ReportSummary report = getTableView().getItems().get(getIndex());
                     confirmAndDeleteReport(report, getTableView());
                 });
             }
@@ -523,7 +595,7 @@ public class CashierPanelController {
         log.info("Próba otwarcia raportu: {}, system: {}", filePath, os);
 
         // Użyj wątku w tle aby nie blokować interfejsu użytkownika
-        new Thread(() -> {
+        BackgroundTasks.execute(BackgroundTasks.Category.FILE_OPEN, () -> {
             try {
                 boolean success = false;
 
@@ -615,10 +687,11 @@ public class CashierPanelController {
                 javafx.application.Platform.runLater(() ->
                         showNotification("Błąd", "Nie można otworzyć pliku: " + e.getMessage()));
             }
-        }).start();
+        });
     }
 
-    private void confirmAndDeleteReport(Report report, TableView<Report> tableView) {
+    private void confirmAndDeleteReport(ReportSummary report,
+                                        TableView<ReportSummary> tableView) {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Potwierdzenie usunięcia");
         alert.setHeaderText("Czy na pewno chcesz usunąć ten raport?");
@@ -628,19 +701,22 @@ public class CashierPanelController {
 
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            reportRepository.removeReport(report.getId());
+            reportRepository.removeReport(report.id());
+            if (reportCache != null) {
+                reportCache.remove(report.id());
+            }
             refreshReportTable(tableView);
             showNotification("Sukces", "Raport został usunięty.");
         }
     }
 
-    private void showReportDetails(Report report) {
+    private void showReportDetails(ReportSummary report) {
         Stage dialog = createStyledDialog("Szczegóły raportu");
 
         VBox content = new VBox(10);
         content.setPadding(new Insets(20));
 
-        Label titleLabel = new Label("Raport ID: " + report.getId());
+        Label titleLabel = new Label("Raport ID: " + report.id());
         titleLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
 
         GridPane infoGrid = new GridPane();
@@ -648,20 +724,19 @@ public class CashierPanelController {
         infoGrid.setVgap(10);
         int row = 0;
         infoGrid.add(new Label("Typ raportu:"), 0, row);
-        infoGrid.add(new Label(report.getReportType()), 1, row++);
+        infoGrid.add(new Label(report.reportType()), 1, row++);
         infoGrid.add(new Label("Okres:"), 0, row);
-        infoGrid.add(new Label(report.getStartDate() + " - " + report.getEndDate()),
+        infoGrid.add(new Label(report.startDate() + " - " + report.endDate()),
                 1, row++);
         infoGrid.add(new Label("Wygenerował:"), 0, row);
-        infoGrid.add(new Label(report.getEmployee().getName() + " " +
-                report.getEmployee().getSurname()), 1, row++);
+        infoGrid.add(new Label(report.employeeName()), 1, row++);
         infoGrid.add(new Label("Ścieżka pliku:"), 0, row);
-        infoGrid.add(new Label(report.getFilePath()), 1, row++);
+        infoGrid.add(new Label(report.filePath()), 1, row++);
 
         HBox buttonBox = new HBox(10);
         Button openButton = cashierPanel.createStyledButton("Otwórz plik", "#27AE60");
         Button closeButton = cashierPanel.createStyledButton("Zamknij", "#7F8C8D");
-        openButton.setOnAction(e -> openReportFile(report.getFilePath()));
+        openButton.setOnAction(e -> openReportFile(report.filePath()));
         closeButton.setOnAction(e -> dialog.close());
         buttonBox.getChildren().addAll(openButton, closeButton);
         buttonBox.setAlignment(Pos.CENTER_RIGHT);
@@ -696,35 +771,47 @@ public class CashierPanelController {
         priceCol.setCellValueFactory(new PropertyValueFactory<>("price"));
         priceCol.setStyle("-fx-alignment: CENTER-RIGHT;");
 
+        ProductRepository productRepo = new ProductRepository();
+        ProductSearchIndex searchIndex = productRepo.getSearchIndex();
+        ObservableList<Product> productList =
+                FXCollections.observableArrayList(searchIndex.getProducts());
+        productRepo.close();
+
+        // Stany wszystkich produktów pobieramy jednym zapytaniem,
+        // aby przewijanie i filtrowanie nie odpytywało bazy dla każdego wiersza
+        WarehouseRepository warehouseRepo = new WarehouseRepository();
+        StockSnapshot stock = warehouseRepo.snapshot(
+                productList.stream().map(Product::getId).toList());
+        warehouseRepo.close();
+
         // Kolumna „Stan” – wartości wyrównujemy do prawej:
         TableColumn<Product, Integer> stockCol = new TableColumn<>("Stan");
-        stockCol.setCellValueFactory(cd -> {
-            Product p = cd.getValue();
-            int qty = getAvailableQuantity(p);
-            return new SimpleIntegerProperty(qty).asObject();
-        });
+        stockCol.setCellValueFactory(cd ->
+                new SimpleIntegerProperty(
+                        stock.getQuantity(cd.getValue().getId())).asObject());
         stockCol.setStyle("-fx-alignment: CENTER-RIGHT;");
 
         table.getColumns().addAll(idCol, nameCol, categoryCol, priceCol, stockCol);
-
-        ProductRepository productRepo = new ProductRepository();
-        ObservableList<Product> productList =
-                FXCollections.observableArrayList(productRepo.getAllProducts());
-        productRepo.close();
         table.setItems(productList);
 
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> {
-            ObservableList<Product> filtered = FXCollections.observableArrayList();
-            for (Product p : productList) {
-                if (newVal == null || newVal.isEmpty()
-                        || p.getName().toLowerCase().contains(newVal.toLowerCase())
-                        || p.getCategory().toLowerCase().contains(newVal.toLowerCase())) {
-                    filtered.add(p);
-                }
+        // Wyszukiwanie w indeksie uruchamiamy dopiero po krótkiej przerwie
+        // w pisaniu, aby szybkie wpisywanie nie filtrowało po każdym znaku
+        PauseTransition debounce = new PauseTransition(SEARCH_DEBOUNCE);
+        debounce.setOnFinished(ev -> {
+            String query = searchField.getText();
+            if (query == null || query.isBlank()) {
+                table.setItems(productList);
+                return;
             }
-            table.setItems(filtered);
-            table.refresh();
+            long start = System.nanoTime();
+            List<Product> found = searchIndex.search(query, MAX_SEARCH_RESULTS);
+            log.debug("Wyszukiwanie \"{}\" – {} wyników w {} µs", query,
+                    found.size(),
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            table.setItems(FXCollections.observableArrayList(found));
         });
+        searchField.textProperty().addListener((obs, oldVal, newVal) ->
+                debounce.playFromStart());
 
         return table;
     }
@@ -805,42 +892,29 @@ public class CashierPanelController {
 
     private void saveTransaction(ObservableList<TransactionItem> items,
                                  Stage dialog) {
-        try {
-            Employee current = userRepository.getCurrentEmployee();
-            if (current == null) {
-                showNotification("Błąd", "Nie jesteś zalogowany.");
-                return;
-            }
+        Employee current = userRepository.getCurrentEmployee();
+        if (current == null) {
+            showNotification("Błąd", "Nie jesteś zalogowany.");
+            return;
+        }
 
-            // 1) Zapisz transakcję
-            Transaction tx = new Transaction();
-            tx.setEmployee(current);
-            tx.setDate(new Date());
-            transactionRepository.addTransaction(tx);
-            int txId = tx.getId();
-
-            // 2) Aktualizuj stan magazynowy i zapisuj pozycje
-            WarehouseRepository whRepo = new WarehouseRepository();
-            for (TransactionItem item : items) {
-                int pid = item.getProduct().getId();
-                int qty = item.getQuantity();
-                int avail = whRepo.findStateByProductId(pid).getQuantity();
-                whRepo.setProductQuantity(pid, avail - qty);
-
-                TransactionProduct tp = new TransactionProduct();
-                tp.setTransaction(transactionRepository.findTransactionById(txId));
-                tp.setProduct(item.getProduct());
-                tp.setQuantity(qty);
-
-                TransactionProductRepository tpRepo = new TransactionProductRepository();
-                tpRepo.addTransactionProduct(tp);
-            }
+        // Nagłówek, pozycje i stany magazynowe w jednej transakcji
+        List<CheckoutService.CheckoutLine> lines = new ArrayList<>();
+        for (TransactionItem item : items) {
+            lines.add(new CheckoutService.CheckoutLine(
+                    item.getProduct().getId(), item.getQuantity()));
+        }
+
+        try {
+            CheckoutService.CheckoutResult result =
+                    checkoutService.checkout(current, lines);
+            log.info("Transakcja {} zapisana w {} ms",
+                    result.getTransactionId(), result.getElapsedMillis());
 
             showNotification("Sukces", "Transakcja zapisana pomyślnie.");
             dialog.close();
-
-        } catch (Exception e) {
-            e.printStackTrace();
+        } catch (CheckoutException e) {
+            log.warn("Nie udało się zapisać transakcji: {}", e.getMessage());
             showNotification("Błąd", "Wystąpił błąd podczas zapisu: " + e.getMessage());
         }
     }
@@ -1010,9 +1084,11 @@ public class CashierPanelController {
 
             // Zresetuj flagę po pomyślnym zamknięciu zmiany
             reportGeneratedInCurrentSession = false;
+            reportCache = null;
 
             // Wyloguj użytkownika
             userRepository.resetCurrentEmployee();
+            BackgroundTasks.cancelSessionTasks();
             Stage primaryStage = cashierPanel.getPrimaryStage();
             primaryStage.close();
             HelloApplication.showLoginScreen(primaryStage);
@@ -1223,30 +1299,33 @@ public class CashierPanelController {
                                        LocalDate endDate,
                                        List<String> categories) throws Exception {
 
-        List<SalesReportGenerator.SalesRecord> salesData =
-                getSalesDataForReport(startDate, endDate);
-        if (salesData.isEmpty()) {
+        // Raporty miesięczne i roczne korzystają z dziennych agregatów,
+        // raport dzienny pokazuje pojedyncze transakcje
+        List<SalesReportGenerator.SalesRecord> salesData = List.of();
+        SalesRollupReportGenerator.SalesRollup rollup = null;
+        if (periodType == PeriodType.DAILY) {
+            salesData = getSalesDataForReport(startDate, endDate, categories);
+        } else {
+            rollup = new SalesRollupRepository().getSalesRollup(
+                    startDate, endDate, categories);
+        }
+        if (rollup != null ? rollup.rows().isEmpty() : salesData.isEmpty()) {
             throw new SalesReportGenerator.NoDataException("Brak danych transakcji");
         }
 
         String logoPath = ConfigManager.getLogoPath();
         if (logoPath == null || logoPath.isBlank()) {
-            // Jeżeli nie ustawiono żadnej ścieżki, pokaż komunikat i przerwij
-            showNotification("Błąd",
+            // Jeżeli nie ustawiono żadnej ścieżki, przerwij – komunikat
+            // pokaże obsługa błędu zadania
+            throw new IllegalStateException(
                     "Brak skonfigurowanego logo. Ustaw logo w panelu administratora.");
-            throw new IllegalStateException("Brak logo w konfiguracji");
         }
         File logoFile = new File(logoPath);
         if (!logoFile.exists() || !logoFile.isFile()) {
             // Ścieżka jest pusta lub plik nie istnieje
-            showNotification("Błąd", "Plik logo nie istnieje: " + logoPath);
-            throw new IllegalStateException("Plik logo nie został odnaleziony: " + logoPath);
+            throw new IllegalStateException("Plik logo nie istnieje: " + logoPath);
         }
 
-        SalesReportGenerator gen = new SalesReportGenerator();
-        gen.setSalesData(salesData);
-        gen.setLogoPath(logoPath);
-
         // Pobierz ścieżkę z konfiguracji
         String outputDir = ConfigManager.getReportPath();
         if (outputDir == null || outputDir.trim().isEmpty()) {
@@ -1270,33 +1349,42 @@ public class CashierPanelController {
                 endDate.format(DateTimeFormatter.BASIC_ISO_DATE));
         String outputPath = outputDir + File.separator + fileName;
 
-        pdf.SalesReportGenerator.PeriodType pdfType = toPdfPeriodType(periodType);
-        gen.generateReport(outputPath, pdfType, categories ==
-                null ? List.of() : categories);
+        List<String> reportCategories = categories == null ? List.of() : categories;
+        if (rollup != null) {
+            SalesRollupReportGenerator gen = new SalesRollupReportGenerator();
+            gen.setSalesData(rollup);
+            gen.setLogoPath(logoPath);
+            gen.generateReport(outputPath, startDate, endDate,
+                    periodType.getDisplayName(), reportCategories);
+        } else {
+            SalesReportGenerator gen = new SalesReportGenerator();
+            gen.setSalesData(salesData);
+            gen.setLogoPath(logoPath);
+            pdf.SalesReportGenerator.PeriodType pdfType = toPdfPeriodType(periodType);
+            gen.generateReport(outputPath, pdfType, reportCategories);
+        }
 
         return new File(outputPath).getAbsolutePath();
     }
 
+    /**
+     * Pobiera pozycje sprzedaży strumieniowo, paczkami po
+     * {@value #REPORT_CHUNK_SIZE} rekordów, bez ładowania encji transakcji.
+     */
     private List<SalesReportGenerator.SalesRecord> getSalesDataForReport(LocalDate startDate,
-                                                                         LocalDate endDate) {
+                                                                         LocalDate endDate,
+                                                                         List<String> categories) {
         Date d1 = Date.from(startDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
         Date d2 = Date.from(endDate.atTime(23,59,59).atZone(
                 ZoneId.systemDefault()).toInstant());
 
-        List<Transaction> txs =
-                transactionRepository.getTransactionsBetweenDates(d1, d2);
         List<SalesReportGenerator.SalesRecord> out = new ArrayList<>();
-        for (Transaction tx : txs) {
-            LocalDateTime txTime = LocalDateTime.ofInstant(
-                    Instant.ofEpochMilli(tx.getDate().getTime()), ZoneId.systemDefault());
-            for (TransactionProduct tp : tx.getTransactionProducts()) {
-                Product p = tp.getProduct();
-                int qty = tp.getQuantity();
-                out.add(new SalesReportGenerator.SalesRecord(
-                        tx.getId(), txTime, p.getName(), p.getCategory(),
-                        qty, qty * p.getPrice().doubleValue()));
-            }
-        }
+        TransactionRepository.StreamStats stats =
+                transactionRepository.streamSalesRecords(d1, d2, categories,
+                        REPORT_CHUNK_SIZE, out::addAll);
+        log.info("Dane raportu sprzedaży: {} pozycji w {} ms ({} wierszy/s)",
+                stats.getRows(), stats.getElapsedMillis(),
+                Math.round(stats.getRowsPerSecond()));
         return out;
     }
 
@@ -1354,36 +1442,30 @@ public class CashierPanelController {
         }
 
         reportGeneratedInCurrentSession = false;
+        reportCache = null;
         log.info("Wylogowanie zakończone. Flaga raportu zresetowana do false.");
 
         userRepository.resetCurrentEmployee();
+        BackgroundTasks.cancelSessionTasks();
         Stage stage = cashierPanel.getPrimaryStage();
         stage.close();
         HelloApplication.showLoginScreen(stage);
     }
 
     /**
-     * Ustawia status „completed” dla WSZYSTKICH zadań przypisanych bieżącemu
-     * pracownikowi i rozpoczętych DZISIAJ.  Aktualizacja odbywa się w jednej
-     * transakcji na każdym rekordzie, dzięki czemu zmiany są trwałe.
+     * Zamyka zmianę pracownika: wszystkim jego zadaniom z dzisiejszego dnia
+     * ustawia czas zakończenia, czas trwania i status „Zakończone”.
+     * Całość wykonywana jest jedną transakcją w
+     * {@link TaskEmployeeRepository#closeShift(int, LocalDate)}.
      */
     public void completeAllTasksForEmployee(int employeeId) {
         try (TaskEmployeeRepository repo = new TaskEmployeeRepository()) {
-
-            List<TaskEmployee> todays =
-                    repo.findEmployeeTasksForDate(employeeId, LocalDate.now());
-
-            log.info("completeAllTasksForEmployee() – zamykam {} zadań pracownika {} ({}).",
-                    todays.size(), employeeId, LocalDate.now());
-
-            for (TaskEmployee te : todays) {
-                // ustawiamy czas zakończenia, obliczamy czas trwania i status
-                te.setEndTime(LocalDateTime.now());
-                te.getTask().setStatus("completed"); // aktualizujemy encję Task
-
-                repo.updateTaskStatus(te.getTask().getId(), "Zakończone");
-                // zapis w bazie
-            }
+            TaskEmployeeRepository.ShiftCloseResult result =
+                    repo.closeShift(employeeId, LocalDate.now());
+            log.info("completeAllTasksForEmployee() – pracownik {}: zamknięto {} "
+                            + "przypisań i {} zadań w {} ms.", employeeId,
+                    result.assignments(), result.tasks(),
+                    result.elapsedNanos() / 1_000_000);
         }
     }
 }
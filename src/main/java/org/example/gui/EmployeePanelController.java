@@ -1,13 +1,12 @@
 /*
  * Classname: EmployeePanelController
- * Version information: 1.7
- * Date: 2025-06-07
+ * Version information: 1.10
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
 package org.example.gui;
 
-import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -21,15 +20,13 @@ import org.example.database.EmpTaskRepository;
 import org.example.database.TaskEmployeeRepository;
 import org.example.database.UserRepository;
 import org.example.database.TechnicalIssueRepository;
+import org.example.sys.BackgroundTasks;
 import org.example.sys.EmpTask;
 import org.example.sys.Employee;
 import org.example.sys.TechnicalIssue;
 
 import java.time.LocalDate;
-import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Kontroler odpowiedzialny za logikę widoku panelu pracownika.
@@ -81,15 +78,10 @@ public class EmployeePanelController {
         if (current != null) {
             int empId = current.getId();
             TaskEmployeeRepository teRepo = new TaskEmployeeRepository();
-            EmpTaskRepository taskRepo = new EmpTaskRepository();
 
-            List<EmpTask> tasks = teRepo.findByEmployee(empId).stream()
-                    .map(te -> taskRepo.findTaskById(te.getId().getTaskId()))
-                    .filter(Objects::nonNull)
-                    .filter(t -> !"Zakończone".equalsIgnoreCase(t.getStatus()))
-                    .collect(Collectors.toList());
-
-            taskTable.setItems(FXCollections.observableArrayList(tasks));
+            // jedno zapytanie o otwarte zadania (z cache pracownika)
+            AsyncDataLoader.getInstance().loadTable("EmployeePanel.tasks",
+                    taskTable, () -> teRepo.findOpenTasksForEmployee(empId));
         }
 
         Button updateStatusButton = new Button("Zaktualizuj status");
@@ -253,6 +245,7 @@ public class EmployeePanelController {
      * Wylogowuje użytkownika i uruchamia ekran logowania.
      */
     public void logout() {
+        BackgroundTasks.cancelSessionTasks();
         primaryStage.close();
         Stage loginStage = new Stage();
         try {
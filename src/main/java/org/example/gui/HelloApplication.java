@@ -1,7 +1,7 @@
 /*
  * Classname: HelloApplication
- * Version information: 1.6
- * Date: 2025-06-07
+ * Version information: 1.9
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -34,6 +34,7 @@ import org.apache.logging.log4j.Logger;
 import org.example.database.DatabaseErrorHandler;
 import org.example.database.EMFProvider;
 import org.example.database.UserRepository;
+import org.example.sys.BackgroundTasks;
 import org.example.sys.ConfigPdf;
 import org.example.sys.Employee;
 import org.example.sys.Login;
@@ -41,7 +42,7 @@ import org.example.sys.PasswordHasher;
 
 import java.io.InputStream;
 import java.sql.SQLException;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -182,6 +183,10 @@ public class HelloApplication extends Application {
                 switch (event.getCode()) {
                     case ENTER:
                         logger.debug("ENTER wciśnięty – próba logowania");
+                        if (!StartupBootstrap.getInstance().loginReady().isDone()) {
+                            logger.debug("Rozruch w toku – logowanie jeszcze niedostępne");
+                            break;
+                        }
                         try {
                             Login.attemptLogin(
                                     loginField.getText(),
@@ -263,6 +268,8 @@ public class HelloApplication extends Application {
 
             bottomButtonBox.getChildren().addAll(exitButton);
 
+            VBox startupBox = createStartupProgress(loginButton, resetPasswordButton);
+
             logger.debug("Dodawanie elementów do głównego kontenera");
             root.getChildren().addAll(
                     imageView,
@@ -270,7 +277,8 @@ public class HelloApplication extends Application {
                     welcomeLabel,
                     grid,
                     topButtonBox,
-                    bottomButtonBox
+                    bottomButtonBox,
+                    startupBox
             );
 
             logger.debug("Konfiguracja animacji");
@@ -289,7 +297,8 @@ public class HelloApplication extends Application {
 
             logger.debug("Wywoływanie primaryStage.show()");
             primaryStage.show();
-            logger.debug("primaryStage.show() wykonane");
+            logger.info("Ekran logowania wyświetlony po {} ms od startu",
+                    StartupBootstrap.getInstance().elapsedMillis());
 
         } catch (Exception e) {
             logger.error("BŁĄD KRYTYCZNY w start(): {}", e.getMessage(), e);
@@ -305,6 +314,61 @@ public class HelloApplication extends Application {
         logger.debug("Koniec metody start()");
     }
 
+    /**
+     * Tworzy pasek postępu rozruchu w tle. Do czasu zakończenia faz
+     * potrzebnych do logowania przyciski korzystające z bazy są
+     * wyłączone; błąd bazy lub Hibernate jest zgłaszany jako krytyczny.
+     *
+     * @param dbButtons przyciski wymagające gotowej bazy
+     * @return kontener z paskiem i opisem postępu (ukryty po starcie)
+     */
+    private VBox createStartupProgress(Button... dbButtons) {
+        StartupBootstrap bootstrap = StartupBootstrap.getInstance();
+        ProgressBar progressBar = new ProgressBar(bootstrap.getProgress());
+        progressBar.setPrefWidth(300);
+        Label statusLabel = new Label(bootstrap.describe());
+        VBox box = new VBox(5, progressBar, statusLabel);
+        box.setAlignment(Pos.CENTER);
+
+        CompletableFuture<Void> ready = bootstrap.loginReady();
+        if (ready.isDone() && !ready.isCompletedExceptionally()) {
+            box.setVisible(false);
+            box.setManaged(false);
+            return box;
+        }
+        for (Button button : dbButtons) {
+            button.setDisable(true);
+        }
+
+        Runnable listener = () -> Platform.runLater(() -> {
+            progressBar.setProgress(bootstrap.getProgress());
+            statusLabel.setText(bootstrap.describe());
+        });
+        bootstrap.addListener(listener);
+
+        ready.whenComplete((v, error) -> Platform.runLater(() -> {
+            bootstrap.removeListener(listener);
+            if (error != null) {
+                statusLabel.setText("Nie udało się uruchomić bazy danych");
+                DatabaseErrorHandler.showDatabaseError(
+                        StartupBootstrap.unwrap(error),
+                        "Błąd inicjalizacji bazy danych",
+                        "Nie można zainicjalizować bazy danych",
+                        true  // Krytyczny błąd - zamyka aplikację
+                );
+                return;
+            }
+            for (Button button : dbButtons) {
+                button.setDisable(false);
+            }
+            box.setVisible(false);
+            box.setManaged(false);
+            logger.info("Logowanie dostępne po {} ms od startu",
+                    bootstrap.elapsedMillis());
+        }));
+        return box;
+    }
+
     /**
      * Wyświetla komunikat o błędzie bazy danych i zamyka aplikację.
      *
@@ -791,49 +855,9 @@ public class HelloApplication extends Application {
         });
 
         try {
-            logger.info("Próba inicjalizacji bazy danych");
-            try {
-                org.example.database.DatabaseInitializer.initialize();
-                logger.info("Baza danych zainicjalizowana pomyślnie");
-            } catch (Exception e) {
-                logger.error("BŁĄD podczas inicjalizacji bazy danych: {}", e.getMessage(), e);
-
-                // Użyj nowego handlera błędów bazy danych
-                DatabaseErrorHandler.showDatabaseError(
-                        e,
-                        "Błąd inicjalizacji bazy danych",
-                        "Nie można zainicjalizować bazy danych",
-                        true  // Krytyczny błąd - zamyka aplikację
-                );
-                return; // Zakończ metodę main, aplikacja zostanie zamknięta przez handler
-            }
-
-            // Migracja haseł
-            try {
-                logger.info("Rozpoczynam migrację haseł pracowników");
-                UserRepository userRepo = new UserRepository();
-                List<Employee> all = userRepo.getAllEmployees();
-                for (Employee emp : all) {
-                    String raw = emp.getPassword();
-                    if (raw != null && !raw.matches("[0-9a-f]{64}")) {
-                        String hashed = PasswordHasher.hashPassword(raw, emp.getId());
-                        emp.setPassword(hashed);
-                        userRepo.updateEmployee(emp);
-                        logger.debug("Zhashowano i zaktualizowano pracownika id={}", emp.getId());
-                    }
-                }
-                logger.info("Migracja haseł zakończona");
-            } catch (Exception ex) {
-                logger.error("BŁĄD podczas migracji haseł: {}", ex.getMessage(), ex);
-
-                // Użyj nowego handlera błędów bazy danych
-                DatabaseErrorHandler.showDatabaseError(
-                        ex,
-                        "Błąd migracji haseł",
-                        "Wystąpił błąd podczas migracji haseł",
-                        false  // Niekrytyczny błąd - daje opcję kontynuacji
-                );
-            }
+            // Inicjalizacja bazy, Hibernate i migracje danych ruszają
+            // w tle – ekran logowania pojawia się od razu
+            StartupBootstrap.getInstance().start();
 
             Platform.setImplicitExit(true);
             logger.info("Uruchamianie aplikacji JavaFX");
@@ -865,7 +889,11 @@ public class HelloApplication extends Application {
         }
 
         logger.info("Koniec metody main()");
-        EMFProvider.close();
+        BackgroundTasks.shutdown();
+        // Bez udanego rozruchu fabryka nie istnieje – nie twórz jej przy zamykaniu
+        if (StartupBootstrap.getInstance().isEmfStarted()) {
+            EMFProvider.close();
+        }
     }
 
     /**
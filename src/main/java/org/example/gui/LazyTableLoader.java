@@ -0,0 +1,215 @@
+/*
+ * Classname: LazyTableLoader
+ * Version information: 1.1
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.gui;
+
+import javafx.application.Platform;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.example.database.Page;
+import org.example.database.PagedRepository;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Doczytuje zawartość tabeli stronami z {@link PagedRepository}
+ * w miarę przewijania, zamiast ładować wszystkie rekordy naraz.
+ * <p>
+ * Strony pobierane są w tle przez {@link AsyncDataLoader}; kolejna
+ * strona jest żądana, gdy pionowy pasek przewijania zbliży się do końca
+ * lub gdy załadowane wiersze nie wypełniają jeszcze widoku. Ładowanie
+ * zastąpione przez {@link #reload()} jest anulowane, a jego wynik
+ * odrzucany.
+ * </p>
+ *
+ * @param <T> typ wierszy tabeli
+ */
+final class LazyTableLoader<T> {
+
+    private static final Logger logger =
+            LogManager.getLogger(LazyTableLoader.class);
+
+    /** Domyślny rozmiar strony. */
+    static final int DEFAULT_PAGE_SIZE = 100;
+
+    /** Pozycja paska (ułamek maksimum), od której doczytujemy dalej. */
+    private static final double LOAD_THRESHOLD = 0.9;
+
+    private final TableView<T> table;
+    private final PagedRepository<T> repository;
+    private final Page.Sort sort;
+    private final int pageSize;
+    private final String loadKey;
+    private final Node placeholder;
+
+    private Consumer<Throwable> onError = ex -> { };
+    private ScrollBar scrollBar;
+    private Long cursor;
+    private boolean hasNext = true;
+    private boolean loading;
+    private long generation;
+
+    /**
+     * Tworzy loader z domyślnym rozmiarem strony.
+     *
+     * @param table      tabela do wypełnienia
+     * @param repository źródło stron
+     * @param sort       kierunek sortowania
+     */
+    LazyTableLoader(TableView<T> table, PagedRepository<T> repository,
+                    Page.Sort sort) {
+        this(table, repository, sort, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * @param table      tabela do wypełnienia
+     * @param repository źródło stron
+     * @param sort       kierunek sortowania
+     * @param pageSize   liczba wierszy pobieranych jednorazowo
+     */
+    LazyTableLoader(TableView<T> table, PagedRepository<T> repository,
+                    Page.Sort sort, int pageSize) {
+        this.table = table;
+        this.repository = repository;
+        this.sort = sort;
+        this.pageSize = pageSize;
+        this.loadKey = repository.getClass().getSimpleName() + ".findPage";
+        this.placeholder = table.getPlaceholder();
+        if (table.getSkin() != null) {
+            hookScrollBar();
+        }
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            if (newSkin != null) {
+                Platform.runLater(this::hookScrollBar);
+            }
+        });
+    }
+
+    /**
+     * Ustawia reakcję na błąd ładowania strony (wywoływaną w wątku FX).
+     *
+     * @param onError obsługa błędu
+     * @return ten loader
+     */
+    LazyTableLoader<T> onError(Consumer<Throwable> onError) {
+        this.onError = onError;
+        return this;
+    }
+
+    /**
+     * Czyści tabelę i ładuje pierwszą stronę. Trwające ładowanie
+     * poprzedniej zawartości zostaje zignorowane.
+     */
+    void reload() {
+        generation++;
+        cursor = null;
+        hasNext = true;
+        loading = false;
+        table.getItems().clear();
+        table.setPlaceholder(AsyncDataLoader.progressPlaceholder());
+        loadNextPage();
+    }
+
+    /**
+     * Zastępuje zawartość tabeli listą spoza stronicowania (np. wynikiem
+     * filtra) i wstrzymuje doczytywanie do następnego {@link #reload()}.
+     *
+     * @param items wiersze do wyświetlenia
+     */
+    void showItems(List<T> items) {
+        AsyncDataLoader.getInstance().cancel(loadKey);
+        generation++;
+        hasNext = false;
+        loading = false;
+        table.setPlaceholder(placeholder);
+        table.getItems().setAll(items);
+    }
+
+    /**
+     * Pobiera w tle kolejną stronę, o ile istnieje i żadna nie jest
+     * właśnie ładowana.
+     */
+    void loadNextPage() {
+        if (loading || !hasNext) {
+            return;
+        }
+        loading = true;
+        long requested = generation;
+        Long from = cursor;
+        AsyncDataLoader.getInstance().load(loadKey,
+                () -> repository.findPage(from, pageSize, sort),
+                page -> {
+                    if (requested != generation) {
+                        return;
+                    }
+                    table.setPlaceholder(placeholder);
+                    table.getItems().addAll(page.getItems());
+                    cursor = page.getNextCursor();
+                    hasNext = page.hasNext();
+                    loading = false;
+                    logger.debug("loadNextPage() – {} wierszy, razem {}",
+                            page.getItems().size(), table.getItems().size());
+                    if (hasNext && !viewportFilled()) {
+                        loadNextPage();
+                    }
+                },
+                ex -> {
+                    if (requested != generation) {
+                        return;
+                    }
+                    loading = false;
+                    table.setPlaceholder(placeholder);
+                    onError.accept(ex);
+                });
+    }
+
+    /**
+     * Podpina nasłuch pionowego paska przewijania tabeli.
+     */
+    private void hookScrollBar() {
+        if (scrollBar != null) {
+            return;
+        }
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar
+                    && bar.getOrientation() == Orientation.VERTICAL) {
+                scrollBar = bar;
+                bar.valueProperty().addListener((obs, oldV, newV) -> {
+                    if (newV.doubleValue() >= bar.getMax() * LOAD_THRESHOLD) {
+                        loadNextPage();
+                    }
+                });
+                bar.visibleProperty().addListener((obs, was, visible) -> {
+                    if (!visible) {
+                        loadNextPage();
+                    }
+                });
+                if (!bar.isVisible()) {
+                    loadNextPage();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Przed wyświetleniem tabeli (brak paska) zakłada, że widok jest
+     * wypełniony – dalsze strony zostaną dociągnięte po podpięciu paska.
+     *
+     * @return true, jeśli wiersze wypełniają widok (pasek jest widoczny)
+     */
+    private boolean viewportFilled() {
+        return scrollBar == null || scrollBar.isVisible();
+    }
+}
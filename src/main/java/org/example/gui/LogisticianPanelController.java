@@ -1,7 +1,7 @@
 /*
  * Classname: LogisticianPanelController
- * Version information: 1.7
- * Date: 2025-06-07
+ * Version information: 1.12
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -10,6 +10,7 @@ package org.example.gui;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -141,25 +142,24 @@ public class LogisticianPanelController {
      * @param table tabela do wypełnienia danymi
      */
     private void refreshStockTable(TableView<StockRow> table) {
-        try {
-            Map<Integer,Integer> qtyById = warehouseRepository.getAllStates()
-                    .stream()
-                    .collect(Collectors.toMap(Warehouse::getProductId,
-                            Warehouse::getQuantity));
-
-            List<StockRow> rows = productRepository.getAllProducts().stream()
-                    .filter(p -> qtyById.containsKey(p.getId()))
-                    .map(p -> new StockRow(
-                            p.getId(),
-                            p.getName(),
-                            qtyById.getOrDefault(p.getId(),0)))
-                    .toList();
-
-            table.setItems(FXCollections.observableArrayList(rows));
-        } catch (Exception ex) {
-            logger.error("Błąd ładowania stanów",ex);
-            showAlert(ERROR,"Błąd","Nie udało się pobrać stanów magazynowych");
-        }
+        // stany i produkty pobierane równolegle
+        AsyncDataLoader.getInstance().loadTable("LogisticianPanel.stock", table,
+                () -> BackgroundTasks.fanOut(BackgroundTasks.Category.DATA_LOAD,
+                        warehouseRepository::getAllStates,
+                        productRepository::getAllProducts,
+                        (states, products) -> {
+                            Map<Integer,Integer> qtyById = states.stream()
+                                    .collect(Collectors.toMap(Warehouse::getProductId,
+                                            Warehouse::getQuantity));
+
+                            return products.stream()
+                                    .filter(p -> qtyById.containsKey(p.getId()))
+                                    .map(p -> new StockRow(
+                                            p.getId(),
+                                            p.getName(),
+                                            qtyById.getOrDefault(p.getId(),0)))
+                                    .toList();
+                        }));
     }
 
     /**
@@ -198,9 +198,11 @@ public class LogisticianPanelController {
         tableView.getColumns().addAll(idCol, productCol, employeeCol,
                 qtyCol, priceCol, dateCol);
 
-        OrderRepository orderRepo = new OrderRepository();
-        List<Order> orders = orderRepo.getAllOrders();
-        tableView.setItems(FXCollections.observableArrayList(orders));
+        LazyTableLoader<Order> ordersLoader = new LazyTableLoader<>(
+                tableView, new OrderRepository(), Page.Sort.DESC)
+                .onError(ex -> showAlert(ERROR, "Błąd",
+                        "Nie udało się pobrać zamówień"));
+        ordersLoader.reload();
 
         Button addOrderButton = new Button("Dodaj zamówienie");
         styleLogisticButton(addOrderButton, "#27AE60");
@@ -208,14 +210,11 @@ public class LogisticianPanelController {
 
         Button filterButton = new Button("Filtruj");
         styleLogisticButton(filterButton, "#2980B9");
-        filterButton.setOnAction(e -> showFilterOrderDialog(tableView));
+        filterButton.setOnAction(e -> showFilterOrderDialog(ordersLoader));
 
         Button refreshBtn = new Button("Odśwież");
         styleLogisticButton(refreshBtn, "#3498DB");
-        refreshBtn.setOnAction(e ->
-                tableView.setItems(FXCollections.observableArrayList(
-                        new OrderRepository().getAllOrders()))
-        );
+        refreshBtn.setOnAction(e -> ordersLoader.reload());
 
         HBox btnBox = new HBox(10, addOrderButton, filterButton, refreshBtn);
         btnBox.setAlignment(Pos.CENTER_RIGHT);
@@ -227,11 +226,12 @@ public class LogisticianPanelController {
     /**
      * Otwiera prosty dialog filtrowania zamówień po ID zamówienia i
      * ID produktu.
-     * Po zatwierdzeniu zastępuje zawartość tabeli wyfiltrowanymi rekordami.
+     * Po zatwierdzeniu zastępuje zawartość tabeli wyfiltrowanymi rekordami,
+     * pobranymi zapytaniem po kluczu zamiast filtrowania wszystkich zamówień.
      *
-     * @param tableView tabela zamówień, która ma zostać przefiltrowana
+     * @param ordersLoader loader tabeli zamówień, która ma zostać przefiltrowana
      */
-    private void showFilterOrderDialog(TableView<Order> tableView) {
+    private void showFilterOrderDialog(LazyTableLoader<Order> ordersLoader) {
         Stage stage = new Stage();
         stage.setTitle("Filtrowanie zamówień");
 
@@ -249,30 +249,40 @@ public class LogisticianPanelController {
         Button filterButton = new Button("Filtruj");
         styleLogisticButton(filterButton, "#27AE60");
         filterButton.setOnAction(ev -> {
-            ObservableList<Order> base =
-                    FXCollections.observableArrayList(new OrderRepository().getAllOrders());
-
-            ObservableList<Order> out = base.filtered(o -> {
+            OrderRepository repo = new OrderRepository();
+            List<Order> base;
+            try {
                 if (!idField.getText().isBlank()) {
-                    try {
-                        if (o.getId() != Integer.parseInt(idField.getText().trim()))
-                            return false;
-                    } catch (NumberFormatException ex) {
-                        return false;
-                    }
+                    Order found = repo.findOrderById(
+                            Integer.parseInt(idField.getText().trim()));
+                    base = found == null ? List.of() : List.of(found);
+                } else if (!productIdField.getText().isBlank()) {
+                    base = repo.findOrdersByProductId(
+                            Integer.parseInt(productIdField.getText().trim()));
+                } else {
+                    ordersLoader.reload();
+                    stage.close();
+                    return;
                 }
-                if (!productIdField.getText().isBlank()) {
-                    try {
-                        if (o.getProduct().getId() != Integer.parseInt(productIdField.getText().trim()))
+            } catch (NumberFormatException ex) {
+                base = List.of();
+            }
+
+            List<Order> out = base.stream()
+                    .filter(o -> {
+                        if (productIdField.getText().isBlank()) {
+                            return true;
+                        }
+                        try {
+                            return o.getProduct().getId() == Integer.parseInt(
+                                    productIdField.getText().trim());
+                        } catch (NumberFormatException ex) {
                             return false;
-                    } catch (NumberFormatException ex) {
-                        return false;
-                    }
-                }
-                return true;
-            });
+                        }
+                    })
+                    .toList();
 
-            tableView.setItems(out);
+            ordersLoader.showItems(out);
             stage.close();
         });
 
@@ -323,11 +333,12 @@ public class LogisticianPanelController {
 
         Label categoriesLabel = new Label("Wybierz kategorie:");
         ListView<String> categoriesList = new ListView<>();
-        try {
-            categoriesList.getItems().addAll(productRepository.getCategories());
-        } catch (Exception ex) {
-            logger.error("Błąd pobierania kategorii", ex);
-        }
+        categoriesList.setPlaceholder(new Label("Ładowanie..."));
+        AsyncDataLoader.getInstance().load("LogisticianPanel.reportCategories",
+                productRepository::getCategories,
+                categories -> categoriesList.getItems().setAll(categories),
+                ex -> categoriesList.setPlaceholder(
+                        new Label("Nie udało się wczytać kategorii")));
         categoriesList.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
 
         Label thresholdLabel = new Label("Próg niskiego stanu magazynowego:");
@@ -346,7 +357,8 @@ public class LogisticianPanelController {
                 handleGenerateButton(
                         new ArrayList<>(categoriesList.getSelectionModel().getSelectedItems()),
                         thresholdSpinner.getValue(),
-                        stage
+                        stage,
+                        generate
                 )
         );
 
@@ -382,14 +394,18 @@ public class LogisticianPanelController {
      * Generuje raport magazynowy na podstawie
      * wybranych kategorii i progu niskiego stanu.
      * Zapisuje go w katalogu zdefiniowanym w ConfigManager.
+     * Dane są pobierane, a PDF renderowany w tle w puli
+     * {@code PDF}, która ogranicza liczbę równoczesnych renderowań.
      *
      * @param selectedCategories lista wybranych kategorii
      * @param lowStockThreshold próg niskiego stanu
      * @param stage dialog-rodzic, który zostanie zamknięty po wygenerowaniu
+     * @param generate przycisk blokowany na czas generowania
      */
     private void handleGenerateButton(List<String> selectedCategories,
                                       int lowStockThreshold,
-                                      Stage stage) {
+                                      Stage stage,
+                                      Button generate) {
 
         String basePath = ConfigManager.getReportPath();
         if (basePath == null || basePath.isBlank()) {
@@ -398,62 +414,67 @@ public class LogisticianPanelController {
             return;
         }
 
+        String logoPath = ConfigManager.getLogoPath();
+        if (logoPath == null || logoPath.isBlank()) {
+            showAlert(Alert.AlertType.ERROR,
+                    "Brak logo",
+                    "W konfiguracji nie ustawiono ścieżki do logo. Ustaw logo w" +
+                            " panelu administratora.");
+            return;
+        }
+
+        File logoFile = new File(logoPath);
+        if (!logoFile.exists() || !logoFile.isFile()) {
+            showAlert(Alert.AlertType.ERROR,
+                    "Niepoprawny plik logo",
+                    "Nie odnaleziono pliku logo pod ścieżką: " + logoPath);
+            return;
+        }
+
         String timestamp =
                 LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
         File targetFile = new File(basePath, "warehouse-report-" + timestamp + ".pdf");
 
-        try {
-            List<org.example.sys.Product> products = productRepository.getAllProducts();
-            Map<Integer, Integer> qtyById = warehouseRepository.getAllStates()
-                    .stream()
-                    .collect(Collectors.toMap(
-                            org.example.sys.Warehouse::getProductId,
-                            org.example.sys.Warehouse::getQuantity
-                    ));
-
-            List<org.example.sys.Product> filteredProducts = products.stream()
-                    .filter(p ->
-                            selectedCategories.isEmpty() ||
-                                    selectedCategories.contains(p.getCategory()))
-                    .toList();
-
-            WarehouseRaport.ProductDataExtractor<org.example.sys.Product> extractor =
-                    new WarehouseRaport.ProductDataExtractor<>() {
-                        public String getName(org.example.sys.Product p)     { return p.getName(); }
-                        public String getCategory(org.example.sys.Product p) { return p.getCategory(); }
-                        public double getPrice(org.example.sys.Product p)    {
-                            return p.getPrice().doubleValue(); }
-                        public int getQuantity(org.example.sys.Product p)    {
-                            return qtyById.getOrDefault(p.getId(), 0); }
-                    };
-
-            String logoPath = ConfigManager.getLogoPath();
-            if (logoPath == null || logoPath.isBlank()) {
-                showAlert(Alert.AlertType.ERROR,
-                        "Brak logo",
-                        "W konfiguracji nie ustawiono ścieżki do logo. Ustaw logo w" +
-                                " panelu administratora.");
-                return;
-            }
-
-            File logoFile = new File(logoPath);
-            if (!logoFile.exists() || !logoFile.isFile()) {
-                showAlert(Alert.AlertType.ERROR,
-                        "Niepoprawny plik logo",
-                        "Nie odnaleziono pliku logo pod ścieżką: " + logoPath);
-                return;
+        Task<Void> reportTask = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                List<org.example.sys.Product> products = productRepository.getAllProducts();
+                Map<Integer, Integer> qtyById = warehouseRepository.getAllStates()
+                        .stream()
+                        .collect(Collectors.toMap(
+                                org.example.sys.Warehouse::getProductId,
+                                org.example.sys.Warehouse::getQuantity
+                        ));
+
+                List<org.example.sys.Product> filteredProducts = products.stream()
+                        .filter(p ->
+                                selectedCategories.isEmpty() ||
+                                        selectedCategories.contains(p.getCategory()))
+                        .toList();
+
+                WarehouseRaport.ProductDataExtractor<org.example.sys.Product> extractor =
+                        new WarehouseRaport.ProductDataExtractor<>() {
+                            public String getName(org.example.sys.Product p)     { return p.getName(); }
+                            public String getCategory(org.example.sys.Product p) { return p.getCategory(); }
+                            public double getPrice(org.example.sys.Product p)    {
+                                return p.getPrice().doubleValue(); }
+                            public int getQuantity(org.example.sys.Product p)    {
+                                return qtyById.getOrDefault(p.getId(), 0); }
+                        };
+
+                WarehouseRaport raport = new WarehouseRaport();
+                raport.setLogoPath(logoPath);
+                raport.setLowStockThreshold(lowStockThreshold);
+                raport.generateReport(
+                        targetFile.getAbsolutePath(),
+                        filteredProducts,
+                        extractor,
+                        selectedCategories
+                );
+                return null;
             }
-
-            WarehouseRaport raport = new WarehouseRaport();
-            raport.setLogoPath(logoPath);
-            raport.setLowStockThreshold(lowStockThreshold);
-            raport.generateReport(
-                    targetFile.getAbsolutePath(),
-                    filteredProducts,
-                    extractor,
-                    selectedCategories
-            );
-
+        };
+        reportTask.setOnSucceeded(ev -> {
             showAlert(Alert.AlertType.INFORMATION, "Sukces",
                     "Raport zapisany: " + targetFile.getAbsolutePath());
             stage.close();
@@ -461,12 +482,16 @@ public class LogisticianPanelController {
             reportGeneratedInCurrentSession = true;
             logger.info("Raport magazynowy wygenerowany: {}", targetFile.getAbsolutePath());
             logger.info("Flag reportGeneratedInCurrentSession ustawiona na true");
-
-        } catch (Exception ex) {
+        });
+        reportTask.setOnFailed(ev -> {
+            Throwable ex = reportTask.getException();
             logger.error("Błąd generowania raportu", ex);
+            generate.setDisable(false);
             showAlert(ERROR, "Błąd",
                     "Generowanie raportu nie powiodło się: " + ex.getMessage());
-        }
+        });
+        generate.setDisable(true);
+        BackgroundTasks.execute(BackgroundTasks.Category.PDF, reportTask);
     }
 
     public void showCloseShiftPanel() {
@@ -533,8 +558,8 @@ public class LogisticianPanelController {
         productComboBox.setPrefWidth(200);
         productComboBox.setPromptText("Wybierz produkt");
         // Wypełniamy ComboBox wszystkimi produktami
-        List<Product> allProducts = productRepository.getAllProducts();
-        productComboBox.getItems().addAll(allProducts);
+        AsyncDataLoader.getInstance().loadCombo("LogisticianPanel.products",
+                productComboBox, productRepository::getAllProducts);
         // Wyświetlamy w liście tylko nazwę produktu
         productComboBox.setCellFactory(cb -> new ListCell<>() {
             @Override
@@ -607,25 +632,11 @@ public class LogisticianPanelController {
                 OrderRepository or = new OrderRepository();
                 or.addOrder(ord);
 
-                // 9) AKTUALIZACJA STANU MAGAZYNOWEGO (tak jak wcześniej)
-                try {
-                    Warehouse stan = warehouseRepository.findStateByProductId(prod.getId());
-
-                    if (stan == null) {
-                        // jeśli nie ma jeszcze wpisu, tworzymy nowy
-                        stan = new Warehouse();
-                        stan.setProductId(prod.getId());
-                        stan.setQuantity(Math.max(0, qty));
-                        warehouseRepository.addWarehouseState(stan);
-                    } else {
-                        // jeśli jest, inkrementujemy
-                        int newQty = stan.getQuantity() + qty;
-                        if (newQty < 0) newQty = 0;
-                        stan.setQuantity(newQty);
-                        warehouseRepository.updateState(stan);
-                    }
-                } catch (Exception ex) {
-                    logger.error("Błąd aktualizacji stanu magazynowego", ex);
+                // 9) AKTUALIZACJA STANU MAGAZYNOWEGO – atomowe zwiększenie,
+                //    aby dostawa nie nadpisała równoległej sprzedaży
+                if (!warehouseRepository.increaseQuantity(prod.getId(), qty)) {
+                    logger.error("Błąd aktualizacji stanu magazynowego dla produktu {}",
+                            prod.getId());
                 }
 
                 // 10) Komunikat o sukcesie i zamknięcie formularza
@@ -872,6 +883,7 @@ public class LogisticianPanelController {
                 " reset flagi reportGeneratedInCurrentSession");
         logger.info("Uruchamianie ekranu logowania...");
 
+        BackgroundTasks.cancelSessionTasks();
         primaryStage.close();
         try {
             new HelloApplication().start(new Stage());
@@ -1018,24 +1030,51 @@ public class LogisticianPanelController {
             return;
         }
 
-        // 1) Pobierz właściwy obiekt Product po ID
+        // 1) Pobierz w tle produkt i jego stan magazynowy
         ProductRepository pr = new ProductRepository();
-        Product prod = pr.getAllProducts().stream()
-                .filter(p -> p.getId() == selected.getId())
-                .findFirst()
-                .orElse(null);
-
-        if (prod == null) {
-            showAlert(Alert.AlertType.ERROR, "Błąd",
-                    "Nie znaleziono produktu o ID=" + selected.getId());
-            return;
-        }
+        int productId = selected.getId();
+        AsyncDataLoader.getInstance().load("LogisticianPanel.editProduct",
+                () -> {
+                    Product product = pr.findProductById(productId);
+                    Warehouse state = product == null ? null
+                            : warehouseRepository.findStateByProductId(productId);
+                    return new ProductEdit(product,
+                            state != null ? state.getQuantity() : 0);
+                },
+                edit -> {
+                    if (edit.product() == null) {
+                        showAlert(Alert.AlertType.ERROR, "Błąd",
+                                "Nie znaleziono produktu o ID=" + productId);
+                        return;
+                    }
+                    openEditProductDialog(table, pr, edit.product(),
+                            edit.quantity());
+                },
+                ex -> showAlert(Alert.AlertType.ERROR, "Błąd",
+                        "Nie udało się wczytać produktu:\n" + ex.getMessage()));
+    }
 
-        // 2) Pobierz stan magazynowy dla tego produktu
-        Warehouse stanMag = warehouseRepository.findStateByProductId(prod.getId());
-        int currentQty = (stanMag != null ? stanMag.getQuantity() : 0);
+    /**
+     * Produkt wybrany do edycji z jego stanem magazynowym.
+     *
+     * @param product  produkt lub null, gdy nie istnieje
+     * @param quantity ilość w magazynie
+     */
+    private record ProductEdit(Product product, int quantity) {
+    }
 
-        // 3) Zbuduj nowe okienko
+    /**
+     * Buduje formularz edycji produktu wczytanego w tle.
+     *
+     * @param table      tabela stanów odświeżana po zapisie
+     * @param pr         repozytorium produktów
+     * @param prod       edytowany produkt
+     * @param currentQty bieżąca ilość w magazynie
+     */
+    private void openEditProductDialog(TableView<StockRow> table,
+                                       ProductRepository pr, Product prod,
+                                       int currentQty) {
+        // 2) Zbuduj nowe okienko
         Stage stage = new Stage();
         stage.setTitle("Edytuj produkt (ID=" + prod.getId() + ")");
 
@@ -1178,6 +1217,7 @@ public class LogisticianPanelController {
      */
     private void logoutByForce() {
         logger.info("Forsowne zamknięcie aplikacji bez raportu");
+        BackgroundTasks.cancelSessionTasks();
         primaryStage.close();
         try {
             new HelloApplication().start(new Stage());
@@ -1,13 +1,12 @@
 /*
  * Classname: ManagerPanelController
- * Version information: 1.9
- * Date: 2025-06-07
+ * Version information: 1.12
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
 package org.example.gui;
 
-import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 
@@ -22,17 +21,18 @@ import javafx.stage.Stage;
 
 import org.example.database.AbsenceRequestRepository;
 import org.example.database.EmpTaskRepository;
+import org.example.database.Page;
 import org.example.database.TaskEmployeeRepository;
 import org.example.database.UserRepository;
 
 import org.example.sys.AbsenceRequest;
+import org.example.sys.BackgroundTasks;
 import org.example.sys.Employee;
 import org.example.sys.EmpTask;
 import org.example.sys.TaskEmployee;
 
 import java.sql.Date;
 import java.time.LocalTime;
-import java.util.List;
 
 /**
  * Kontroler logiki interfejsu użytkownika dla panelu kierownika.
@@ -108,7 +108,10 @@ public class ManagerPanelController {
         );
 
         taskTable.getColumns().addAll(nameCol, dateCol, statusCol, employeeCol);
-        taskTable.getItems().addAll(taskRepository.getAllTasks());
+        new LazyTableLoader<>(taskTable, taskRepository, Page.Sort.ASC)
+                .onError(ex -> showAlert(Alert.AlertType.ERROR, "Błąd",
+                        "Nie udało się załadować zadań: " + ex.getMessage()))
+                .reload();
 
         HBox taskButtons = new HBox(10);
         taskButtons.setAlignment(Pos.CENTER);
@@ -350,13 +353,11 @@ public class ManagerPanelController {
         );
 
         AbsenceRequestRepository absenceRepository = new AbsenceRequestRepository();
-        try {
-            absenceTable.getItems().addAll(absenceRepository.getAllRequests());
-        } catch (Exception e) {
-            e.printStackTrace();
-            showAlert(Alert.AlertType.ERROR, "Błąd",
-                    "Nie udało się załadować wniosków: " + e.getMessage());
-        }
+        LazyTableLoader<AbsenceRequest> absenceLoader = new LazyTableLoader<>(
+                absenceTable, absenceRepository, Page.Sort.DESC)
+                .onError(ex -> showAlert(Alert.AlertType.ERROR, "Błąd",
+                        "Nie udało się załadować wniosków: " + ex.getMessage()));
+        absenceLoader.reload();
 
         HBox buttonBox = new HBox(10);
         buttonBox.setAlignment(Pos.CENTER);
@@ -384,7 +385,7 @@ public class ManagerPanelController {
                     }
                     showAlert(Alert.AlertType.INFORMATION, "Sukces",
                             "Wniosek został zatwierdzony.");
-                    absenceTable.getItems().setAll(absenceRepository.getAllRequests());
+                    absenceLoader.reload();
                 } catch (Exception ex) {
                     ex.printStackTrace();
                     showAlert(Alert.AlertType.ERROR, "Błąd",
@@ -406,7 +407,7 @@ public class ManagerPanelController {
                     absenceRepository.updateRequest(selectedRequest);
                     showAlert(Alert.AlertType.INFORMATION, "Sukces",
                             "Wniosek został odrzucony.");
-                    absenceTable.getItems().setAll(absenceRepository.getAllRequests());
+                    absenceLoader.reload();
                 } catch (Exception ex) {
                     ex.printStackTrace();
                     showAlert(Alert.AlertType.ERROR, "Błąd",
@@ -444,8 +445,8 @@ public class ManagerPanelController {
 
         Label taskLabel = new Label("Wybierz zadanie:");
         ComboBox<EmpTask> taskComboBox = new ComboBox<>();
-        List<EmpTask> allTasks = taskRepository.getAllTasks();
-        taskComboBox.setItems(FXCollections.observableArrayList(allTasks));
+        AsyncDataLoader.getInstance().loadCombo("ManagerPanel.assign.tasks",
+                taskComboBox, taskRepository::getAllTasks);
         taskComboBox.setCellFactory(param -> new ListCell<>() {
             @Override
             protected void updateItem(EmpTask item, boolean empty) {
@@ -463,11 +464,10 @@ public class ManagerPanelController {
 
         Label employeeLabel = new Label("Wybierz pracownika:");
         ComboBox<Employee> employeeComboBox = new ComboBox<>();
-        List<Employee> allEmployees = userRepository.getAllEmployees();
-        List<Employee> workers = allEmployees.stream()
-                .filter(emp -> "Pracownik".equalsIgnoreCase(emp.getPosition()))
-                .toList();
-        employeeComboBox.setItems(FXCollections.observableArrayList(workers));
+        AsyncDataLoader.getInstance().loadCombo("ManagerPanel.assign.workers",
+                employeeComboBox, () -> userRepository.getAllEmployees().stream()
+                        .filter(emp -> "Pracownik".equalsIgnoreCase(emp.getPosition()))
+                        .toList());
         employeeComboBox.setCellFactory(param -> new ListCell<>() {
             @Override
             protected void updateItem(Employee item, boolean empty) {
@@ -629,6 +629,7 @@ public class ManagerPanelController {
      * Wylogowuje użytkownika i zamyka zasoby.
      */
     public void logout() {
+        BackgroundTasks.cancelSessionTasks();
         primaryStage.close();
         Stage loginStage = new Stage();
         try {
@@ -0,0 +1,108 @@
+/*
+ * Classname: ReportSessionCache
+ * Version information: 1.1
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.gui;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.example.database.Page;
+import org.example.database.PagedRepository;
+import org.example.database.ReportRepository;
+import org.example.database.ReportRepository.ReportSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pamięć podręczna listy raportów zalogowanego pracownika na czas
+ * jednej sesji panelu kasjera.
+ * <p>
+ * Przechowuje początkowy, ciągły fragment listy (od najnowszych
+ * raportów) wraz z kursorem dalszej części. Ponowne otwarcie zakładki
+ * raportów nie odpytuje bazy, a przewijanie dalej doczytuje kolejne
+ * strony z {@link ReportRepository#findPageForEmployee} i dopisuje je
+ * do fragmentu. Raporty dodane lub usunięte w tej sesji są
+ * odzwierciedlane przez {@link #add} i {@link #remove}.
+ * </p>
+ */
+final class ReportSessionCache implements PagedRepository<ReportSummary> {
+
+    private static final Logger logger =
+            LogManager.getLogger(ReportSessionCache.class);
+
+    private final ReportRepository repository;
+    private final int employeeId;
+
+    private final List<ReportSummary> rows = new ArrayList<>();
+    private boolean loaded;
+    private Long nextCursor;
+
+    /**
+     * @param repository repozytorium raportów
+     * @param employeeId identyfikator zalogowanego pracownika
+     */
+    ReportSessionCache(ReportRepository repository, int employeeId) {
+        this.repository = repository;
+        this.employeeId = employeeId;
+    }
+
+    /**
+     * @return identyfikator pracownika, którego raporty są przechowywane
+     */
+    int getEmployeeId() {
+        return employeeId;
+    }
+
+    /**
+     * Zwraca przy pierwszym żądaniu cały zapamiętany fragment, a dalsze
+     * strony pobiera z bazy i dopisuje do fragmentu. Kierunek sortowania
+     * jest zawsze malejący (od najnowszych).
+     */
+    @Override
+    public synchronized Page<ReportSummary> findPage(Long cursor, int limit,
+                                                     Page.Sort sort) {
+        if (cursor == null && loaded) {
+            logger.debug("findPage() – {} raportów z pamięci", rows.size());
+            return Page.of(rows, nextCursor);
+        }
+        Page<ReportSummary> page =
+                repository.findPageForEmployee(employeeId, cursor, limit);
+        // Błąd zapytania jest propagowany, więc zapamiętywana strona
+        // (także pusta) odpowiada danym w bazie
+        boolean extendsPrefix = cursor == null
+                || (loaded && cursor.equals(nextCursor));
+        if (extendsPrefix) {
+            rows.addAll(page.getItems());
+            nextCursor = page.getNextCursor();
+            loaded = true;
+        }
+        return page;
+    }
+
+    /**
+     * Dopisuje nowo zapisany raport na początek listy. Jeśli lista nie
+     * była jeszcze ładowana, raport zostanie pobrany z bazy razem z nią.
+     *
+     * @param report wiersz nowego raportu
+     */
+    synchronized void add(ReportSummary report) {
+        if (loaded && report.employeeId() == employeeId) {
+            rows.add(0, report);
+            logger.debug("add() – raport {} dopisany do pamięci", report.id());
+        }
+    }
+
+    /**
+     * Usuwa raport z listy.
+     *
+     * @param reportId identyfikator usuniętego raportu
+     */
+    synchronized void remove(int reportId) {
+        rows.removeIf(r -> r.id() == reportId);
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Classname: StartupBootstrap
+ * Version information: 1.1
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.gui;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.database.DatabaseInitializer;
+import org.example.database.EMFProvider;
+import org.example.database.SalesRollupRepository;
+import org.example.sys.BackgroundTasks;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * Równoległy rozruch aplikacji wykonywany w tle, podczas gdy ekran
+ * logowania jest już widoczny.
+ * <p>
+ * Fazy i ich zależności:
+ * </p>
+ * <pre>
+ * struktura bazy ──┬── dane i migracje ──┬── logowanie
+ *                  └── Hibernate (EMF) ──┴── agregaty sprzedaży
+ * </pre>
+ * <p>
+ * Fabryka Hibernate (pula połączeń, {@code hbm2ddl}, cache) powstaje
+ * równolegle z wstawianiem danych początkowych, migracjami schematu
+ * i jednorazowymi migracjami danych (m.in. hashowaniem haseł,
+ * {@link org.example.database.DataMigrator}). Logowanie jest możliwe
+ * po zakończeniu obu gałęzi ({@link #loginReady()}); agregaty sprzedaży są uzupełniane dalej
+ * w tle. Czas każdej fazy jest logowany, a po zakończeniu rozruchu
+ * logowane jest podsumowanie.
+ * </p>
+ */
+final class StartupBootstrap {
+
+    private static final Logger logger =
+            LogManager.getLogger(StartupBootstrap.class);
+
+    private static final StartupBootstrap INSTANCE = new StartupBootstrap();
+
+    /**
+     * Fazy rozruchu.
+     */
+    enum Phase {
+        SCHEMA("Struktura bazy"),
+        DATA("Dane i migracje"),
+        EMF("Hibernate (EMF)"),
+        ROLLUP("Agregaty sprzedaży");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        /**
+         * @return nazwa fazy do wyświetlenia
+         */
+        String label() {
+            return label;
+        }
+    }
+
+    /**
+     * Stan fazy.
+     *
+     * @param phase        faza
+     * @param running      true – faza trwa
+     * @param done         true – faza zakończona (także błędem)
+     * @param elapsedNanos czas trwania (0, jeśli nie zakończona)
+     * @param error        komunikat błędu albo null
+     */
+    record PhaseState(Phase phase, boolean running, boolean done,
+                      long elapsedNanos, String error) {
+    }
+
+    private final Map<Phase, PhaseState> states = new EnumMap<>(Phase.class);
+    private final Map<Phase, Long> started = new EnumMap<>(Phase.class);
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final Executor executor = task ->
+            BackgroundTasks.execute(BackgroundTasks.Category.MAINTENANCE, task);
+
+    private long startNanos;
+    private CompletableFuture<Void> loginReady;
+    private CompletableFuture<Void> finished;
+
+    private StartupBootstrap() {
+        for (Phase phase : Phase.values()) {
+            states.put(phase, new PhaseState(phase, false, false, 0, null));
+        }
+    }
+
+    /**
+     * @return jedyna instancja rozruchu
+     */
+    static StartupBootstrap getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Uruchamia fazy rozruchu w tle. Kolejne wywołania nic nie robią.
+     */
+    synchronized void start() {
+        if (finished != null) {
+            return;
+        }
+        startNanos = System.nanoTime();
+        logger.info("Rozpoczynam rozruch aplikacji w tle");
+
+        CompletableFuture<Void> tables = new CompletableFuture<>();
+        CompletableFuture<Void> schema = CompletableFuture.runAsync(() -> {
+            begin(Phase.SCHEMA);
+            long[] dataStart = new long[1];
+            try {
+                DatabaseInitializer.initializeStaged(() -> {
+                    end(Phase.SCHEMA, startNanos(Phase.SCHEMA), null);
+                    tables.complete(null);
+                    dataStart[0] = begin(Phase.DATA);
+                });
+                end(Phase.DATA, dataStart[0], null);
+            } catch (RuntimeException e) {
+                Phase failed = tables.isDone() ? Phase.DATA : Phase.SCHEMA;
+                end(failed, failed == Phase.DATA ? dataStart[0]
+                        : startNanos(Phase.SCHEMA), e);
+                tables.completeExceptionally(e);
+                throw e;
+            }
+        }, executor);
+
+        CompletableFuture<Void> emf = tables.thenRunAsync(
+                () -> timed(Phase.EMF, EMFProvider::get), executor);
+
+        CompletableFuture<Void> core = CompletableFuture.allOf(schema, emf);
+        loginReady = core;
+        CompletableFuture<Void> rollup = core.thenRunAsync(() -> timed(
+                Phase.ROLLUP, () -> new SalesRollupRepository().backfillIfEmpty()),
+                executor);
+
+        finished = CompletableFuture.allOf(loginReady, rollup)
+                .whenComplete((v, e) -> logSummary(e));
+    }
+
+    /**
+     * @return przyszłość zakończona, gdy można się zalogować; kończy się
+     * błędem, gdy baza lub Hibernate nie zostały uruchomione
+     */
+    synchronized CompletableFuture<Void> loginReady() {
+        if (loginReady == null) {
+            start();
+        }
+        return loginReady;
+    }
+
+    /**
+     * @return przyszłość zakończona po wszystkich fazach
+     */
+    synchronized CompletableFuture<Void> finished() {
+        if (finished == null) {
+            start();
+        }
+        return finished;
+    }
+
+    /**
+     * @return czas od rozpoczęcia rozruchu w milisekundach
+     */
+    synchronized long elapsedMillis() {
+        return startNanos == 0 ? 0 : (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * @return true, jeśli fabryka Hibernate została utworzona
+     */
+    synchronized boolean isEmfStarted() {
+        PhaseState emf = states.get(Phase.EMF);
+        return emf.done() && emf.error() == null;
+    }
+
+    /**
+     * @return stany faz w kolejności deklaracji
+     */
+    synchronized List<PhaseState> getStates() {
+        return new ArrayList<>(states.values());
+    }
+
+    /**
+     * @return ułamek zakończonych faz (0..1)
+     */
+    synchronized double getProgress() {
+        long done = states.values().stream().filter(PhaseState::done).count();
+        return (double) done / states.size();
+    }
+
+    /**
+     * @return opis bieżących faz do wyświetlenia na ekranie logowania
+     */
+    synchronized String describe() {
+        List<String> running = new ArrayList<>();
+        for (PhaseState s : states.values()) {
+            if (s.running()) {
+                running.add(s.phase().label());
+            }
+        }
+        return running.isEmpty() ? "Przygotowanie aplikacji…"
+                : "Uruchamianie: " + String.join(", ", running) + "…";
+    }
+
+    /**
+     * Rejestruje odbiorcę zmian stanu faz. Odbiorca jest wywoływany
+     * z wątków rozruchu.
+     *
+     * @param listener odbiorca
+     */
+    void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Wyrejestrowuje odbiorcę zmian stanu faz.
+     *
+     * @param listener odbiorca
+     */
+    void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Zwraca pierwotną przyczynę błędu przyszłości.
+     *
+     * @param error błąd z {@link CompletableFuture}
+     * @return przyczyna
+     */
+    static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+    }
+
+    private void timed(Phase phase, Runnable work) {
+        long start = begin(phase);
+        try {
+            work.run();
+            end(phase, start, null);
+        } catch (RuntimeException | Error e) {
+            end(phase, start, e);
+            throw e;
+        }
+    }
+
+    private long begin(Phase phase) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            started.put(phase, now);
+            states.put(phase, new PhaseState(phase, true, false, 0, null));
+        }
+        fire();
+        return now;
+    }
+
+    private synchronized long startNanos(Phase phase) {
+        return started.getOrDefault(phase, startNanos);
+    }
+
+    private void end(Phase phase, long start, Throwable error) {
+        long elapsed = System.nanoTime() - start;
+        synchronized (this) {
+            states.put(phase, new PhaseState(phase, false, true, elapsed,
+                    error == null ? null : String.valueOf(error.getMessage())));
+        }
+        if (error == null) {
+            logger.info("Rozruch – faza '{}' zakończona w {} ms",
+                    phase.label(), elapsed / 1_000_000);
+        } else {
+            logger.error("Rozruch – faza '{}' nie powiodła się po {} ms: {}",
+                    phase.label(), elapsed / 1_000_000, error.getMessage(), error);
+        }
+        fire();
+    }
+
+    private void fire() {
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                logger.warn("Błąd odbiorcy stanu rozruchu: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void logSummary(Throwable error) {
+        StringBuilder sb = new StringBuilder();
+        for (PhaseState s : getStates()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(s.phase().label()).append('=')
+                    .append(s.done() ? s.elapsedNanos() / 1_000_000 + " ms" : "pominięta");
+        }
+        if (error == null) {
+            logger.info("Rozruch zakończony w {} ms ({})", elapsedMillis(), sb);
+        } else {
+            logger.error("Rozruch przerwany po {} ms ({}): {}", elapsedMillis(),
+                    sb, unwrap(error).getMessage());
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Classname: SalesRollupReportGenerator
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.pdflib;
+
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.borders.Border;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.HorizontalAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import com.itextpdf.layout.properties.VerticalAlignment;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pdf.SalesReportGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Generator raportu sprzedaży z dziennych agregatów
+ * ({@code Sprzedaz_dzienna}) dla raportów miesięcznych i rocznych.
+ * <p>
+ * Układ dokumentu jest taki sam jak w {@link SalesReportGenerator}
+ * z biblioteki StonkaPdfLib, ale jeden wiersz tabeli sprzedaży
+ * odpowiada jednemu wierszowi agregatu (dzień, produkt, kategoria),
+ * a liczby transakcji w podsumowaniach pochodzą z liczników
+ * transakcji przechowywanych razem z agregatami, a nie z liczenia
+ * identyfikatorów rekordów.
+ * </p>
+ */
+public class SalesRollupReportGenerator {
+
+    /**
+     * Logger do rejestrowania zdarzeń związanych z klasą SalesRollupReportGenerator.
+     */
+    private static final Logger logger =
+            LogManager.getLogger(SalesRollupReportGenerator.class);
+
+    /**
+     * Czcionka z polskimi znakami dołączona do biblioteki StonkaPdfLib.
+     */
+    private static final String FONT_PATH =
+            "fonts/NotoSans-VariableFont_wdth,wght.ttf";
+
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    /**
+     * Sprzedaż produktu w jednym dniu (jeden wiersz agregatu).
+     *
+     * @param day             dzień sprzedaży
+     * @param productName     nazwa produktu
+     * @param productCategory kategoria produktu w chwili sprzedaży
+     * @param quantity        liczba sprzedanych sztuk
+     * @param value           przychód w PLN
+     */
+    public record ProductSales(LocalDate day, String productName,
+                               String productCategory, int quantity,
+                               double value) {
+    }
+
+    /**
+     * Dane raportu: wiersze agregatów oraz liczby transakcji.
+     *
+     * @param rows                   wiersze agregatów z okresu raportu
+     * @param transactionsByCategory liczba transakcji zawierających
+     *                               produkty danej kategorii
+     * @param transactions           liczba transakcji w okresie raportu
+     */
+    public record SalesRollup(List<ProductSales> rows,
+                              Map<String, Integer> transactionsByCategory,
+                              long transactions) {
+
+        /**
+         * @return dane bez żadnej sprzedaży
+         */
+        public static SalesRollup empty() {
+            return new SalesRollup(List.of(), Map.of(), 0);
+        }
+    }
+
+    private SalesRollup data = SalesRollup.empty();
+    private String logoPath;
+
+    /**
+     * Ustawia dane raportu.
+     *
+     * @param data agregaty sprzedaży i liczby transakcji
+     */
+    public void setSalesData(SalesRollup data) {
+        this.data = data;
+    }
+
+    /**
+     * Ustawia ścieżkę do pliku logo umieszczanego w nagłówku.
+     *
+     * @param logoPath ścieżka do pliku graficznego
+     */
+    public void setLogoPath(String logoPath) {
+        if (logoPath == null || logoPath.isBlank()) {
+            throw new IllegalArgumentException("Ścieżka do logo nie może być pusta");
+        }
+        this.logoPath = logoPath;
+    }
+
+    /**
+     * Zapisuje raport do pliku PDF.
+     *
+     * @param outputPath ścieżka pliku wynikowego
+     * @param from       pierwszy dzień okresu raportu
+     * @param to         ostatni dzień okresu raportu
+     * @param periodName nazwa typu raportu
+     * @param categories kategorie, do których zawężono dane
+     * @throws SalesReportGenerator.NoDataException gdy brak sprzedaży
+     * @throws IOException                          gdy zapis się nie powiódł
+     */
+    public void generateReport(String outputPath, LocalDate from, LocalDate to,
+                               String periodName, List<String> categories)
+            throws SalesReportGenerator.NoDataException, IOException {
+        if (data.rows().isEmpty()) {
+            throw new SalesReportGenerator.NoDataException(
+                    "Brak danych do wygenerowania raportu.");
+        }
+        File parent = new File(outputPath).getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        try (PdfWriter writer = new PdfWriter(outputPath);
+             PdfDocument pdf = new PdfDocument(writer);
+             Document document = new Document(pdf, PageSize.A4)) {
+            URL font = SalesReportGenerator.class.getClassLoader()
+                    .getResource(FONT_PATH);
+            if (font == null) {
+                throw new IOException("Nie znaleziono czcionki: " + FONT_PATH);
+            }
+            document.setFont(PdfFontFactory.createFont(
+                    font.toExternalForm(), "Identity-H"));
+
+            addHeader(document);
+            addReportInfo(document, from, to, periodName, categories);
+            document.add(createSalesTable());
+            document.add(new Paragraph("\n"));
+            document.add(createCategorySummaryTable());
+            document.add(new Paragraph("\n"));
+            document.add(createGeneralSummaryTable());
+        }
+        logger.info("generateReport() – raport z {} wierszy agregatów "
+                + "zapisany: {}", data.rows().size(), outputPath);
+    }
+
+    private void addHeader(Document document) throws IOException {
+        File logo = new File(logoPath);
+        if (!logo.isFile()) {
+            throw new IllegalStateException(
+                    "Nie znaleziono pliku logo: " + logo.getAbsolutePath());
+        }
+        Table header = new Table(new float[]{1, 3});
+        header.setWidth(500);
+
+        Image image = new Image(ImageDataFactory.create(logo.getAbsolutePath()))
+                .scaleToFit(80, 80);
+        header.addCell(new Cell().add(image)
+                .setBorder(Border.NO_BORDER)
+                .setHorizontalAlignment(HorizontalAlignment.CENTER));
+        header.addCell(new Cell().add(new Paragraph("Raport sprzedaży")
+                        .setFontSize(20).setBold())
+                .setBorder(Border.NO_BORDER)
+                .setVerticalAlignment(VerticalAlignment.MIDDLE));
+        document.add(header);
+    }
+
+    private void addReportInfo(Document document, LocalDate from, LocalDate to,
+                               String periodName, List<String> categories) {
+        document.add(new Paragraph("Data wygenerowania: "
+                + LocalDate.now().format(DATE_FORMAT)).setMarginBottom(10));
+        document.add(new Paragraph("Okres raportowania: "
+                + from.format(DATE_FORMAT) + " – " + to.format(DATE_FORMAT)));
+        document.add(new Paragraph("Typ raportu: " + periodName));
+        if (categories != null && !categories.isEmpty()) {
+            document.add(new Paragraph("Filtry kategorii: "
+                    + String.join(", ", categories)));
+        }
+        document.add(new Paragraph("\n"));
+    }
+
+    private Table createSalesTable() {
+        Table table = new Table(new float[]{2, 3, 2, 2, 2})
+                .setWidth(UnitValue.createPercentValue(100));
+        addHeaderCells(table, "Data", "Produkt", "Kategoria", "Ilość",
+                "Wartość (PLN)");
+        for (ProductSales row : data.rows()) {
+            table.addCell(row.day().format(DATE_FORMAT));
+            table.addCell(row.productName());
+            table.addCell(row.productCategory());
+            table.addCell(String.valueOf(row.quantity()));
+            table.addCell(String.format("%.2f", row.value()));
+        }
+        return table;
+    }
+
+    private Table createCategorySummaryTable() {
+        Map<String, Double> revenue = new TreeMap<>();
+        for (ProductSales row : data.rows()) {
+            revenue.merge(row.productCategory(), row.value(), Double::sum);
+        }
+        Table table = new Table(new float[]{3, 2, 2})
+                .setWidth(UnitValue.createPercentValue(100));
+        addHeaderCells(table, "Kategoria", "Liczba transakcji",
+                "Suma sprzedaży (PLN)");
+        for (Map.Entry<String, Double> e : revenue.entrySet()) {
+            table.addCell(e.getKey());
+            table.addCell(String.valueOf(
+                    data.transactionsByCategory().getOrDefault(e.getKey(), 0)));
+            table.addCell(String.format("%.2f", e.getValue()));
+        }
+        return table;
+    }
+
+    private Table createGeneralSummaryTable() {
+        long quantity = 0;
+        double total = 0;
+        for (ProductSales row : data.rows()) {
+            quantity += row.quantity();
+            total += row.value();
+        }
+        long transactions = data.transactions();
+        Table table = new Table(new float[]{3, 2})
+                .setWidth(UnitValue.createPercentValue(100))
+                .setHorizontalAlignment(HorizontalAlignment.RIGHT);
+        addHeaderCells(table, "Podsumowanie ogólne", "Wartość");
+        table.addCell("Liczba transakcji");
+        table.addCell(String.valueOf(transactions));
+        table.addCell("Liczba sprzedanych produktów");
+        table.addCell(String.valueOf(quantity));
+        table.addCell("Suma sprzedaży (PLN)");
+        table.addCell(String.format("%.2f", total));
+        table.addCell("Średnia wartość transakcji (PLN)");
+        table.addCell(String.format("%.2f",
+                transactions == 0 ? 0.0 : total / transactions));
+        return table;
+    }
+
+    private static void addHeaderCells(Table table, String... headers) {
+        for (String header : headers) {
+            table.addHeaderCell(new Cell()
+                    .add(new Paragraph(header).setBold())
+                    .setBackgroundColor(ColorConstants.LIGHT_GRAY));
+        }
+    }
+}
@@ -1,7 +1,7 @@
 /*
  * Classname: Address
- * Version information: 1.4
- * Date: 2025-06-04
+ * Version information: 1.5
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -19,6 +19,9 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Cacheable;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -30,6 +33,8 @@ import org.apache.logging.log4j.Logger;
  * numer domu oraz mieszkania.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "stonka.address")
 @Table(name = "Adresy")
 @Access(AccessType.FIELD)
 public class Address {
@@ -0,0 +1,452 @@
+/*
+ * Classname: BackgroundTasks
+ * Version information: 1.1
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.sys;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Wspólny wykonawca zadań w tle dla całej aplikacji.
+ * <p>
+ * Zadania działają na wątkach wirtualnych i należą do kategorii
+ * ({@link Category}). Każda kategoria ma limit równocześnie
+ * wykonywanych zadań – nadmiarowe czekają w kolejce – oraz liczniki
+ * zadań oczekujących, wykonywanych, zakończonych, nieudanych
+ * i anulowanych ({@link #getStatistics()}). Limit można zmienić
+ * właściwością {@code -Dtasks.<kategoria>.max}, np.
+ * {@code -Dtasks.pdf.max=4}.
+ * </p>
+ * <p>
+ * Zadania kategorii związanych z sesją (ładowanie danych, raporty,
+ * otwieranie plików) są anulowane przy wylogowaniu
+ * ({@link #cancelSessionTasks()}); zapisy, eksport i kopie zapasowe
+ * kończą się normalnie. Przy zamykaniu aplikacji {@link #shutdown()} czeka
+ * chwilę na trwające zadania.
+ * </p>
+ */
+public final class BackgroundTasks {
+
+    private static final Logger logger =
+            LogManager.getLogger(BackgroundTasks.class);
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    /**
+     * Kategorie zadań w tle.
+     */
+    public enum Category {
+        /** Zapytania ładujące dane do paneli. */
+        DATA_LOAD("Ładowanie danych", 16, true),
+        /** Zapisy wykonywane z paneli (nie są anulowane przy wylogowaniu). */
+        UPDATE("Zapis danych", 8, false),
+        /** Logowanie i weryfikacja haseł. */
+        AUTH("Logowanie", 4, false),
+        /** Wysyłka wiadomości e-mail. */
+        EMAIL("E-mail", 2, false),
+        /** Generowanie raportów PDF. */
+        PDF("Raporty PDF", 2, true),
+        /** Eksport CSV i kopie zapasowe bazy. */
+        EXPORT("Eksport i backup", 1, false),
+        /** Otwieranie plików w zewnętrznych programach. */
+        FILE_OPEN("Otwieranie plików", 2, true),
+        /** Drobne zadania techniczne (migawki metryk, zasoby GUI). */
+        MAINTENANCE("Zadania techniczne", 4, false);
+
+        private final String label;
+        private final int limit;
+        private final boolean sessionScoped;
+
+        Category(String label, int defaultLimit, boolean sessionScoped) {
+            this.label = label;
+            this.limit = Math.max(1, Integer.getInteger(
+                    "tasks." + name().toLowerCase(Locale.ROOT) + ".max",
+                    defaultLimit));
+            this.sessionScoped = sessionScoped;
+        }
+
+        /**
+         * @return nazwa kategorii wyświetlana w GUI
+         */
+        public String label() {
+            return label;
+        }
+
+        /**
+         * @return maksymalna liczba równocześnie wykonywanych zadań
+         */
+        public int limit() {
+            return limit;
+        }
+
+        /**
+         * @return true, jeśli zadania są anulowane przy wylogowaniu
+         */
+        public boolean isSessionScoped() {
+            return sessionScoped;
+        }
+    }
+
+    /**
+     * Stan jednej kategorii zadań.
+     *
+     * @param category  kategoria
+     * @param limit     limit równoczesnych zadań
+     * @param queued    zadania czekające na wolne miejsce
+     * @param running   zadania w trakcie wykonania
+     * @param completed zadania zakończone powodzeniem
+     * @param failed    zadania zakończone błędem
+     * @param cancelled zadania anulowane
+     */
+    public record CategoryStats(Category category, int limit, int queued,
+                                int running, long completed, long failed,
+                                long cancelled) {
+    }
+
+    /**
+     * Limit i liczniki jednej kategorii.
+     */
+    private static final class Slot {
+        final Semaphore permits;
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicInteger running = new AtomicInteger();
+        final LongAdder completed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder cancelled = new LongAdder();
+
+        Slot(int limit) {
+            permits = new Semaphore(limit, true);
+        }
+    }
+
+    private static final Map<Category, Slot> SLOTS = new EnumMap<>(Category.class);
+
+    static {
+        for (Category c : Category.values()) {
+            SLOTS.put(c, new Slot(c.limit()));
+        }
+    }
+
+    private static final ExecutorService EXECUTOR =
+            Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("bg-task-", 0).factory());
+
+    /** Zadania kategorii sesyjnych, anulowane przy wylogowaniu. */
+    private static final Set<Future<?>> SESSION_TASKS =
+            ConcurrentHashMap.newKeySet();
+
+    private BackgroundTasks() {
+    }
+
+    /**
+     * Uruchamia zadanie w tle. Jeśli zadanie jest {@link Future}
+     * (np. {@code javafx.concurrent.Task}), jego błąd jest liczony
+     * w statystykach, a obsługę wyniku pozostawia się zadaniu.
+     *
+     * @param category kategoria zadania
+     * @param task     zadanie
+     */
+    public static void execute(Category category, Runnable task) {
+        Handle handle = new Handle(category, SLOTS.get(category), task);
+        handle.slot.queued.incrementAndGet();
+        if (category.isSessionScoped()) {
+            SESSION_TASKS.add(handle);
+        }
+        try {
+            EXECUTOR.execute(handle);
+        } catch (RejectedExecutionException e) {
+            logger.warn("execute() – wykonawca zamknięty, pominięto zadanie "
+                    + "kategorii {}", category);
+            handle.cancel(false);
+        }
+    }
+
+    /**
+     * Uruchamia zadanie zwracające wynik.
+     *
+     * @param category kategoria zadania
+     * @param call     zadanie
+     * @param <T>      typ wyniku
+     * @return uchwyt wyniku
+     */
+    public static <T> Future<T> submit(Category category, Callable<T> call) {
+        FutureTask<T> task = new FutureTask<>(call);
+        execute(category, task);
+        return task;
+    }
+
+    /**
+     * Wykonuje równolegle listę zadań i czeka na wszystkie wyniki
+     * (współbieżność strukturalna). Błąd jednego zadania anuluje
+     * pozostałe; przerwanie wątku wywołującego anuluje wszystkie.
+     * <p>
+     * Równolegle działa co najwyżej {@link Category#limit()} zadań
+     * z jednego wywołania. Limit jest liczony osobno dla każdego
+     * wywołania, dzięki czemu zadanie kategorii może samo rozdzielać
+     * pracę bez ryzyka zakleszczenia.
+     * </p>
+     *
+     * @param category kategoria zadań (statystyki i limit)
+     * @param calls    zadania
+     * @param <T>      typ wyników
+     * @return wyniki w kolejności zadań
+     * @throws InterruptedException gdy wątek wywołujący został przerwany
+     * @throws ExecutionException   gdy któreś zadanie zakończyło się błędem
+     */
+    public static <T> List<T> fanOut(Category category,
+                                     List<? extends Callable<T>> calls)
+            throws InterruptedException, ExecutionException {
+        return fanOut(category, category.limit(), calls);
+    }
+
+    /**
+     * Wykonuje równolegle listę zadań, uruchamiając co najwyżej
+     * {@code parallelism} z nich naraz.
+     *
+     * @param category    kategoria zadań (statystyki)
+     * @param parallelism maksymalna liczba równoczesnych zadań
+     * @param calls       zadania
+     * @param <T>         typ wyników
+     * @return wyniki w kolejności zadań
+     * @throws InterruptedException gdy wątek wywołujący został przerwany
+     * @throws ExecutionException   gdy któreś zadanie zakończyło się błędem
+     * @see #fanOut(Category, List)
+     */
+    public static <T> List<T> fanOut(Category category, int parallelism,
+                                     List<? extends Callable<T>> calls)
+            throws InterruptedException, ExecutionException {
+        Slot slot = SLOTS.get(category);
+        Semaphore permits = new Semaphore(Math.max(1, parallelism));
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure(
+                "fan-out-" + category, Thread.ofVirtual().factory())) {
+            List<StructuredTaskScope.Subtask<T>> subtasks = new ArrayList<>();
+            for (Callable<T> call : calls) {
+                subtasks.add(scope.fork(() -> {
+                    slot.queued.incrementAndGet();
+                    try {
+                        permits.acquire();
+                    } finally {
+                        slot.queued.decrementAndGet();
+                    }
+                    try {
+                        return call(slot, call);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            scope.join().throwIfFailed();
+            List<T> results = new ArrayList<>(subtasks.size());
+            for (StructuredTaskScope.Subtask<T> subtask : subtasks) {
+                results.add(subtask.get());
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Wykonuje równolegle dwa zadania i łączy ich wyniki.
+     *
+     * @param category kategoria zadań
+     * @param first    pierwsze zadanie
+     * @param second   drugie zadanie
+     * @param combine  funkcja łącząca wyniki
+     * @param <A>      typ pierwszego wyniku
+     * @param <B>      typ drugiego wyniku
+     * @param <R>      typ wyniku łącznego
+     * @return wynik funkcji łączącej
+     * @throws InterruptedException gdy wątek wywołujący został przerwany
+     * @throws ExecutionException   gdy któreś zadanie zakończyło się błędem
+     * @see #fanOut(Category, List)
+     */
+    public static <A, B, R> R fanOut(Category category, Callable<A> first,
+                                     Callable<B> second,
+                                     BiFunction<A, B, R> combine)
+            throws InterruptedException, ExecutionException {
+        Slot slot = SLOTS.get(category);
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure(
+                "fan-out-" + category, Thread.ofVirtual().factory())) {
+            StructuredTaskScope.Subtask<A> a = scope.fork(() -> call(slot, first));
+            StructuredTaskScope.Subtask<B> b = scope.fork(() -> call(slot, second));
+            scope.join().throwIfFailed();
+            return combine.apply(a.get(), b.get());
+        }
+    }
+
+    /**
+     * Anuluje zadania kategorii związanych z sesją. Wywoływane przy
+     * wylogowaniu użytkownika.
+     */
+    public static void cancelSessionTasks() {
+        int count = 0;
+        for (Future<?> f : SESSION_TASKS) {
+            if (f.cancel(true)) {
+                count++;
+            }
+        }
+        SESSION_TASKS.clear();
+        if (count > 0) {
+            logger.info("cancelSessionTasks() – anulowano {} zadań", count);
+        }
+    }
+
+    /**
+     * Zamyka wykonawcę: anuluje zadania sesyjne i czeka na pozostałe
+     * (np. trwający backup) najwyżej {@value #SHUTDOWN_TIMEOUT_SECONDS} s.
+     */
+    public static void shutdown() {
+        cancelSessionTasks();
+        EXECUTOR.shutdown();
+        try {
+            if (!EXECUTOR.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS,
+                    TimeUnit.SECONDS)) {
+                logger.warn("shutdown() – przerwano {} niezakończonych zadań",
+                        EXECUTOR.shutdownNow().size());
+            }
+        } catch (InterruptedException e) {
+            EXECUTOR.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        logger.info("shutdown() – wykonawca zadań w tle zamknięty");
+    }
+
+    /**
+     * @return stan wszystkich kategorii zadań
+     */
+    public static List<CategoryStats> getStatistics() {
+        List<CategoryStats> out = new ArrayList<>();
+        SLOTS.forEach((c, s) -> out.add(new CategoryStats(c, c.limit(),
+                s.queued.get(), s.running.get(), s.completed.sum(),
+                s.failed.sum(), s.cancelled.sum())));
+        return out;
+    }
+
+    /**
+     * Opakowanie zadania: czeka na miejsce w limicie kategorii,
+     * wykonuje zadanie i aktualizuje liczniki.
+     */
+    private static final class Handle extends FutureTask<Void> {
+        private final Category category;
+        private final Slot slot;
+        private final Runnable task;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        Handle(Category category, Slot slot, Runnable task) {
+            super(task, null);
+            this.category = category;
+            this.slot = slot;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return; // anulowane przed startem
+            }
+            try {
+                slot.permits.acquire();
+            } catch (InterruptedException e) {
+                slot.queued.decrementAndGet();
+                slot.cancelled.increment();
+                cancelInner();
+                return;
+            }
+            slot.queued.decrementAndGet();
+            slot.running.incrementAndGet();
+            try {
+                super.run();
+                if (task instanceof Future<?> f) {
+                    outcome(f);
+                } else {
+                    outcome(this);
+                }
+            } finally {
+                slot.running.decrementAndGet();
+                slot.permits.release();
+            }
+        }
+
+        @Override
+        protected void done() {
+            SESSION_TASKS.remove(this);
+            if (isCancelled()) {
+                cancelInner();
+                if (claimed.compareAndSet(false, true)) {
+                    slot.queued.decrementAndGet();
+                    slot.cancelled.increment();
+                }
+            }
+        }
+
+        private void cancelInner() {
+            if (task instanceof Future<?> f) {
+                f.cancel(true);
+            }
+        }
+
+        private void outcome(Future<?> f) {
+            try {
+                f.get();
+                slot.completed.increment();
+            } catch (CancellationException e) {
+                slot.cancelled.increment();
+            } catch (ExecutionException e) {
+                slot.failed.increment();
+                if (f == this) {
+                    logger.error("run() – błąd zadania kategorii {}",
+                            category, e.getCause());
+                } else {
+                    logger.debug("run() – zadanie kategorii {} zakończone "
+                            + "błędem: {}", category, String.valueOf(e.getCause()));
+                }
+            } catch (InterruptedException e) {
+                slot.cancelled.increment();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static <T> T call(Slot slot, Callable<T> call) throws Exception {
+        slot.running.incrementAndGet();
+        try {
+            T result = call.call();
+            slot.completed.increment();
+            return result;
+        } catch (InterruptedException e) {
+            slot.cancelled.increment();
+            throw e;
+        } catch (Exception e) {
+            slot.failed.increment();
+            throw e;
+        } finally {
+            slot.running.decrementAndGet();
+        }
+    }
+}
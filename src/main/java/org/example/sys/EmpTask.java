@@ -1,7 +1,7 @@
 /*
  * Classname: EmpTask
- * Version information: 1.3
- * Date: 2025-05-29
+ * Version information: 1.4
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -125,6 +125,26 @@ public class EmpTask {
                 durationOfTheShift, priority);
     }
 
+    /**
+     * Konstruktor kopiujący. Kopia współdzieli listę przypisań
+     * z oryginałem – zmiany pól kopii nie dotykają oryginału.
+     *
+     * @param other kopiowane zadanie
+     */
+    public EmpTask(EmpTask other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.date = other.date == null ? null
+                : new Date(other.date.getTime());
+        this.status = other.status;
+        this.description = other.description;
+        this.durationOfTheShift = other.durationOfTheShift;
+        this.usuniety = other.usuniety;
+        this.taskEmployees = other.taskEmployees;
+        this.priority = other.priority;
+        logger.debug("Utworzono kopię zadania o ID: {}", id);
+    }
+
     // ==================== Gettery i Settery z logowaniem ====================
 
     public int getId() {
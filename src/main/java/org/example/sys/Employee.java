@@ -1,7 +1,7 @@
 /*
  * Classname: Employee
- * Version information: 1.3
- * Date: 2025-05-29
+ * Version information: 1.4
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -25,6 +25,9 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.SqlResultSetMapping;
 import jakarta.persistence.ColumnResult;
 import jakarta.persistence.ConstructorResult;
+import jakarta.persistence.Cacheable;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.util.Date;
@@ -59,6 +62,8 @@ import org.apache.logging.log4j.Logger;
  * Klasa reprezentująca pracownika w systemie.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "stonka.employee")
 @Table(name = "Pracownicy")
 @Access(AccessType.FIELD)
 public class Employee extends Person {
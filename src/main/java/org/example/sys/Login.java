@@ -1,7 +1,7 @@
 /*
  * Classname: Login
- * Version information: 1.4
- * Date: 2025-05-29
+ * Version information: 1.5
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -17,8 +17,6 @@ import org.example.database.UserRepository;
 import org.example.gui.*;
 import javax.mail.MessagingException;
 import java.util.Random;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 // Importy Log4j2
@@ -34,8 +32,6 @@ public class Login implements ILacz {
 
     private static final Logger logger = LogManager.getLogger(Login.class);
 
-    private static final ExecutorService executor =
-            Executors.newVirtualThreadPerTaskExecutor();
     private static final UserRepository userRepository = new UserRepository();
 
     /**
@@ -86,7 +82,7 @@ public class Login implements ILacz {
         };
 
         setupTaskHandlers(loginTask, root);
-        executor.execute(loginTask);
+        BackgroundTasks.execute(BackgroundTasks.Category.AUTH, loginTask);
     }
 
     /**
@@ -273,7 +269,7 @@ public class Login implements ILacz {
             return;
         }
 
-        executor.execute(() -> {
+        BackgroundTasks.execute(BackgroundTasks.Category.EMAIL, () -> {
             try {
                 EmailSender.sendResetEmail(email);
                 logger.info("Kod resetujący wysłany na e-mail: {}",
@@ -1,7 +1,7 @@
 /*
  * Classname: Product
- * Version information: 1.3
- * Date: 2025-05-29
+ * Version information: 1.5
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -18,6 +18,9 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Table;
 import jakarta.persistence.Access;
 import jakarta.persistence.AccessType;
+import jakarta.persistence.Cacheable;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 
 /**
@@ -27,6 +30,8 @@ import java.math.BigDecimal;
  * Implementuje logikę walidacji danych produktu.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "stonka.product")
 @Table(name = "Produkty")
 @Access(AccessType.FIELD)
 public class Product {
@@ -113,6 +118,21 @@ public class Product {
                 " kategoria: {}, cena: {}", name, category, price);
     }
 
+    /**
+     * Konstruktor kopiujący.
+     * Tworzy niezależną kopię produktu bez ponownej walidacji pól.
+     * Operacja jest logowana na poziomie TRACE.
+     *
+     * @param other kopiowany produkt
+     */
+    public Product(Product other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.category = other.category;
+        this.price = other.price;
+        logger.trace("Utworzono kopię produktu o ID: {}", id);
+    }
+
     /**
      * Pobiera identyfikator produktu.
      *
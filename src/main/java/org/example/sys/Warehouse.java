@@ -1,7 +1,7 @@
 /*
  * Classname: Warehouse
- * Version information: 1.1
- * Date: 2025-06-04
+ * Version information: 1.2
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -16,6 +16,9 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Cacheable;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -27,6 +30,8 @@ import org.apache.logging.log4j.Logger;
  * (relacja jeden-do-jednego).
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "stonka.warehouse")
 @Table(name = "StanyMagazynowe")
 @Access(AccessType.FIELD)
 public class Warehouse {
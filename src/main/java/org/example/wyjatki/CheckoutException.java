@@ -0,0 +1,18 @@
+/*
+ * Exception: CheckoutException
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+package org.example.wyjatki;
+
+public class CheckoutException extends Exception {
+    public CheckoutException(String message) {
+        super(message);
+    }
+
+    public CheckoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -126,6 +126,36 @@ CREATE TABLE IF NOT EXISTS Transakcje_Produkty (
     FOREIGN KEY (Id_produktu)   REFERENCES Produkty(Id)
     );
 
+-- =============================================================
+-- TABELA: Dzienne agregaty sprzedaży (dzień, produkt, kategoria)
+-- =============================================================
+CREATE TABLE IF NOT EXISTS Sprzedaz_dzienna (
+    Data              DATE          NOT NULL,
+    Id_produktu       INT           NOT NULL,
+    Kategoria         VARCHAR(100)  NOT NULL DEFAULT '',
+    Ilosc             INT           NOT NULL DEFAULT 0,
+    Przychod          DECIMAL(14,2) NOT NULL DEFAULT 0,
+    Liczba_transakcji INT           NOT NULL DEFAULT 0,
+    PRIMARY KEY (Data, Id_produktu, Kategoria),
+    INDEX idx_sprzedaz_produkt (Id_produktu, Data)
+    );
+
+-- =============================================================
+-- TABELA: Dzienne liczby transakcji (ogółem i w kategorii)
+-- =============================================================
+CREATE TABLE IF NOT EXISTS Sprzedaz_dzienna_transakcje (
+    Data              DATE NOT NULL,
+    Liczba_transakcji INT  NOT NULL DEFAULT 0,
+    PRIMARY KEY (Data)
+    );
+
+CREATE TABLE IF NOT EXISTS Sprzedaz_dzienna_kategorie (
+    Data              DATE         NOT NULL,
+    Kategoria         VARCHAR(100) NOT NULL DEFAULT '',
+    Liczba_transakcji INT          NOT NULL DEFAULT 0,
+    PRIMARY KEY (Data, Kategoria)
+    );
+
 -- =============================================================
 -- TABELA: Raporty (bez kaskadowego usuwania)
 -- =============================================================
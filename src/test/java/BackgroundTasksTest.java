@@ -0,0 +1,131 @@
+/*
+ * Classname: BackgroundTasksTest
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+
+import org.example.sys.BackgroundTasks;
+import org.example.sys.BackgroundTasks.Category;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class BackgroundTasksTest {
+
+    private static BackgroundTasks.CategoryStats stats(Category category) {
+        return BackgroundTasks.getStatistics().stream()
+                .filter(s -> s.category() == category)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /** Liczniki są aktualizowane tuż po zakończeniu zadania. */
+    private static void awaitIdle(Category category) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (stats(category).running() > 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    @Order(1)
+    void testCategoryLimitIsRespected() throws Exception {
+        Category category = Category.PDF;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            int n = i;
+            futures.add(BackgroundTasks.submit(category, () -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                running.decrementAndGet();
+                return n;
+            }));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i, futures.get(i).get(5, TimeUnit.SECONDS),
+                    "Each task should return its own result");
+        }
+        assertTrue(peak.get() <= category.limit(),
+                "At most " + category.limit() + " tasks should run at once, was " + peak.get());
+    }
+
+    @Test
+    @Order(2)
+    void testFailedTaskIsCounted() throws Exception {
+        long failedBefore = stats(Category.MAINTENANCE).failed();
+        Future<Object> f = BackgroundTasks.submit(Category.MAINTENANCE, () -> {
+            throw new IllegalStateException("test");
+        });
+        assertThrows(ExecutionException.class, () -> f.get(5, TimeUnit.SECONDS),
+                "Failure should be reported to the caller");
+        awaitIdle(Category.MAINTENANCE);
+        assertEquals(failedBefore + 1, stats(Category.MAINTENANCE).failed(),
+                "Failure should be counted in statistics");
+    }
+
+    @Test
+    @Order(3)
+    void testFanOutKeepsOrderAndPropagatesFailure() throws Exception {
+        List<Callable<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int n = i;
+            calls.add(() -> n * n);
+        }
+        List<Integer> results = BackgroundTasks.fanOut(Category.DATA_LOAD, calls);
+        assertEquals(10, results.size(), "All subtasks should return a result");
+        assertEquals(81, results.get(9), "Results should keep the order of tasks");
+
+        List<Callable<Integer>> failing = List.of(
+                () -> 1,
+                () -> {
+                    throw new IllegalStateException("test");
+                });
+        assertThrows(ExecutionException.class,
+                () -> BackgroundTasks.fanOut(Category.DATA_LOAD, failing),
+                "Subtask failure should fail the whole fan-out");
+
+        String joined = BackgroundTasks.fanOut(Category.DATA_LOAD,
+                () -> "a", () -> 2, (a, b) -> a + b);
+        assertEquals("a2", joined, "Pair fan-out should combine both results");
+    }
+
+    @Test
+    @Order(4)
+    void testCancelSessionTasks() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        long cancelledBefore = stats(Category.FILE_OPEN).cancelled();
+        Future<Object> f = BackgroundTasks.submit(Category.FILE_OPEN, () -> {
+            started.countDown();
+            Thread.sleep(10_000);
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS), "Task should start");
+        BackgroundTasks.cancelSessionTasks();
+        assertTrue(f.isCancelled(), "Session task should be cancelled on logout");
+        awaitIdle(Category.FILE_OPEN);
+        assertEquals(0, stats(Category.FILE_OPEN).running(),
+                "Cancelled task should release its slot");
+        assertTrue(stats(Category.FILE_OPEN).cancelled() > cancelledBefore,
+                "Cancellation should be counted in statistics");
+    }
+}
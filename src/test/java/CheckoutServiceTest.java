@@ -0,0 +1,147 @@
+/*
+ * Classname: CheckoutServiceTest
+ * Version information: 1.4
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+
+import org.example.database.CheckoutService;
+import org.example.database.CheckoutService.CheckoutLine;
+import org.example.database.CheckoutService.CheckoutResult;
+import org.example.database.DatabaseInitializer;
+import org.example.database.ProductRepository;
+import org.example.database.SalesRollupRepository;
+import org.example.database.TransactionProductRepository;
+import org.example.database.TransactionRepository;
+import org.example.database.UserRepository;
+import org.example.database.WarehouseRepository;
+import org.example.sys.Employee;
+import org.example.sys.Product;
+import org.example.sys.Warehouse;
+import org.example.wyjatki.CheckoutException;
+import org.example.pdflib.SalesRollupReportGenerator.ProductSales;
+import org.example.pdflib.SalesRollupReportGenerator.SalesRollup;
+import pdf.SalesReportGenerator.SalesRecord;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Order;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CheckoutServiceTest {
+
+    private static CheckoutService service;
+    private static WarehouseRepository warehouseRepo;
+    private static Employee employee;
+    private static Product milk, bread;
+
+    @BeforeAll
+    static void setup() {
+        DatabaseInitializer.initialize();
+        service = new CheckoutService();
+        warehouseRepo = new WarehouseRepository();
+        ProductRepository productRepo = new ProductRepository();
+
+        List<Employee> emps = new UserRepository().getAllEmployees();
+        assertFalse(emps.isEmpty(), "At least one employee must exist");
+        employee = emps.get(0);
+
+        milk  = new Product("Mleko checkout", "Nabiał", 3.20);
+        bread = new Product("Chleb checkout", "Pieczywo", 4.50);
+        productRepo.addProduct(milk);
+        productRepo.addProduct(bread);
+        warehouseRepo.addWarehouseState(new Warehouse(milk, 5));
+        warehouseRepo.addWarehouseState(new Warehouse(bread, 10));
+    }
+
+    @Test
+    @Order(1)
+    void testCheckoutWritesLinesAndStock() throws Exception {
+        CheckoutResult result = service.checkout(employee, List.of(
+                new CheckoutLine(milk.getId(), 2),
+                new CheckoutLine(bread.getId(), 3),
+                new CheckoutLine(milk.getId(), 1)));
+
+        assertTrue(result.getTransactionId() > 0, "Transaction should get an ID");
+        assertEquals(2, result.getLineCount(), "Duplicate lines should be merged");
+        assertEquals(2, warehouseRepo.findStateByProductId(milk.getId()).getQuantity());
+        assertEquals(7, warehouseRepo.findStateByProductId(bread.getId()).getQuantity());
+        assertEquals(3, new TransactionProductRepository()
+                .findById(result.getTransactionId(), milk.getId()).getQuantity());
+        assertTrue(CheckoutService.getCheckoutCount() >= 1);
+    }
+
+    @Test
+    @Order(2)
+    void testInsufficientStockRollsBackWholeCheckout() {
+        assertThrows(CheckoutException.class, () -> service.checkout(employee, List.of(
+                new CheckoutLine(bread.getId(), 1),
+                new CheckoutLine(milk.getId(), 3))));
+
+        assertEquals(2, warehouseRepo.findStateByProductId(milk.getId()).getQuantity(),
+                "Milk stock must stay untouched");
+        assertEquals(7, warehouseRepo.findStateByProductId(bread.getId()).getQuantity(),
+                "Bread decrement must be rolled back");
+    }
+
+    @Test
+    @Order(3)
+    void testEmptyCartRejected() {
+        assertThrows(CheckoutException.class, () -> service.checkout(employee, List.of()));
+    }
+
+    @Test
+    @Order(4)
+    void testDailyRollupMaintainedAndRebuilt() {
+        SalesRollupRepository rollups = new SalesRollupRepository();
+        LocalDate today = LocalDate.now();
+        assertEquals(3, rollups.getSoldQuantity(milk.getId(), today),
+                "Checkout should add sold milk to today's rollup");
+        assertEquals(3, rollups.getSoldQuantity(bread.getId(), today),
+                "Rolled back checkout must not be counted");
+
+        assertTrue(rollups.rebuild(today, today) >= 2);
+        assertEquals(3, rollups.getSoldQuantity(milk.getId(), today),
+                "Rebuild from transaction lines should give the same totals");
+    }
+
+    @Test
+    @Order(5)
+    void testRollupReportMatchesTransactionLines() {
+        LocalDate today = LocalDate.now();
+        Date day = Date.from(today.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        List<SalesRecord> raw = new ArrayList<>();
+        new TransactionRepository().streamSalesRecords(day, day, List.of(), 500, raw::addAll);
+
+        SalesRollupRepository rollups = new SalesRollupRepository();
+        SalesRollup rolled = rollups.getSalesRollup(today, today, List.of());
+        long transactions = raw.stream().map(SalesRecord::transactionId).distinct().count();
+        assertEquals(transactions, rolled.transactions(),
+                "Rollup report should count the real number of transactions");
+        assertEquals(raw.stream().map(r -> r.productName() + "|" + r.productCategory())
+                        .distinct().count(), rolled.rows().size(),
+                "Rollup report should hold one row per product and category");
+        assertEquals(raw.stream().mapToInt(SalesRecord::quantity).sum(),
+                rolled.rows().stream().mapToInt(ProductSales::quantity).sum(),
+                "Rollup report should keep the sold quantity");
+
+        assertTrue(rollups.rebuild(today, today) >= 0);
+        assertEquals(transactions,
+                rollups.getSalesRollup(today, today, List.of()).transactions(),
+                "Rebuilt transaction counts should match checkout counts");
+    }
+}
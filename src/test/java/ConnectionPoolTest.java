@@ -0,0 +1,57 @@
+/*
+ * Classname: ConnectionPoolTest
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+
+import org.example.database.ConnectionPool;
+import org.example.database.ConnectionPoolMXBean;
+import org.example.database.ProductRepository;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionPoolTest {
+
+    @Test
+    void testRepositoryUsesPool() {
+        ConnectionPoolMXBean stats = ConnectionPool.getStatistics();
+        new ProductRepository().getAllProducts();
+
+        assertTrue(stats.getAcquisitionCount() > 0,
+                "Repository call should borrow a connection from the pool");
+        assertTrue(stats.getTotalConnections() <= stats.getMaximumPoolSize(),
+                "Pool must not exceed its maximum size");
+        assertEquals(0, stats.getActiveConnections(),
+                "Connection should be returned after EntityManager is closed");
+    }
+
+    @Test
+    void testBorrowAndReturnConnection() throws Exception {
+        ConnectionPoolMXBean stats = ConnectionPool.getStatistics();
+        try (Connection conn = ConnectionPool.getDataSource().getConnection()) {
+            assertTrue(conn.isValid(2), "Borrowed connection should be valid");
+            assertTrue(stats.getActiveConnections() >= 1,
+                    "Borrowed connection should be counted as active");
+        }
+        assertTrue(stats.getAverageWaitMillis() >= 0.0);
+    }
+
+    @Test
+    void testStatisticsRegisteredInJmx() throws Exception {
+        ConnectionPool.getDataSource();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertTrue(server.isRegistered(
+                        new ObjectName("org.example.database:type=ConnectionPool")),
+                "Pool statistics should be visible over JMX");
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Classname: DataMigratorTest
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+
+import org.example.database.DataMigrator;
+import org.example.database.DatabaseInitializer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class DataMigratorTest {
+
+    private static final String TEST_URL = "jdbc:mysql://localhost:3306/StonkaDB?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+    private static final String USER = "root";
+    private static final String PASS = "";
+
+    @BeforeAll
+    static void setup() {
+        DatabaseInitializer.initialize();
+    }
+
+    @Test
+    @Order(1)
+    void testPasswordsAreHashedAfterInitialize() throws Exception {
+        try (Connection conn = DriverManager.getConnection(TEST_URL, USER, PASS);
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT Id, Haslo FROM Pracownicy")) {
+            assertTrue(new DataMigrator().isCompleted(conn, "hashowanie_hasel"),
+                    "Password migration should be recorded as completed");
+            while (rs.next()) {
+                assertTrue(rs.getString(2).matches("[0-9a-f]{64}"),
+                        "Password of employee " + rs.getInt(1) + " should be hashed");
+            }
+        }
+    }
+
+    @Test
+    @Order(2)
+    void testCompletedMigrationsAreSkipped() throws Exception {
+        try (Connection conn = DriverManager.getConnection(TEST_URL, USER, PASS)) {
+            DataMigrator.Result result = new DataMigrator().migrate(conn);
+            assertEquals(0, result.completed(), "A second run must not run any migration");
+            assertEquals(0, result.batches(), "A second run must not process any batch");
+        }
+    }
+
+    @Test
+    @Order(3)
+    void testInterruptedMigrationResumesFromLastBatch() throws Exception {
+        List<Long> seenKeys = new ArrayList<>();
+        boolean[] fail = {true};
+        DataMigrator.Migration migration = new DataMigrator.Migration() {
+            @Override
+            public String name() {
+                return "test_wznawianie";
+            }
+
+            @Override
+            public String description() {
+                return "Test wznawiania";
+            }
+
+            @Override
+            public DataMigrator.Batch migrateBatch(Connection conn, long afterKey,
+                                                   int batchSize) throws SQLException {
+                seenKeys.add(afterKey);
+                if (fail[0] && seenKeys.size() == 2) {
+                    throw new SQLException("Symulowana awaria");
+                }
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "SELECT Id FROM Pracownicy WHERE Id > ? ORDER BY Id LIMIT ?")) {
+                    ps.setLong(1, afterKey);
+                    ps.setInt(2, batchSize);
+                    long last = afterKey;
+                    long count = 0;
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            last = rs.getLong(1);
+                            count++;
+                        }
+                    }
+                    return new DataMigrator.Batch(last, count, 0);
+                }
+            }
+        };
+        DataMigrator migrator = new DataMigrator(List.of(migration), 1);
+
+        try (Connection conn = DriverManager.getConnection(TEST_URL, USER, PASS)) {
+            migrator.reset(conn);
+            try {
+                assertThrows(SQLException.class, () -> migrator.migrate(conn),
+                        "Failure inside a batch should be propagated");
+                assertFalse(migrator.isCompleted(conn, migration.name()),
+                        "Interrupted migration must not be marked completed");
+
+                long committedKey = seenKeys.get(0) == 0 && seenKeys.size() == 2
+                        ? seenKeys.get(1) : 0;
+                seenKeys.clear();
+                fail[0] = false;
+                DataMigrator.Result result = migrator.migrate(conn);
+
+                assertEquals(1, result.completed(), "Resumed migration should complete");
+                assertEquals(committedKey, seenKeys.get(0),
+                        "Migration should resume after the last committed batch");
+                assertTrue(migrator.isCompleted(conn, migration.name()),
+                        "Migration should be recorded as completed");
+            } finally {
+                migrator.reset(conn);
+            }
+        }
+    }
+}
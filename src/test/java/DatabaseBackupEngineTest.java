@@ -0,0 +1,79 @@
+/*
+ * Classname: DatabaseBackupEngineTest
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+
+import org.example.database.DatabaseBackupEngine;
+import org.example.database.SqlScriptReader;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class DatabaseBackupEngineTest {
+
+    @TempDir
+    static Path dir;
+
+    private static DatabaseBackupEngine.BackupResult result;
+
+    @Test
+    @Order(1)
+    void testBackupWritesChecksummedFile() throws Exception {
+        result = DatabaseBackupEngine.backup(dir);
+        assertTrue(Files.exists(result.file()), "Backup file should exist");
+        assertFalse(result.tables().isEmpty(), "Backup should contain tables");
+        assertEquals(Files.size(result.file()), result.bytes(), "Reported size should match file size");
+        assertTrue(DatabaseBackupEngine.verify(result.file()), "Checksum should match a fresh backup");
+        try (var files = Files.list(dir)) {
+            assertTrue(files.noneMatch(p -> p.toString().endsWith(".part")),
+                    "Temporary table parts should be removed");
+        }
+    }
+
+    @Test
+    @Order(2)
+    void testBackupIsReadableScript() throws Exception {
+        assertNotNull(result, "Backup should have been created");
+        long statements = 0;
+        boolean hasInsert = false;
+        try (SqlScriptReader reader = new SqlScriptReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(result.file())),
+                StandardCharsets.UTF_8))) {
+            String s;
+            while ((s = reader.nextStatement()) != null) {
+                statements++;
+                hasInsert |= s.startsWith("INSERT INTO");
+            }
+        }
+        assertTrue(statements >= result.tables().size() * 2L,
+                "Every table should be cleared or recreated and the footer present");
+        assertTrue(hasInsert, "Backup of a populated database should contain inserts");
+    }
+
+    @Test
+    @Order(3)
+    void testCorruptedFileFailsVerification() throws Exception {
+        assertNotNull(result, "Backup should have been created");
+        Files.write(result.file(), new byte[] {0}, StandardOpenOption.APPEND);
+        assertFalse(DatabaseBackupEngine.verify(result.file()),
+                "Modified file should fail checksum verification");
+    }
+}
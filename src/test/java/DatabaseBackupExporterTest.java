@@ -0,0 +1,85 @@
+/*
+ * Classname: DatabaseBackupExporterTest
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+
+import org.example.database.DatabaseBackupExporter;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class DatabaseBackupExporterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @Order(1)
+    void testPlainExportWritesOneFilePerTable() throws Exception {
+        List<DatabaseBackupExporter.TableProgress> finished =
+                Collections.synchronizedList(new ArrayList<>());
+        DatabaseBackupExporter.ExportResult result =
+                DatabaseBackupExporter.exportAllTablesToCsv(dir, false,
+                        new DatabaseBackupExporter.ProgressListener() {
+                            @Override
+                            public void progress(DatabaseBackupExporter.TableProgress p) {
+                                if (p.done()) {
+                                    finished.add(p);
+                                }
+                            }
+                        });
+
+        assertFalse(result.tables().isEmpty(), "Database should contain tables");
+        assertEquals(0, result.failedCount(), "No table export should fail");
+        assertEquals(result.tables().size(), finished.size(),
+                "Listener should be notified once per finished table");
+        for (DatabaseBackupExporter.TableProgress t : result.tables()) {
+            Path file = dir.resolve(t.table() + ".csv");
+            assertTrue(Files.exists(file), "CSV file should exist for " + t.table());
+            assertEquals(Files.size(file), t.bytes(), "Reported size should match file size");
+            try (var lines = Files.lines(file)) {
+                assertEquals(t.rows() + 1, lines.count(),
+                        "File should contain header and all rows of " + t.table());
+            }
+        }
+    }
+
+    @Test
+    @Order(2)
+    void testGzipExportIsReadable() throws Exception {
+        DatabaseBackupExporter.ExportResult result =
+                DatabaseBackupExporter.exportAllTablesToCsv(dir, true,
+                        new DatabaseBackupExporter.ProgressListener() { });
+        DatabaseBackupExporter.TableProgress first = result.tables().get(0);
+        Path file = dir.resolve(first.table() + ".csv.gz");
+        assertTrue(Files.exists(file), "Compressed CSV file should exist");
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String header = r.readLine();
+            assertNotNull(header, "Compressed file should start with a header");
+            assertEquals(first.rows(), r.lines().count(),
+                    "Compressed file should contain all rows");
+        }
+    }
+}
@@ -1,7 +1,7 @@
 /*
  * Classname: DatabaseInitializerTest
- * Version information: 1.2
- * Date: 2025-05-22
+ * Version information: 1.3
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -16,8 +16,10 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -51,4 +53,13 @@ class DatabaseInitializerTest {
         assertDoesNotThrow(DatabaseInitializer::initialize,
                 "Ponowne uruchomienie initialize() nie powinno rzucać wyjątków.");
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(3)
+    void testInitialize_notifiesWhenTablesAreReady() {
+        AtomicInteger calls = new AtomicInteger();
+        DatabaseInitializer.initializeStaged(calls::incrementAndGet);
+        assertEquals(1, calls.get(),
+                "Callback after table creation should run exactly once.");
+    }
+}
@@ -1,7 +1,7 @@
 /*
  * Classname: EmpTaskRepositoryTest
- * Version information: 1.2
- * Date: 2025-05-24
+ * Version information: 1.3
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -17,6 +17,7 @@ import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.AfterAll;
 
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Date;
 import java.util.List;
@@ -124,6 +125,27 @@ class EmpTaskRepositoryTest {
         assertTrue(remaining.stream().noneMatch(t -> t.getId() == zad2.getId()));
     }
 
+    @Test
+    @Order(4)
+    void testReportRowsAreRangeBounded() {
+        LocalDate from = LocalDate.of(2025, 5, 1);
+        LocalDate to   = LocalDate.of(2025, 5, 5);
+        List<EmpTaskRepository.TaskReportRow> rows = taskRepo.findReportRows(from, to);
+
+        assertTrue(rows.stream().allMatch(r -> !r.date().isBefore(from) && !r.date().isAfter(to)),
+                "All rows should fall within the requested range");
+        assertTrue(rows.stream().anyMatch(r -> r.taskId() == zad1.getId()), "Should contain zad1");
+        assertTrue(rows.stream().anyMatch(r -> r.taskId() == zad3.getId()), "Should contain zad3");
+        assertTrue(rows.stream().noneMatch(r -> r.taskId() == zad2.getId()), "Should not contain removed zad2");
+        assertEquals(rows.size(), rows.stream().mapToInt(EmpTaskRepository.TaskReportRow::taskId).distinct().count(),
+                "Each task should be returned once");
+
+        List<EmpTaskRepository.TaskReportRow> outside = taskRepo.findReportRows(
+                LocalDate.of(2025, 5, 2), LocalDate.of(2025, 5, 4));
+        assertTrue(outside.stream().noneMatch(r -> r.taskId() == zad1.getId() || r.taskId() == zad3.getId()),
+                "Tasks outside the range should not be returned");
+    }
+
     @AfterAll
     static void tearDown() {
         taskRepo.close();
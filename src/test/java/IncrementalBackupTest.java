@@ -0,0 +1,129 @@
+/*
+ * Classname: IncrementalBackupTest
+ * Version information: 1.1
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+
+import org.example.database.ConnectionPool;
+import org.example.database.DatabaseInitializer;
+import org.example.database.IncrementalBackup;
+import org.example.database.SqlScriptReader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class IncrementalBackupTest {
+
+    @TempDir
+    static Path dir;
+
+    @BeforeAll
+    static void setup() {
+        DatabaseInitializer.initialize();
+    }
+
+    @Test
+    @Order(1)
+    void testScriptReaderRespectsLiteralsAndComments() throws Exception {
+        String script = """
+                -- komentarz; ze średnikiem
+                INSERT INTO t VALUES ('a;b', 'it''s', 'c\\';d');
+                /* blok; komentarza */ SELECT 1;
+                ;
+                SELECT `x;y` FROM t""";
+        List<String> statements = new ArrayList<>();
+        try (SqlScriptReader reader = new SqlScriptReader(new StringReader(script))) {
+            String s;
+            while ((s = reader.nextStatement()) != null) {
+                statements.add(s);
+            }
+        }
+        assertEquals(3, statements.size(), "Semicolons in literals and comments should not split");
+        assertEquals("INSERT INTO t VALUES ('a;b', 'it''s', 'c\\';d')", statements.get(0),
+                "Literals should be kept intact");
+        assertEquals("SELECT 1", statements.get(1), "Block comment should be removed");
+        assertEquals("SELECT `x;y` FROM t", statements.get(2),
+                "Last statement without semicolon should be returned");
+    }
+
+    @Test
+    @Order(2)
+    void testFirstBackupIsFull() throws Exception {
+        IncrementalBackup.BackupResult result = IncrementalBackup.backup(dir, false);
+        assertTrue(result.full(), "First backup should be a full snapshot");
+        assertTrue(result.rows() > 0, "Full snapshot should contain rows");
+        assertEquals(Files.size(result.file()), result.bytes(), "Reported size should match file size");
+        assertTrue(readAll(result.file()).contains("DELETE FROM"),
+                "Full snapshot should clear tables before inserting");
+    }
+
+    @Test
+    @Order(3)
+    void testNextBackupIsDelta() throws Exception {
+        IncrementalBackup.BackupResult result = IncrementalBackup.backup(dir, false);
+        assertFalse(result.full(), "Second backup should be a delta");
+        String content = readAll(result.file());
+        assertFalse(content.contains("DELETE FROM"), "Delta should not clear tables");
+        assertTrue(content.contains("FOREIGN_KEY_CHECKS=1"),
+                "Delta should restore foreign key checks at the end");
+        try (var files = Files.list(dir)) {
+            assertEquals(2, files.filter(p -> p.toString().endsWith(".sql.gz")).count(),
+                    "Full snapshot and delta should both be kept");
+        }
+    }
+
+    @Test
+    @Order(4)
+    void testDeltaCarriesUpdatesOfOldRows() throws Exception {
+        int id;
+        try (Connection conn = ConnectionPool.getDataSource().getConnection();
+             Statement st = conn.createStatement()) {
+            try (ResultSet rs = st.executeQuery("SELECT MIN(Id) FROM Zamowienia")) {
+                assertTrue(rs.next() && rs.getInt(1) > 0, "Test data should contain orders");
+                id = rs.getInt(1);
+            }
+            IncrementalBackup.backup(dir, false);
+            st.executeUpdate("UPDATE Zamowienia SET Ilosc = Ilosc + 1 WHERE Id = " + id);
+            st.executeUpdate("UPDATE Zamowienia SET Ilosc = Ilosc - 1 WHERE Id = " + id);
+        }
+        IncrementalBackup.BackupResult result = IncrementalBackup.backup(dir, false);
+        assertFalse(result.full(), "Backup after an update should be a delta");
+        String content = readAll(result.file());
+        String orders = content.substring(content.indexOf("Tabela Zamowienia"));
+        assertTrue(orders.contains("Zmodyfikowano"),
+                "Orders should be tracked by the modification column");
+        assertTrue(orders.contains("\n(" + id + ","),
+                "Delta should contain the updated old order");
+    }
+
+    private static String readAll(Path file) throws Exception {
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return r.lines().collect(Collectors.joining("\n"));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Classname: ProductCatalogCacheTest
+ * Version information: 1.1
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+
+import org.example.database.ProductCatalogCache;
+import org.example.sys.Product;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProductCatalogCacheTest {
+
+    private static Product product(int id) {
+        Product p = new Product("Produkt " + id, "Test", 1.00);
+        p.setId(id);
+        return p;
+    }
+
+    @Test
+    void testCatalogLoadedOnceUntilInvalidated() {
+        ProductCatalogCache cache = new ProductCatalogCache(60_000, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        List<Product> first = cache.getAll(() -> {
+            loads.incrementAndGet();
+            return List.of(product(1), product(2));
+        });
+        List<Product> second = cache.getAll(() -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        assertEquals(1, loads.get(), "Second read should be served from cache");
+        assertEquals(first.size(), second.size(), "Cached catalog should keep all products");
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        cache.invalidate(1);
+        cache.getAll(() -> {
+            loads.incrementAndGet();
+            return List.of(product(2));
+        });
+        assertEquals(2, loads.get(), "Invalidation should force a reload");
+    }
+
+    @Test
+    void testCallersGetCopies() {
+        ProductCatalogCache cache = new ProductCatalogCache(60_000, 10);
+        Product first = cache.getAll(() -> List.of(product(1))).get(0);
+        first.setName("Zmieniona nazwa");
+        Product fromList = cache.getAll(List::of).get(0);
+        assertNotSame(first, fromList, "Every read should return new copies");
+        assertEquals("Produkt 1", fromList.getName(), "Changes to a returned product should not leak into the catalog");
+
+        Product single = cache.get(2, ProductCatalogCacheTest::product);
+        single.setPrice(BigDecimal.TEN);
+        assertEquals(0, cache.get(2, id -> null).getPrice().compareTo(BigDecimal.ONE),
+                "Changes to a returned product should not leak into the cache");
+    }
+
+    @Test
+    void testLeastRecentlyUsedProductEvicted() {
+        ProductCatalogCache cache = new ProductCatalogCache(60_000, 2);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, id -> { loads.incrementAndGet(); return product(id); });
+        cache.get(2, id -> { loads.incrementAndGet(); return product(id); });
+        cache.get(1, id -> { loads.incrementAndGet(); return product(id); });
+        cache.get(3, id -> { loads.incrementAndGet(); return product(id); });
+
+        assertEquals(1, cache.getEvictions(), "Product 2 should be evicted");
+        assertEquals(2, cache.getSize());
+
+        cache.get(1, id -> { loads.incrementAndGet(); return product(id); });
+        assertEquals(3, loads.get(), "Recently used product 1 should stay cached");
+        cache.get(2, id -> { loads.incrementAndGet(); return product(id); });
+        assertEquals(4, loads.get(), "Evicted product 2 should be reloaded");
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() throws InterruptedException {
+        ProductCatalogCache cache = new ProductCatalogCache(1, 10);
+        cache.get(7, ProductCatalogCacheTest::product);
+        Thread.sleep(5);
+        cache.get(7, ProductCatalogCacheTest::product);
+
+        assertEquals(1, cache.getExpirations());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void testMissingProductNotCached() {
+        ProductCatalogCache cache = new ProductCatalogCache(60_000, 10);
+        assertNull(cache.get(42, id -> null));
+        assertEquals(0, cache.getSize());
+    }
+}
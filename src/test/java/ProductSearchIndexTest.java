@@ -0,0 +1,86 @@
+/*
+ * Classname: ProductSearchIndexTest
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+
+import org.example.database.ProductSearchIndex;
+import org.example.sys.Product;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTest {
+
+    private static Product product(int id, String name, String category) {
+        Product p = new Product(name, category, 1.00);
+        p.setId(id);
+        return p;
+    }
+
+    private static final List<Product> CATALOG = List.of(
+            product(1, "Mleko 2%", "Nabiał"),
+            product(2, "Czekolada mleczna", "Słodycze"),
+            product(3, "Masło extra", "Nabiał"),
+            product(4, "Mleko", "Nabiał"),
+            product(5, "Chleb żytni", "Pieczywo"));
+
+    @Test
+    void testResultsRankedByRelevance() {
+        ProductSearchIndex index = new ProductSearchIndex(CATALOG);
+        List<Product> found = index.search("mleko", 10);
+
+        assertEquals(List.of(4, 1), found.stream().map(Product::getId).toList(),
+                "Exact name first, then name prefix");
+        assertEquals(2, index.search("mlecz", 10).get(0).getId());
+    }
+
+    @Test
+    void testCategoryAndDiacriticsMatched() {
+        ProductSearchIndex index = new ProductSearchIndex(CATALOG);
+
+        assertEquals(3, index.search("nabial", 10).size(),
+                "Category should match without Polish characters");
+        assertEquals(3, index.search("MASŁO", 10).get(0).getId());
+        assertTrue(index.searchByName("nabiał", 10).isEmpty(),
+                "Name-only search must ignore categories");
+    }
+
+    @Test
+    void testShortQueryMatchesWordPrefixes() {
+        ProductSearchIndex index = new ProductSearchIndex(CATALOG);
+        List<Integer> ids = index.search("ż", 10).stream()
+                .map(Product::getId).toList();
+
+        assertEquals(List.of(5), ids);
+        assertEquals(CATALOG.size(), index.search(" ", 10).size(),
+                "Blank query should return the catalog");
+    }
+
+    @Test
+    void testLargeCatalogSearchIsFast() {
+        List<Product> big = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            big.add(product(i, "Produkt " + i + " wariant " + (i % 97),
+                    "Kategoria " + (i % 50)));
+        }
+        ProductSearchIndex index = new ProductSearchIndex(big);
+        index.search("99999", 10);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            index.search("98765", 50);
+        }
+        double avgMillis = (System.nanoTime() - start) / 100 / 1_000_000.0;
+
+        assertEquals(98765, index.search("98765", 50).get(0).getId());
+        assertTrue(avgMillis < 5.0, "Indexed search took " + avgMillis + " ms");
+    }
+}
@@ -1,12 +1,14 @@
 /*
  * Classname: ReportRepositoryTest
- * Version information: 1.2
- * Date: 2025-05-24
+ * Version information: 1.3
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
 
+import org.example.database.Page;
 import org.example.database.ReportRepository;
+import org.example.database.ReportRepository.ReportSummary;
 import org.example.database.UserRepository;
 
 import org.example.sys.Employee;
@@ -126,6 +128,25 @@ class ReportRepositoryTest {
 
     @Test
     @Order(4)
+    void shouldPageReportsOfEmployeeNewestFirst() {
+        Page<ReportSummary> first = raportRepo.findPageForEmployee(employee.getId(), null, 1);
+        assertEquals(1, first.getItems().size(), "First page should hold one report");
+        assertEquals(r2.getId(), first.getItems().get(0).id(), "Newest report should come first");
+        assertTrue(first.hasNext(), "Older report should be on the next page");
+
+        Page<ReportSummary> second = raportRepo.findPageForEmployee(
+                employee.getId(), first.getNextCursor(), 1);
+        assertEquals(r1.getId(), second.getItems().get(0).id(), "Second page should continue after cursor");
+
+        ReportSummary row = second.getItems().get(0);
+        assertEquals(employee.getId(), row.employeeId(), "Row should belong to the employee");
+        assertEquals(employee.getName() + " " + employee.getSurname(), row.employeeName(),
+                "Row should carry the author's name");
+        assertEquals(r1.getStartDate(), row.startDate(), "Row should carry the start date");
+    }
+
+    @Test
+    @Order(5)
     void shouldRemoveReportSuccessfully() {
         // delete r2
         assertDoesNotThrow(() -> raportRepo.removeReport(r2.getId()));
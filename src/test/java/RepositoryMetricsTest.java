@@ -0,0 +1,76 @@
+/*
+ * Classname: RepositoryMetricsTest
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+
+import org.example.database.RepositoryMetrics;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class RepositoryMetricsTest {
+
+    private static final String METHOD = "RepositoryMetricsTest.latency";
+
+    private final RepositoryMetrics metrics = RepositoryMetrics.getInstance();
+
+    private RepositoryMetrics.MethodStats stats() {
+        return metrics.snapshot().stream()
+                .filter(s -> s.method().equals(METHOD))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    @Order(1)
+    void testPercentiles() {
+        metrics.reset();
+        for (int ms = 1; ms <= 100; ms++) {
+            metrics.recordQuery(METHOD, TimeUnit.MILLISECONDS.toNanos(ms),
+                    10, false, "SELECT 1");
+        }
+        RepositoryMetrics.MethodStats s = stats();
+        assertEquals(100, s.queries(), "All queries should be counted");
+        assertEquals(1000, s.rows(), "Row counts should be summed");
+        assertEquals(10.0, s.rowsPerQuery(), 1e-9, "Rows per query should be averaged");
+        // Kubełki histogramu mają szerokość ok. 19%
+        assertTrue(s.p50Millis() >= 50 && s.p50Millis() <= 50 * 1.2,
+                "p50 should be close to 50 ms, was " + s.p50Millis());
+        assertTrue(s.p95Millis() >= 95 && s.p95Millis() <= 100,
+                "p95 should be close to 95 ms, was " + s.p95Millis());
+        assertTrue(s.p99Millis() <= s.maxMillis(), "p99 must not exceed max");
+        assertEquals(100.0, s.maxMillis(), 1e-6, "Max should be exact");
+    }
+
+    @Test
+    @Order(2)
+    void testSlowQueryAndErrors() {
+        long slow = metrics.getSlowQueryThresholdMillis() + 1;
+        metrics.recordQuery(METHOD, TimeUnit.MILLISECONDS.toNanos(slow),
+                -1, true, "SELECT   *\n FROM Produkty");
+        RepositoryMetrics.SlowQuery last = metrics.getRecentSlowQueries().get(0);
+        assertEquals(METHOD, last.method(), "Slow query should be attributed to its method");
+        assertEquals("SELECT * FROM Produkty", last.statement(),
+                "Statement should be collapsed to one line");
+        assertEquals(1, stats().errors(), "Failed query should be counted as error");
+    }
+
+    @Test
+    @Order(3)
+    void testReset() {
+        metrics.recordEntityManager(METHOD, TimeUnit.MILLISECONDS.toNanos(3));
+        metrics.reset();
+        assertTrue(metrics.snapshot().isEmpty(), "Reset should clear all methods");
+        assertTrue(metrics.getRecentSlowQueries().isEmpty(), "Reset should clear slow queries");
+    }
+}
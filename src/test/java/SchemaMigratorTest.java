@@ -0,0 +1,69 @@
+/*
+ * Classname: SchemaMigratorTest
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+
+import org.example.database.DatabaseInitializer;
+import org.example.database.SchemaHealthCheck;
+import org.example.database.SchemaMigrator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SchemaMigratorTest {
+
+    private static final String TEST_URL = "jdbc:mysql://localhost:3306/StonkaDB?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+    private static final String USER = "root";
+    private static final String PASS = "";
+
+    private static SchemaMigrator migrator;
+
+    @BeforeAll
+    static void setup() {
+        DatabaseInitializer.initialize();
+        migrator = new SchemaMigrator();
+    }
+
+    @Test
+    @Order(1)
+    void testSchemaIsAtLatestVersion() throws Exception {
+        try (Connection conn = DriverManager.getConnection(TEST_URL, USER, PASS)) {
+            assertEquals(migrator.getLatestVersion(), migrator.getCurrentVersion(conn),
+                    "initialize() should bring the schema to the latest version");
+        }
+    }
+
+    @Test
+    @Order(2)
+    void testMigrateIsIdempotent() throws Exception {
+        try (Connection conn = DriverManager.getConnection(TEST_URL, USER, PASS)) {
+            assertEquals(0, migrator.migrate(conn),
+                    "A second run must not apply any migration");
+        }
+    }
+
+    @Test
+    @Order(3)
+    void testNoMissingIndexes() throws Exception {
+        assertFalse(migrator.getExpectedIndexes().isEmpty(), "Migrations should declare indexes");
+        try (Connection conn = DriverManager.getConnection(TEST_URL, USER, PASS)) {
+            SchemaHealthCheck.Report report =
+                    SchemaHealthCheck.run(conn, migrator.getExpectedIndexes());
+            assertTrue(report.missingIndexes().isEmpty(),
+                    "All expected indexes should exist: " + report.missingIndexes());
+        }
+    }
+}
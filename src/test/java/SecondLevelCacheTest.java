@@ -0,0 +1,91 @@
+/*
+ * Classname: SecondLevelCacheTest
+ * Version information: 1.0
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+
+import org.example.database.AddressRepository;
+import org.example.database.EMFProvider;
+import org.example.database.SecondLevelCache;
+import org.example.sys.Address;
+import org.example.sys.Warehouse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SecondLevelCacheTest {
+
+    private static AddressRepository repo;
+    private static Address address;
+
+    @BeforeAll
+    static void setup() {
+        repo = new AddressRepository();
+        address = new Address();
+        address.setTown("Cacheowo");
+        address.setCity("Miastko");
+        address.setZipCode("11-111");
+        address.setHouseNumber("1");
+        address.setApartmentNumber("2");
+        repo.addAddress(address);
+        assertTrue(address.getId() > 0, "Address should be persisted");
+        EMFProvider.get().getCache().evictAll();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        repo.removeAddress(address.getId());
+        repo.close();
+    }
+
+    private static SecondLevelCache.RegionStats region(String name) {
+        return SecondLevelCache.getStatistics().stream()
+                .filter(r -> r.region().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    @Order(1)
+    void testEntityIsServedFromCache() {
+        long hitsBefore = region(SecondLevelCache.ADDRESS_REGION).hits();
+        assertNotNull(repo.findAddressById(address.getId()), "First find should load the address");
+        assertNotNull(repo.findAddressById(address.getId()), "Second find should return the address");
+        assertTrue(region(SecondLevelCache.ADDRESS_REGION).hits() > hitsBefore,
+                "Second find should be a cache hit");
+        assertTrue(EMFProvider.get().getCache().contains(Address.class, address.getId()),
+                "Address should be stored in the cache");
+    }
+
+    @Test
+    @Order(2)
+    void testAddressListUsesQueryCache() {
+        List<Address> first = repo.getAllAddresses();
+        long hitsBefore = region(SecondLevelCache.ADDRESS_QUERY_REGION).hits();
+        List<Address> second = repo.getAllAddresses();
+        assertFalse(second.isEmpty(), "Address list should not be empty");
+        assertTrue(second.size() == first.size(), "Cached list should match the first read");
+        assertTrue(region(SecondLevelCache.ADDRESS_QUERY_REGION).hits() > hitsBefore,
+                "Second list read should hit the query cache");
+    }
+
+    @Test
+    @Order(3)
+    void testEvictStock() {
+        SecondLevelCache.evictStock(List.of(1, 2));
+        assertFalse(EMFProvider.get().getCache().contains(Warehouse.class, 1),
+                "Evicted stock should not stay in the cache");
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Classname: TaskEmployeeRepositoryTest
+ * Version information: 1.2
+ * Date: 2026-10-17
+ * Copyright notice: © BŁĘKITNI
+ */
+
+
+import org.example.database.EmpTaskRepository;
+import org.example.database.TaskEmployeeRepository;
+import org.example.database.UserRepository;
+import org.example.sys.EmpTask;
+import org.example.sys.Employee;
+import org.example.sys.TaskEmployee;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class TaskEmployeeRepositoryTest {
+
+    private static EmpTaskRepository taskRepo;
+    private static TaskEmployeeRepository teRepo;
+    private static Employee employee;
+    private static EmpTask openTask;
+    private static EmpTask doneTask;
+
+    @BeforeAll
+    static void setup() {
+        taskRepo = new EmpTaskRepository();
+        teRepo   = new TaskEmployeeRepository();
+        List<Employee> employees = new UserRepository().getAllEmployees();
+        assertFalse(employees.isEmpty(), "Database should contain employees");
+        employee = employees.get(0);
+
+        openTask = new EmpTask("Test otwarte", new Date(), "Nowe", "Zadanie otwarte.", LocalTime.of(1, 0));
+        doneTask = new EmpTask("Test zakończone", new Date(), "Zakończone", "Zadanie zakończone.", LocalTime.of(1, 0));
+        taskRepo.addTask(openTask);
+        taskRepo.addTask(doneTask);
+        teRepo.add(new TaskEmployee(openTask, employee));
+        teRepo.add(new TaskEmployee(doneTask, employee));
+    }
+
+    @Test
+    @Order(1)
+    void testOpenTasksExcludeCompleted() {
+        List<EmpTask> open = teRepo.findOpenTasksForEmployee(employee.getId());
+        assertTrue(open.stream().anyMatch(t -> t.getId() == openTask.getId()),
+                "Open task should be returned");
+        assertTrue(open.stream().noneMatch(t -> t.getId() == doneTask.getId()),
+                "Completed task should not be returned");
+        assertTrue(open.stream().noneMatch(t -> "Zakończone".equalsIgnoreCase(t.getStatus())),
+                "No completed task should be returned");
+    }
+
+    @Test
+    @Order(2)
+    void testReturnedTasksAreCopies() {
+        EmpTask first = teRepo.findOpenTasksForEmployee(employee.getId()).stream()
+                .filter(t -> t.getId() == openTask.getId()).findFirst().orElseThrow();
+        String status = first.getStatus();
+        first.setStatus("Zakończone");
+
+        EmpTask second = teRepo.findOpenTasksForEmployee(employee.getId()).stream()
+                .filter(t -> t.getId() == openTask.getId()).findFirst().orElseThrow();
+        assertNotSame(first, second, "Cache should hand out a new copy on every call");
+        assertEquals(status, second.getStatus(), "Changes to a returned task should not leak into the cache");
+    }
+
+    @Test
+    @Order(3)
+    void testStatusUpdateInvalidatesCache() {
+        int before = teRepo.findOpenTasksForEmployee(employee.getId()).size();
+        teRepo.updateTaskStatus(openTask.getId(), "Zakończone");
+
+        List<EmpTask> after = teRepo.findOpenTasksForEmployee(employee.getId());
+        assertEquals(before - 1, after.size(), "Completed task should disappear from the cached list");
+        assertTrue(after.stream().noneMatch(t -> t.getId() == openTask.getId()),
+                "Task completed via updateTaskStatus should not be returned");
+    }
+
+    @Test
+    @Order(4)
+    void testTaskUpdateInvalidatesCache() {
+        teRepo.findOpenTasksForEmployee(employee.getId());
+        EmpTask reopened = taskRepo.findTaskById(doneTask.getId());
+        reopened.setStatus("W trakcie");
+        taskRepo.updateTask(reopened);
+
+        assertTrue(teRepo.findOpenTasksForEmployee(employee.getId()).stream()
+                        .anyMatch(t -> t.getId() == doneTask.getId()),
+                "Task reopened via updateTask should be returned");
+    }
+
+    @Test
+    @Order(5)
+    void testCloseShiftCompletesTodaysTasks() {
+        TaskEmployeeRepository.ShiftCloseResult result =
+                teRepo.closeShift(employee.getId(), LocalDate.now());
+        assertTrue(result.assignments() >= 2, "Both test assignments should be closed");
+        assertTrue(result.tasks() >= 1, "Reopened task should be completed");
+
+        List<TaskEmployee> todays = teRepo.findEmployeeTasksForDate(employee.getId(), LocalDate.now());
+        for (TaskEmployee te : todays) {
+            assertNotNull(te.getEndTime(), "Closed assignment should have an end time");
+            assertEquals("Zakończone", te.getTask().getStatus(), "Task should be completed");
+        }
+        assertTrue(teRepo.findOpenTasksForEmployee(employee.getId()).stream()
+                        .noneMatch(t -> t.getId() == doneTask.getId()),
+                "Tasks closed with the shift should not be returned as open");
+
+        assertEquals(0, teRepo.closeShift(employee.getId(), LocalDate.now()).assignments(),
+                "Second close of the same shift should not change anything");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        teRepo.remove(new TaskEmployee(openTask, employee));
+        teRepo.remove(new TaskEmployee(doneTask, employee));
+        taskRepo.removeTask(taskRepo.findTaskById(openTask.getId()));
+        taskRepo.removeTask(taskRepo.findTaskById(doneTask.getId()));
+        teRepo.close();
+        taskRepo.close();
+    }
+}
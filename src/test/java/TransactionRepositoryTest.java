@@ -1,14 +1,18 @@
 /*
  * Classname: TransactionRepositoryTest
- * Version information: 1.4
- * Date: 2025-05-24
+ * Version information: 1.8
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
 
+import org.example.database.Page;
+import org.example.database.ProductRepository;
+import org.example.database.SalesRollupRepository;
 import org.example.database.TransactionRepository;
 import org.example.database.UserRepository;
 import org.example.sys.Employee;
+import org.example.sys.Product;
 import org.example.sys.Transaction;
 
 import org.junit.jupiter.api.Test;
@@ -18,7 +22,11 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.AfterAll;
 
+import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -118,6 +126,88 @@ class TransactionRepositoryTest {
 
     @Test
     @Order(4)
+    void testCountAndStreamSales() {
+        assertTrue(transactionRepo.countTransactionsBetweenDates(fromDate, toDate) >= 2,
+                "Both transactions should be counted in the range");
+
+        List<Integer> chunkSizes = new ArrayList<>();
+        TransactionRepository.StreamStats stats = transactionRepo.streamSalesRecords(
+                fromDate, toDate, List.of(), 2, chunk -> chunkSizes.add(chunk.size()));
+        assertEquals(stats.getRows(), chunkSizes.stream().mapToLong(Integer::longValue).sum(),
+                "Every streamed row should reach the consumer");
+        assertTrue(chunkSizes.stream().allMatch(size -> size <= 2),
+                "Chunks must not exceed the requested size");
+    }
+
+    @Test
+    @Order(5)
+    void testFindPage() {
+        Page<Transaction> first = transactionRepo.findPage(null, 1, Page.Sort.DESC);
+        assertEquals(1, first.getItems().size(), "First page should hold exactly one row");
+        assertTrue(first.hasNext(), "There should be a page after the first one");
+
+        Page<Transaction> second = transactionRepo.findPage(first.getNextCursor(), 1, Page.Sort.DESC);
+        assertEquals(1, second.getItems().size(), "Second page should hold exactly one row");
+        assertTrue(second.getItems().get(0).getId() < first.getItems().get(0).getId(),
+                "Descending pages must continue below the cursor");
+
+        List<Integer> ids = new ArrayList<>();
+        Long cursor = null;
+        do {
+            Page<Transaction> page = transactionRepo.findPage(cursor, 50, Page.Sort.ASC);
+            page.getItems().forEach(t -> ids.add(t.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertTrue(ids.contains(tx1.getId()) && ids.contains(tx2.getId()),
+                "Walking all pages should reach both transactions");
+        assertEquals(ids.size(), ids.stream().distinct().count(), "Pages must not overlap");
+    }
+
+    @Test
+    @Order(6)
+    void testWritesKeepDailyRollupInSync() {
+        List<Product> products = new ProductRepository().getAllProducts();
+        assertFalse(products.isEmpty(), "At least one product must exist");
+        Product product = products.get(0);
+        LocalDate day = toDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        SalesRollupRepository rollups = new SalesRollupRepository();
+        int before = rollups.getSoldQuantity(product.getId(), day);
+
+        transactionRepo.addProductToTransaction(tx2, product, 4);
+        assertEquals(before + 4, rollups.getSoldQuantity(product.getId(), day),
+                "Added line should be counted in the daily rollup");
+
+        transactionRepo.addProductToTransaction(tx2, product, 6);
+        assertEquals(before + 6, rollups.getSoldQuantity(product.getId(), day),
+                "Changed quantity should replace the previous one in the rollup");
+
+        double revenue = revenueOf(rollups, product, day);
+        ProductRepository productRepo = new ProductRepository();
+        BigDecimal price = product.getPrice();
+        try {
+            productRepo.updateProductPrice(product.getId(), price.add(BigDecimal.TEN));
+            transactionRepo.addProductToTransaction(tx2, product, 5);
+            assertEquals(revenue - price.doubleValue(), revenueOf(rollups, product, day), 0.01,
+                    "Removing a unit should subtract its sale price, not the new price");
+        } finally {
+            productRepo.updateProductPrice(product.getId(), price);
+        }
+
+        transactionRepo.removeTransactions(tx2.getId());
+        assertEquals(before, rollups.getSoldQuantity(product.getId(), day),
+                "Removed transaction should disappear from the rollup");
+    }
+
+    private static double revenueOf(SalesRollupRepository rollups, Product product,
+                                    LocalDate day) {
+        return rollups.getSalesRollup(day, day, List.of()).rows().stream()
+                .filter(r -> r.productName().equals(product.getName()))
+                .mapToDouble(r -> r.value())
+                .sum();
+    }
+
+    @Test
+    @Order(7)
     void testDelete() {
         assertDoesNotThrow(() -> transactionRepo.removeTransactions(tx1.getId()),
                 "Should delete tx1 without exception");
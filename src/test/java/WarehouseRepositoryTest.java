@@ -1,12 +1,13 @@
 /*
  * Classname: WarehouseRepositoryTest
- * Version information: 1.3
- * Date: 2025-05-24
+ * Version information: 1.5
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
 
 import org.example.database.ProductRepository;
+import org.example.database.StockSnapshot;
 import org.example.database.WarehouseRepository;
 import org.example.sys.Product;
 import org.example.sys.Warehouse;
@@ -18,9 +19,17 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.AfterAll;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -103,6 +112,53 @@ class WarehouseRepositoryTest {
 
     @Test
     @Order(4)
+    void testConcurrentDecreaseNeverOversells() throws Exception {
+        // stock is 100 after testFindAllAndUpdate
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        AtomicInteger sold = new AtomicInteger();
+        List<Callable<Void>> tills = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            tills.add(() -> {
+                for (int i = 0; i < 20; i++) {
+                    if (warehouseRepo.decreaseQuantity(testProduct.getId(), 1)) {
+                        sold.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        for (Future<Void> f : pool.invokeAll(tills)) {
+            f.get();
+        }
+        pool.shutdown();
+
+        assertEquals(100, sold.get(), "Exactly the available stock should be sold");
+        assertEquals(0, warehouseRepo.findStateByProductId(testProduct.getId()).getQuantity(),
+                "Stock must never go below zero");
+        assertFalse(warehouseRepo.decreaseQuantity(testProduct.getId(), 1),
+                "Decrease on empty stock should be rejected");
+        assertTrue(WarehouseRepository.getRejectedDecrementCount() > 0);
+
+        assertTrue(warehouseRepo.increaseQuantity(testProduct.getId(), 5));
+        assertEquals(5, warehouseRepo.findStateByProductId(testProduct.getId()).getQuantity());
+    }
+
+    @Test
+    @Order(5)
+    void testBulkQuantitiesAndSnapshot() {
+        Map<Integer, Integer> qty = warehouseRepo.getQuantitiesByProductIds(
+                List.of(testProduct.getId(), -1));
+        assertEquals(1, qty.size(), "Only existing stock rows should be returned");
+        assertEquals(5, qty.get(testProduct.getId()));
+
+        StockSnapshot stock = warehouseRepo.snapshot(List.of(testProduct.getId()));
+        assertEquals(5, stock.getQuantity(testProduct.getId()));
+        assertEquals(0, stock.getQuantity(-1), "Missing stock should read as 0");
+        assertTrue(warehouseRepo.getQuantitiesByProductIds(List.of()).isEmpty());
+    }
+
+    @Test
+    @Order(6)
     void testDelete() {
         assertDoesNotThrow(() -> warehouseRepo.removeState(testProduct.getId()),
                 "Should delete warehouse record without exception");
@@ -1,7 +1,7 @@
 /*
  * Classname: WorkloadRepositoryTest
- * Version information: 1.3
- * Date: 2025-05-24
+ * Version information: 1.4
+ * Date: 2026-10-17
  * Copyright notice: © BŁĘKITNI
  */
 
@@ -18,8 +18,11 @@ import pdf.WorkloadReportGenerator.EmployeeWorkload;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -81,6 +84,43 @@ class WorkloadRepositoryTest {
                 () -> "Suma godzin wydaje się podejrzanie duża: " + total);
     }
 
+    @Test @Order(4)
+    void breakdownsMatchEmployeeTotals() {
+        double total = result.stream()
+                .mapToDouble(EmployeeWorkload::totalHours)
+                .sum();
+        Map<String, Double> byPosition = repo.getHoursByPosition(startDate, endDate);
+        SortedMap<LocalDate, Double> byDay = repo.getHoursByDay(startDate, endDate);
+
+        assertEquals(30, byDay.size(), "Every day of April should be present");
+        assertEquals(total, byPosition.values().stream().mapToDouble(Double::doubleValue).sum(), 0.1,
+                "Per-position hours should add up to the employee totals");
+        assertEquals(total, byDay.values().stream().mapToDouble(Double::doubleValue).sum(), 0.1,
+                "Per-day hours should add up to the employee totals");
+    }
+
+    @Test @Order(5)
+    void movingAverageCoversEveryDay() {
+        SortedMap<LocalDate, Double> avg = repo.getMovingAverage(startDate, endDate, 7);
+        assertEquals(30, avg.size(), "Moving average should have a value for every day");
+        assertEquals(startDate, avg.firstKey(), "Moving average should start at the first day");
+        assertTrue(avg.values().stream().allMatch(v -> v >= 0), "Averages should be non-negative");
+    }
+
+    @Test @Order(6)
+    void closedMonthsAreServedFromCache() {
+        WorkloadRepository.invalidateAll();
+        assertEquals(0, WorkloadRepository.getCachedMonths(), "Cache should be empty after invalidation");
+
+        List<EmployeeWorkload> first = repo.getWorkloadData(startDate, endDate);
+        assertEquals(1, WorkloadRepository.getCachedMonths(), "Closed month should be cached");
+
+        long hits = WorkloadRepository.getCacheHits();
+        List<EmployeeWorkload> second = repo.getWorkloadData(startDate, endDate);
+        assertEquals(hits + 1, WorkloadRepository.getCacheHits(), "Second call should hit the cache");
+        assertEquals(first, second, "Cached result should equal the queried one");
+    }
+
     @AfterAll
     static void tearDown() {
         repo.close();